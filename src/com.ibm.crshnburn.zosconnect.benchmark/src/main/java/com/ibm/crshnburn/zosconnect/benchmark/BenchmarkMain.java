@@ -0,0 +1,51 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.benchmark;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * The BenchmarkMain class runs the benchmarks with the JMH command line options, adding the GC profiler so that
+ * the bytes allocated by each operation are reported unless other profilers are requested.
+ *
+ * @author IBM
+ */
+public final class BenchmarkMain {
+
+    private BenchmarkMain() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions options = new CommandLineOptions(args);
+        if (options.shouldHelp() || options.shouldList() || options.shouldListWithParams()
+                || options.shouldListProfilers() || options.shouldListResultFormats()) {
+            Main.main(args);
+            return;
+        }
+
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(options);
+        if (options.getProfilers().isEmpty()) {
+            builder.addProfiler(GCProfiler.class);
+        }
+        new Runner(builder.build()).run();
+    }
+}
@@ -0,0 +1,145 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.benchmark;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+import org.osgi.framework.BundleContext;
+import org.osgi.service.component.ComponentContext;
+
+import com.ibm.crshnburn.zosconnect.interceptor.Activator;
+
+/**
+ * The BundleHarness class starts and stops the Interceptor bundle and activates Interceptors the way the OSGi
+ * runtime does, so that they can be driven outside Liberty.
+ *
+ * The bundle properties are read from the Java system properties, so the Interceptor log can be configured with
+ * -D options.  Unless a log file is given, the log is written to sampleInterceptor.log in the temporary
+ * directory, as it would be in the server logs directory.
+ *
+ * @author IBM
+ */
+public final class BundleHarness {
+
+    /**
+     * The Liberty property the Interceptor log directory is taken from.
+     */
+    private static final String LOG_DIRECTORY_PROPERTY = "com.ibm.ws.logging.log.directory";
+
+    private static final Activator ACTIVATOR = new Activator();
+
+    private static int starts;
+
+    private BundleHarness() {
+    }
+
+    /**
+     * Starts the bundle, unless it is already started.
+     *
+     * @throws Exception
+     */
+    public static synchronized void start() throws Exception {
+        if (starts++ == 0) {
+            ACTIVATOR.start(bundleContext());
+        }
+    }
+
+    /**
+     * Stops the bundle once every start has been matched by a stop.
+     *
+     * @throws Exception
+     */
+    public static synchronized void stop() throws Exception {
+        if (starts > 0 && --starts == 0) {
+            ACTIVATOR.stop(bundleContext());
+        }
+    }
+
+    /**
+     * Calls an Interceptor's activate method with its configuration properties, as the OSGi runtime does.
+     * The Interceptors are not given a ComponentContext.
+     *
+     * @param interceptor
+     * @param properties
+     *
+     * @throws Exception if the activate method fails
+     */
+    public static void activate(Object interceptor, Map<String, Object> properties) throws Exception {
+        invoke(interceptor, "activate", new Class<?>[] { ComponentContext.class, Map.class }, null, properties);
+    }
+
+    /**
+     * Calls an Interceptor's modified method with its new configuration properties.
+     *
+     * @param interceptor
+     * @param properties
+     *
+     * @throws Exception if the modified method fails
+     */
+    public static void modified(Object interceptor, Map<String, Object> properties) throws Exception {
+        invoke(interceptor, "modified", new Class<?>[] { Map.class }, properties);
+    }
+
+    /**
+     * Calls an Interceptor's deactivate method.
+     *
+     * @param interceptor
+     *
+     * @throws Exception if the deactivate method fails
+     */
+    public static void deactivate(Object interceptor) throws Exception {
+        invoke(interceptor, "deactivate", new Class<?>[] { ComponentContext.class }, (Object) null);
+    }
+
+    private static void invoke(Object target, String name, Class<?>[] types, Object... args) throws Exception {
+        Method method = target.getClass().getDeclaredMethod(name, types);
+        method.setAccessible(true);
+        try {
+            method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+
+    /**
+     * Returns a BundleContext that only answers getProperty, from the system properties.
+     */
+    private static BundleContext bundleContext() {
+        return (BundleContext) Proxy.newProxyInstance(BundleHarness.class.getClassLoader(),
+                new Class<?>[] { BundleContext.class }, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                    case "getProperty":
+                        String name = (String) args[0];
+                        return LOG_DIRECTORY_PROPERTY.equals(name)
+                                ? System.getProperty(name, System.getProperty("java.io.tmpdir"))
+                                : System.getProperty(name);
+                    case "toString":
+                        return "BundleHarness";
+                    case "hashCode":
+                        return System.identityHashCode(proxy);
+                    case "equals":
+                        return proxy == args[0];
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
@@ -0,0 +1,488 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.benchmark;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongSupplier;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.w3c.dom.NodeList;
+
+import com.ibm.zosconnect.spi.Data;
+import com.ibm.zosconnect.spi.DataRequester;
+import com.ibm.zosconnect.spi.EarlyFailureInterceptor;
+import com.ibm.zosconnect.spi.EarlyFailureInterceptorRequester;
+import com.ibm.zosconnect.spi.EndpointInterceptor;
+import com.ibm.zosconnect.spi.HttpZosConnectRequest;
+import com.ibm.zosconnect.spi.Interceptor;
+import com.ibm.zosconnect.spi.InterceptorException;
+import com.ibm.zosconnect.spi.InterceptorRequester;
+import com.ibm.zosconnect.spi.ServiceProviderInterceptor;
+
+/**
+ * The InterceptorChain class stands in for the z/OS Connect EE Interceptor framework.  It creates the
+ * Interceptors declared by the bundle's OSGI-INF component descriptions, configures them with the defaults from
+ * the bundle's metatype overlaid with the given properties, and calls them in sequence order through the API
+ * provider and API requester flows described by the AllPointsInterceptorSample and the
+ * AllPointsInterceptorRequesterSample.
+ *
+ * Every Interceptor is given its own request state map for each request.  If a preInvoke or preInvokeRequester
+ * method throws an InterceptorException the request is rejected, the Interceptors that have not been called are
+ * skipped, and postInvoke or postInvokeRequester is called only on the Interceptors whose pre method completed.
+ *
+ * The request data is added to as the request flows, as it is by the server: the user, API and service names
+ * and the entry time are available at P1, the SoR names at P2, the SoR times at P3 and the response at P4.
+ *
+ * @author IBM
+ */
+public final class InterceptorChain {
+
+    /**
+     * The state of one request, reused by a thread for each of its requests so that the chain itself does not
+     * allocate.
+     */
+    public static final class Request {
+        final StubHttpZosConnectRequest httpRequest = new StubHttpZosConnectRequest();
+        final StubData data = new StubData();
+        final StubDataRequester dataRequester = new StubDataRequester();
+        final Map<Object, Object>[] stateMaps;
+        int rejectedBy;
+        long interceptorNanos;
+
+        @SuppressWarnings("unchecked")
+        Request(int interceptors) {
+            stateMaps = (Map<Object, Object>[]) new Map<?, ?>[interceptors];
+            for (int i = 0; i < interceptors; i++) {
+                stateMaps[i] = new HashMap<>();
+            }
+        }
+
+        public StubHttpZosConnectRequest getHttpRequest() {
+            return httpRequest;
+        }
+
+        public StubData getData() {
+            return data;
+        }
+
+        public StubDataRequester getDataRequester() {
+            return dataRequester;
+        }
+
+        /**
+         * Returns true if an Interceptor rejected the last request.
+         */
+        public boolean isRejected() {
+            return rejectedBy >= 0;
+        }
+
+        /**
+         * Returns the position in the chain of the Interceptor that rejected the last request, or -1.
+         */
+        public int getRejectedBy() {
+            return rejectedBy;
+        }
+
+        /**
+         * Returns the time spent in the Interceptors by the last request.
+         */
+        public long getInterceptorNanos() {
+            return interceptorNanos;
+        }
+
+        void reset() {
+            for (Map<Object, Object> stateMap : stateMaps) {
+                stateMap.clear();
+            }
+            rejectedBy = -1;
+            interceptorNanos = 0L;
+        }
+    }
+
+    private final Interceptor[] interceptors;
+
+    private InterceptorChain(List<Interceptor> interceptors) {
+        this.interceptors = interceptors.toArray(new Interceptor[0]);
+    }
+
+    /**
+     * Creates and activates the Interceptors of a bundle.  Interceptors with the same sequence are called in the
+     * order of their component description file names.
+     *
+     * @param bundleContent the BundleContent directory of the Interceptor project
+     * @param enabled the component names of the Interceptors to create, or null for all of them
+     * @param config configuration properties named component.attribute, which override the metatype defaults
+     *
+     * @throws Exception if a component cannot be read, created or activated
+     */
+    public static InterceptorChain load(Path bundleContent, Collection<String> enabled, Properties config)
+            throws Exception {
+        Map<String, Map<String, Object>> defaults = readMetatype(bundleContent.resolve("OSGI-INF/metatype/metatype.xml"));
+
+        List<Path> components = new ArrayList<>();
+        try (DirectoryStream<Path> directory = Files.newDirectoryStream(bundleContent.resolve("OSGI-INF"), "*.xml")) {
+            directory.forEach(components::add);
+        }
+        Collections.sort(components);
+
+        List<Interceptor> interceptors = new ArrayList<>();
+        for (Path component : components) {
+            Element root = parse(component).getDocumentElement();
+            String name = root.getAttribute("name");
+            if (enabled != null && !enabled.contains(name)) {
+                continue;
+            }
+            String className = ((Element) root.getElementsByTagName("implementation").item(0)).getAttribute("class");
+
+            Map<String, Object> properties = new HashMap<>();
+            Map<String, Object> metatype = defaults.get(root.getAttribute("configuration-pid"));
+            if (metatype != null) {
+                properties.putAll(metatype);
+            }
+            for (String key : config.stringPropertyNames()) {
+                if (key.startsWith(name + ".")) {
+                    String attribute = key.substring(name.length() + 1);
+                    properties.put(attribute, convert(config.getProperty(key), properties.get(attribute)));
+                }
+            }
+
+            Interceptor interceptor = (Interceptor) Class.forName(className).getDeclaredConstructor().newInstance();
+            BundleHarness.activate(interceptor, properties);
+            interceptors.add(interceptor);
+        }
+        interceptors.sort(Comparator.comparingInt(Interceptor::getSequence));
+        return new InterceptorChain(interceptors);
+    }
+
+    /**
+     * Deactivates the Interceptors.
+     *
+     * @throws Exception
+     */
+    public void close() throws Exception {
+        for (Interceptor interceptor : interceptors) {
+            BundleHarness.deactivate(interceptor);
+        }
+    }
+
+    /**
+     * Returns the Interceptors in the order they are called.
+     */
+    public List<Interceptor> getInterceptors() {
+        List<Interceptor> list = new ArrayList<>();
+        for (Interceptor interceptor : interceptors) {
+            list.add(interceptor);
+        }
+        return list;
+    }
+
+    /**
+     * Returns a new request for use by one thread.
+     */
+    public Request newRequest() {
+        return new Request(interceptors.length);
+    }
+
+    /**
+     * Drives an API provider request through P1, P2, P3 and P4.  Before calling the chain the caller sets the
+     * HTTP request and the data available at P1, such as the user, API and service names.
+     *
+     * @param request
+     * @param sorIdentifier the SoR identifier provided from P2
+     * @param sorResource the SoR resource provided from P2
+     * @param sorLatency the time the SoR takes, in nanoseconds
+     * @param responseCode the HTTP status code of the response
+     */
+    public void provider(Request request, String sorIdentifier, String sorResource, LongSupplier sorLatency,
+            int responseCode) {
+        provider(request, System.currentTimeMillis() * 1_000_000L, sorIdentifier, sorResource, sorLatency,
+                responseCode);
+    }
+
+    /**
+     * Drives an API provider request that entered the server at an earlier time through P1, P2, P3 and P4, as a
+     * request that waited in the server's queue would be.
+     *
+     * @param request
+     * @param entryEpochNanos the time the request entered the server, Data.TIME_ZOS_CONNECT_ENTRY
+     * @param sorIdentifier the SoR identifier provided from P2
+     * @param sorResource the SoR resource provided from P2
+     * @param sorLatency the time the SoR takes, in nanoseconds
+     * @param responseCode the HTTP status code of the response
+     */
+    public void provider(Request request, long entryEpochNanos, String sorIdentifier, String sorResource,
+            LongSupplier sorLatency, int responseCode) {
+        request.reset();
+        StubData data = request.data;
+        data.set(Data.SOR_IDENTIFIER, null).set(Data.SOR_RESOURCE, null)
+                .set(Data.TIME_SOR_SENT, null).set(Data.TIME_SOR_RECEIVED, null)
+                .set(Data.TIME_ZOS_CONNECT_EXIT, null).set(Data.HTTP_RESPONSE_CODE, null)
+                .set(Data.REQUEST_TIMED_OUT, null)
+                .set(Data.TIME_ZOS_CONNECT_ENTRY, StubData.stcke(entryEpochNanos));
+        HttpZosConnectRequest httpRequest = request.httpRequest;
+
+        long start = System.nanoTime();
+        int called = preInvoke(request, httpRequest, data);
+        if (!request.isRejected()) {
+            data.set(Data.SOR_IDENTIFIER, sorIdentifier).set(Data.SOR_RESOURCE, sorResource);
+            for (int i = 0; i < interceptors.length; i++) {
+                if (interceptors[i] instanceof ServiceProviderInterceptor) {
+                    ((ServiceProviderInterceptor) interceptors[i]).preSorInvoke(request.stateMaps[i], httpRequest, data);
+                }
+            }
+
+            long sorStart = System.nanoTime();
+            data.set(Data.TIME_SOR_SENT, StubData.stcke(System.currentTimeMillis() * 1_000_000L));
+            pause(sorLatency.getAsLong());
+            data.set(Data.TIME_SOR_RECEIVED, StubData.stcke(System.currentTimeMillis() * 1_000_000L));
+            start += System.nanoTime() - sorStart;
+
+            for (int i = 0; i < interceptors.length; i++) {
+                if (interceptors[i] instanceof ServiceProviderInterceptor) {
+                    ((ServiceProviderInterceptor) interceptors[i]).postSorInvoke(request.stateMaps[i], httpRequest, data);
+                }
+            }
+        } else {
+            responseCode = 403;
+        }
+
+        data.set(Data.HTTP_RESPONSE_CODE, responseCode).set(Data.REQUEST_TIMED_OUT, Boolean.FALSE)
+                .set(Data.TIME_ZOS_CONNECT_EXIT, StubData.stcke(System.currentTimeMillis() * 1_000_000L));
+        for (int i = 0; i < called; i++) {
+            try {
+                interceptors[i].postInvoke(request.stateMaps[i], httpRequest, data);
+            } catch (InterceptorException e) {
+                // The response is already being returned, so the exception is ignored as the server would
+            }
+        }
+        request.interceptorNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Calls preInvoke on each Interceptor until one throws an InterceptorException.
+     *
+     * @return the number of Interceptors whose preInvoke completed
+     */
+    private int preInvoke(Request request, HttpZosConnectRequest httpRequest, Data data) {
+        for (int i = 0; i < interceptors.length; i++) {
+            try {
+                interceptors[i].preInvoke(request.stateMaps[i], httpRequest, data);
+            } catch (InterceptorException e) {
+                request.rejectedBy = i;
+                return i;
+            }
+        }
+        return interceptors.length;
+    }
+
+    /**
+     * Drives an API provider request that fails the early checks, calling earlyFailure.
+     *
+     * @param request
+     */
+    public void earlyFailure(Request request) {
+        request.reset();
+        request.data.set(Data.SOR_IDENTIFIER, null).set(Data.SOR_RESOURCE, null)
+                .set(Data.TIME_SOR_SENT, null).set(Data.TIME_SOR_RECEIVED, null)
+                .set(Data.HTTP_RESPONSE_CODE, 401).set(Data.REQUEST_TIMED_OUT, Boolean.FALSE)
+                .set(Data.TIME_ZOS_CONNECT_EXIT, StubData.stcke(System.currentTimeMillis() * 1_000_000L));
+        long start = System.nanoTime();
+        for (Interceptor interceptor : interceptors) {
+            if (interceptor instanceof EarlyFailureInterceptor) {
+                ((EarlyFailureInterceptor) interceptor).earlyFailure(request.httpRequest, request.data);
+            }
+        }
+        request.interceptorNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Drives an API requester request through preInvokeRequester, preEndpointInvoke, postEndpointInvoke and
+     * postInvokeRequester.  Before calling the chain the caller sets the API requester and endpoint data.
+     *
+     * @param request
+     * @param endpointLatency the time the endpoint takes, in nanoseconds
+     * @param responseCode the HTTP status code returned by the endpoint
+     */
+    public void requester(Request request, LongSupplier endpointLatency, int responseCode) {
+        request.reset();
+        StubDataRequester data = request.dataRequester;
+        data.set(DataRequester.HTTP_RESPONSE_CODE, null).set(DataRequester.REQUEST_STATUS_CODE, null);
+
+        long start = System.nanoTime();
+        int called = interceptors.length;
+        for (int i = 0; i < interceptors.length; i++) {
+            if (interceptors[i] instanceof InterceptorRequester) {
+                try {
+                    ((InterceptorRequester) interceptors[i]).preInvokeRequester(request.stateMaps[i], data);
+                } catch (InterceptorException e) {
+                    request.rejectedBy = i;
+                    called = i;
+                    break;
+                }
+            }
+        }
+
+        if (!request.isRejected()) {
+            for (int i = 0; i < interceptors.length; i++) {
+                if (interceptors[i] instanceof EndpointInterceptor) {
+                    ((EndpointInterceptor) interceptors[i]).preEndpointInvoke(request.stateMaps[i], data);
+                }
+            }
+
+            long endpointStart = System.nanoTime();
+            pause(endpointLatency.getAsLong());
+            start += System.nanoTime() - endpointStart;
+
+            data.set(DataRequester.HTTP_RESPONSE_CODE, responseCode);
+            for (int i = 0; i < interceptors.length; i++) {
+                if (interceptors[i] instanceof EndpointInterceptor) {
+                    ((EndpointInterceptor) interceptors[i]).postEndpointInvoke(request.stateMaps[i], data);
+                }
+            }
+        }
+
+        data.set(DataRequester.REQUEST_STATUS_CODE, request.isRejected() ? 500 : responseCode);
+        for (int i = 0; i < called; i++) {
+            if (interceptors[i] instanceof InterceptorRequester) {
+                try {
+                    ((InterceptorRequester) interceptors[i]).postInvokeRequester(request.stateMaps[i], data);
+                } catch (InterceptorException e) {
+                    // The response is already being returned, so the exception is ignored as the server would
+                }
+            }
+        }
+        request.interceptorNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Drives an API requester request that fails the early checks, calling earlyFailureRequester.
+     *
+     * @param request
+     */
+    public void earlyFailureRequester(Request request) {
+        request.reset();
+        request.dataRequester.set(DataRequester.REQUEST_STATUS_CODE, 401);
+        long start = System.nanoTime();
+        for (Interceptor interceptor : interceptors) {
+            if (interceptor instanceof EarlyFailureInterceptorRequester) {
+                ((EarlyFailureInterceptorRequester) interceptor).earlyFailureRequester(request.dataRequester);
+            }
+        }
+        request.interceptorNanos = System.nanoTime() - start;
+    }
+
+    private static void pause(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        while (nanos > 0L) {
+            LockSupport.parkNanos(nanos);
+            nanos = deadline - System.nanoTime();
+        }
+    }
+
+    /**
+     * Reads the default value of every attribute of every OCD in a metatype file.
+     *
+     * @return the defaults by OCD id
+     */
+    private static Map<String, Map<String, Object>> readMetatype(Path metatype) throws Exception {
+        Map<String, Map<String, Object>> defaults = new HashMap<>();
+        NodeList ocds = parse(metatype).getElementsByTagName("OCD");
+        for (int i = 0; i < ocds.getLength(); i++) {
+            Element ocd = (Element) ocds.item(i);
+            Map<String, Object> values = new HashMap<>();
+            NodeList ads = ocd.getElementsByTagName("AD");
+            for (int j = 0; j < ads.getLength(); j++) {
+                Element ad = (Element) ads.item(j);
+                if (ad.hasAttribute("default")) {
+                    values.put(ad.getAttribute("id"), typed(ad.getAttribute("type"), ad.getAttribute("cardinality"),
+                            ad.getAttribute("default")));
+                }
+            }
+            defaults.put(ocd.getAttribute("id"), values);
+        }
+        return defaults;
+    }
+
+    /**
+     * Converts a metatype default to the type the OSGi runtime would pass to the Interceptor.
+     */
+    private static Object typed(String type, String cardinality, String value) {
+        if (!cardinality.isEmpty() && Integer.parseInt(cardinality) != 0) {
+            String[] values = value.split(",");
+            for (int i = 0; i < values.length; i++) {
+                values[i] = values[i].trim();
+            }
+            return values;
+        }
+        switch (type) {
+        case "Integer":
+            return Integer.valueOf(value.trim());
+        case "Long":
+            return Long.valueOf(value.trim());
+        case "Boolean":
+            return Boolean.valueOf(value.trim());
+        default:
+            return value;
+        }
+    }
+
+    /**
+     * Converts a configuration property to the type of the attribute's default, if it has one.  Values of
+     * multi-valued attributes are separated by semicolons.
+     */
+    private static Object convert(String value, Object defaultValue) {
+        if (defaultValue instanceof Integer) {
+            return Integer.valueOf(value.trim());
+        } else if (defaultValue instanceof Long) {
+            return Long.valueOf(value.trim());
+        } else if (defaultValue instanceof Boolean) {
+            return Boolean.valueOf(value.trim());
+        } else if (defaultValue instanceof String[] || value.indexOf(';') >= 0) {
+            String[] values = value.split(";");
+            for (int i = 0; i < values.length; i++) {
+                values[i] = values[i].trim();
+            }
+            return values;
+        } else if (value.trim().matches("-?\\d+")) {
+            return Integer.valueOf(value.trim());
+        }
+        return value;
+    }
+
+    private static Document parse(Path path) throws Exception {
+        try {
+            return DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(path.toFile());
+        } catch (IOException e) {
+            throw new IOException("Unable to read " + path, e);
+        }
+    }
+}
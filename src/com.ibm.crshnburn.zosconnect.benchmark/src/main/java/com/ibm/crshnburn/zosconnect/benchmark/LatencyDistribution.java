@@ -0,0 +1,137 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongSupplier;
+
+/**
+ * The LatencyDistribution class generates the time a simulated SoR or endpoint takes to respond.  A distribution
+ * is described by its name and parameters separated by colons, each parameter being a time with a unit of ns, us,
+ * ms or s:
+ *
+ * <ul>
+ * <li>fixed:2ms - always 2ms</li>
+ * <li>uniform:1ms:5ms - between 1ms and 5ms</li>
+ * <li>exponential:2ms - exponentially distributed with a mean of 2ms</li>
+ * <li>lognormal:2ms:20ms - log-normally distributed with a median of 2ms and a 99th percentile of 20ms, the
+ * long tail typical of a real SoR</li>
+ * </ul>
+ *
+ * @author IBM
+ */
+public final class LatencyDistribution implements LongSupplier {
+
+    /**
+     * The number of standard deviations of the 99th percentile of a normal distribution.
+     */
+    private static final double Z_99 = 2.3263;
+
+    private enum Shape {
+        FIXED, UNIFORM, EXPONENTIAL, LOGNORMAL
+    }
+
+    private final String description;
+
+    private final Shape shape;
+
+    private final long first;
+
+    private final long second;
+
+    private final double sigma;
+
+    private LatencyDistribution(String description, Shape shape, long first, long second) {
+        this.description = description;
+        this.shape = shape;
+        this.first = first;
+        this.second = second;
+        this.sigma = shape == Shape.LOGNORMAL ? Math.log((double) second / first) / Z_99 : 0.0;
+    }
+
+    /**
+     * Parses a distribution.
+     *
+     * @param description
+     *
+     * @throws IllegalArgumentException if the description is not valid
+     */
+    public static LatencyDistribution parse(String description) {
+        String[] parts = description.trim().split(":");
+        Shape shape;
+        try {
+            shape = Shape.valueOf(parts[0].toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown latency distribution " + description, e);
+        }
+        int parameters = shape == Shape.UNIFORM || shape == Shape.LOGNORMAL ? 2 : 1;
+        if (parts.length != parameters + 1) {
+            throw new IllegalArgumentException("Latency distribution " + description + " needs " + parameters
+                    + " times");
+        }
+        long first = parseNanos(parts[1]);
+        long second = parameters == 2 ? parseNanos(parts[2]) : 0L;
+        if (parameters == 2 && (second < first || (shape == Shape.LOGNORMAL && (first <= 0L || second == first)))) {
+            throw new IllegalArgumentException("Latency distribution " + description + " has an invalid range");
+        }
+        return new LatencyDistribution(description, shape, first, second);
+    }
+
+    /**
+     * Parses a time such as 250us or 2ms.
+     *
+     * @return the time in nanoseconds
+     */
+    static long parseNanos(String time) {
+        String value = time.trim();
+        int unit = 2;
+        long multiplier;
+        if (value.endsWith("ns")) {
+            multiplier = 1L;
+        } else if (value.endsWith("us")) {
+            multiplier = 1_000L;
+        } else if (value.endsWith("ms")) {
+            multiplier = 1_000_000L;
+        } else if (value.endsWith("s")) {
+            multiplier = 1_000_000_000L;
+            unit = 1;
+        } else {
+            throw new IllegalArgumentException("The time " + time + " has no unit of ns, us, ms or s");
+        }
+        return (long) (Double.parseDouble(value.substring(0, value.length() - unit)) * multiplier);
+    }
+
+    @Override
+    public long getAsLong() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        switch (shape) {
+        case UNIFORM:
+            return first + (long) (random.nextDouble() * (second - first));
+        case EXPONENTIAL:
+            return (long) (-first * Math.log(1.0 - random.nextDouble()));
+        case LOGNORMAL:
+            return (long) (first * Math.exp(sigma * random.nextGaussian()));
+        default:
+            return first;
+        }
+    }
+
+    @Override
+    public String toString() {
+        return description;
+    }
+}
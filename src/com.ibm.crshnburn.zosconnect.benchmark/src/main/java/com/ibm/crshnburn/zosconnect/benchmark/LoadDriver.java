@@ -0,0 +1,456 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.benchmark;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongSupplier;
+
+import org.HdrHistogram.Histogram;
+
+import com.ibm.zosconnect.spi.Data;
+import com.ibm.zosconnect.spi.DataRequester;
+import com.ibm.zosconnect.spi.Interceptor;
+
+/**
+ * The LoadDriver class runs a mix of API provider and API requester requests through the sample Interceptors on
+ * a number of threads, as the z/OS Connect EE server would, and reports the throughput, the number of requests
+ * rejected by the Interceptors, the time spent in the Interceptors and the end to end response time of each
+ * flow.  The time spent waiting for the simulated SoR or endpoint is not counted as time in the Interceptors.
+ *
+ * The arguments are given as name=value:
+ *
+ * <ul>
+ * <li>threads - the number of threads, or a comma separated list to step the load up, default 1,2,4,8</li>
+ * <li>duration - the time each step is measured for, default 10s</li>
+ * <li>warmup - the time each step runs before it is measured, default 2s</li>
+ * <li>mix - the relative weight of each flow, default provider:70,earlyFailure:5,requester:20,
+ * requesterEarlyFailure:5</li>
+ * <li>sorLatency - the SoR response time, see LatencyDistribution, default lognormal:2ms:5ms</li>
+ * <li>endpointLatency - the API requester endpoint response time, default lognormal:5ms:15ms</li>
+ * <li>errorRate - the percentage of SoR and endpoint calls that fail with status code 500, default 1</li>
+ * <li>serverThreads - the number of API provider requests processed at once, the others wait for one to finish
+ * as they would in the server's queue, default 0 for no limit</li>
+ * <li>retryRate - the percentage of API provider POSTs that repeat the user's last Idempotency-Key, default 5</li>
+ * <li>users, apis, sors, endpoints - the number of distinct values of each, default 100, 10, 4 and 4</li>
+ * <li>interceptors - the comma separated component names of the Interceptors to run, default all</li>
+ * <li>config - a properties file of component.attribute=value that overrides the metatype defaults</li>
+ * <li>bundleContent - the Interceptor project's BundleContent directory</li>
+ * </ul>
+ *
+ * For example, to step a rate limited provider load from 1 to 32 threads against a slow SoR:
+ *
+ * <pre>
+ * java -cp benchmarks.jar:com.ibm.zosconnect.spi.jar com.ibm.crshnburn.zosconnect.benchmark.LoadDriver
+ *     threads=1,8,32 mix=provider:1 sorLatency=lognormal:10ms:200ms interceptors=rateLimitInterceptor
+ * </pre>
+ *
+ * @author IBM
+ */
+public final class LoadDriver {
+
+    private enum Flow {
+        provider, earlyFailure, requester, requesterEarlyFailure
+    }
+
+    private static final long HIGHEST_TRACKABLE_NANOS = 60_000_000_000L;
+
+    private static final Map<String, String> DEFAULTS = new LinkedHashMap<>();
+
+    static {
+        DEFAULTS.put("threads", "1,2,4,8");
+        DEFAULTS.put("duration", "10s");
+        DEFAULTS.put("warmup", "2s");
+        DEFAULTS.put("mix", "provider:70,earlyFailure:5,requester:20,requesterEarlyFailure:5");
+        DEFAULTS.put("sorLatency", "lognormal:2ms:5ms");
+        DEFAULTS.put("endpointLatency", "lognormal:5ms:15ms");
+        DEFAULTS.put("errorRate", "1");
+        DEFAULTS.put("retryRate", "5");
+        DEFAULTS.put("serverThreads", "0");
+        DEFAULTS.put("users", "100");
+        DEFAULTS.put("apis", "10");
+        DEFAULTS.put("sors", "4");
+        DEFAULTS.put("endpoints", "4");
+        DEFAULTS.put("interceptors", "");
+        DEFAULTS.put("config", "");
+        DEFAULTS.put("bundleContent", "../com.ibm.crshnburn.zosconnect.interceptor/BundleContent");
+    }
+
+    /**
+     * The results of one flow on one thread, merged into the step's results when the step ends.
+     */
+    private static final class Results {
+        final Histogram interceptorNanos = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        final Histogram responseNanos = new Histogram(HIGHEST_TRACKABLE_NANOS, 3);
+        final long[] rejectedBy;
+
+        Results(int interceptors) {
+            rejectedBy = new long[interceptors];
+        }
+
+        long rejected() {
+            long rejected = 0L;
+            for (long count : rejectedBy) {
+                rejected += count;
+            }
+            return rejected;
+        }
+
+        void add(Results other) {
+            interceptorNanos.add(other.interceptorNanos);
+            responseNanos.add(other.responseNanos);
+            for (int i = 0; i < rejectedBy.length; i++) {
+                rejectedBy[i] += other.rejectedBy[i];
+            }
+        }
+
+        void reset() {
+            interceptorNanos.reset();
+            responseNanos.reset();
+            Arrays.fill(rejectedBy, 0L);
+        }
+    }
+
+    private final InterceptorChain chain;
+
+    private final List<Interceptor> interceptors;
+
+    private final Flow[] mix;
+
+    private final LongSupplier sorLatency;
+
+    private final LongSupplier endpointLatency;
+
+    private final int errorRate;
+
+    private final int retryRate;
+
+    /**
+     * The server threads API provider requests wait for, or null if they do not wait.
+     */
+    private final Semaphore serverThreads;
+
+    private final String[] users;
+
+    private final String[] apis;
+
+    private final String[] services;
+
+    private final String[] uris;
+
+    /**
+     * W3C traceparent headers sent by half of the API provider requests, so that callers' traces are continued.
+     */
+    private final String[] traceparents;
+
+    /**
+     * Content lengths sent by the quarter of the API provider requests that are POSTs, mostly a few kilobytes with
+     * an occasional payload of up to a megabyte.
+     */
+    private final String[] contentLengths;
+
+    /**
+     * The last Idempotency-Key sent by each user, repeated by retryRate percent of the POSTs as a client retrying
+     * would.
+     */
+    private final AtomicReferenceArray<String> idempotencyKeys;
+
+    private final String[] sors;
+
+    private final String[] endpoints;
+
+    private volatile boolean measuring;
+
+    private volatile boolean stopping;
+
+    private LoadDriver(InterceptorChain chain, Map<String, String> options) {
+        this.chain = chain;
+        this.interceptors = chain.getInterceptors();
+        this.mix = parseMix(options.get("mix"));
+        this.sorLatency = LatencyDistribution.parse(options.get("sorLatency"));
+        this.endpointLatency = LatencyDistribution.parse(options.get("endpointLatency"));
+        this.errorRate = Integer.parseInt(options.get("errorRate"));
+        this.retryRate = Integer.parseInt(options.get("retryRate"));
+        int threads = Integer.parseInt(options.get("serverThreads"));
+        this.serverThreads = threads > 0 ? new Semaphore(threads, true) : null;
+        this.users = names("USER", Integer.parseInt(options.get("users")));
+        this.apis = names("api", Integer.parseInt(options.get("apis")));
+        this.services = names("service", apis.length);
+        this.uris = new String[apis.length];
+        for (int i = 0; i < apis.length; i++) {
+            uris[i] = "/" + apis[i] + "/items";
+        }
+        this.traceparents = new String[users.length];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < traceparents.length; i++) {
+            traceparents[i] = String.format("00-%016x%016x-%016x-01", random.nextLong(), random.nextLong() | 1L,
+                    random.nextLong() | 1L);
+        }
+        this.contentLengths = new String[256];
+        for (int i = 0; i < contentLengths.length; i++) {
+            contentLengths[i] = Long.toString(Math.min(1L << 20, (long) (2048 * Math.exp(random.nextGaussian()))));
+        }
+        this.idempotencyKeys = new AtomicReferenceArray<>(users.length);
+        this.sors = names("SOR", Integer.parseInt(options.get("sors")));
+        this.endpoints = names("endpoint", Integer.parseInt(options.get("endpoints")));
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int equals = arg.indexOf('=');
+            if (equals < 0 || !DEFAULTS.containsKey(arg.substring(0, equals))) {
+                System.err.println("Unknown argument " + arg + ", the arguments and their defaults are:");
+                for (Map.Entry<String, String> option : DEFAULTS.entrySet()) {
+                    System.err.println("  " + option.getKey() + "=" + option.getValue());
+                }
+                System.exit(1);
+            }
+            options.put(arg.substring(0, equals), arg.substring(equals + 1));
+        }
+
+        Properties config = new Properties();
+        if (!options.get("config").isEmpty()) {
+            try (InputStream in = Files.newInputStream(Paths.get(options.get("config")))) {
+                config.load(in);
+            }
+        }
+        List<String> enabled = options.get("interceptors").isEmpty() ? null
+                : Arrays.asList(options.get("interceptors").split("\\s*,\\s*"));
+        Path bundleContent = Paths.get(options.get("bundleContent"));
+        if (!Files.isDirectory(bundleContent.resolve("OSGI-INF"))) {
+            throw new IOException("No OSGI-INF directory in " + bundleContent.toAbsolutePath());
+        }
+
+        BundleHarness.start();
+        InterceptorChain chain = InterceptorChain.load(bundleContent, enabled, config);
+        try {
+            for (Interceptor interceptor : chain.getInterceptors()) {
+                System.out.println("Interceptor " + interceptor.getName() + " sequence " + interceptor.getSequence());
+            }
+            LoadDriver driver = new LoadDriver(chain, options);
+            long warmup = LatencyDistribution.parseNanos(options.get("warmup"));
+            long duration = LatencyDistribution.parseNanos(options.get("duration"));
+            for (String threads : options.get("threads").split(",")) {
+                driver.step(Integer.parseInt(threads.trim()), warmup, duration);
+            }
+        } finally {
+            chain.close();
+            BundleHarness.stop();
+        }
+    }
+
+    /**
+     * Runs the load on a number of threads and reports the results.
+     */
+    private void step(int threads, long warmupNanos, long durationNanos) throws InterruptedException {
+        Results[][] results = new Results[threads][Flow.values().length];
+        CountDownLatch finished = new CountDownLatch(threads);
+        measuring = false;
+        stopping = false;
+        for (int t = 0; t < threads; t++) {
+            Results[] threadResults = results[t];
+            for (int f = 0; f < threadResults.length; f++) {
+                threadResults[f] = new Results(interceptors.size());
+            }
+            Thread worker = new Thread(() -> {
+                try {
+                    run(threadResults);
+                } finally {
+                    finished.countDown();
+                }
+            }, "LoadDriver-" + t);
+            worker.setDaemon(true);
+            worker.start();
+        }
+
+        sleep(warmupNanos);
+        measuring = true;
+        long start = System.nanoTime();
+        sleep(durationNanos);
+        stopping = true;
+        long elapsed = System.nanoTime() - start;
+        finished.await();
+
+        System.out.println();
+        System.out.printf("%d threads, %.1fs%n", threads, elapsed / 1e9);
+        System.out.printf("  %-22s %10s %9s %10s %31s %31s%n", "flow", "completed", "rejected", "ops/s",
+                "interceptors p50/p99/p99.9 (us)", "response p50/p99/p99.9 (ms)");
+        Results rejections = new Results(interceptors.size());
+        for (Flow flow : Flow.values()) {
+            Results total = new Results(interceptors.size());
+            for (Results[] threadResults : results) {
+                total.add(threadResults[flow.ordinal()]);
+            }
+            long completed = total.responseNanos.getTotalCount();
+            if (completed == 0L) {
+                continue;
+            }
+            System.out.printf("  %-22s %10d %9d %10.0f %31s %31s%n", flow, completed, total.rejected(),
+                    completed / (elapsed / 1e9), percentiles(total.interceptorNanos, 1e3),
+                    percentiles(total.responseNanos, 1e6));
+            rejections.add(total);
+        }
+        for (int i = 0; i < interceptors.size(); i++) {
+            if (rejections.rejectedBy[i] > 0L) {
+                System.out.printf("  %d rejected by %s%n", rejections.rejectedBy[i], interceptors.get(i).getName());
+            }
+        }
+    }
+
+    private static String percentiles(Histogram histogram, double scale) {
+        return String.format("%.1f/%.1f/%.1f", histogram.getValueAtPercentile(50.0) / scale,
+                histogram.getValueAtPercentile(99.0) / scale, histogram.getValueAtPercentile(99.9) / scale);
+    }
+
+    /**
+     * Sends requests until the step ends.
+     */
+    private void run(Results[] results) {
+        InterceptorChain.Request request = chain.newRequest();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        boolean measured = false;
+        while (!stopping) {
+            if (!measured && measuring) {
+                for (Results flowResults : results) {
+                    flowResults.reset();
+                }
+                measured = true;
+            }
+
+            Flow flow = mix[random.nextInt(mix.length)];
+            int responseCode = random.nextInt(100) < errorRate ? 500 : 200;
+            long start = System.nanoTime();
+            switch (flow) {
+            case provider:
+                providerRequest(request, random);
+                long entryEpochNanos = System.currentTimeMillis() * 1_000_000L;
+                if (serverThreads != null) {
+                    serverThreads.acquireUninterruptibly();
+                }
+                try {
+                    chain.provider(request, entryEpochNanos, sors[random.nextInt(sors.length)], "RESOURCE",
+                            sorLatency, responseCode);
+                } finally {
+                    if (serverThreads != null) {
+                        serverThreads.release();
+                    }
+                }
+                break;
+            case earlyFailure:
+                providerRequest(request, random);
+                chain.earlyFailure(request);
+                break;
+            case requester:
+                requesterRequest(request, random);
+                chain.requester(request, endpointLatency, responseCode);
+                break;
+            default:
+                requesterRequest(request, random);
+                chain.earlyFailureRequester(request);
+                break;
+            }
+            long end = System.nanoTime();
+
+            Results flowResults = results[flow.ordinal()];
+            flowResults.interceptorNanos.recordValue(Math.min(request.getInterceptorNanos(), HIGHEST_TRACKABLE_NANOS));
+            flowResults.responseNanos.recordValue(Math.min(end - start, HIGHEST_TRACKABLE_NANOS));
+            if (request.isRejected()) {
+                flowResults.rejectedBy[request.getRejectedBy()]++;
+            }
+        }
+    }
+
+    private void providerRequest(InterceptorChain.Request request, ThreadLocalRandom random) {
+        int userIndex = random.nextInt(users.length);
+        String user = users[userIndex];
+        int api = random.nextInt(apis.length);
+        boolean post = random.nextInt(4) == 0;
+        request.getHttpRequest().setMethod(post ? "POST" : "GET").setRequestURI(uris[api]).setUser(user)
+                .setHeader("traceparent", random.nextBoolean() ? traceparents[userIndex] : null)
+                .setHeader("Content-Length", post ? contentLengths[random.nextInt(contentLengths.length)] : null)
+                .setHeader("Idempotency-Key", post ? idempotencyKey(userIndex, random) : null);
+        request.getData().setRequestType(Data.RequestType.API)
+                .set(Data.API_NAME, apis[api])
+                .set(Data.SERVICE_NAME, services[api])
+                .set(Data.USER_NAME_MAPPED, user)
+                .set(Data.SOR_REFERENCE, "sorConnection");
+    }
+
+    private String idempotencyKey(int userIndex, ThreadLocalRandom random) {
+        String key = idempotencyKeys.get(userIndex);
+        if (key == null || random.nextInt(100) >= retryRate) {
+            key = Long.toHexString(random.nextLong());
+            idempotencyKeys.set(userIndex, key);
+        }
+        return key;
+    }
+
+    private void requesterRequest(InterceptorChain.Request request, ThreadLocalRandom random) {
+        int endpoint = random.nextInt(endpoints.length);
+        request.getDataRequester().set(DataRequester.API_REQUESTER_NAME, apis[random.nextInt(apis.length)])
+                .set(DataRequester.API_REQUESTER_VERSION, "1.0.0")
+                .set(DataRequester.ENDPOINT_HOST, endpoints[endpoint] + ".example.com")
+                .set(DataRequester.ENDPOINT_PORT, 443)
+                .set(DataRequester.ENDPOINT_METHOD, "GET")
+                .set(DataRequester.ENDPOINT_FULL_PATH, "/items");
+    }
+
+    /**
+     * Parses a mix such as provider:70,requester:30 into a table of flows chosen from at random.
+     */
+    private static Flow[] parseMix(String mix) {
+        List<Flow> table = new ArrayList<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            Flow flow = Flow.valueOf(parts[0].trim());
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+            for (int i = 0; i < weight; i++) {
+                table.add(flow);
+            }
+        }
+        if (table.isEmpty()) {
+            throw new IllegalArgumentException("The mix " + mix + " has no flows");
+        }
+        return table.toArray(new Flow[0]);
+    }
+
+    private static String[] names(String prefix, int count) {
+        String[] names = new String[Math.max(count, 1)];
+        for (int i = 0; i < names.length; i++) {
+            names[i] = prefix + (i + 1);
+        }
+        return names;
+    }
+
+    private static void sleep(long nanos) throws InterruptedException {
+        Thread.sleep(nanos / 1_000_000L, (int) (nanos % 1_000_000L));
+    }
+}
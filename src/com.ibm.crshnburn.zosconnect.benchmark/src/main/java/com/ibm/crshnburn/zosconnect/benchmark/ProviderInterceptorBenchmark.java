@@ -0,0 +1,162 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.crshnburn.zosconnect.interceptor.AllPointsInterceptorSample;
+import com.ibm.crshnburn.zosconnect.interceptor.SimpleInterceptorImpl;
+import com.ibm.zosconnect.spi.Data;
+import com.ibm.zosconnect.spi.Interceptor;
+import com.ibm.zosconnect.spi.InterceptorException;
+
+/**
+ * The ProviderInterceptorBenchmark class measures the cost of the API provider Interceptor methods, preInvoke and
+ * postInvoke of the SimpleInterceptorImpl, every point from P1 to P4 of the AllPointsInterceptorSample, and its
+ * earlyFailure method.
+ *
+ * Each benchmark is run on one thread and, as the Contended variant, on as many threads as there are processors,
+ * all calling the same Interceptor instances as the server threads would.  Every thread has its own request,
+ * and its request state map is cleared rather than reallocated so that only the Interceptors' own allocation
+ * is reported by the GC profiler.
+ *
+ * @author IBM
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProviderInterceptorBenchmark {
+
+    /**
+     * An API provider request, one for each benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class Request {
+        final Map<Object, Object> stateMap = new HashMap<>();
+        final StubHttpZosConnectRequest httpRequest = new StubHttpZosConnectRequest();
+        final StubData data = new StubData();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            httpRequest.setMethod("GET").setRequestURI("/catalogManager/items").setUser("USER1")
+                    .setHeader("Content-Type", "application/json");
+
+            long now = System.currentTimeMillis() * 1_000_000L;
+            data.setRequestType(Data.RequestType.API)
+                    .set(Data.API_NAME, "catalogManager")
+                    .set(Data.SERVICE_NAME, "inquireCatalog")
+                    .set(Data.USER_NAME_MAPPED, "USER1")
+                    .set(Data.SOR_IDENTIFIER, "CICSA")
+                    .set(Data.SOR_RESOURCE, "CSMI")
+                    .set(Data.SOR_REFERENCE, "cicsConnection")
+                    .set(Data.CORRELATOR, "0123456789ABCDEF")
+                    .set(Data.TIME_ZOS_CONNECT_ENTRY, StubData.stcke(now))
+                    .set(Data.TIME_SOR_SENT, StubData.stcke(now + 150_000L))
+                    .set(Data.TIME_SOR_RECEIVED, StubData.stcke(now + 2_150_000L))
+                    .set(Data.TIME_ZOS_CONNECT_EXIT, StubData.stcke(now + 2_400_000L))
+                    .set(Data.HTTP_RESPONSE_CODE, 200)
+                    .set(Data.REQUEST_TIMED_OUT, Boolean.FALSE);
+        }
+    }
+
+    private SimpleInterceptorImpl simple;
+
+    private AllPointsInterceptorSample allPoints;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BundleHarness.start();
+        simple = new SimpleInterceptorImpl();
+        BundleHarness.activate(simple, properties(1));
+        allPoints = new AllPointsInterceptorSample();
+        BundleHarness.activate(allPoints, properties(2));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BundleHarness.deactivate(allPoints);
+        BundleHarness.deactivate(simple);
+        BundleHarness.stop();
+    }
+
+    private static Map<String, Object> properties(int sequence) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(Interceptor.CFG_AD_SEQUENCE_ALIAS, sequence);
+        return properties;
+    }
+
+    @Benchmark
+    public Object simpleInterceptor(Request request) throws InterceptorException {
+        request.stateMap.clear();
+        simple.preInvoke(request.stateMap, request.httpRequest, request.data);
+        simple.postInvoke(request.stateMap, request.httpRequest, request.data);
+        return request.stateMap;
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Object simpleInterceptorContended(Request request) throws InterceptorException {
+        return simpleInterceptor(request);
+    }
+
+    @Benchmark
+    public Object allPointsProviderFlow(Request request) throws InterceptorException {
+        request.stateMap.clear();
+        allPoints.preInvoke(request.stateMap, request.httpRequest, request.data);
+        allPoints.preSorInvoke(request.stateMap, request.httpRequest, request.data);
+        allPoints.postSorInvoke(request.stateMap, request.httpRequest, request.data);
+        allPoints.postInvoke(request.stateMap, request.httpRequest, request.data);
+        return request.stateMap;
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Object allPointsProviderFlowContended(Request request) throws InterceptorException {
+        return allPointsProviderFlow(request);
+    }
+
+    @Benchmark
+    public Object allPointsEarlyFailure(Request request) {
+        allPoints.earlyFailure(request.httpRequest, request.data);
+        return request.data;
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Object allPointsEarlyFailureContended(Request request) {
+        return allPointsEarlyFailure(request);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.benchmark;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.crshnburn.zosconnect.interceptor.AllPointsInterceptorRequesterSample;
+import com.ibm.crshnburn.zosconnect.interceptor.SimpleInterceptorRequesterImpl;
+import com.ibm.zosconnect.spi.DataRequester;
+import com.ibm.zosconnect.spi.Interceptor;
+import com.ibm.zosconnect.spi.InterceptorException;
+
+/**
+ * The RequesterInterceptorBenchmark class measures the cost of the API requester Interceptor methods,
+ * preInvokeRequester and postInvokeRequester of the SimpleInterceptorRequesterImpl, the full API requester flow
+ * of the AllPointsInterceptorRequesterSample, and its earlyFailureRequester method.
+ *
+ * Each benchmark is run on one thread and, as the Contended variant, on as many threads as there are processors.
+ * See the ProviderInterceptorBenchmark for how requests are set up.
+ *
+ * @author IBM
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RequesterInterceptorBenchmark {
+
+    /**
+     * An API requester request, one for each benchmark thread.
+     */
+    @State(Scope.Thread)
+    public static class Request {
+        final Map<Object, Object> stateMap = new HashMap<>();
+        final StubDataRequester data = new StubDataRequester();
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            data.set(DataRequester.API_REQUESTER_NAME, "partnerInventory")
+                    .set(DataRequester.API_REQUESTER_VERSION, "1.0.0")
+                    .set(DataRequester.ENDPOINT_HOST, "partner.example.com")
+                    .set(DataRequester.ENDPOINT_PORT, 443)
+                    .set(DataRequester.ENDPOINT_METHOD, "GET")
+                    .set(DataRequester.ENDPOINT_FULL_PATH, "/inventory/items/0001")
+                    .set(DataRequester.HTTP_RESPONSE_CODE, 200)
+                    .set(DataRequester.REQUEST_STATUS_CODE, 200);
+        }
+    }
+
+    private SimpleInterceptorRequesterImpl simple;
+
+    private AllPointsInterceptorRequesterSample allPoints;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        BundleHarness.start();
+        simple = new SimpleInterceptorRequesterImpl();
+        BundleHarness.activate(simple, properties(1));
+        allPoints = new AllPointsInterceptorRequesterSample();
+        BundleHarness.activate(allPoints, properties(2));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        BundleHarness.deactivate(allPoints);
+        BundleHarness.deactivate(simple);
+        BundleHarness.stop();
+    }
+
+    private static Map<String, Object> properties(int sequence) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(Interceptor.CFG_AD_SEQUENCE_ALIAS, sequence);
+        return properties;
+    }
+
+    @Benchmark
+    public Object simpleInterceptorRequester(Request request) throws InterceptorException {
+        request.stateMap.clear();
+        simple.preInvokeRequester(request.stateMap, request.data);
+        simple.postInvokeRequester(request.stateMap, request.data);
+        return request.stateMap;
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Object simpleInterceptorRequesterContended(Request request) throws InterceptorException {
+        return simpleInterceptorRequester(request);
+    }
+
+    @Benchmark
+    public Object allPointsRequesterFlow(Request request) throws InterceptorException {
+        request.stateMap.clear();
+        allPoints.preInvokeRequester(request.stateMap, request.data);
+        allPoints.preEndpointInvoke(request.stateMap, request.data);
+        allPoints.postEndpointInvoke(request.stateMap, request.data);
+        allPoints.postInvokeRequester(request.stateMap, request.data);
+        return request.stateMap;
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Object allPointsRequesterFlowContended(Request request) throws InterceptorException {
+        return allPointsRequesterFlow(request);
+    }
+
+    @Benchmark
+    public Object allPointsEarlyFailureRequester(Request request) {
+        allPoints.earlyFailureRequester(request.data);
+        return request.data;
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public Object allPointsEarlyFailureRequesterContended(Request request) {
+        return allPointsEarlyFailureRequester(request);
+    }
+}
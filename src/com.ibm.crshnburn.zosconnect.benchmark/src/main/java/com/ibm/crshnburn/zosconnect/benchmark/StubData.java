@@ -0,0 +1,98 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.benchmark;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import com.ibm.zosconnect.spi.Data;
+
+/**
+ * The StubData class is a lightweight Data for driving Interceptors outside z/OS Connect EE.  The values are held
+ * in an IdentityHashMap keyed by the Data keys, so reading a value does not allocate.
+ *
+ * @author IBM
+ */
+public class StubData implements Data {
+
+    /**
+     * Seconds between the TOD clock epoch, 1900, and the Java epoch, 1970.
+     */
+    private static final long TOD_EPOCH_OFFSET_MICROS = 2_208_988_800L * 1_000_000L;
+
+    private final Map<DataKey<?>, Object> values = new IdentityHashMap<>();
+
+    private RequestType requestType = RequestType.API;
+
+    /**
+     * Sets a value, or removes it if the value is null.
+     *
+     * @param key
+     * @param value
+     *
+     * @return this StubData
+     */
+    public <T> StubData set(DataKey<T> key, T value) {
+        if (value == null) {
+            values.remove(key);
+        } else {
+            values.put(key, value);
+        }
+        return this;
+    }
+
+    public StubData setRequestType(RequestType requestType) {
+        this.requestType = requestType;
+        return this;
+    }
+
+    /**
+     * Removes every value.
+     */
+    public void clear() {
+        values.clear();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getData(DataKey<T> key) {
+        return (T) values.get(key);
+    }
+
+    @Override
+    public RequestType getRequestType() {
+        return requestType;
+    }
+
+    /**
+     * Returns the 16 byte STCKE value z/OS would store for a time, the form in which z/OS Connect EE
+     * provides the TIME_ values.
+     *
+     * @param epochNanos nanoseconds since the Java epoch
+     */
+    public static byte[] stcke(long epochNanos) {
+        long micros = Math.floorDiv(epochNanos, 1000L) + TOD_EPOCH_OFFSET_MICROS;
+        long tod = (micros << 12) | ((Math.floorMod(epochNanos, 1000L) << 12) / 1000L);
+        byte[] stcke = new byte[16];
+        stcke[0] = (byte) (micros >>> 52);
+        for (int i = 8; i >= 1; i--) {
+            stcke[i] = (byte) tod;
+            tod >>>= 8;
+        }
+        return stcke;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.benchmark;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import com.ibm.zosconnect.spi.Data.DataKey;
+import com.ibm.zosconnect.spi.DataRequester;
+
+/**
+ * The StubDataRequester class is a lightweight DataRequester for driving API requester Interceptors outside
+ * z/OS Connect EE.  The values are held in an IdentityHashMap keyed by the DataRequester keys, so reading a
+ * value does not allocate.
+ *
+ * @author IBM
+ */
+public class StubDataRequester implements DataRequester {
+
+    private final Map<DataKey<?>, Object> values = new IdentityHashMap<>();
+
+    /**
+     * Sets a value, or removes it if the value is null.
+     *
+     * @param key
+     * @param value
+     *
+     * @return this StubDataRequester
+     */
+    public <T> StubDataRequester set(DataKey<T> key, T value) {
+        if (value == null) {
+            values.remove(key);
+        } else {
+            values.put(key, value);
+        }
+        return this;
+    }
+
+    /**
+     * Removes every value.
+     */
+    public void clear() {
+        values.clear();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T getData(DataKey<T> key) {
+        return (T) values.get(key);
+    }
+}
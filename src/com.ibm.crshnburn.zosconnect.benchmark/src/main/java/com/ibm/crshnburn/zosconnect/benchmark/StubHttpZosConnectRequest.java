@@ -0,0 +1,113 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.benchmark;
+
+import java.security.Principal;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.ibm.zosconnect.spi.HttpZosConnectRequest;
+
+/**
+ * The StubHttpZosConnectRequest class is a lightweight HttpZosConnectRequest for driving Interceptors outside
+ * z/OS Connect EE.  Header names are matched without regard to case, as they are by the server.
+ *
+ * @author IBM
+ */
+public class StubHttpZosConnectRequest implements HttpZosConnectRequest {
+
+    private static final String HOST = "localhost:9443";
+
+    private final Map<String, String> headers = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+
+    private String method = "GET";
+
+    private String requestUri = "/";
+
+    private Principal principal;
+
+    public StubHttpZosConnectRequest setMethod(String method) {
+        this.method = method;
+        return this;
+    }
+
+    public StubHttpZosConnectRequest setRequestURI(String requestUri) {
+        this.requestUri = requestUri;
+        return this;
+    }
+
+    /**
+     * Sets the authenticated user, or none if the name is null.
+     *
+     * @param name
+     *
+     * @return this StubHttpZosConnectRequest
+     */
+    public StubHttpZosConnectRequest setUser(String name) {
+        this.principal = name != null ? () -> name : null;
+        return this;
+    }
+
+    /**
+     * Sets a header, or removes it if the value is null.
+     *
+     * @param name
+     * @param value
+     *
+     * @return this StubHttpZosConnectRequest
+     */
+    public StubHttpZosConnectRequest setHeader(String name, String value) {
+        if (value == null) {
+            headers.remove(name);
+        } else {
+            headers.put(name, value);
+        }
+        return this;
+    }
+
+    @Override
+    public String getRequestURI() {
+        return requestUri;
+    }
+
+    @Override
+    public StringBuffer getRequestURL() {
+        return new StringBuffer("https://").append(HOST).append(requestUri);
+    }
+
+    @Override
+    public String getMethod() {
+        return method;
+    }
+
+    @Override
+    public Principal getUserPrincipal() {
+        return principal;
+    }
+
+    @Override
+    public String getHeader(String name) {
+        return headers.get(name);
+    }
+
+    @Override
+    public Enumeration<String> getHeaderNames() {
+        return Collections.enumeration(headers.keySet());
+    }
+}
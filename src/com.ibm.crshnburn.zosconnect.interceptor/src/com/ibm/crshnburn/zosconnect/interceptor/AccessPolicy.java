@@ -0,0 +1,315 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import com.ibm.zosconnect.spi.Data.RequestType;
+
+/**
+ * The AccessPolicy class is an ordered list of allow and deny rules compiled for fast evaluation at P1.
+ *
+ * Each rule is written as an action followed by optional conditions, all of which must match:
+ *
+ *  allow|deny [user=PREFIX*|NAME] [uri=/PREFIX*|/PATH] [method=GET|POST|...] [type=API|SERVICE|ADMIN|UNKNOWN]
+ *
+ * for example "deny user=EX*" or "allow user=BATCH* uri=/batch/* method=POST".  The first rule that matches a
+ * request decides it, if no rule matches the default decision is used.
+ *
+ * The user conditions of all rules are compiled into a prefix trie, so evaluating a request only looks at the
+ * rules whose user condition matches.  Recent decisions are held in a fixed size cache indexed by the hash of
+ * the user, URI, method and request type, so a repeated request costs one array read.  The cache is replaced
+ * with the policy when the configuration changes.
+ *
+ * @author IBM
+ */
+final class AccessPolicy {
+
+    /**
+     * The outcome of evaluating a request, one instance exists for each rule and for the default.
+     */
+    static final class Decision {
+        private final boolean allowed;
+        private final String rule;
+
+        Decision(boolean allowed, String rule) {
+            this.allowed = allowed;
+            this.rule = rule;
+        }
+
+        boolean isAllowed() {
+            return allowed;
+        }
+
+        /**
+         * Returns the text of the rule that made the decision.
+         */
+        String getRule() {
+            return rule;
+        }
+    }
+
+    private static final class Rule {
+        final int index;
+        final Decision decision;
+        final String uri;
+        final boolean uriPrefix;
+        final String[] methods;
+        final EnumSet<RequestType> types;
+
+        Rule(int index, Decision decision, String uri, boolean uriPrefix, String[] methods, EnumSet<RequestType> types) {
+            this.index = index;
+            this.decision = decision;
+            this.uri = uri;
+            this.uriPrefix = uriPrefix;
+            this.methods = methods;
+            this.types = types;
+        }
+
+        boolean matches(String requestUri, String method, RequestType type) {
+            if (uri != null && !(uriPrefix ? requestUri.startsWith(uri) : requestUri.equals(uri))) {
+                return false;
+            }
+            if (methods != null) {
+                boolean found = false;
+                for (String m : methods) {
+                    if (m.equalsIgnoreCase(method)) {
+                        found = true;
+                        break;
+                    }
+                }
+                if (!found) {
+                    return false;
+                }
+            }
+            return types == null || types.contains(type);
+        }
+    }
+
+    /**
+     * A node of the user prefix trie.  Children are held in a sorted array and found by binary search.
+     */
+    private static final class Node {
+        char[] keys = new char[0];
+        Node[] children = new Node[0];
+        /**
+         * Rules whose user prefix ends at this node, in rule order.
+         */
+        Rule[] prefixRules = new Rule[0];
+        /**
+         * Rules whose exact user name ends at this node, in rule order.
+         */
+        Rule[] exactRules = new Rule[0];
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+    }
+
+    /**
+     * A decision cache entry.
+     */
+    private static final class Entry {
+        final String user;
+        final String uri;
+        final String method;
+        final RequestType type;
+        final Decision decision;
+
+        Entry(String user, String uri, String method, RequestType type, Decision decision) {
+            this.user = user;
+            this.uri = uri;
+            this.method = method;
+            this.type = type;
+            this.decision = decision;
+        }
+    }
+
+    private final Node root;
+
+    private final Decision defaultDecision;
+
+    private final AtomicReferenceArray<Entry> cache;
+
+    private final int cacheMask;
+
+    private AccessPolicy(Node root, Decision defaultDecision, int cacheSize) {
+        this.root = root;
+        this.defaultDecision = defaultDecision;
+        int size = Integer.highestOneBit(Math.max(2, cacheSize - 1)) << 1;
+        this.cache = new AtomicReferenceArray<>(size);
+        this.cacheMask = size - 1;
+    }
+
+    /**
+     * Compiles a policy.
+     *
+     * @param rules the rules in evaluation order
+     * @param defaultAllowed the decision when no rule matches
+     * @param cacheSize the number of decisions to cache, rounded up to a power of two
+     *
+     * @throws IllegalArgumentException if a rule cannot be parsed
+     */
+    static AccessPolicy compile(String[] rules, boolean defaultAllowed, int cacheSize) {
+        BuildNode buildRoot = new BuildNode();
+        for (int i = 0; i < rules.length; i++) {
+            parse(i, rules[i].trim(), buildRoot);
+        }
+        return new AccessPolicy(buildRoot.freeze(), new Decision(defaultAllowed, "default"), cacheSize);
+    }
+
+    /**
+     * Decides a request.
+     *
+     * @param user
+     * @param uri
+     * @param method
+     * @param type
+     */
+    Decision evaluate(String user, String uri, String method, RequestType type) {
+        int hash = user.hashCode() * 31 + uri.hashCode();
+        hash = hash * 31 + (method != null ? method.hashCode() : 0);
+        hash = hash * 31 + (type != null ? type.ordinal() : -1);
+        int index = (hash ^ (hash >>> 16)) & cacheMask;
+
+        Entry entry = cache.get(index);
+        if (entry != null && entry.type == type && entry.user.equals(user) && entry.uri.equals(uri)
+                && (entry.method == null ? method == null : entry.method.equals(method))) {
+            return entry.decision;
+        }
+
+        Decision decision = evaluateRules(user, uri, method, type);
+        cache.set(index, new Entry(user, uri, method, type, decision));
+        return decision;
+    }
+
+    /**
+     * Walks the user trie and returns the decision of the first rule, in rule order, that matches.
+     */
+    private Decision evaluateRules(String user, String uri, String method, RequestType type) {
+        Rule best = first(root.prefixRules, null, uri, method, type);
+        Node node = root;
+        for (int i = 0; i < user.length() && node != null; i++) {
+            node = node.child(user.charAt(i));
+            if (node != null) {
+                best = first(node.prefixRules, best, uri, method, type);
+            }
+        }
+        if (node != null) {
+            best = first(node.exactRules, best, uri, method, type);
+        }
+        return best != null ? best.decision : defaultDecision;
+    }
+
+    private static Rule first(Rule[] rules, Rule best, String uri, String method, RequestType type) {
+        for (Rule rule : rules) {
+            if (best != null && rule.index >= best.index) {
+                break;
+            }
+            if (rule.matches(uri, method, type)) {
+                return rule;
+            }
+        }
+        return best;
+    }
+
+    private static void parse(int index, String text, BuildNode root) {
+        String[] tokens = text.split("\\s+");
+        boolean allow;
+        if ("allow".equalsIgnoreCase(tokens[0])) {
+            allow = true;
+        } else if ("deny".equalsIgnoreCase(tokens[0])) {
+            allow = false;
+        } else {
+            throw new IllegalArgumentException("Policy rule must start with allow or deny: " + text);
+        }
+
+        String user = null;
+        String uri = null;
+        String[] methods = null;
+        EnumSet<RequestType> types = null;
+        for (int i = 1; i < tokens.length; i++) {
+            int eq = tokens[i].indexOf('=');
+            if (eq <= 0 || eq == tokens[i].length() - 1) {
+                throw new IllegalArgumentException("Policy rule condition must be name=value: " + text);
+            }
+            String name = tokens[i].substring(0, eq);
+            String value = tokens[i].substring(eq + 1);
+            if ("user".equalsIgnoreCase(name)) {
+                user = value;
+            } else if ("uri".equalsIgnoreCase(name)) {
+                uri = value;
+            } else if ("method".equalsIgnoreCase(name)) {
+                methods = value.split("\\|");
+            } else if ("type".equalsIgnoreCase(name)) {
+                types = EnumSet.noneOf(RequestType.class);
+                for (String t : value.split("\\|")) {
+                    types.add(RequestType.valueOf(t.toUpperCase()));
+                }
+            } else {
+                throw new IllegalArgumentException("Unknown policy rule condition " + name + ": " + text);
+            }
+        }
+
+        boolean uriPrefix = uri != null && uri.endsWith("*");
+        Rule rule = new Rule(index, new Decision(allow, text), uriPrefix ? uri.substring(0, uri.length() - 1) : uri,
+                uriPrefix, methods, types);
+
+        BuildNode node = root;
+        if (user == null) {
+            node.prefixRules.add(rule);
+        } else {
+            boolean userPrefix = user.endsWith("*");
+            String name = userPrefix ? user.substring(0, user.length() - 1) : user;
+            for (int i = 0; i < name.length(); i++) {
+                node = node.children.computeIfAbsent(name.charAt(i), c -> new BuildNode());
+            }
+            (userPrefix ? node.prefixRules : node.exactRules).add(rule);
+        }
+    }
+
+    /**
+     * A mutable trie node used while compiling.
+     */
+    private static final class BuildNode {
+        final Map<Character, BuildNode> children = new TreeMap<>();
+        final List<Rule> prefixRules = new ArrayList<>();
+        final List<Rule> exactRules = new ArrayList<>();
+
+        Node freeze() {
+            Node node = new Node();
+            node.keys = new char[children.size()];
+            node.children = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, BuildNode> child : children.entrySet()) {
+                node.keys[i] = child.getKey();
+                node.children[i] = child.getValue().freeze();
+                i++;
+            }
+            node.prefixRules = prefixRules.toArray(new Rule[0]);
+            node.exactRules = exactRules.toArray(new Rule[0]);
+            return node;
+        }
+    }
+}
@@ -27,13 +27,28 @@ import org.osgi.framework.BundleContext;
  */
 public class Activator implements BundleActivator {
 
+    private static final String LEAP_SECONDS_PROPERTY = "com.ibm.crshnburn.zosconnect.interceptor.tod.leapSeconds";
+
     /*
      * (non-Javadoc)
      * @see org.osgi.framework.BundleActivator#start(org.osgi.framework.BundleContext)
      */
     @Override
     public void start(BundleContext context) throws Exception {
-       System.out.println("BundleActivator start");
+       InterceptorLog.start(context);
+       String leapSeconds = context.getProperty(LEAP_SECONDS_PROPERTY);
+       if (leapSeconds != null) {
+           try {
+               StoreClock.setLeapSeconds(Integer.parseInt(leapSeconds.trim()));
+           } catch (NumberFormatException e) {
+               // A bad value must not stop the bundle starting, the default of 0 is kept.
+               InterceptorLog.log("BundleActivator", "{} value {} is not valid, using 0", LEAP_SECONDS_PROPERTY,
+                       leapSeconds);
+           }
+       }
+       InterceptorScheduler.start();
+       InterceptorMetrics.register();
+       InterceptorLog.log("BundleActivator", "start");
     }
 
     /*
@@ -42,6 +57,9 @@ public class Activator implements BundleActivator {
      */
     @Override
     public void stop(BundleContext context) throws Exception {
-       System.out.println("BundleActivator stop");
+       InterceptorLog.log("BundleActivator", "stop");
+       InterceptorMetrics.unregister();
+       InterceptorScheduler.stop();
+       InterceptorLog.stop();
     }
 }
\ No newline at end of file
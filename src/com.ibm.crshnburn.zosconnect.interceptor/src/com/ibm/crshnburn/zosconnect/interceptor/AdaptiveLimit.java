@@ -0,0 +1,194 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+
+/**
+ * The AdaptiveLimit class is a concurrency limit for one System of Record that adjusts itself to the latency
+ * the SoR is delivering, using additive increase and multiplicative decrease (AIMD).
+ *
+ * Two moving averages of the latency of successful calls are kept: a short one that follows the SoR's current
+ * latency, and a long one, the baseline, that follows its normal latency.  While the short average is within the
+ * baseline multiplied by the tolerance and the SoR is being used to at least half the limit, the limit grows by
+ * about one per limit's worth of calls.  When the short average rises above that, or a call fails, the limit is
+ * reduced by the backoff ratio, at most once per baseline latency so that a burst of slow calls does not collapse
+ * the limit.  Comparing averages rather than single calls against the fastest call seen means that the ordinary
+ * spread of a SoR's response times is not mistaken for overload, and the baseline follows a SoR whose normal
+ * latency has changed.
+ *
+ * All state is held in atomics and updated with compare-and-set, no lock is taken.
+ *
+ * @author IBM
+ */
+final class AdaptiveLimit {
+
+    /**
+     * The tuning values, shared by all the limits of an Interceptor and replaced as a whole.
+     */
+    static final class Settings {
+        final int initialLimit;
+        final int minLimit;
+        final int maxLimit;
+        final double tolerance;
+        final double backoff;
+
+        Settings(int initialLimit, int minLimit, int maxLimit, int tolerancePercent, int backoffPercent) {
+            this.minLimit = Math.max(1, minLimit);
+            this.maxLimit = Math.max(this.minLimit, maxLimit);
+            this.initialLimit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+            this.tolerance = Math.max(100, tolerancePercent) / 100.0;
+            this.backoff = Math.min(99, Math.max(10, backoffPercent)) / 100.0;
+        }
+    }
+
+    /**
+     * The weight of each call in the short average, which follows roughly the last 10 calls.
+     */
+    private static final double SHORT_WEIGHT = 0.1;
+
+    /**
+     * The weight of each call in the baseline, which follows roughly the last 500 calls.
+     */
+    private static final double LONG_WEIGHT = 0.002;
+
+    private final String name;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicLong limitBits;
+
+    private final AtomicLong shortBits = new AtomicLong(Double.doubleToRawLongBits(Double.NaN));
+
+    private final AtomicLong baselineBits = new AtomicLong(Double.doubleToRawLongBits(Double.NaN));
+
+    private final AtomicLong lastDecreaseNanos = new AtomicLong(System.nanoTime());
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    AdaptiveLimit(String name, Settings settings) {
+        this.name = name;
+        this.limitBits = new AtomicLong(Double.doubleToRawLongBits(settings.initialLimit));
+    }
+
+    /**
+     * Takes a permit if the number of calls in flight is below the limit.
+     *
+     * @return true if a permit was taken
+     */
+    boolean tryAcquire() {
+        int limit = (int) getLimit();
+        for (;;) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Takes a permit regardless of the limit, used when a call reaches the SoR without having been
+     * admitted, so that it is still counted as in flight.
+     */
+    void acquire() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Returns a permit without a latency sample, for a request that did not reach the SoR.
+     */
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    /**
+     * Returns a permit and adjusts the limit from the call's outcome.
+     *
+     * @param latencyNanos the SoR latency
+     * @param failed true if the call failed or timed out
+     * @param settings
+     */
+    void release(long latencyNanos, boolean failed, Settings settings) {
+        int used = inFlight.getAndDecrement();
+
+        double current;
+        double baseline;
+        if (failed) {
+            current = Double.longBitsToDouble(shortBits.get());
+            baseline = Double.longBitsToDouble(baselineBits.get());
+        } else {
+            current = average(shortBits, latencyNanos, SHORT_WEIGHT);
+            baseline = average(baselineBits, latencyNanos, LONG_WEIGHT);
+        }
+
+        if (failed || current > baseline * settings.tolerance) {
+            long now = System.nanoTime();
+            long last = lastDecreaseNanos.get();
+            boolean due = Double.isNaN(baseline) || now - last > baseline;
+            if (due && lastDecreaseNanos.compareAndSet(last, now)) {
+                update(settings, limit -> limit * settings.backoff);
+            }
+        } else {
+            update(settings, limit -> used * 2 >= limit ? limit + 1.0 / limit : limit);
+        }
+    }
+
+    /**
+     * Adds a latency to an exponentially weighted moving average, which starts at the first latency.
+     *
+     * @return the new average
+     */
+    private static double average(AtomicLong averageBits, long latencyNanos, double weight) {
+        for (;;) {
+            long bits = averageBits.get();
+            double average = Double.longBitsToDouble(bits);
+            double next = Double.isNaN(average) ? latencyNanos : average + (latencyNanos - average) * weight;
+            if (averageBits.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                return next;
+            }
+        }
+    }
+
+    private void update(Settings settings, DoubleUnaryOperator change) {
+        for (;;) {
+            long bits = limitBits.get();
+            double limit = Double.longBitsToDouble(bits);
+            double next = Math.min(settings.maxLimit, Math.max(settings.minLimit, change.applyAsDouble(limit)));
+            if (next == limit || limitBits.compareAndSet(bits, Double.doubleToRawLongBits(next))) {
+                return;
+            }
+        }
+    }
+
+    String getName() {
+        return name;
+    }
+
+    double getLimit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    ConcurrencySummary summarize() {
+        return new ConcurrencySummary(name, (int) getLimit(), inFlight.get(), rejected.get());
+    }
+}
@@ -66,11 +66,45 @@ import com.ibm.zosconnect.spi.InterceptorException;
  */
 public class AllPointsInterceptorRequesterSample implements EndpointInterceptor, EarlyFailureInterceptorRequester {
 
+    /**
+     * Request State Map data element used to accrue the points called, preInvokeRequester R1, preEndpointInvoke R2,
+     * postEndpointInvoke R3, and postInvokeRequester R4, held in a RequestState taken from a pool.
+     */
+    private static final String REQUEST_STATE = "ALL_POINTS_REQUESTER_REQUEST_STATE";
+
+    private static final String CFG_AD_HEAVY_HITTERS = "heavyHitters";
+
+    private static final int DEFAULT_HEAVY_HITTERS = 20;
+
+    /**
+     * The shortest time between early failure lines when the heavy hitters are not counted.
+     */
+    private static final long EARLY_FAILURE_LOG_MILLIS = 1000L;
+
+    /**
+     * The indexes of the early failure heavy hitters by API requester, and by status code, method, API requester
+     * and endpoint path.
+     */
+    private static final int HEAVY_HITTERS_API_REQUESTER = 0;
+
+    private static final int HEAVY_HITTERS_REQUEST = 1;
+
     /**
      * The registered sequence number of this Interceptor which determines the order
      * in which the Interceptor is called in relation to other Interceptors.
      */
-    private int sequence;
+    private volatile int sequence;
+
+    /**
+     * The early failure heavy hitters published through the InterceptorMetricsMXBean, or null if they are not
+     * counted.
+     */
+    private volatile HeavyHitters[] heavyHitters;
+
+    /**
+     * Limits the early failures logged when the heavy hitters are not counted.
+     */
+    private final LogThrottle earlyFailureLog = new LogThrottle(EARLY_FAILURE_LOG_MILLIS);
 
     /**
      * Activates the Interceptor.
@@ -83,10 +117,10 @@ public class AllPointsInterceptorRequesterSample implements EndpointInterceptor,
      */
     protected void activate(ComponentContext context, Map<String, Object> properties) {
 
-        System.out.println(getName() + " activated");
-        if (properties.containsKey(CFG_AD_SEQUENCE_ALIAS)) {
-            sequence = (Integer) properties.get(CFG_AD_SEQUENCE_ALIAS);
-        }
+        InterceptorLog.log(getName(), "activated");
+        ConfigProperties config = new ConfigProperties(getName(), properties);
+        sequence = config.getSequence(sequence);
+        configureHeavyHitters(config.getInt(CFG_AD_HEAVY_HITTERS, DEFAULT_HEAVY_HITTERS, 0, 1000));
     }
 
     /**
@@ -97,7 +131,8 @@ public class AllPointsInterceptorRequesterSample implements EndpointInterceptor,
      * @param context
      */
     protected void deactivate(ComponentContext context) {
-        System.out.println(getName() + " deactivated");
+        InterceptorLog.log(getName(), "deactivated");
+        configureHeavyHitters(0);
     }
 
     /**
@@ -111,10 +146,33 @@ public class AllPointsInterceptorRequesterSample implements EndpointInterceptor,
      */
     protected void modified(Map<String, Object> properties) {
 
-        System.out.println(getName() + " modified");
-        if (properties.containsKey(CFG_AD_SEQUENCE_ALIAS)) {
-            sequence = (Integer) properties.get(CFG_AD_SEQUENCE_ALIAS);
+        InterceptorLog.log(getName(), "modified");
+        ConfigProperties config = new ConfigProperties(getName(), properties);
+        sequence = config.getSequence(sequence);
+        configureHeavyHitters(config.getInt(CFG_AD_HEAVY_HITTERS, DEFAULT_HEAVY_HITTERS, 0, 1000));
+    }
+
+    /**
+     * Replaces the early failure heavy hitters if the number of keys kept has changed, 0 stops counting them.
+     *
+     * @param capacity
+     */
+    private synchronized void configureHeavyHitters(int capacity) {
+        HeavyHitters[] current = heavyHitters;
+        if (current != null && current[HEAVY_HITTERS_API_REQUESTER].getCapacity() == capacity) {
+            return;
         }
+        if (current != null) {
+            InterceptorMetrics.getInstance().removeEarlyFailures(current);
+        }
+        if (capacity > 0) {
+            current = new HeavyHitters[] { new HeavyHitters(getName(), "apiRequester", capacity),
+                    new HeavyHitters(getName(), "request", capacity) };
+            InterceptorMetrics.getInstance().addEarlyFailures(current);
+        } else {
+            current = null;
+        }
+        heavyHitters = current;
     }
 
     /**
@@ -151,12 +209,19 @@ public class AllPointsInterceptorRequesterSample implements EndpointInterceptor,
      */
 	@Override
 	public void preInvokeRequester(Map<Object, Object> requestStateMap, DataRequester data) {
-		System.out.println(getName() + " preInvokeRequester");
+		InterceptorLog.log(getName(), "preInvokeRequester");
+
+		/*
+		 * Store that this point has been called.
+		 */
+		RequestState state = RequestState.acquire();
+		state.called(RequestState.R1);
+		requestStateMap.put(REQUEST_STATE, state);
 		
-		System.out.println("Invoking the API requester " + data.getData(DataRequester.API_REQUESTER_NAME) + 
-				           " verion " + data.getData(DataRequester.API_REQUESTER_VERSION));
+		InterceptorLog.log(getName(), "Invoking the API requester {} verion {}",
+				           data.getData(DataRequester.API_REQUESTER_NAME), data.getData(DataRequester.API_REQUESTER_VERSION));
 		
-		System.out.println(getName() + " preInvokeRequester exit");
+		InterceptorLog.log(getName(), "preInvokeRequester exit");
 	}
 
     /**
@@ -173,15 +238,16 @@ public class AllPointsInterceptorRequesterSample implements EndpointInterceptor,
     * @param data
     */
 	public void preEndpointInvoke(Map<Object, Object> requestStateMap, DataRequester data) {
-		System.out.println(getName() + " preEndpointInvoke");
+		InterceptorLog.log(getName(), "preEndpointInvoke");
+		called(requestStateMap, RequestState.R2);
 		
-		System.out.println("API requester target endpoint " + data.getData(DataRequester.ENDPOINT_HOST) +
-				           ":" + data.getData(DataRequester.ENDPOINT_PORT));
+		InterceptorLog.log(getName(), "API requester target endpoint {}:{}",
+				           data.getData(DataRequester.ENDPOINT_HOST), data.getData(DataRequester.ENDPOINT_PORT));
 		
-		System.out.println("API requester about to invoke method " + data.getData(DataRequester.ENDPOINT_METHOD) + 
-				           " for path " + data.getData(DataRequester.ENDPOINT_FULL_PATH));
+		InterceptorLog.log(getName(), "API requester about to invoke method {} for path {}",
+				           data.getData(DataRequester.ENDPOINT_METHOD), data.getData(DataRequester.ENDPOINT_FULL_PATH));
 			
-		System.out.println(getName() + " preEndpointInvoke exit");
+		InterceptorLog.log(getName(), "preEndpointInvoke exit");
 	}
 	
     /**
@@ -196,11 +262,12 @@ public class AllPointsInterceptorRequesterSample implements EndpointInterceptor,
      * @param data
      */
 	public void postEndpointInvoke(Map<Object, Object> requestStateMap, DataRequester data) {
-		System.out.println(getName() + " postEndpointInvoke");
+		InterceptorLog.log(getName(), "postEndpointInvoke");
+		called(requestStateMap, RequestState.R3);
 		
-		System.out.println("API requester was invoked and the endpoint returned " + data.getData(DataRequester.HTTP_RESPONSE_CODE));
+		InterceptorLog.log(getName(), "API requester was invoked and the endpoint returned {}", data.getData(DataRequester.HTTP_RESPONSE_CODE));
 		
-		System.out.println(getName() + " postEndpointInvoke exit");
+		InterceptorLog.log(getName(), "postEndpointInvoke exit");
 	}
 	
     /**
@@ -215,11 +282,32 @@ public class AllPointsInterceptorRequesterSample implements EndpointInterceptor,
      */
 	@Override
 	public void postInvokeRequester(Map<Object, Object> requestStateMap, DataRequester data) {
-		System.out.println(getName() + " postInvokeRequester");
+		InterceptorLog.log(getName(), "postInvokeRequester");
+
+		/*
+		 * Add the final call point R4, the final value will be R1R2R3R4, or R1R4 if the endpoint was not called.
+		 * The request state is removed from the map and returned to the pool as it is no longer needed.
+		 */
+		RequestState state = (RequestState) requestStateMap.remove(REQUEST_STATE);
+		if (state != null) {
+			state.called(RequestState.R4);
+			InterceptorLog.log(getName(), "Interceptor points called were: {}", state.getCallPoints());
+			RequestState.release(state);
+		}
 		
-		System.out.println("API requester returning to calling application with " + data.getData(DataRequester.REQUEST_STATUS_CODE));
+		InterceptorLog.log(getName(), "API requester returning to calling application with {}", data.getData(DataRequester.REQUEST_STATUS_CODE));
 		
-		System.out.println(getName() + " postInvokeRequester exit");
+		InterceptorLog.log(getName(), "postInvokeRequester exit");
+	}
+
+	/**
+	 * Records that a point has been called in the request state stored by preInvokeRequester.
+	 */
+	private static void called(Map<Object, Object> requestStateMap, int point) {
+		RequestState state = (RequestState) requestStateMap.get(REQUEST_STATE);
+		if (state != null) {
+			state.called(point);
+		}
 	}
 	
 	/** 
@@ -228,15 +316,39 @@ public class AllPointsInterceptorRequesterSample implements EndpointInterceptor,
      * The DataRequester object provides the API requester request specific data available to Interceptors.
      * See com.ibm.zosconnect.spi.DataRequester javadoc for details.
      *
+     * The failure is counted by API requester, and by status code, method, API requester and endpoint path, so
+     * that the callers failing most often can be found through the InterceptorMetricsMXBean without logging
+     * every failure.  A failure is only logged when its status code, method, API requester and endpoint path
+     * become a heavy hitter, and its key is only built when its hash has been seen often enough for it to be one.
+     * If the heavy hitters are not counted, one failure a second is logged with the number of failures since the
+     * last line.
+     *
      * @param data
 	 */
 	@Override
 	public void earlyFailureRequester(DataRequester data) {
-		System.out.println(getName() + " earlyFailureRequester");
-
-        System.out.println("The request failed early, returning to application with " + data.getData(DataRequester.REQUEST_STATUS_CODE));
-
-        System.out.println(getName() + " earlyFailureRequester exit");	
+        Integer statusCode = data.getData(DataRequester.REQUEST_STATUS_CODE);
+        HeavyHitters[] current = heavyHitters;
+        if (current == null) {
+            long failures = earlyFailureLog.tryLog();
+            if (failures > 0) {
+                InterceptorLog.log(getName(), "earlyFailureRequester - The request completed with status code {}, "
+                        + "{} early failures since the last line", statusCode, failures);
+            }
+            return;
+        }
+        String apiRequester = String.valueOf(data.getData(DataRequester.API_REQUESTER_NAME));
+        String method = data.getData(DataRequester.ENDPOINT_METHOD);
+        String path = data.getData(DataRequester.ENDPOINT_FULL_PATH);
+        current[HEAVY_HITTERS_API_REQUESTER].add(apiRequester);
+        HeavyHitters requests = current[HEAVY_HITTERS_REQUEST];
+        long hash = HeavyHitters.requestHash(statusCode, method, apiRequester, path);
+        if (requests.count(hash)) {
+            String request = HeavyHitters.requestKey(statusCode, method, apiRequester, path);
+            if (requests.offer(request, hash)) {
+                InterceptorLog.log(getName(), "earlyFailureRequester - new heavy hitter {}", request);
+            }
+        }
 	}
 
 	/**
@@ -244,8 +356,8 @@ public class AllPointsInterceptorRequesterSample implements EndpointInterceptor,
      */
 	@Override
 	public void preInvoke(Map<Object, Object> arg0, HttpZosConnectRequest arg1, Data arg2) throws InterceptorException {
-		System.out.println(getName() + " preInvoke");
-		System.out.println(getName() + " preInvoke exit");
+		InterceptorLog.log(getName(), "preInvoke");
+		InterceptorLog.log(getName(), "preInvoke exit");
 	}
 	
 	/**
@@ -254,7 +366,7 @@ public class AllPointsInterceptorRequesterSample implements EndpointInterceptor,
 	@Override
 	public void postInvoke(Map<Object, Object> arg0, HttpZosConnectRequest arg1, Data arg2)
 			throws InterceptorException {
-		System.out.println(getName() + " postInvoke");
-		System.out.println(getName() + " postInvoke exit");
+		InterceptorLog.log(getName(), "postInvoke");
+		InterceptorLog.log(getName(), "postInvoke exit");
 	}
 }
@@ -17,10 +17,9 @@
 package com.ibm.crshnburn.zosconnect.interceptor;
 
 import java.security.Principal;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import java.util.Enumeration;
 import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
 import org.osgi.service.component.ComponentContext;
 
@@ -66,35 +65,136 @@ import com.ibm.zosconnect.spi.ServiceProviderInterceptor;
  * on the Interceptor's preInvoke method at P1, or on its earlyFailure method.  However, if the Liberty server is
  * configured to authenticate server users then these requests will not be seen if authentication fails.
  *
+ * The data passed from point to point, the user's identity, the SoR identifier, the time P1 was called and the
+ * points called so far, is held in a RequestState stored under a single key of the request state map.  The
+ * RequestState is taken from a pool at P1 and returned to it at P4.
+ *
+ * With traceMode set to tail the P1 to P3 messages are not written as they happen but are held in the
+ * RequestState's RequestTrace.  At P4 the trace is written only if the request was slower than slowRequestMillis,
+ * completed with an HTTP response code of errorResponseCode or above, timed out, or was one of the 1 in
+ * headSampleRate requests chosen at P1.  A fast, successful request then writes nothing to the log.
+ *
+ * The size of each request, its Content-Length and the length of its headers, is measured at P1.  The largest
+ * requests are kept and published through the InterceptorMetricsMXBean, and a request larger than
+ * maxRequestBytes is rejected.  At P4 the size is recorded against the API and the service of the request.  The
+ * SPI does not give the size of the response, so only requests are measured.
+ *
  * @author IBM
  */
 public class AllPointsInterceptorSample implements ServiceProviderInterceptor, EarlyFailureInterceptor {
 
     /**
-     * Request State Map data element used to pass user name.
+     * Request State Map data element used to accrue data across P1, P2, P3, and P4.
      */
-    private static final String USER_NAME = "USER_NAME";
+    private static final String REQUEST_STATE = "ALL_POINTS_REQUEST_STATE";
+
+    private static final String CFG_AD_TRACE_MODE = "traceMode";
+
+    private static final String CFG_AD_SLOW_REQUEST_MILLIS = "slowRequestMillis";
+
+    private static final String CFG_AD_ERROR_RESPONSE_CODE = "errorResponseCode";
+
+    private static final String CFG_AD_HEAD_SAMPLE_RATE = "headSampleRate";
+
+    private static final String CFG_AD_TRACE_CAPACITY = "traceCapacity";
+
+    private static final String CFG_AD_HEAVY_HITTERS = "heavyHitters";
+
+    private static final String CFG_AD_MAX_REQUEST_BYTES = "maxRequestBytes";
+
+    private static final String CFG_AD_LARGEST_PAYLOADS = "largestPayloads";
+
+    private static final String CONTENT_LENGTH = "Content-Length";
+
+    private static final String TRACE_MODE_FULL = "full";
+
+    private static final String TRACE_MODE_TAIL = "tail";
+
+    private static final int DEFAULT_SLOW_REQUEST_MILLIS = 1000;
+
+    private static final int DEFAULT_ERROR_RESPONSE_CODE = 500;
+
+    private static final int DEFAULT_HEAD_SAMPLE_RATE = 100;
+
+    private static final int DEFAULT_TRACE_CAPACITY = 16;
+
+    private static final int DEFAULT_HEAVY_HITTERS = 20;
+
+    private static final int DEFAULT_LARGEST_PAYLOADS = 10;
 
     /**
-     * Request State Map data element used to accrue data across P1, P2, P3, and P4.
+     * The shortest time between early failure lines when the heavy hitters are not counted.
+     */
+    private static final long EARLY_FAILURE_LOG_MILLIS = 1000L;
+
+    /**
+     * The bytes added to the length of each header's name and value for the separator and line end.
+     */
+    private static final int HEADER_OVERHEAD = 4;
+
+    /**
+     * The indexes of the early failure heavy hitters by user, by URI, and by response code, method, URI and user.
+     */
+    private static final int HEAVY_HITTERS_USER = 0;
+
+    private static final int HEAVY_HITTERS_URI = 1;
+
+    private static final int HEAVY_HITTERS_REQUEST = 2;
+
+    /**
+     * The trace and request size settings, replaced as a whole when the configuration changes.
      */
-    private static final String CALL_POINTS = "CALL_POINTSP1P2P3P4";
+    private static final class Settings {
+        final boolean tail;
+        final long slowRequestNanos;
+        final int errorResponseCode;
+        final int headSampleRate;
+        final int traceCapacity;
+        final long maxRequestBytes;
+        final LargestPayloads largestPayloads;
+
+        Settings(boolean tail, int slowRequestMillis, int errorResponseCode, int headSampleRate, int traceCapacity,
+                int maxRequestBytes, LargestPayloads largestPayloads) {
+            this.tail = tail;
+            this.slowRequestNanos = Math.max(0, slowRequestMillis) * 1_000_000L;
+            this.errorResponseCode = errorResponseCode;
+            this.headSampleRate = Math.max(0, headSampleRate);
+            this.traceCapacity = Math.max(1, traceCapacity);
+            this.maxRequestBytes = maxRequestBytes > 0 ? maxRequestBytes : Long.MAX_VALUE;
+            this.largestPayloads = largestPayloads;
+        }
+    }
 
     /**
      * The registered sequence number of this Interceptor which determines the order
      * in which the Interceptor is called in relation to other Interceptors.
      */
-    private int sequence;
+    private volatile int sequence;
+
+    private volatile Settings settings = new Settings(false, DEFAULT_SLOW_REQUEST_MILLIS, DEFAULT_ERROR_RESPONSE_CODE,
+            DEFAULT_HEAD_SAMPLE_RATE, DEFAULT_TRACE_CAPACITY, 0, null);
+
+    /**
+     * The early failure heavy hitters published through the InterceptorMetricsMXBean, or null if they are not
+     * counted.
+     */
+    private volatile HeavyHitters[] heavyHitters;
+
+    /**
+     * Limits the early failures logged when the heavy hitters are not counted.
+     */
+    private final LogThrottle earlyFailureLog = new LogThrottle(EARLY_FAILURE_LOG_MILLIS);
 
     /**
-     * Date time formatter for logging.
+     * The largest requests published through the InterceptorMetricsMXBean, or null if they are not kept.  Guarded
+     * by this, request threads use the copy in the settings.
      */
-    private DateFormat df = SimpleDateFormat.getDateTimeInstance();
+    private LargestPayloads largestPayloads;
 
     /**
      * Activates the Interceptor.
      *
-     * Trace the activation and retrieve the Interceptors sequence number from
+     * Trace the activation and retrieve the Interceptors sequence number and trace settings from
      * the Interceptors configuration element in server.xml.
      *
      * @param context
@@ -102,10 +202,8 @@ public class AllPointsInterceptorSample implements ServiceProviderInterceptor, E
      */
     protected void activate(ComponentContext context, Map<String, Object> properties) {
 
-        System.out.println(getName() + " activated");
-        if (properties.containsKey(CFG_AD_SEQUENCE_ALIAS)) {
-            sequence = (Integer) properties.get(CFG_AD_SEQUENCE_ALIAS);
-        }
+        InterceptorLog.log(getName(), "activated");
+        configure(properties);
     }
 
     /**
@@ -116,24 +214,117 @@ public class AllPointsInterceptorSample implements ServiceProviderInterceptor, E
      * @param context
      */
     protected void deactivate(ComponentContext context) {
-        System.out.println(getName() + " deactivated");
+        InterceptorLog.log(getName(), "deactivated");
+        configureHeavyHitters(0);
+        configureLargestPayloads(0);
     }
 
     /**
      * Called to signal that the Interceptors configuration element may have changed in server.xml.
      *
-     * Trace the activation and retrieve the Interceptors sequence number from
-     * the Interceptors configuration element in server.xml.
+     * Trace the activation and retrieve the Interceptors sequence number and trace settings from
+     * the Interceptors configuration element in server.xml.  Requests already in flight keep the
+     * trace mode they started with.
      *
      * @param context
      * @param properties
      */
     protected void modified(Map<String, Object> properties) {
 
-        System.out.println(getName() + " modified");
-        if (properties.containsKey(CFG_AD_SEQUENCE_ALIAS)) {
-            sequence = (Integer) properties.get(CFG_AD_SEQUENCE_ALIAS);
+        InterceptorLog.log(getName(), "modified");
+        configure(properties);
+    }
+
+    private void configure(Map<String, Object> properties) {
+        ConfigProperties config = new ConfigProperties(getName(), properties);
+        sequence = config.getSequence(sequence);
+        settings = new Settings(
+                TRACE_MODE_TAIL.equals(config.getChoice(CFG_AD_TRACE_MODE, TRACE_MODE_FULL, TRACE_MODE_FULL, TRACE_MODE_TAIL)),
+                config.getInt(CFG_AD_SLOW_REQUEST_MILLIS, DEFAULT_SLOW_REQUEST_MILLIS, 0, Integer.MAX_VALUE),
+                config.getInt(CFG_AD_ERROR_RESPONSE_CODE, DEFAULT_ERROR_RESPONSE_CODE, 100, 999),
+                config.getInt(CFG_AD_HEAD_SAMPLE_RATE, DEFAULT_HEAD_SAMPLE_RATE, 0, Integer.MAX_VALUE),
+                config.getInt(CFG_AD_TRACE_CAPACITY, DEFAULT_TRACE_CAPACITY, 1, 1000),
+                config.getInt(CFG_AD_MAX_REQUEST_BYTES, 0, 0, Integer.MAX_VALUE),
+                configureLargestPayloads(config.getInt(CFG_AD_LARGEST_PAYLOADS, DEFAULT_LARGEST_PAYLOADS, 0, 1000)));
+        configureHeavyHitters(config.getInt(CFG_AD_HEAVY_HITTERS, DEFAULT_HEAVY_HITTERS, 0, 1000));
+    }
+
+    /**
+     * Replaces the early failure heavy hitters if the number of keys kept has changed, 0 stops counting them.
+     *
+     * @param capacity
+     */
+    private synchronized void configureHeavyHitters(int capacity) {
+        HeavyHitters[] current = heavyHitters;
+        if (current != null && current[HEAVY_HITTERS_USER].getCapacity() == capacity) {
+            return;
+        }
+        if (current != null) {
+            InterceptorMetrics.getInstance().removeEarlyFailures(current);
+        }
+        if (capacity > 0) {
+            current = new HeavyHitters[] { new HeavyHitters(getName(), "user", capacity),
+                    new HeavyHitters(getName(), "uri", capacity), new HeavyHitters(getName(), "request", capacity) };
+            InterceptorMetrics.getInstance().addEarlyFailures(current);
+        } else {
+            current = null;
+        }
+        heavyHitters = current;
+    }
+
+    /**
+     * Replaces the largest requests kept if the number kept has changed, 0 stops keeping them.
+     *
+     * @param capacity
+     *
+     * @return the largest requests, or null if they are not kept
+     */
+    private synchronized LargestPayloads configureLargestPayloads(int capacity) {
+        LargestPayloads current = largestPayloads;
+        if (current != null && current.getCapacity() == capacity) {
+            return current;
+        }
+        if (current != null) {
+            InterceptorMetrics.getInstance().removeLargestPayloads(current);
+        }
+        if (capacity > 0) {
+            current = new LargestPayloads(getName(), capacity);
+            InterceptorMetrics.getInstance().addLargestPayloads(current);
+        } else {
+            current = null;
         }
+        largestPayloads = current;
+        return current;
+    }
+
+    /**
+     * Returns the Content-Length of a request, or -1 if it has none or it is not valid.
+     */
+    private static long contentLength(HttpZosConnectRequest httpZosConnectRequest) {
+        String value = httpZosConnectRequest.getHeader(CONTENT_LENGTH);
+        if (value == null) {
+            return -1L;
+        }
+        try {
+            long length = Long.parseLong(value.trim());
+            return length >= 0 ? length : -1L;
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    /**
+     * Returns the length of the headers of a request, counting each character as a byte as in HTTP/1.1.
+     */
+    private static long headerBytes(HttpZosConnectRequest httpZosConnectRequest) {
+        Enumeration<String> names = httpZosConnectRequest.getHeaderNames();
+        long bytes = 0L;
+        while (names != null && names.hasMoreElements()) {
+            String name = names.nextElement();
+            String value = httpZosConnectRequest.getHeader(name);
+            bytes += name.length() + (value != null ? value.length() : 0) + HEADER_OVERHEAD;
+        }
+        return bytes;
     }
 
     /**
@@ -177,37 +368,72 @@ public class AllPointsInterceptorSample implements ServiceProviderInterceptor, E
     public void preInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
             throws InterceptorException {
 
-        System.out.println(getName() + " preInvoke - P1");
-        String path = httpZosConnectRequest.getRequestURI().trim();
-
         /*
-         * Get the user name for message display
+         * Measure the request, keep it if it is one of the largest seen, and reject it if it is too large
+         * for the SoR.
          */
-        Principal principal = httpZosConnectRequest.getUserPrincipal();
-        String user = "<unknown>";
-        if(principal != null){
-            user = principal.getName().trim();
+        Settings current = settings;
+        long contentLength = contentLength(httpZosConnectRequest);
+        long headerBytes = headerBytes(httpZosConnectRequest);
+        boolean tooLarge = contentLength > current.maxRequestBytes;
+        if (current.largestPayloads != null && contentLength >= 0) {
+            Principal caller = httpZosConnectRequest.getUserPrincipal();
+            current.largestPayloads.offer(httpZosConnectRequest.getMethod(), httpZosConnectRequest.getRequestURI(),
+                    caller != null ? caller.getName().trim() : "<unknown>", contentLength, headerBytes, tooLarge);
+        }
+        if (tooLarge) {
+            InterceptorLog.log(getName(), "preInvoke InterceptorException - P1 - Request of {} bytes to URI {} is larger than {}",
+                    contentLength, httpZosConnectRequest.getRequestURI(), current.maxRequestBytes);
+            throw new InterceptorException("Request not processed, content length " + contentLength + " exceeds "
+                    + current.maxRequestBytes + " bytes");
         }
 
-        if (data.getData(Data.USER_NAME_MAPPED) != null) {
-            user += " (" + data.getData(Data.USER_NAME_MAPPED) + ")";
+        /*
+         * Take the state that is passed from point to point, and in tail mode start holding back the trace,
+         * deciding now whether this request is in the head sample.
+         */
+        RequestState state = RequestState.acquire();
+        requestStateMap.put(REQUEST_STATE, state);
+        state.setRequestSize(contentLength, headerBytes);
+        RequestTrace trace = null;
+        if (current.tail) {
+            boolean sampled = current.headSampleRate > 0
+                    && ThreadLocalRandom.current().nextInt(current.headSampleRate) == 0;
+            trace = state.startTrace(current.traceCapacity, sampled);
         }
 
+        trace(trace, "preInvoke - P1", null, null, null);
+        String path = httpZosConnectRequest.getRequestURI().trim();
+
         /*
-         * Store the user in the request state map for the postInvoke method.
+         * Get the user's identity for message display, a user seen before is found in the shared identity
+         * cache without building any strings.
          */
-        requestStateMap.put(USER_NAME, user);
+        Principal principal = httpZosConnectRequest.getUserPrincipal();
+        UserIdentity identity = UserIdentities.getInstance().resolve(principal != null ? principal.getName() : null,
+                data.getData(Data.USER_NAME_MAPPED));
 
         /*
-         * Store that this point has been called.
+         * Store the identity in the request state for the postInvoke method.
          */
-        requestStateMap.put(CALL_POINTS, "P1");
+        state.setIdentity(identity);
+
+        /*
+         * Store that this point has been called, and when, so that P4 can work out
+         * how long the request waited before reaching P1.
+         */
+        state.called(RequestState.P1);
+        state.setP1EpochNanos(StoreClock.nowEpochNanos());
 
         /*
          * Tell the user
          */
-        System.out.println(String.format("User %s called URI %s at %s", user, path, df.format(new Date())));
-        System.out.println(getName() + " preInvoke exit - P1");
+        if (identity.getMappedUser() != null) {
+            trace(trace, "User {} ({}) called URI {}", identity.getUser(), identity.getMappedUser(), path);
+        } else {
+            trace(trace, "User {} called URI {}", identity.getUser(), path, null);
+        }
+        trace(trace, "preInvoke exit - P1", null, null, null);
     }
 
     /**
@@ -238,21 +464,26 @@ public class AllPointsInterceptorSample implements ServiceProviderInterceptor, E
      */
     @Override
     public void preSorInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data) {
-        System.out.println(getName() + " preSorInvoke - P2");
+        RequestState state = (RequestState) requestStateMap.get(REQUEST_STATE);
+        if (state == null) {
+            return;
+        }
+        RequestTrace trace = state.getTrace();
+        trace(trace, "preSorInvoke - P2", null, null, null);
 
         /*
-         * Store the SOR_IDENTIFIER in the request state map for the postSorInvoke method
+         * Store the SOR_IDENTIFIER in the request state for the postSorInvoke method
          * to determine if it has changed.
          */
-        requestStateMap.put(Data.SOR_IDENTIFIER, data.getData(Data.SOR_IDENTIFIER));
+        state.setSorIdentifier(data.getData(Data.SOR_IDENTIFIER));
 
         /*
          * Store that this point has been called.
          */
-        requestStateMap.put(CALL_POINTS, requestStateMap.get(CALL_POINTS) + "P2");
+        state.called(RequestState.P2);
 
-        System.out.println(String.format("SoR called %s", data.getData(Data.SOR_IDENTIFIER)));
-        System.out.println(getName() + " preSorInvoke exit - P2");
+        trace(trace, "SoR called {}", data.getData(Data.SOR_IDENTIFIER), null, null);
+        trace(trace, "preSorInvoke exit - P2", null, null, null);
     }
 
     /**
@@ -274,20 +505,25 @@ public class AllPointsInterceptorSample implements ServiceProviderInterceptor, E
      */
     @Override
     public void postSorInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data) {
-        System.out.println(getName() + " postSorInvoke - P3");
+        RequestState state = (RequestState) requestStateMap.get(REQUEST_STATE);
+        if (state == null) {
+            return;
+        }
+        RequestTrace trace = state.getTrace();
+        trace(trace, "postSorInvoke - P3", null, null, null);
 
-        String originalSorIdentifier = (String)requestStateMap.get(Data.SOR_IDENTIFIER);
+        String originalSorIdentifier = state.getSorIdentifier();
         if (originalSorIdentifier!= null &&
             !originalSorIdentifier.equals(data.getData(Data.SOR_IDENTIFIER))) {
-            System.out.println("Modified SOR_IDENTIFIER " + data.getData(Data.SOR_IDENTIFIER));
+            trace(trace, "Modified SOR_IDENTIFIER {}", data.getData(Data.SOR_IDENTIFIER), null, null);
         }
 
         /*
          * Store that this point has been called.
          */
-        requestStateMap.put(CALL_POINTS, requestStateMap.get(CALL_POINTS) + "P3");
+        state.called(RequestState.P3);
 
-        System.out.println(getName() + " postSorInvoke exit - P3");
+        trace(trace, "postSorInvoke exit - P3", null, null, null);
     }
 
     /**
@@ -303,6 +539,9 @@ public class AllPointsInterceptorSample implements ServiceProviderInterceptor, E
      *  Data.TIME_ZOS_CONNECT_EXIT
      *  Data.REQUEST_TIMED_OUT
      *
+     * In tail mode the request's trace is written here, followed by the P4 messages, only if the request is
+     * to be kept.
+     *
      * @param requestStateMap
      * @param httpZosConnectRequest
      * @param data
@@ -312,12 +551,55 @@ public class AllPointsInterceptorSample implements ServiceProviderInterceptor, E
     @Override
     public void postInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
             throws InterceptorException {
-        System.out.println(getName() + " postInvoke - P4");
 
         /*
-         * Gets the user from the request state map for the postInvoke method.
+         * Take the request state out of the map, it is returned to the pool once P4 is finished with it.
+         */
+        RequestState state = (RequestState) requestStateMap.remove(REQUEST_STATE);
+        if (state == null) {
+            InterceptorLog.log(getName(), "postInvoke - P4 without preInvoke - P1");
+            return;
+        }
+        try {
+            postInvoke(state, data);
+        } finally {
+            RequestState.release(state);
+        }
+    }
+
+    private void postInvoke(RequestState state, Data data) {
+
+        /*
+         * Record the size of the request measured at P1 against its API and service.
          */
-        String user = (String)requestStateMap.get(USER_NAME);
+        InterceptorMetrics metrics = InterceptorMetrics.getInstance();
+        String api = data.getData(Data.API_NAME);
+        if (api != null) {
+            metrics.recordApiPayload(api, state.getContentLength(), state.getHeaderBytes());
+        }
+        String service = data.getData(Data.SERVICE_NAME);
+        if (service != null) {
+            metrics.recordServicePayload(service, state.getContentLength(), state.getHeaderBytes());
+        }
+
+        /*
+         * Break the request time down into stages using the STCKE times z/OS Connect EE
+         * recorded and the time observed at P1.  A stage of -1 was not reached.
+         */
+        StageLatency stages = state.getStages();
+        stages.compute(data, state.getP1EpochNanos());
+
+        RequestTrace trace = state.getTrace();
+        if (trace != null) {
+            String reason = keepReason(trace, data, stages, state.getP1EpochNanos());
+            if (reason == null) {
+                return;
+            }
+            InterceptorLog.log(getName(), "Trace kept as the request {}", reason);
+            trace.write(getName());
+        }
+
+        InterceptorLog.log(getName(), "postInvoke - P4");
 
         /*
          * Add the final call point P4, the final value will be P1P2P3P4.
@@ -326,12 +608,65 @@ public class AllPointsInterceptorSample implements ServiceProviderInterceptor, E
          *
          * This shows how a data element can be passed between the methods.
          */
-        String callPoints = requestStateMap.get(CALL_POINTS) + "P4";
-        System.out.println(getName() + " Interceptor points called were: " + callPoints);
+        state.called(RequestState.P4);
+        InterceptorLog.log(getName(), "Interceptor points called were: {}", state.getCallPoints());
+
+        /*
+         * Gets the user from the request state for the postInvoke method.
+         */
+        UserIdentity identity = state.getIdentity();
+        if (identity.getMappedUser() != null) {
+            InterceptorLog.log(getName(), "The request for user {} ({}) completed with HTTP Response Code {}", identity.getUser(), identity.getMappedUser(), data.getData(Data.HTTP_RESPONSE_CODE));
+        } else {
+            InterceptorLog.log(getName(), "The request for user {} completed with HTTP Response Code {}", identity.getUser(), data.getData(Data.HTTP_RESPONSE_CODE));
+        }
+        String user = identity.getDisplayName();
+
+        InterceptorLog.log(getName(), "Stage latency for user {} in microseconds queue {} preSor {} sor {} response {} total {}",
+                user, micros(stages.getQueueNanos()), micros(stages.getPreSorNanos()), micros(stages.getSorNanos()),
+                micros(stages.getResponseNanos()), micros(stages.getTotalNanos()));
+
+        InterceptorLog.log(getName(), "postInvoke exit - P4");
+    }
+
+    /**
+     * Decides whether a request's trace is kept, returning why, or null if the request was fast and successful.
+     */
+    private String keepReason(RequestTrace trace, Data data, StageLatency stages, long p1EpochNanos) {
+        Settings current = settings;
+        if (Boolean.TRUE.equals(data.getData(Data.REQUEST_TIMED_OUT))) {
+            return "timed out";
+        }
+        Integer responseCode = data.getData(Data.HTTP_RESPONSE_CODE);
+        if (responseCode != null && responseCode >= current.errorResponseCode) {
+            return "failed";
+        }
+        long total = stages.getTotalNanos();
+        if (total < 0 && p1EpochNanos != StoreClock.UNAVAILABLE) {
+            total = StoreClock.nowEpochNanos() - p1EpochNanos;
+        }
+        if (total > current.slowRequestNanos) {
+            return "was slow";
+        }
+        return trace.isSampled() ? "was sampled" : null;
+    }
 
-        System.out.println("The request for user " + user + " completed with HTTP Response Code " + data.getData(Data.HTTP_RESPONSE_CODE));
+    /**
+     * Writes a trace message, or holds it back in the request's trace in tail mode.
+     */
+    private void trace(RequestTrace trace, String message, Object arg0, Object arg1, Object arg2) {
+        if (trace != null) {
+            trace.add(message, arg0, arg1, arg2);
+        } else {
+            InterceptorLog.log(getName(), message, arg0, arg1, arg2);
+        }
+    }
 
-        System.out.println(getName() + " postInvoke exit - P4");
+    /**
+     * Converts a stage time in nanoseconds to microseconds, leaving -1 for a stage not reached.
+     */
+    private static long micros(long nanos) {
+        return nanos < 0 ? nanos : nanos / 1000L;
     }
 
     /**
@@ -356,15 +691,41 @@ public class AllPointsInterceptorSample implements ServiceProviderInterceptor, E
      *  httpZosConnectRequest.getMethod()
      *  httpZosConnectRequest.getRequestURL()
      *
+     * The failure is counted by user, by URI, and by response code, method, URI and user, so that the clients
+     * failing most often can be found through the InterceptorMetricsMXBean without logging every failure.  A
+     * failure is only logged when its response code, method, URI and user become a heavy hitter, so a storm of
+     * failures writes a line for each of its top requests and not one for each failure.  The key of a failure is
+     * only built when its hash has been seen often enough for it to be a heavy hitter.  If the heavy hitters are
+     * not counted, one failure a second is logged with the number of failures since the last line.
+     *
      * @param httpZosConnectRequest
      * @param data
      */
     @Override
     public void earlyFailure(HttpZosConnectRequest httpZosConnectRequest, Data data) {
-        System.out.println(getName() + " earlyFailure");
-
-        System.out.println("The request completed with HTTP Response Code " + data.getData(Data.HTTP_RESPONSE_CODE));
-
-        System.out.println(getName() + " earlyFailure exit");
+        Integer responseCode = data.getData(Data.HTTP_RESPONSE_CODE);
+        HeavyHitters[] current = heavyHitters;
+        if (current == null) {
+            long failures = earlyFailureLog.tryLog();
+            if (failures > 0) {
+                InterceptorLog.log(getName(), "earlyFailure - The request completed with HTTP Response Code {}, "
+                        + "{} early failures since the last line", responseCode, failures);
+            }
+            return;
+        }
+        Principal principal = httpZosConnectRequest.getUserPrincipal();
+        String user = principal != null ? principal.getName().trim() : "<unknown>";
+        String uri = String.valueOf(httpZosConnectRequest.getRequestURI());
+        String method = httpZosConnectRequest.getMethod();
+        current[HEAVY_HITTERS_USER].add(user);
+        current[HEAVY_HITTERS_URI].add(uri);
+        HeavyHitters requests = current[HEAVY_HITTERS_REQUEST];
+        long hash = HeavyHitters.requestHash(responseCode, method, uri, user);
+        if (requests.count(hash)) {
+            String request = HeavyHitters.requestKey(responseCode, method, uri, user);
+            if (requests.offer(request, hash)) {
+                InterceptorLog.log(getName(), "earlyFailure - new heavy hitter {}", request);
+            }
+        }
     }
 }
@@ -0,0 +1,62 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+/**
+ * The AuditDurability determines when the records written to an AuditLog are forced to disk, trading the
+ * records that could be lost if the system fails against the cost to each request.
+ *
+ * @author IBM
+ */
+public enum AuditDurability {
+
+    /**
+     * Records are never forced, the operating system writes the mapped pages back in its own time.  Records
+     * survive the failure of the server but not of the system.
+     */
+    NONE,
+
+    /**
+     * Records are forced by a background thread every flush interval, or sooner once the flush record count
+     * has been written.  At most that interval's records can be lost, and requests never wait.
+     */
+    INTERVAL,
+
+    /**
+     * Each request waits until its record has been forced.  The records of all requests that complete while a
+     * force is in progress are committed together by the next force, so the cost is shared under load.
+     */
+    SYNC;
+
+    /**
+     * Returns the durability named by the value, ignoring case, or the default durability if the value is
+     * null or not recognised.
+     *
+     * @param value
+     * @param defaultDurability
+     */
+    public static AuditDurability parse(String value, AuditDurability defaultDurability) {
+        if (value != null) {
+            for (AuditDurability durability : values()) {
+                if (durability.name().equalsIgnoreCase(value.trim())) {
+                    return durability;
+                }
+            }
+        }
+        return defaultDurability;
+    }
+}
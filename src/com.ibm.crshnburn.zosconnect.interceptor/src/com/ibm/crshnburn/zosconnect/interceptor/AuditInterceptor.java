@@ -0,0 +1,244 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+
+import org.osgi.service.component.ComponentContext;
+
+import com.ibm.zosconnect.spi.Data;
+import com.ibm.zosconnect.spi.EarlyFailureInterceptor;
+import com.ibm.zosconnect.spi.HttpZosConnectRequest;
+import com.ibm.zosconnect.spi.Interceptor;
+import com.ibm.zosconnect.spi.InterceptorException;
+
+/**
+ * The AuditInterceptor class is an example of an Interceptor that keeps a durable audit record of every API
+ * provider request, including the requests that fail before P1.
+ *
+ * At P4, and when z/OS Connect EE reports an early failure, a fixed length binary record holding the user, the
+ * request URI, the System of Record identifier, the HTTP response code and the STCK times of the request is
+ * written to an AuditLog.  The records are written into memory-mapped segment files in the audit directory, and
+ * the AuditDurability set on the Interceptor's configuration element in server.xml decides when they are forced
+ * to disk.  The segment files can be decoded with the AuditLogReader.
+ *
+ * Nothing is done at P1, so the Interceptor should have a high sequence number to see the response code set by
+ * the Interceptors called after it at P4.
+ *
+ * @author IBM
+ */
+public class AuditInterceptor implements Interceptor, EarlyFailureInterceptor {
+
+    private static final String CFG_AD_DIRECTORY = "directory";
+
+    private static final String CFG_AD_RECORDS_PER_SEGMENT = "recordsPerSegment";
+
+    private static final String CFG_AD_DURABILITY = "durability";
+
+    private static final String CFG_AD_FLUSH_INTERVAL_MILLIS = "flushIntervalMillis";
+
+    private static final String CFG_AD_FLUSH_RECORDS = "flushRecords";
+
+    private static final String LOG_DIRECTORY_PROPERTY = "com.ibm.ws.logging.log.directory";
+
+    private static final String DEFAULT_DIRECTORY_NAME = "audit";
+
+    private static final int DEFAULT_RECORDS_PER_SEGMENT = 65536;
+
+    private static final int DEFAULT_FLUSH_INTERVAL_MILLIS = 1000;
+
+    private static final int DEFAULT_FLUSH_RECORDS = 4096;
+
+    /**
+     * The registered sequence number of this Interceptor which determines the order
+     * in which the Interceptor is called in relation to other Interceptors.
+     */
+    private volatile int sequence;
+
+    /**
+     * The server's log directory, the parent of the default audit directory.
+     */
+    private String logDirectory;
+
+    /**
+     * The open audit log, or null if it could not be opened.
+     */
+    private volatile AuditLog log;
+
+    /**
+     * Activates the Interceptor.
+     *
+     * Trace the activation, retrieve the Interceptor's configuration from the Interceptor's
+     * configuration element in server.xml and open the audit log.
+     *
+     * @param context
+     * @param properties
+     */
+    protected void activate(ComponentContext context, Map<String, Object> properties) {
+        InterceptorLog.log(getName(), "activated");
+        if (context != null) {
+            logDirectory = context.getBundleContext().getProperty(LOG_DIRECTORY_PROPERTY);
+        }
+        configure(properties);
+    }
+
+    /**
+     * Deactivates the Interceptor.
+     *
+     * The Interceptor will no longer receive events.  The audit log is forced and closed.
+     *
+     * @param context
+     */
+    protected void deactivate(ComponentContext context) {
+        InterceptorLog.log(getName(), "deactivated");
+        synchronized (this) {
+            close(log);
+            log = null;
+        }
+    }
+
+    /**
+     * Called to signal that the Interceptor's configuration element may have changed in server.xml.
+     *
+     * A change to the directory or the segment size closes the audit log and opens a new one, a change to the
+     * durability applies to the next record written.
+     *
+     * @param properties
+     */
+    protected void modified(Map<String, Object> properties) {
+        InterceptorLog.log(getName(), "modified");
+        configure(properties);
+    }
+
+    private synchronized void configure(Map<String, Object> properties) {
+        ConfigProperties config = new ConfigProperties(getName(), properties);
+        sequence = config.getSequence(sequence);
+
+        String directoryValue = config.getString(CFG_AD_DIRECTORY, null);
+        Path directory;
+        if (directoryValue != null) {
+            directory = Paths.get(directoryValue);
+        } else {
+            directory = logDirectory != null ? Paths.get(logDirectory, DEFAULT_DIRECTORY_NAME)
+                    : Paths.get(DEFAULT_DIRECTORY_NAME);
+        }
+        int recordsPerSegment = config.getInt(CFG_AD_RECORDS_PER_SEGMENT, DEFAULT_RECORDS_PER_SEGMENT, 1,
+                AuditLog.MAX_RECORDS_PER_SEGMENT);
+        AuditDurability durability = AuditDurability.parse(config.getString(CFG_AD_DURABILITY, null),
+                AuditDurability.INTERVAL);
+        int flushIntervalMillis = config.getInt(CFG_AD_FLUSH_INTERVAL_MILLIS, DEFAULT_FLUSH_INTERVAL_MILLIS, 1, 3_600_000);
+        int flushRecords = config.getInt(CFG_AD_FLUSH_RECORDS, DEFAULT_FLUSH_RECORDS, 1, Integer.MAX_VALUE);
+
+        AuditLog current = log;
+        if (current != null && current.getDirectory().equals(directory)
+                && current.getRecordsPerSegment() == recordsPerSegment) {
+            current.setFlushPolicy(durability, flushIntervalMillis, flushRecords);
+            return;
+        }
+
+        log = null;
+        close(current);
+        try {
+            log = AuditLog.open(directory, recordsPerSegment, durability, flushIntervalMillis, flushRecords);
+            InterceptorLog.log(getName(), "audit log opened in {} with {} durability", directory, durability);
+        } catch (IOException e) {
+            InterceptorLog.log(getName(), "audit log not opened in {}, {}", directory, e.toString());
+        }
+    }
+
+    private void close(AuditLog current) {
+        if (current == null) {
+            return;
+        }
+        try {
+            current.close();
+            InterceptorLog.log(getName(), "audit log closed after {} records", current.getRecordCount());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns this Interceptor's configured sequence number.
+     */
+    @Override
+    public int getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns this Interceptor's name.
+     */
+    @Override
+    public String getName() {
+        return "zOSConnectAuditInterceptor";
+    }
+
+    /**
+     * z/OS Connect EE calls preInvoke method at point P1, there is nothing to do.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void preInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
+            throws InterceptorException {
+    }
+
+    /**
+     * z/OS Connect EE calls postInvoke method at point P4.
+     *
+     * The request's audit record is written.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void postInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
+            throws InterceptorException {
+        AuditLog current = log;
+        if (current != null) {
+            current.append(AuditLog.KIND_REQUEST, httpZosConnectRequest, data);
+        }
+    }
+
+    /**
+     * z/OS Connect EE calls earlyFailure when a request fails before P1, for example because the user could not
+     * be authenticated.
+     *
+     * The request's audit record is written.
+     *
+     * @param httpZosConnectRequest
+     * @param data
+     */
+    @Override
+    public void earlyFailure(HttpZosConnectRequest httpZosConnectRequest, Data data) {
+        AuditLog current = log;
+        if (current != null) {
+            current.append(AuditLog.KIND_EARLY_FAILURE, httpZosConnectRequest, data);
+        }
+    }
+}
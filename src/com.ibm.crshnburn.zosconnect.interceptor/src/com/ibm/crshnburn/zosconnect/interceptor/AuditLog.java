@@ -0,0 +1,643 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.zip.CRC32;
+
+import com.ibm.zosconnect.spi.Data;
+import com.ibm.zosconnect.spi.HttpZosConnectRequest;
+
+/**
+ * The AuditLog class writes a fixed length binary record for each request into memory-mapped segment files.
+ *
+ * A segment file is named audit-NNNNNNNNNN.seg and holds a header followed by a fixed number of records, and is
+ * sized to hold them all when it is created.  A request thread claims the next sequence number with a single
+ * atomic increment, which also decides the segment and the slot in the segment the record is written to, so
+ * request threads never wait for each other.  The record is built in a buffer held by the thread, protected
+ * with a CRC32, and copied into the mapped segment, with the sequence number written last.  When the slots of a
+ * segment are used up the next segment is created, and the full segment is forced and closed once every record
+ * in it has been written.
+ *
+ * Nothing is forced to disk by the request threads.  A background flusher thread forces the segments written
+ * since its last pass, as the AuditDurability requires: every flush interval or once the flush record count has
+ * been reached, or, for SYNC, as soon as a request is waiting.  Requests waiting for SYNC durability are all
+ * released by the same force, so the records are committed in groups.
+ *
+ * Each time the log is opened it starts a new segment after the last one in the directory, continuing the
+ * sequence numbers from where that segment's numbering ended.  The records are decoded by the AuditLogReader.
+ *
+ * The layout of the header, at offset 0 of the segment:
+ *
+ *  0  int  magic 0x5A434155
+ *  4  int  version
+ *  8  int  record length, 256
+ *  12 int  the number of records in the segment
+ *  16 long segment number
+ *  24 long sequence number of the first record
+ *  32 long time the segment was created, milliseconds since the Java epoch
+ *
+ * The layout of a record, at offset record length * (slot + 1):
+ *
+ *  0   long  sequence number, 0 if the slot has not been written
+ *  8   int   CRC32 of the record excluding this field
+ *  12  short HTTP response code, or -1
+ *  14  byte  kind, 1 for a request that reached P1, 2 for an early failure
+ *  15  byte  flags, 1 if the request timed out, 2 if a field was truncated
+ *  16  byte  Data.RequestType ordinal
+ *  24  long  STCK of Data.TIME_ZOS_CONNECT_ENTRY, or 0
+ *  32  long  STCK of Data.TIME_SOR_SENT, or 0
+ *  40  long  STCK of Data.TIME_SOR_RECEIVED, or 0
+ *  48  long  STCK of Data.TIME_ZOS_CONNECT_EXIT, or 0
+ *  56  8 bytes   HTTP method
+ *  64  32 bytes  user principal name
+ *  96  8 bytes   Data.USER_NAME_MAPPED
+ *  104 24 bytes  Data.SOR_IDENTIFIER
+ *  128 128 bytes request URI
+ *
+ * Numbers are big-endian.  Text fields are ASCII, padded with zeros, with other characters written as ?.
+ *
+ * @author IBM
+ */
+public final class AuditLog {
+
+    static final int MAGIC = 0x5A434155;
+
+    static final int VERSION = 1;
+
+    static final int RECORD_LENGTH = 256;
+
+    /**
+     * The most records a segment can hold, so that its mapping is no larger than 2GB.
+     */
+    static final int MAX_RECORDS_PER_SEGMENT = Integer.MAX_VALUE / RECORD_LENGTH - 1;
+
+    static final String SEGMENT_PREFIX = "audit-";
+
+    static final String SEGMENT_SUFFIX = ".seg";
+
+    static final int HEADER_RECORDS = 12;
+
+    static final int HEADER_SEGMENT = 16;
+
+    static final int HEADER_FIRST_SEQUENCE = 24;
+
+    static final int HEADER_CREATED = 32;
+
+    static final int SEQUENCE = 0;
+
+    static final int CRC = 8;
+
+    static final int RESPONSE_CODE = 12;
+
+    static final int KIND = 14;
+
+    static final int FLAGS = 15;
+
+    static final int REQUEST_TYPE = 16;
+
+    static final int TIME_ENTRY = 24;
+
+    static final int TIME_SOR_SENT = 32;
+
+    static final int TIME_SOR_RECEIVED = 40;
+
+    static final int TIME_EXIT = 48;
+
+    static final int METHOD = 56;
+
+    static final int METHOD_LENGTH = 8;
+
+    static final int USER = 64;
+
+    static final int USER_LENGTH = 32;
+
+    static final int MAPPED_USER = 96;
+
+    static final int MAPPED_USER_LENGTH = 8;
+
+    static final int SOR_IDENTIFIER = 104;
+
+    static final int SOR_IDENTIFIER_LENGTH = 24;
+
+    static final int URI = 128;
+
+    static final int URI_LENGTH = 128;
+
+    static final byte KIND_REQUEST = 1;
+
+    static final byte KIND_EARLY_FAILURE = 2;
+
+    static final int FLAG_TIMED_OUT = 1;
+
+    static final int FLAG_TRUNCATED = 2;
+
+    /**
+     * A mapped segment file.
+     */
+    private static final class Segment {
+        final long offset;
+        final Path path;
+        final FileChannel channel;
+        final MappedByteBuffer buffer;
+        final AtomicInteger written = new AtomicInteger();
+        volatile boolean dirty;
+
+        Segment(long offset, Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.offset = offset;
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+    }
+
+    /**
+     * The buffers a request thread builds its records in.  A writer holds no segment, so a thread that stops
+     * writing does not keep a retired or closed segment's mapping, and is shared by every log the thread writes to.
+     */
+    private static final class Writer {
+        final byte[] record = new byte[RECORD_LENGTH];
+        final ByteBuffer source = ByteBuffer.wrap(record);
+        final CRC32 crc = new CRC32();
+    }
+
+    private static final ThreadLocal<Writer> WRITERS = ThreadLocal.withInitial(Writer::new);
+
+    private final Path directory;
+
+    private final int recordsPerSegment;
+
+    private final long firstSegment;
+
+    private final long firstSequence;
+
+    private final AtomicLong nextSequence;
+
+    /**
+     * The open segments by offset from the first segment, guarded by itself.
+     */
+    private final Map<Long, Segment> segments = new HashMap<>();
+
+    private volatile Segment current;
+
+    private final Thread flusher;
+
+    private volatile boolean running = true;
+
+    private volatile AuditDurability durability;
+
+    private volatile long flushIntervalNanos;
+
+    private volatile int flushRecords;
+
+    private final AtomicInteger unforced = new AtomicInteger();
+
+    private final AtomicLong flushGeneration = new AtomicLong();
+
+    private volatile long forcedGeneration;
+
+    private final Object forceLock = new Object();
+
+    private final AtomicLong forces = new AtomicLong();
+
+    private final AtomicLong errors = new AtomicLong();
+
+    private AuditLog(Path directory, int recordsPerSegment, long firstSegment, long firstSequence) {
+        this.directory = directory;
+        this.recordsPerSegment = recordsPerSegment;
+        this.firstSegment = firstSegment;
+        this.firstSequence = firstSequence;
+        this.nextSequence = new AtomicLong(firstSequence);
+        this.flusher = new Thread(this::flushLoop, "SampleInterceptorAuditFlusher");
+        this.flusher.setDaemon(true);
+    }
+
+    /**
+     * Opens an audit log, starting a new segment after any already in the directory, and starts its flusher.
+     *
+     * @param directory the directory for the segment files, created if it does not exist
+     * @param recordsPerSegment the number of records in each segment file, at most MAX_RECORDS_PER_SEGMENT
+     * @param durability
+     * @param flushIntervalMillis
+     * @param flushRecords
+     *
+     * @throws IOException if the directory cannot be created or read
+     */
+    public static AuditLog open(Path directory, int recordsPerSegment, AuditDurability durability,
+            long flushIntervalMillis, int flushRecords) throws IOException {
+        Files.createDirectories(directory);
+        long lastSegment = -1L;
+        Path lastPath = null;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                long segment = segmentNumber(file);
+                if (segment > lastSegment) {
+                    lastSegment = segment;
+                    lastPath = file;
+                }
+            }
+        }
+
+        long firstSequence = 1L;
+        if (lastPath != null) {
+            try (FileChannel channel = FileChannel.open(lastPath, StandardOpenOption.READ)) {
+                ByteBuffer header = ByteBuffer.allocate(RECORD_LENGTH);
+                channel.read(header, 0L);
+                if (header.getInt(0) == MAGIC) {
+                    firstSequence = header.getLong(HEADER_FIRST_SEQUENCE) + header.getInt(HEADER_RECORDS);
+                }
+            }
+        }
+
+        AuditLog log = new AuditLog(directory, Math.max(1, Math.min(recordsPerSegment, MAX_RECORDS_PER_SEGMENT)), lastSegment + 1, firstSequence);
+        log.setFlushPolicy(durability, flushIntervalMillis, flushRecords);
+        log.flusher.start();
+        return log;
+    }
+
+    /**
+     * Returns the segment number from a segment file name, or -1 if the name is not a segment's.
+     */
+    static long segmentNumber(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_SUFFIX)) {
+            return -1L;
+        }
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+        } catch (NumberFormatException e) {
+            return -1L;
+        }
+    }
+
+    /**
+     * Changes when records are forced to disk.  The change applies to the next record written.
+     *
+     * @param durability
+     * @param flushIntervalMillis
+     * @param flushRecords
+     */
+    public void setFlushPolicy(AuditDurability durability, long flushIntervalMillis, int flushRecords) {
+        this.durability = durability;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1L, flushIntervalMillis));
+        this.flushRecords = Math.max(1, flushRecords);
+        LockSupport.unpark(flusher);
+    }
+
+    Path getDirectory() {
+        return directory;
+    }
+
+    int getRecordsPerSegment() {
+        return recordsPerSegment;
+    }
+
+    /**
+     * Writes the audit record of a request.
+     *
+     * @param kind KIND_REQUEST or KIND_EARLY_FAILURE
+     * @param request
+     * @param data
+     *
+     * @return true if the record was written, false if the log is closed or the segment could not be created
+     */
+    boolean append(byte kind, HttpZosConnectRequest request, Data data) {
+        if (!running) {
+            return false;
+        }
+        long sequence = nextSequence.getAndIncrement();
+        long relative = sequence - firstSequence;
+        Segment segment;
+        try {
+            segment = segment(relative / recordsPerSegment);
+        } catch (IOException e) {
+            if (errors.getAndIncrement() == 0L) {
+                InterceptorLog.log("AuditLog", "unable to create an audit segment, {}", e.toString());
+            }
+            return false;
+        }
+        if (segment == null) {
+            return false;
+        }
+
+        Writer writer = WRITERS.get();
+        byte[] record = writer.record;
+        encode(record, sequence, kind, request, data);
+        writer.crc.reset();
+        writer.crc.update(record, 0, CRC);
+        writer.crc.update(record, CRC + 4, RECORD_LENGTH - CRC - 4);
+        putInt(record, CRC, (int) writer.crc.getValue());
+
+        // Absolute puts leave the segment buffer's position alone, so threads can write their slots at once.
+        int offset = ((int) (relative % recordsPerSegment) + 1) * RECORD_LENGTH;
+        MappedByteBuffer buffer = segment.buffer;
+        for (int i = CRC; i < RECORD_LENGTH; i += 8) {
+            buffer.putLong(offset + i, writer.source.getLong(i));
+        }
+        buffer.putLong(offset + SEQUENCE, sequence);
+
+        if (!segment.dirty) {
+            segment.dirty = true;
+        }
+        segment.written.incrementAndGet();
+
+        AuditDurability mode = durability;
+        if (mode == AuditDurability.SYNC) {
+            awaitForce();
+        } else if (mode == AuditDurability.INTERVAL && unforced.incrementAndGet() == flushRecords) {
+            LockSupport.unpark(flusher);
+        }
+        return true;
+    }
+
+    private static void encode(byte[] record, long sequence, byte kind, HttpZosConnectRequest request, Data data) {
+        Arrays.fill(record, (byte) 0);
+        putLong(record, SEQUENCE, sequence);
+        Integer responseCode = data.getData(Data.HTTP_RESPONSE_CODE);
+        putShort(record, RESPONSE_CODE, responseCode != null ? responseCode : -1);
+        record[KIND] = kind;
+        Data.RequestType requestType = data.getRequestType();
+        record[REQUEST_TYPE] = (byte) (requestType != null ? requestType.ordinal() : Data.RequestType.UNKNOWN.ordinal());
+        putLong(record, TIME_ENTRY, StoreClock.toStck(data.getData(Data.TIME_ZOS_CONNECT_ENTRY)));
+        putLong(record, TIME_SOR_SENT, StoreClock.toStck(data.getData(Data.TIME_SOR_SENT)));
+        putLong(record, TIME_SOR_RECEIVED, StoreClock.toStck(data.getData(Data.TIME_SOR_RECEIVED)));
+        putLong(record, TIME_EXIT, StoreClock.toStck(data.getData(Data.TIME_ZOS_CONNECT_EXIT)));
+
+        Principal principal = request != null ? request.getUserPrincipal() : null;
+        boolean truncated = putAscii(record, METHOD, METHOD_LENGTH, request != null ? request.getMethod() : null);
+        truncated |= putAscii(record, USER, USER_LENGTH, principal != null ? principal.getName() : null);
+        truncated |= putAscii(record, MAPPED_USER, MAPPED_USER_LENGTH, data.getData(Data.USER_NAME_MAPPED));
+        truncated |= putAscii(record, SOR_IDENTIFIER, SOR_IDENTIFIER_LENGTH, data.getData(Data.SOR_IDENTIFIER));
+        truncated |= putAscii(record, URI, URI_LENGTH, request != null ? request.getRequestURI() : null);
+
+        int flags = truncated ? FLAG_TRUNCATED : 0;
+        if (Boolean.TRUE.equals(data.getData(Data.REQUEST_TIMED_OUT))) {
+            flags |= FLAG_TIMED_OUT;
+        }
+        record[FLAGS] = (byte) flags;
+    }
+
+    /**
+     * Returns the segment at an offset from the first segment of this log, creating it if it is the first
+     * record written to it.
+     *
+     * @return the segment, or null if the log has been closed
+     */
+    private Segment segment(long offset) throws IOException {
+        Segment segment = current;
+        if (segment != null && segment.offset == offset) {
+            return segment;
+        }
+        synchronized (segments) {
+            // close clears the segments under this lock, a segment created after that would never be closed.
+            if (!running) {
+                return null;
+            }
+            segment = segments.get(offset);
+            if (segment == null) {
+                segment = create(offset);
+                segments.put(offset, segment);
+            }
+            if (current == null || offset > current.offset) {
+                current = segment;
+            }
+            return segment;
+        }
+    }
+
+    private Segment create(long offset) throws IOException {
+        long number = firstSegment + offset;
+        Path path = directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0L,
+                    (long) RECORD_LENGTH * (recordsPerSegment + 1));
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, RECORD_LENGTH);
+            buffer.putInt(HEADER_RECORDS, recordsPerSegment);
+            buffer.putLong(HEADER_SEGMENT, number);
+            buffer.putLong(HEADER_FIRST_SEQUENCE, firstSequence + offset * recordsPerSegment);
+            buffer.putLong(HEADER_CREATED, System.currentTimeMillis());
+            Segment segment = new Segment(offset, path, channel, buffer);
+            segment.dirty = true;
+            return segment;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            // Left behind, the empty file would stop the segment being created again and be taken by the next
+            // open as the latest segment.
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException deleteFailure) {
+                e.addSuppressed(deleteFailure);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Waits until the records written by this thread have been forced.  The wait is for the force that starts
+     * after this call, which covers every record written before it.
+     */
+    private void awaitForce() {
+        long target = flushGeneration.get() + 1L;
+        LockSupport.unpark(flusher);
+        boolean interrupted = false;
+        synchronized (forceLock) {
+            while (forcedGeneration < target && running) {
+                try {
+                    forceLock.wait(100L);
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The flusher thread, forces the segments every flush interval or when woken by a request.
+     */
+    private void flushLoop() {
+        while (running) {
+            AuditDurability mode = durability;
+            LockSupport.parkNanos(this, mode == AuditDurability.NONE ? TimeUnit.SECONDS.toNanos(1L) : flushIntervalNanos);
+            if (mode != AuditDurability.NONE || !running) {
+                flush();
+            }
+            retire();
+        }
+        flush();
+    }
+
+    private final List<Segment> flushing = new ArrayList<>();
+
+    /**
+     * Forces every segment written to since the last flush.  Only called by the flusher thread.
+     */
+    private void flush() {
+        long generation = flushGeneration.incrementAndGet();
+        unforced.set(0);
+        flushing.clear();
+        synchronized (segments) {
+            flushing.addAll(segments.values());
+        }
+        for (Segment segment : flushing) {
+            if (segment.dirty) {
+                segment.dirty = false;
+                try {
+                    segment.buffer.force();
+                    forces.incrementAndGet();
+                } catch (RuntimeException e) {
+                    if (errors.getAndIncrement() == 0L) {
+                        InterceptorLog.log("AuditLog", "unable to force {}, {}", segment.path, e.toString());
+                    }
+                }
+            }
+        }
+        forcedGeneration = generation;
+        synchronized (forceLock) {
+            forceLock.notifyAll();
+        }
+    }
+
+    /**
+     * Forces and closes the segments, other than the current one, whose records have all been written.
+     */
+    private void retire() {
+        flushing.clear();
+        synchronized (segments) {
+            for (Segment segment : segments.values()) {
+                if (segment != current && segment.written.get() == recordsPerSegment) {
+                    flushing.add(segment);
+                }
+            }
+            for (Segment segment : flushing) {
+                segments.remove(segment.offset);
+            }
+        }
+        for (Segment segment : flushing) {
+            close(segment);
+        }
+    }
+
+    private void close(Segment segment) {
+        try {
+            segment.buffer.force();
+            segment.channel.close();
+        } catch (IOException | RuntimeException e) {
+            errors.incrementAndGet();
+            InterceptorLog.log("AuditLog", "unable to close {}, {}", segment.path, e.toString());
+        }
+    }
+
+    /**
+     * Stops the flusher, forces every segment and closes the log.
+     *
+     * @throws InterruptedException
+     */
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join();
+        synchronized (segments) {
+            for (Segment segment : segments.values()) {
+                close(segment);
+            }
+            segments.clear();
+            current = null;
+        }
+        synchronized (forceLock) {
+            forceLock.notifyAll();
+        }
+    }
+
+    /**
+     * Returns the number of records written since the log was opened.
+     */
+    public long getRecordCount() {
+        return nextSequence.get() - firstSequence;
+    }
+
+    /**
+     * Returns the number of times a segment has been forced to disk.
+     */
+    public long getForceCount() {
+        return forces.get();
+    }
+
+    /**
+     * Returns the number of segments that could not be created, forced or closed.
+     */
+    public long getErrorCount() {
+        return errors.get();
+    }
+
+    /**
+     * Writes a string into a fixed length field as ASCII, returning true if it had to be truncated.
+     */
+    private static boolean putAscii(byte[] record, int offset, int length, String value) {
+        if (value == null) {
+            return false;
+        }
+        int count = Math.min(length, value.length());
+        for (int i = 0; i < count; i++) {
+            char c = value.charAt(i);
+            record[offset + i] = c > 0 && c < 0x80 ? (byte) c : (byte) '?';
+        }
+        return value.length() > length;
+    }
+
+    private static void putShort(byte[] record, int offset, int value) {
+        record[offset] = (byte) (value >>> 8);
+        record[offset + 1] = (byte) value;
+    }
+
+    private static void putInt(byte[] record, int offset, int value) {
+        for (int i = 3; i >= 0; i--) {
+            record[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+
+    private static void putLong(byte[] record, int offset, long value) {
+        for (int i = 7; i >= 0; i--) {
+            record[offset + i] = (byte) value;
+            value >>>= 8;
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+import com.ibm.zosconnect.spi.Data;
+
+/**
+ * The AuditLogReader class decodes the segment files written by an AuditLog into one line of text per record.
+ *
+ * Slots that were never written are skipped.  A record whose CRC does not match, because the system failed while
+ * it was being written, is reported as torn rather than decoded.
+ *
+ * @author IBM
+ */
+public final class AuditLogReader {
+
+    private static final Data.RequestType[] REQUEST_TYPES = Data.RequestType.values();
+
+    private AuditLogReader() {
+    }
+
+    /**
+     * Decodes the records of a segment file, or of every segment file in a directory in segment order.
+     *
+     * @param path a segment file or a directory of segment files
+     * @param lines receives a line for each record
+     *
+     * @return the number of records decoded, excluding torn records
+     *
+     * @throws IOException if a file cannot be read or is not an audit segment
+     */
+    public static long read(Path path, Consumer<String> lines) throws IOException {
+        if (!Files.isDirectory(path)) {
+            return readSegment(path, lines);
+        }
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(path,
+                AuditLog.SEGMENT_PREFIX + "*" + AuditLog.SEGMENT_SUFFIX)) {
+            for (Path file : stream) {
+                if (AuditLog.segmentNumber(file) >= 0) {
+                    files.add(file);
+                }
+            }
+        }
+        files.sort(Comparator.comparingLong(AuditLog::segmentNumber));
+        long count = 0;
+        for (Path file : files) {
+            count += readSegment(file, lines);
+        }
+        return count;
+    }
+
+    private static long readSegment(Path file, Consumer<String> lines) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+            if (buffer.capacity() < AuditLog.RECORD_LENGTH || buffer.getInt(0) != AuditLog.MAGIC) {
+                throw new IOException(file + " is not an audit segment");
+            }
+            if (buffer.getInt(4) != AuditLog.VERSION || buffer.getInt(8) != AuditLog.RECORD_LENGTH) {
+                throw new IOException(file + " has an unsupported version " + buffer.getInt(4));
+            }
+            int records = Math.min(buffer.getInt(AuditLog.HEADER_RECORDS),
+                    buffer.capacity() / AuditLog.RECORD_LENGTH - 1);
+
+            byte[] record = new byte[AuditLog.RECORD_LENGTH];
+            CRC32 crc = new CRC32();
+            StringBuilder line = new StringBuilder(256);
+            long count = 0;
+            for (int slot = 0; slot < records; slot++) {
+                int offset = (slot + 1) * AuditLog.RECORD_LENGTH;
+                long sequence = buffer.getLong(offset + AuditLog.SEQUENCE);
+                if (sequence == 0L) {
+                    continue;
+                }
+                buffer.position(offset);
+                buffer.get(record);
+                crc.reset();
+                crc.update(record, 0, AuditLog.CRC);
+                crc.update(record, AuditLog.CRC + 4, AuditLog.RECORD_LENGTH - AuditLog.CRC - 4);
+                line.setLength(0);
+                if ((int) crc.getValue() != buffer.getInt(offset + AuditLog.CRC)) {
+                    line.append(sequence).append(" torn record in ").append(file.getFileName())
+                            .append(" slot ").append(slot);
+                } else {
+                    decode(ByteBuffer.wrap(record), record, line);
+                    count++;
+                }
+                lines.accept(line.toString());
+            }
+            return count;
+        }
+    }
+
+    private static void decode(ByteBuffer buffer, byte[] record, StringBuilder line) {
+        long entry = StoreClock.stckToEpochNanos(buffer.getLong(AuditLog.TIME_ENTRY));
+        long sorSent = StoreClock.stckToEpochNanos(buffer.getLong(AuditLog.TIME_SOR_SENT));
+        long sorReceived = StoreClock.stckToEpochNanos(buffer.getLong(AuditLog.TIME_SOR_RECEIVED));
+        long exit = StoreClock.stckToEpochNanos(buffer.getLong(AuditLog.TIME_EXIT));
+        int type = record[AuditLog.REQUEST_TYPE];
+        int flags = record[AuditLog.FLAGS];
+
+        line.append(buffer.getLong(AuditLog.SEQUENCE)).append(' ');
+        line.append(entry != StoreClock.UNAVAILABLE ? Instant.ofEpochSecond(0L, entry).toString() : "-");
+        line.append(record[AuditLog.KIND] == AuditLog.KIND_EARLY_FAILURE ? " earlyFailure" : " request");
+        line.append(" type=").append(type >= 0 && type < REQUEST_TYPES.length ? REQUEST_TYPES[type] : "?");
+        line.append(" code=").append(buffer.getShort(AuditLog.RESPONSE_CODE));
+        line.append(" method=").append(text(record, AuditLog.METHOD, AuditLog.METHOD_LENGTH));
+        line.append(" user=").append(text(record, AuditLog.USER, AuditLog.USER_LENGTH));
+        line.append(" mappedUser=").append(text(record, AuditLog.MAPPED_USER, AuditLog.MAPPED_USER_LENGTH));
+        line.append(" sor=").append(text(record, AuditLog.SOR_IDENTIFIER, AuditLog.SOR_IDENTIFIER_LENGTH));
+        line.append(" uri=").append(text(record, AuditLog.URI, AuditLog.URI_LENGTH));
+        line.append(" elapsedMicros=").append(micros(entry, exit));
+        line.append(" sorMicros=").append(micros(sorSent, sorReceived));
+        if ((flags & AuditLog.FLAG_TIMED_OUT) != 0) {
+            line.append(" timedOut");
+        }
+        if ((flags & AuditLog.FLAG_TRUNCATED) != 0) {
+            line.append(" truncated");
+        }
+    }
+
+    private static String text(byte[] record, int offset, int length) {
+        int end = offset;
+        while (end < offset + length && record[end] != 0) {
+            end++;
+        }
+        return end == offset ? "-" : new String(record, offset, end - offset, StandardCharsets.US_ASCII);
+    }
+
+    private static String micros(long start, long end) {
+        return start == StoreClock.UNAVAILABLE || end == StoreClock.UNAVAILABLE ? "-"
+                : Long.toString((end - start) / 1000L);
+    }
+
+    /**
+     * Decodes audit segments from the command line.
+     *
+     * @param args the segment files or directories
+     *
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: AuditLogReader <segment file or directory>...");
+            System.exit(1);
+        }
+        long count = 0;
+        for (String arg : args) {
+            count += read(Paths.get(arg), System.out::println);
+        }
+        System.err.println("Decoded " + count + " records");
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The BloomFilter class records a set of keys in a fixed number of bits, answering whether a key might have been
+ * added, with no false negatives and a small chance of false positives.
+ *
+ * Each key sets PROBES bits chosen by double hashing the 64 bit hash from CountMinSketch.hash, the second hash
+ * being made odd so that the probes never all fall on one bit.  With BITS_PER_KEY bits for each expected key,
+ * rounded up to a power of two, no more than about 1% of the keys never added are reported as possibly added.
+ * The bits are held in an AtomicLongArray and set without locks, a bit that is already set is not written again.
+ *
+ * A filter can be written out word by word and checked where it was written, such as in a mapped file, with
+ * the static mightContain method.  The Denylist stores its filter this way.
+ *
+ * @author IBM
+ */
+final class BloomFilter {
+
+    static final int BITS_PER_KEY = 10;
+
+    static final int PROBES = 7;
+
+    private final AtomicLongArray words;
+
+    private final long mask;
+
+    /**
+     * @param expectedKeys the number of keys the filter is sized for, more may be added but the false positive
+     * rate rises
+     */
+    BloomFilter(int expectedKeys) {
+        this(expectedKeys, BITS_PER_KEY);
+    }
+
+    /**
+     * @param expectedKeys the number of keys the filter is sized for
+     * @param bitsPerKey the bits for each expected key
+     */
+    BloomFilter(int expectedKeys, int bitsPerKey) {
+        long bits = Math.max(64L, Math.min((long) expectedKeys * bitsPerKey, 1L << 30));
+        long size = Long.highestOneBit(bits - 1) << 1;
+        this.words = new AtomicLongArray((int) (size >>> 6));
+        this.mask = size - 1;
+    }
+
+    /**
+     * Returns the index of a key's bit for a probe, in a filter of mask + 1 bits.
+     */
+    private static long bit(long hash, int probe, long mask) {
+        return (hash + probe * ((hash >>> 32) | 1L)) & mask;
+    }
+
+    /**
+     * Adds a key.
+     *
+     * @param hash the key's hash
+     */
+    void add(long hash) {
+        for (int probe = 0; probe < PROBES; probe++) {
+            long bit = bit(hash, probe, mask);
+            int index = (int) (bit >>> 6);
+            long flag = 1L << bit;
+            if ((words.get(index) & flag) == 0L) {
+                words.getAndAccumulate(index, flag, (word, set) -> word | set);
+            }
+        }
+    }
+
+    /**
+     * Returns false if a key has certainly not been added, or true if it might have been.
+     *
+     * @param hash the key's hash
+     */
+    boolean mightContain(long hash) {
+        for (int probe = 0; probe < PROBES; probe++) {
+            long bit = bit(hash, probe, mask);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of bits, a power of two.
+     */
+    long size() {
+        return mask + 1;
+    }
+
+    /**
+     * Returns one word of the bits, for writing the filter out.
+     *
+     * @param index from 0 to size() / 64 - 1
+     */
+    long word(int index) {
+        return words.get(index);
+    }
+
+    /**
+     * Returns false if a key has certainly not been added to a filter that was written out as size() / 64 words,
+     * or true if it might have been.  The words are read with absolute reads, so the buffer can be shared.
+     *
+     * @param buffer the buffer holding the words
+     * @param offset the offset of the first word in the buffer
+     * @param mask the filter's size() - 1
+     * @param hash the key's hash
+     */
+    static boolean mightContain(ByteBuffer buffer, int offset, long mask, long hash) {
+        for (int probe = 0; probe < PROBES; probe++) {
+            long bit = bit(hash, probe, mask);
+            if ((buffer.getLong(offset + (int) (bit >>> 6) * 8) & (1L << bit)) == 0L) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The Bulkhead class limits the number of calls in flight to one API requester endpoint.
+ *
+ * Unlike a Semaphore the limit can be changed at any time.  Lowering it does not affect the calls already in
+ * flight, new calls are rejected until enough of them have completed.
+ *
+ * @author IBM
+ */
+final class Bulkhead {
+
+    private final String name;
+
+    private volatile int limit;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    Bulkhead(String name, int limit) {
+        this.name = name;
+        this.limit = limit;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    void setLimit(int limit) {
+        this.limit = limit;
+    }
+
+    /**
+     * Takes a permit if the number of calls in flight is below the limit.
+     *
+     * @return true if a permit was taken
+     */
+    boolean tryAcquire() {
+        for (;;) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Takes a permit regardless of the limit, used when a call reaches the endpoint without having been
+     * admitted, so that it is still counted as in flight.
+     */
+    void acquire() {
+        inFlight.incrementAndGet();
+    }
+
+    void release() {
+        inFlight.decrementAndGet();
+    }
+
+    ConcurrencySummary summarize() {
+        return new ConcurrencySummary(name, limit, inFlight.get(), rejected.get());
+    }
+}
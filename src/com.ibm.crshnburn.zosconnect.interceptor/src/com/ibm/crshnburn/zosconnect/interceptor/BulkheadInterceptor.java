@@ -0,0 +1,285 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.osgi.service.component.ComponentContext;
+
+import com.ibm.zosconnect.spi.Data;
+import com.ibm.zosconnect.spi.DataRequester;
+import com.ibm.zosconnect.spi.EndpointInterceptor;
+import com.ibm.zosconnect.spi.HttpZosConnectRequest;
+import com.ibm.zosconnect.spi.InterceptorException;
+
+/**
+ * The BulkheadInterceptor class is an example of an EndpointInterceptor that limits the number of API requester
+ * calls in flight to each endpoint, so that one slow endpoint cannot hold every thread that calls out through
+ * z/OS Connect EE.
+ *
+ * Each endpoint, identified by ENDPOINT_HOST and ENDPOINT_PORT, has a Bulkhead.  A permit is taken in
+ * preInvokeRequester and if none is available the request is rejected with an InterceptorException.  The
+ * endpoint is not known in preInvokeRequester, so the Interceptor learns which endpoint each API requester calls
+ * the first time it reaches preEndpointInvoke, where a request that was not admitted against that endpoint is
+ * counted.  The permit is held in the request state map and returned in postInvokeRequester, and is removed from
+ * the map when it is returned so that it can never be returned twice.
+ *
+ * The limits can be changed in server.xml without restarting the server, and the in-flight and rejected counts
+ * of each endpoint are published through the InterceptorMetricsMXBean.  See the AllPointsInterceptorRequesterSample
+ * for a description of the API requester flow.
+ *
+ * @author IBM
+ */
+public class BulkheadInterceptor implements EndpointInterceptor {
+
+    /**
+     * Request State Map data element used to pass the permit from preInvokeRequester to postInvokeRequester.
+     */
+    private static final String PERMIT = "BULKHEAD_PERMIT";
+
+    /**
+     * Configuration attribute holding the limit of an endpoint without its own limit.
+     */
+    private static final String CFG_AD_MAX_CONCURRENT = "maxConcurrent";
+
+    /**
+     * Configuration attribute holding the limits of individual endpoints, as host:port=limit.
+     */
+    private static final String CFG_AD_ENDPOINT_LIMIT = "endpointLimit";
+
+    private static final int DEFAULT_MAX_CONCURRENT = 20;
+
+    /**
+     * The configured limits, replaced as a whole when the configuration changes.
+     */
+    private static final class Limits {
+        final int defaultLimit;
+        final Map<String, Integer> endpoints;
+
+        Limits(int defaultLimit, Map<String, Integer> endpoints) {
+            this.defaultLimit = defaultLimit;
+            this.endpoints = endpoints;
+        }
+
+        int limitFor(String endpoint) {
+            Integer limit = endpoints.get(endpoint);
+            return limit != null ? limit : defaultLimit;
+        }
+    }
+
+    /**
+     * The registered sequence number of this Interceptor which determines the order
+     * in which the Interceptor is called in relation to other Interceptors.
+     */
+    private volatile int sequence;
+
+    private volatile Limits limits = new Limits(DEFAULT_MAX_CONCURRENT, new HashMap<>());
+
+    /**
+     * The bulkhead of each endpoint, by host:port, and the endpoint last called by each API requester.
+     */
+    private final RouteLearner<Bulkhead> bulkheads = new RouteLearner<>(
+            name -> new Bulkhead(name, limits.limitFor(name)));
+
+    /**
+     * Activates the Interceptor.
+     *
+     * Trace the activation, retrieve the Interceptor's configuration from the Interceptor's
+     * configuration element in server.xml and publish the bulkheads.
+     *
+     * @param context
+     * @param properties
+     */
+    protected void activate(ComponentContext context, Map<String, Object> properties) {
+        InterceptorLog.log(getName(), "activated");
+        configure(properties);
+        InterceptorMetrics.getInstance().addBulkhead(this);
+    }
+
+    /**
+     * Deactivates the Interceptor.
+     *
+     * The Interceptor will no longer receive events.
+     *
+     * @param context
+     */
+    protected void deactivate(ComponentContext context) {
+        InterceptorLog.log(getName(), "deactivated");
+        InterceptorMetrics.getInstance().removeBulkhead(this);
+    }
+
+    /**
+     * Called to signal that the Interceptor's configuration element may have changed in server.xml.
+     * The new limits apply at once to the existing bulkheads, calls already in flight are not affected.
+     *
+     * @param properties
+     */
+    protected void modified(Map<String, Object> properties) {
+        InterceptorLog.log(getName(), "modified");
+        configure(properties);
+    }
+
+    private void configure(Map<String, Object> properties) {
+        ConfigProperties config = new ConfigProperties(getName(), properties);
+        sequence = config.getSequence(sequence);
+
+        int maxConcurrent = config.getInt(CFG_AD_MAX_CONCURRENT, DEFAULT_MAX_CONCURRENT, 1, 100_000);
+        String[] entries = config.getStrings(CFG_AD_ENDPOINT_LIMIT);
+        Map<String, Integer> endpoints = new HashMap<>();
+        for (String entry : entries) {
+            int eq = entry.lastIndexOf('=');
+            try {
+                endpoints.put(entry.substring(0, eq).trim(), Integer.valueOf(entry.substring(eq + 1).trim()));
+            } catch (RuntimeException e) {
+                InterceptorLog.log(getName(), "endpoint limit {} ignored, it must be host:port=limit", entry);
+            }
+        }
+
+        Limits newLimits = new Limits(maxConcurrent, endpoints);
+        limits = newLimits;
+        for (Bulkhead bulkhead : bulkheads.guards()) {
+            bulkhead.setLimit(newLimits.limitFor(bulkhead.getName()));
+        }
+    }
+
+    /**
+     * Returns the state of the bulkhead of each endpoint.
+     */
+    ConcurrencySummary[] summarize() {
+        return bulkheads.guards().stream().map(Bulkhead::summarize).toArray(ConcurrencySummary[]::new);
+    }
+
+    /**
+     * Returns this Interceptor's configured sequence number.
+     */
+    @Override
+    public int getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns this Interceptor's name.
+     */
+    @Override
+    public String getName() {
+        return "zOSConnectBulkheadInterceptor";
+    }
+
+    /**
+     * z/OS Connect EE calls the preInvokeRequester method after initial request checks.
+     *
+     * If the endpoint the API requester calls is known, a permit is taken from its bulkhead.  If none is
+     * available an InterceptorException is thrown and the request is not processed.
+     *
+     * @param requestStateMap
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void preInvokeRequester(Map<Object, Object> requestStateMap, DataRequester data) throws InterceptorException {
+        Bulkhead bulkhead = bulkheads.lookup(RouteLearner.route(data));
+        if (bulkhead == null) {
+            return;
+        }
+        if (!bulkhead.tryAcquire()) {
+            InterceptorLog.log(getName(), "preInvokeRequester InterceptorException - Bulkhead full for endpoint {}",
+                    bulkhead.getName());
+            throw new InterceptorException("Request not processed, too many requests in flight to endpoint "
+                    + bulkhead.getName());
+        }
+        requestStateMap.put(PERMIT, bulkhead);
+    }
+
+    /**
+     * z/OS Connect EE calls the preEndpointInvoke method just before calling the endpoint.
+     *
+     * The endpoint the API requester calls is learned.  If the request was not admitted against this endpoint's
+     * bulkhead in preInvokeRequester it is counted now, it can no longer be rejected.
+     *
+     * @param requestStateMap
+     * @param data
+     */
+    @Override
+    public void preEndpointInvoke(Map<Object, Object> requestStateMap, DataRequester data) {
+        String endpoint = RouteLearner.endpoint(data);
+        if (endpoint == null) {
+            return;
+        }
+
+        Bulkhead permit = (Bulkhead) requestStateMap.get(PERMIT);
+        if (permit == null || !permit.getName().equals(endpoint)) {
+            Bulkhead bulkhead = bulkheads.guard(endpoint);
+            if (permit != null) {
+                permit.release();
+                requestStateMap.remove(PERMIT);
+            }
+            if (bulkhead != null) {
+                bulkhead.acquire();
+                requestStateMap.put(PERMIT, bulkhead);
+            }
+        }
+
+        bulkheads.learn(RouteLearner.route(data), endpoint);
+    }
+
+    /**
+     * z/OS Connect EE calls the postEndpointInvoke method once the call to the endpoint returns, there
+     * is nothing to do.  The permit is held until postInvokeRequester so that response data mapping is counted.
+     *
+     * @param requestStateMap
+     * @param data
+     */
+    @Override
+    public void postEndpointInvoke(Map<Object, Object> requestStateMap, DataRequester data) {
+    }
+
+    /**
+     * z/OS Connect EE calls the postInvokeRequester method.
+     *
+     * The permit is returned.
+     *
+     * @param requestStateMap
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void postInvokeRequester(Map<Object, Object> requestStateMap, DataRequester data) throws InterceptorException {
+        Bulkhead permit = (Bulkhead) requestStateMap.remove(PERMIT);
+        if (permit != null) {
+            permit.release();
+        }
+    }
+
+    /**
+     * This method is not called for API requester requests. It is called for API provider and all administration requests.
+     */
+    @Override
+    public void preInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
+            throws InterceptorException {
+    }
+
+    /**
+     * This method is not called for API requester requests. It is called for API provider and all administration requests.
+     */
+    @Override
+    public void postInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
+            throws InterceptorException {
+    }
+}
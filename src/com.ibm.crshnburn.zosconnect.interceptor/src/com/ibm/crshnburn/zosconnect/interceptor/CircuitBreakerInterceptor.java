@@ -0,0 +1,315 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.util.Map;
+
+import org.osgi.service.component.ComponentContext;
+
+import com.ibm.zosconnect.spi.Data;
+import com.ibm.zosconnect.spi.DataRequester;
+import com.ibm.zosconnect.spi.EndpointInterceptor;
+import com.ibm.zosconnect.spi.HttpZosConnectRequest;
+import com.ibm.zosconnect.spi.InterceptorException;
+
+/**
+ * The CircuitBreakerInterceptor class is an example of an EndpointInterceptor that stops API requester requests
+ * from calling an endpoint that is failing, so that the calling CICS transactions fail at once rather than wait
+ * for the endpoint to time out.
+ *
+ * Each endpoint, identified by ENDPOINT_HOST and ENDPOINT_PORT, has an EndpointCircuitBreaker that counts the
+ * failed and slow calls in a sliding window.  A call fails if the endpoint returns no response or an HTTP status
+ * code of 500 or more, and is slow if it takes longer than the configured time.  When the breaker opens,
+ * requests are rejected in preInvokeRequester with an InterceptorException until the cooldown has passed, then
+ * a limited number of probe requests are let through to find out whether the endpoint has recovered.
+ *
+ * The endpoint is not known in preInvokeRequester, so the Interceptor learns which endpoint each API requester
+ * calls the first time it reaches preEndpointInvoke.  A request whose API requester has not been seen yet is
+ * always let through.  See the AllPointsInterceptorRequesterSample for a description of the API requester flow.
+ *
+ * The state of each breaker is published through the InterceptorMetricsMXBean.
+ *
+ * @author IBM
+ */
+public class CircuitBreakerInterceptor implements EndpointInterceptor {
+
+    /**
+     * Request State Map data element used to pass the call from preInvokeRequester to postInvokeRequester.
+     */
+    private static final String CALL = "CIRCUIT_BREAKER_CALL";
+
+    private static final String CFG_AD_WINDOW_SECONDS = "windowSeconds";
+
+    private static final String CFG_AD_MINIMUM_CALLS = "minimumCalls";
+
+    private static final String CFG_AD_FAILURE_RATE = "failureRateThreshold";
+
+    private static final String CFG_AD_SLOW_CALL_MILLIS = "slowCallMillis";
+
+    private static final String CFG_AD_SLOW_CALL_RATE = "slowCallRateThreshold";
+
+    private static final String CFG_AD_COOLDOWN_SECONDS = "cooldownSeconds";
+
+    private static final String CFG_AD_HALF_OPEN_PROBES = "halfOpenProbes";
+
+    private static final int DEFAULT_WINDOW_SECONDS = 10;
+
+    private static final int DEFAULT_MINIMUM_CALLS = 20;
+
+    private static final int DEFAULT_FAILURE_RATE = 50;
+
+    private static final int DEFAULT_SLOW_CALL_MILLIS = 5000;
+
+    private static final int DEFAULT_SLOW_CALL_RATE = 80;
+
+    private static final int DEFAULT_COOLDOWN_SECONDS = 30;
+
+    private static final int DEFAULT_HALF_OPEN_PROBES = 5;
+
+    /**
+     * A request's passage through a breaker.
+     */
+    private static final class Call {
+        final EndpointCircuitBreaker breaker;
+        final EndpointCircuitBreaker.State admitted;
+        long start;
+        boolean recorded;
+
+        Call(EndpointCircuitBreaker breaker, EndpointCircuitBreaker.State admitted) {
+            this.breaker = breaker;
+            this.admitted = admitted;
+        }
+    }
+
+    /**
+     * The registered sequence number of this Interceptor which determines the order
+     * in which the Interceptor is called in relation to other Interceptors.
+     */
+    private volatile int sequence;
+
+    private volatile EndpointCircuitBreaker.Settings settings = new EndpointCircuitBreaker.Settings(
+            DEFAULT_WINDOW_SECONDS, DEFAULT_MINIMUM_CALLS, DEFAULT_FAILURE_RATE, DEFAULT_SLOW_CALL_MILLIS,
+            DEFAULT_SLOW_CALL_RATE, DEFAULT_COOLDOWN_SECONDS, DEFAULT_HALF_OPEN_PROBES);
+
+    /**
+     * The breaker of each endpoint, by host:port, and the endpoint last called by each API requester.
+     */
+    private final RouteLearner<EndpointCircuitBreaker> breakers = new RouteLearner<>(EndpointCircuitBreaker::new);
+
+    /**
+     * Activates the Interceptor.
+     *
+     * Trace the activation, retrieve the Interceptor's configuration from the Interceptor's
+     * configuration element in server.xml and publish the breakers.
+     *
+     * @param context
+     * @param properties
+     */
+    protected void activate(ComponentContext context, Map<String, Object> properties) {
+        InterceptorLog.log(getName(), "activated");
+        configure(properties);
+        InterceptorMetrics.getInstance().addCircuitBreaker(this);
+    }
+
+    /**
+     * Deactivates the Interceptor.
+     *
+     * The Interceptor will no longer receive events.
+     *
+     * @param context
+     */
+    protected void deactivate(ComponentContext context) {
+        InterceptorLog.log(getName(), "deactivated");
+        InterceptorMetrics.getInstance().removeCircuitBreaker(this);
+    }
+
+    /**
+     * Called to signal that the Interceptor's configuration element may have changed in server.xml.
+     * The breakers keep their state, the new settings apply from the next call.
+     *
+     * @param properties
+     */
+    protected void modified(Map<String, Object> properties) {
+        InterceptorLog.log(getName(), "modified");
+        configure(properties);
+    }
+
+    private void configure(Map<String, Object> properties) {
+        ConfigProperties config = new ConfigProperties(getName(), properties);
+        sequence = config.getSequence(sequence);
+        settings = new EndpointCircuitBreaker.Settings(
+                config.getInt(CFG_AD_WINDOW_SECONDS, DEFAULT_WINDOW_SECONDS, 1, 300),
+                config.getInt(CFG_AD_MINIMUM_CALLS, DEFAULT_MINIMUM_CALLS, 1, 1_000_000),
+                config.getInt(CFG_AD_FAILURE_RATE, DEFAULT_FAILURE_RATE, 1, 100),
+                config.getInt(CFG_AD_SLOW_CALL_MILLIS, DEFAULT_SLOW_CALL_MILLIS, 0, 3_600_000),
+                config.getInt(CFG_AD_SLOW_CALL_RATE, DEFAULT_SLOW_CALL_RATE, 1, 100),
+                config.getInt(CFG_AD_COOLDOWN_SECONDS, DEFAULT_COOLDOWN_SECONDS, 1, 86_400),
+                config.getInt(CFG_AD_HALF_OPEN_PROBES, DEFAULT_HALF_OPEN_PROBES, 1, 1000));
+    }
+
+    /**
+     * Returns the state of the breaker of each endpoint.
+     */
+    CircuitSummary[] summarize() {
+        return breakers.guards().stream().map(EndpointCircuitBreaker::summarize).toArray(CircuitSummary[]::new);
+    }
+
+    /**
+     * Returns this Interceptor's configured sequence number.
+     */
+    @Override
+    public int getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns this Interceptor's name.
+     */
+    @Override
+    public String getName() {
+        return "zOSConnectCircuitBreakerInterceptor";
+    }
+
+    /**
+     * z/OS Connect EE calls the preInvokeRequester method after initial request checks.
+     *
+     * If the endpoint the API requester calls is known and its breaker is not closed, the request is rejected
+     * with an InterceptorException unless it is let through as a probe.
+     *
+     * @param requestStateMap
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void preInvokeRequester(Map<Object, Object> requestStateMap, DataRequester data) throws InterceptorException {
+        EndpointCircuitBreaker breaker = breakers.lookup(RouteLearner.route(data));
+        if (breaker == null) {
+            return;
+        }
+
+        EndpointCircuitBreaker.State admitted = breaker.tryAcquire(settings);
+        if (admitted == null) {
+            InterceptorLog.log(getName(), "preInvokeRequester InterceptorException - Circuit open for endpoint {}",
+                    breaker.getName());
+            throw new InterceptorException("Request not processed, circuit open for endpoint " + breaker.getName());
+        }
+        requestStateMap.put(CALL, new Call(breaker, admitted));
+    }
+
+    /**
+     * z/OS Connect EE calls the preEndpointInvoke method just before calling the endpoint.
+     *
+     * The endpoint the API requester calls is learned and the start time of the call is taken.
+     *
+     * @param requestStateMap
+     * @param data
+     */
+    @Override
+    public void preEndpointInvoke(Map<Object, Object> requestStateMap, DataRequester data) {
+        String endpoint = RouteLearner.endpoint(data);
+        if (endpoint == null) {
+            return;
+        }
+
+        Call call = (Call) requestStateMap.get(CALL);
+        if (call == null || !call.breaker.getName().equals(endpoint)) {
+            EndpointCircuitBreaker breaker = breakers.guard(endpoint);
+            if (call != null) {
+                call.breaker.release(call.admitted);
+                requestStateMap.remove(CALL);
+                call = null;
+            }
+            if (breaker != null) {
+                call = new Call(breaker, null);
+                requestStateMap.put(CALL, call);
+            }
+        }
+
+        breakers.learn(RouteLearner.route(data), endpoint);
+
+        if (call != null) {
+            call.start = System.nanoTime();
+        }
+    }
+
+    /**
+     * z/OS Connect EE calls the postEndpointInvoke method once the call to the endpoint returns.
+     *
+     * The outcome and latency of the call are recorded by the endpoint's breaker.
+     *
+     * @param requestStateMap
+     * @param data
+     */
+    @Override
+    public void postEndpointInvoke(Map<Object, Object> requestStateMap, DataRequester data) {
+        Call call = (Call) requestStateMap.get(CALL);
+        if (call == null || call.start == 0L) {
+            return;
+        }
+        Integer responseCode = data.getData(DataRequester.HTTP_RESPONSE_CODE);
+        record(call, responseCode == null || responseCode >= 500, responseCode);
+    }
+
+    /**
+     * z/OS Connect EE calls the postInvokeRequester method.
+     *
+     * A call to the endpoint that did not return is recorded as failed.  A probe that did not reach the
+     * endpoint returns its permit.
+     *
+     * @param requestStateMap
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void postInvokeRequester(Map<Object, Object> requestStateMap, DataRequester data) throws InterceptorException {
+        Call call = (Call) requestStateMap.remove(CALL);
+        if (call == null || call.recorded) {
+            return;
+        }
+        if (call.start != 0L) {
+            record(call, true, null);
+        } else if (call.admitted != null) {
+            call.breaker.release(call.admitted);
+        }
+    }
+
+    private void record(Call call, boolean failed, Integer responseCode) {
+        call.recorded = true;
+        if (call.breaker.record(call.admitted, failed, System.nanoTime() - call.start, settings)) {
+            InterceptorLog.log(getName(), "Circuit opened for endpoint {} after response code {}",
+                    call.breaker.getName(), responseCode);
+        }
+    }
+
+    /**
+     * This method is not called for API requester requests. It is called for API provider and all administration requests.
+     */
+    @Override
+    public void preInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
+            throws InterceptorException {
+    }
+
+    /**
+     * This method is not called for API requester requests. It is called for API provider and all administration requests.
+     */
+    @Override
+    public void postInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
+            throws InterceptorException {
+    }
+}
@@ -0,0 +1,66 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * The CircuitSummary class is the state of the circuit breaker of one API requester endpoint, as reported through
+ * the InterceptorMetricsMXBean.
+ *
+ * @author IBM
+ */
+public class CircuitSummary {
+
+    private final String name;
+    private final String state;
+    private final long opened;
+    private final long rejected;
+
+    @ConstructorProperties({ "name", "state", "opened", "rejected" })
+    public CircuitSummary(String name, String state, long opened, long rejected) {
+        this.name = name;
+        this.state = state;
+        this.opened = opened;
+        this.rejected = rejected;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns CLOSED, OPEN or HALF_OPEN.
+     */
+    public String getState() {
+        return state;
+    }
+
+    /**
+     * Returns the number of times the circuit has opened.
+     */
+    public long getOpened() {
+        return opened;
+    }
+
+    /**
+     * Returns the number of requests rejected while the circuit was not closed.
+     */
+    public long getRejected() {
+        return rejected;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * The ConcurrencySummary class is the state of one concurrency limit, for example the limit of a System of
+ * Record, as reported through the InterceptorMetricsMXBean.
+ *
+ * @author IBM
+ */
+public class ConcurrencySummary {
+
+    private final String name;
+    private final int limit;
+    private final int inFlight;
+    private final long rejected;
+
+    @ConstructorProperties({ "name", "limit", "inFlight", "rejected" })
+    public ConcurrencySummary(String name, int limit, int inFlight, long rejected) {
+        this.name = name;
+        this.limit = limit;
+        this.inFlight = inFlight;
+        this.rejected = rejected;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+}
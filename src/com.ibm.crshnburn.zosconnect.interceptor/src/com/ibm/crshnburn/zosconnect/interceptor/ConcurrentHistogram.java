@@ -0,0 +1,153 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The ConcurrentHistogram class records non-negative values into log-linear buckets in the style of
+ * HdrHistogram.
+ *
+ * Values below 128 have a bucket each.  Above that every power of two range is split into 64 buckets, so
+ * any recorded value is reported to within about 1.5%.  Recording is a single atomic increment on a
+ * preallocated array and does not lock or allocate.  Values larger than the maximum are recorded in the
+ * highest bucket.
+ *
+ * @author IBM
+ */
+final class ConcurrentHistogram {
+
+    private static final int SUB_BUCKET_BITS = 7;
+
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+    private static final int SUB_BUCKET_HALF = SUB_BUCKET_COUNT / 2;
+
+    private final long maxValue;
+
+    private final AtomicLongArray counts;
+
+    private final AtomicLong max = new AtomicLong();
+
+    private final AtomicLong sum = new AtomicLong();
+
+    /**
+     * Creates a histogram.
+     *
+     * @param maxValueBits values up to 2^maxValueBits - 1 are recorded accurately
+     */
+    ConcurrentHistogram(int maxValueBits) {
+        this.maxValue = (1L << maxValueBits) - 1;
+        this.counts = new AtomicLongArray(SUB_BUCKET_COUNT + (maxValueBits - SUB_BUCKET_BITS) * SUB_BUCKET_HALF);
+    }
+
+    /**
+     * Records a value.
+     *
+     * @param value
+     */
+    void record(long value) {
+        if (value < 0) {
+            value = 0;
+        } else if (value > maxValue) {
+            value = maxValue;
+        }
+        counts.incrementAndGet(indexOf(value));
+        sum.addAndGet(value);
+        long m = max.get();
+        while (value > m && !max.compareAndSet(m, value)) {
+            m = max.get();
+        }
+    }
+
+    /**
+     * Clears all recorded values.  Values recorded concurrently with a reset may or may not be kept.
+     */
+    void reset() {
+        for (int i = 0; i < counts.length(); i++) {
+            counts.set(i, 0L);
+        }
+        sum.set(0L);
+        max.set(0L);
+    }
+
+    /**
+     * Returns the number of values recorded.
+     */
+    long getCount() {
+        long count = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * Returns the largest value recorded.
+     */
+    long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Returns the sum of the values recorded.
+     */
+    long getSum() {
+        return sum.get();
+    }
+
+    /**
+     * Returns the value at or below which the given percentage of recorded values fall, or 0 if nothing
+     * has been recorded.
+     *
+     * @param percentile between 0 and 100
+     */
+    long getValueAtPercentile(double percentile) {
+        long count = getCount();
+        if (count == 0) {
+            return 0L;
+        }
+        long target = Math.max(1L, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length(); i++) {
+            seen += counts.get(i);
+            if (seen >= target) {
+                return Math.min(highestValueAt(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BUCKET_BITS - 1);
+        return SUB_BUCKET_COUNT + (shift - 1) * SUB_BUCKET_HALF + (int) (value >>> shift) - SUB_BUCKET_HALF;
+    }
+
+    private static long highestValueAt(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int offset = index - SUB_BUCKET_COUNT;
+        int shift = offset / SUB_BUCKET_HALF + 1;
+        long lowest = (long) (offset % SUB_BUCKET_HALF + SUB_BUCKET_HALF) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
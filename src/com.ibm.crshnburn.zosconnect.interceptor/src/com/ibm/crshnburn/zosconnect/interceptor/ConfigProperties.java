@@ -0,0 +1,171 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.util.Map;
+
+import com.ibm.zosconnect.spi.Interceptor;
+
+/**
+ * The ConfigProperties class reads the typed attributes of an Interceptor's configuration element, as passed to
+ * its activate and modified methods.
+ *
+ * The metatype limits the values that can be given in server.xml, but the configuration can also be supplied by
+ * other means, so a value of the wrong type or out of range is not trusted: a number given as a Long or a String is
+ * converted, a number out of range is moved to the nearest limit, and any other value is replaced by the default.
+ * Each value that is not used as given is logged.
+ *
+ * An Interceptor reads all its attributes with a ConfigProperties, builds an immutable snapshot of its settings
+ * from them, and publishes the snapshot through a single volatile field, so that a request sees either the old
+ * settings or the new ones and never a mixture.
+ *
+ * @author IBM
+ */
+final class ConfigProperties {
+
+    private final String source;
+
+    private final Map<String, Object> properties;
+
+    /**
+     * @param source the name of the Interceptor, used when logging a value that is not valid
+     * @param properties the configuration properties
+     */
+    ConfigProperties(String source, Map<String, Object> properties) {
+        this.source = source;
+        this.properties = properties;
+    }
+
+    boolean contains(String name) {
+        return properties.get(name) != null;
+    }
+
+    /**
+     * Returns an Integer attribute.
+     *
+     * @param name
+     * @param defaultValue returned if the attribute is not set or is not a number
+     * @param min
+     * @param max
+     */
+    int getInt(String name, int defaultValue, int min, int max) {
+        Object value = properties.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        long number;
+        if (value instanceof Integer || value instanceof Long || value instanceof Short) {
+            number = ((Number) value).longValue();
+        } else {
+            try {
+                number = Long.parseLong(value.toString().trim());
+            } catch (NumberFormatException e) {
+                InterceptorLog.log(source, "{} value {} is not valid, using {}", name, value, defaultValue);
+                return defaultValue;
+            }
+        }
+        if (number < min || number > max) {
+            int limited = (int) Math.max(min, Math.min(max, number));
+            InterceptorLog.log(source, "{} value {} is out of range, using {}", name, number, limited);
+            return limited;
+        }
+        return (int) number;
+    }
+
+    /**
+     * Returns a Boolean attribute.
+     *
+     * @param name
+     * @param defaultValue returned if the attribute is not set or is not true or false
+     */
+    boolean getBoolean(String name, boolean defaultValue) {
+        Object value = properties.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        String text = value.toString().trim();
+        if ("true".equalsIgnoreCase(text) || "false".equalsIgnoreCase(text)) {
+            return Boolean.parseBoolean(text);
+        }
+        InterceptorLog.log(source, "{} value {} is not valid, using {}", name, value, defaultValue);
+        return defaultValue;
+    }
+
+    /**
+     * Returns the sequence attribute common to all Interceptors.
+     *
+     * @param current returned if the attribute is not set
+     */
+    int getSequence(int current) {
+        return getInt(Interceptor.CFG_AD_SEQUENCE_ALIAS, current, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns a String attribute, trimmed.
+     *
+     * @param name
+     * @param defaultValue returned if the attribute is not set or is blank
+     */
+    String getString(String name, String defaultValue) {
+        Object value = properties.get(name);
+        if (value instanceof String[] && ((String[]) value).length > 0) {
+            value = ((String[]) value)[0];
+        }
+        if (value == null || value.toString().trim().isEmpty()) {
+            return defaultValue;
+        }
+        return value.toString().trim();
+    }
+
+    /**
+     * Returns a String attribute that must be one of a set of choices, ignoring case.
+     *
+     * @param name
+     * @param defaultValue returned if the attribute is not set or is not one of the choices
+     * @param choices
+     */
+    String getChoice(String name, String defaultValue, String... choices) {
+        String value = getString(name, defaultValue);
+        for (String choice : choices) {
+            if (choice.equalsIgnoreCase(value)) {
+                return choice;
+            }
+        }
+        InterceptorLog.log(source, "{} value {} is not valid, using {}", name, value, defaultValue);
+        return defaultValue;
+    }
+
+    /**
+     * Returns a String attribute with a cardinality greater than one.
+     *
+     * @param name
+     * @param defaultValues returned if the attribute is not set
+     */
+    String[] getStrings(String name, String... defaultValues) {
+        Object value = properties.get(name);
+        if (value instanceof String[]) {
+            return (String[]) value;
+        }
+        if (value instanceof String) {
+            return new String[] { (String) value };
+        }
+        return defaultValues;
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The CountMinSketch class estimates how often each key has been seen in a stream, in a fixed amount of memory
+ * whatever the number of distinct keys.
+ *
+ * The sketch is DEPTH rows of counters.  Each key is hashed to one counter in every row and adding the key
+ * increments those counters.  The estimate of a key is the smallest of its counters, which is never less than the
+ * true count and, with high probability, exceeds it by no more than e / width of the total count.  The counters
+ * are held in an AtomicLongArray and updated without locks.
+ *
+ * @author IBM
+ */
+final class CountMinSketch {
+
+    static final int DEPTH = 4;
+
+    /**
+     * The most counters in a row, each row's counter is chosen by its own 16 bits of the key's hash.
+     */
+    static final int MAX_WIDTH = 1 << 16;
+
+    private final AtomicLongArray counters;
+
+    private final int mask;
+
+    /**
+     * @param width the number of counters in each row, rounded up to a power of two no more than MAX_WIDTH
+     */
+    CountMinSketch(int width) {
+        int rowWidth = Integer.highestOneBit(Math.max(2, Math.min(width, MAX_WIDTH) - 1)) << 1;
+        this.counters = new AtomicLongArray(rowWidth * DEPTH);
+        this.mask = rowWidth - 1;
+    }
+
+    /**
+     * The starting value of a hash, the FNV-1a offset basis.
+     */
+    static final long HASH_BASIS = 0xcbf29ce484222325L;
+
+    /**
+     * Returns a 64 bit hash of a key, FNV-1a mixed with the MurmurHash3 finalizer so that every bit depends on
+     * every character.
+     *
+     * @param key
+     */
+    static long hash(String key) {
+        return mix(characters(HASH_BASIS, key));
+    }
+
+    /**
+     * Adds the characters of one part of a key to a hash, so that the hash of a key made of several parts can be
+     * computed without building the key.  The hash is started with HASH_BASIS and finished with mix.
+     *
+     * @param hash
+     * @param part the part, or null
+     */
+    static long append(long hash, String part) {
+        if (part == null) {
+            return append(hash, 0);
+        }
+        // The length follows the characters, outside the range of a char, so that parts ab and c differ from a and bc.
+        return append(characters(hash, part), 0x10000 + part.length());
+    }
+
+    private static long characters(long hash, String text) {
+        for (int i = 0; i < text.length(); i++) {
+            hash ^= text.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    /**
+     * Adds a number that is one part of a key to a hash.
+     *
+     * @param hash
+     * @param part
+     */
+    static long append(long hash, int part) {
+        hash ^= part;
+        return hash * 0x100000001b3L;
+    }
+
+    /**
+     * Finishes a hash with the MurmurHash3 finalizer.
+     *
+     * @param hash
+     */
+    static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    /**
+     * Returns the index of a key's counter in a row, taken from the row's 16 bits of the hash.
+     */
+    private int index(long hash, int row) {
+        return row * (mask + 1) + ((int) (hash >>> (row * 16)) & mask);
+    }
+
+    /**
+     * Adds one occurrence of a key.
+     *
+     * @param hash the key's hash
+     *
+     * @return the key's estimated count, including this occurrence
+     */
+    long add(long hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Returns the estimated count of a key.
+     *
+     * @param hash the key's hash
+     */
+    long estimate(long hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < DEPTH; row++) {
+            estimate = Math.min(estimate, counters.get(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    /**
+     * Halves every counter so that old occurrences count for less than recent ones.
+     */
+    void decay() {
+        for (int i = 0; i < counters.length(); i++) {
+            if (counters.get(i) != 0L) {
+                counters.getAndUpdate(i, count -> count >>> 1);
+            }
+        }
+    }
+}
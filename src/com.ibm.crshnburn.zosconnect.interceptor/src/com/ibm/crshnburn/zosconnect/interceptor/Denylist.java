@@ -0,0 +1,253 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * The Denylist class checks names, such as revoked user IDs or certificate subject names, against a large list
+ * held in a memory-mapped file rather than on the Java heap.
+ *
+ * The file holds the 64 bit hash of every name from CountMinSketch.hash, sorted, preceded by an optional
+ * BloomFilter written out word by word.  A lookup hashes the name, checks the Bloom filter in place and, only if that reports the name may be present, binary searches the sorted
+ * hashes.  Both are read directly from the mapped file with absolute reads, so a lookup is O(log n), does not
+ * allocate and can be made concurrently by any number of threads.  With 64 bit hashes the chance of a name
+ * being wrongly reported as denied is negligible for lists of millions of names.
+ *
+ * The binary file is built from a text file with one name per line by the compile method, which can also be
+ * run from the command line:
+ *
+ *  java -cp com.ibm.crshnburn.zosconnect.interceptor.jar com.ibm.crshnburn.zosconnect.interceptor.Denylist names.txt denylist.bin
+ *
+ * The output is written to a temporary file and renamed, so a running server never sees a partly written file.
+ *
+ * @author IBM
+ */
+public final class Denylist {
+
+    private static final int MAGIC = 0x5A43444C;
+
+    private static final int VERSION = 1;
+
+    private static final int HEADER_LENGTH = 24;
+
+    private static final int DEFAULT_BLOOM_BITS_PER_NAME = BloomFilter.BITS_PER_KEY;
+
+    private final MappedByteBuffer buffer;
+
+    private final long bloomMask;
+
+    private final int bloomOffset;
+
+    private final int entriesOffset;
+
+    private final int entryCount;
+
+    private final long lastModified;
+
+    private final long size;
+
+    private Denylist(MappedByteBuffer buffer, long bloomBits, int entryCount, long lastModified, long size) {
+        this.buffer = buffer;
+        this.bloomMask = bloomBits - 1;
+        this.bloomOffset = HEADER_LENGTH;
+        this.entriesOffset = HEADER_LENGTH + (int) (bloomBits / 8);
+        this.entryCount = entryCount;
+        this.lastModified = lastModified;
+        this.size = size;
+    }
+
+    /**
+     * Maps a compiled denylist file.
+     *
+     * @param path
+     *
+     * @throws IOException if the file cannot be read or is not a compiled denylist
+     */
+    public static Denylist open(Path path) throws IOException {
+        long lastModified = Files.getLastModifiedTime(path).toMillis();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_LENGTH || size > Integer.MAX_VALUE) {
+                throw new IOException("Denylist " + path + " has an invalid length " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+                throw new IOException("Denylist " + path + " is not a compiled denylist");
+            }
+            long bloomBits = buffer.getLong(8);
+            long entryCount = buffer.getLong(16);
+            if (Long.bitCount(bloomBits) > 1 || HEADER_LENGTH + bloomBits / 8 + entryCount * 8 != size) {
+                throw new IOException("Denylist " + path + " is truncated or corrupt");
+            }
+            return new Denylist(buffer, bloomBits, (int) entryCount, lastModified, size);
+        }
+    }
+
+    /**
+     * Returns true if the name is in the denylist.
+     *
+     * @param name
+     */
+    public boolean contains(String name) {
+        long hash = CountMinSketch.hash(name);
+        if (bloomMask >= 0 && !BloomFilter.mightContain(buffer, bloomOffset, bloomMask, hash)) {
+            return false;
+        }
+
+        int low = 0;
+        int high = entryCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            long value = buffer.getLong(entriesOffset + mid * 8);
+            if (value < hash) {
+                low = mid + 1;
+            } else if (value > hash) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of names in the denylist.
+     */
+    public int size() {
+        return entryCount;
+    }
+
+    /**
+     * Returns true if the file has changed since it was mapped.
+     *
+     * @param path
+     */
+    boolean isStale(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis() != lastModified || Files.size(path) != size;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Compiles a text file of names, one per line, into a denylist file.  Blank lines and lines starting
+     * with # are ignored and names are trimmed.
+     *
+     * @param text the names
+     * @param binary the compiled denylist file to create or replace
+     * @param bloomBitsPerName the size of the Bloom filter, or 0 for none
+     *
+     * @return the number of distinct names
+     *
+     * @throws IOException
+     */
+    public static int compile(Path text, Path binary, int bloomBitsPerName) throws IOException {
+        long[] hashes = new long[1024];
+        int count = 0;
+        try (BufferedReader reader = Files.newBufferedReader(text, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String name = line.trim();
+                if (name.isEmpty() || name.startsWith("#")) {
+                    continue;
+                }
+                if (count == hashes.length) {
+                    hashes = Arrays.copyOf(hashes, count * 2);
+                }
+                hashes[count++] = CountMinSketch.hash(name);
+            }
+        }
+        Arrays.sort(hashes, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || hashes[i] != hashes[distinct - 1]) {
+                hashes[distinct++] = hashes[i];
+            }
+        }
+
+        BloomFilter bloom = null;
+        long bloomBits = 0;
+        if (bloomBitsPerName > 0 && distinct > 0) {
+            bloom = new BloomFilter(distinct, bloomBitsPerName);
+            bloomBits = bloom.size();
+            for (int i = 0; i < distinct; i++) {
+                bloom.add(hashes[i]);
+            }
+        }
+
+        Path temp = binary.resolveSibling(binary.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer out = ByteBuffer.allocate(64 * 1024);
+            out.putInt(MAGIC).putInt(VERSION).putLong(bloomBits).putLong(distinct);
+            for (int i = 0; i < bloomBits / 64; i++) {
+                write(channel, out, bloom.word(i));
+            }
+            for (int i = 0; i < distinct; i++) {
+                write(channel, out, hashes[i]);
+            }
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, binary, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return distinct;
+    }
+
+    private static void write(FileChannel channel, ByteBuffer out, long value) throws IOException {
+        if (out.remaining() < 8) {
+            out.flip();
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            out.clear();
+        }
+        out.putLong(value);
+    }
+
+    /**
+     * Compiles a denylist from the command line.
+     *
+     * @param args the text file, the denylist file, and optionally the Bloom filter bits per name
+     *
+     * @throws IOException
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: Denylist <names.txt> <denylist.bin> [bloomBitsPerName]");
+            System.exit(1);
+        }
+        int bits = args.length > 2 ? Integer.parseInt(args[2]) : DEFAULT_BLOOM_BITS_PER_NAME;
+        int count = compile(Paths.get(args[0]), Paths.get(args[1]), bits);
+        System.out.println("Compiled " + count + " names into " + args[1]);
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The EndpointCircuitBreaker class is the circuit breaker of one API requester endpoint.
+ *
+ * While CLOSED, the outcome of every call is counted in a sliding window of one second buckets.  Once the window
+ * holds enough calls and the percentage of failed or slow calls reaches its threshold the breaker OPENs and
+ * requests are rejected.  After the cooldown the breaker is HALF_OPEN and lets a limited number of probe requests
+ * through.  If all the probes succeed the breaker CLOSEs with an empty window, if any fails it OPENs again.
+ *
+ * The state is an immutable object replaced with compare-and-set, and the window buckets are replaced as the
+ * window moves on, so no lock is taken.
+ *
+ * @author IBM
+ */
+final class EndpointCircuitBreaker {
+
+    enum Mode {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    /**
+     * The tuning values, shared by all the breakers of an Interceptor and replaced as a whole.
+     */
+    static final class Settings {
+        final int windowSeconds;
+        final int minimumCalls;
+        final int failureRate;
+        final long slowCallNanos;
+        final int slowCallRate;
+        final long cooldownNanos;
+        final int probes;
+
+        Settings(int windowSeconds, int minimumCalls, int failureRate, int slowCallMillis, int slowCallRate,
+                int cooldownSeconds, int probes) {
+            this.windowSeconds = Math.min(MAX_WINDOW_SECONDS, Math.max(1, windowSeconds));
+            this.minimumCalls = Math.max(1, minimumCalls);
+            this.failureRate = failureRate;
+            this.slowCallNanos = slowCallMillis > 0 ? slowCallMillis * 1_000_000L : Long.MAX_VALUE;
+            this.slowCallRate = slowCallRate;
+            this.cooldownNanos = Math.max(1, cooldownSeconds) * 1_000_000_000L;
+            this.probes = Math.max(1, probes);
+        }
+    }
+
+    /**
+     * The state of the breaker.  A request admitted by the breaker holds the state it was admitted in, so that
+     * its outcome is only applied to that state.
+     */
+    static final class State {
+        final Mode mode;
+        final long since;
+        final AtomicInteger permits;
+        final AtomicInteger successes = new AtomicInteger();
+
+        State(Mode mode, long since, int permits) {
+            this.mode = mode;
+            this.since = since;
+            this.permits = new AtomicInteger(permits);
+        }
+    }
+
+    private static final class Bucket {
+        final long second;
+        final AtomicInteger calls = new AtomicInteger();
+        final AtomicInteger failures = new AtomicInteger();
+        final AtomicInteger slow = new AtomicInteger();
+
+        Bucket(long second) {
+            this.second = second;
+        }
+    }
+
+    /**
+     * The maximum window length, in one second buckets.
+     */
+    static final int MAX_WINDOW_SECONDS = 300;
+
+    private final String name;
+
+    private final AtomicReference<State> state;
+
+    private final AtomicReferenceArray<Bucket> buckets = new AtomicReferenceArray<>(MAX_WINDOW_SECONDS);
+
+    /**
+     * The time the breaker was created, buckets are numbered in seconds from it as System.nanoTime may be
+     * negative.
+     */
+    private final long startNanos = System.nanoTime();
+
+    private final AtomicLong rejected = new AtomicLong();
+
+    private final AtomicLong opened = new AtomicLong();
+
+    EndpointCircuitBreaker(String name) {
+        this.name = name;
+        this.state = new AtomicReference<>(new State(Mode.CLOSED, startNanos, 0));
+    }
+
+    String getName() {
+        return name;
+    }
+
+    /**
+     * Decides whether a request may call the endpoint.
+     *
+     * @param settings
+     *
+     * @return the state the request is admitted in, or null if it is rejected
+     */
+    State tryAcquire(Settings settings) {
+        for (;;) {
+            State current = state.get();
+            if (current.mode == Mode.CLOSED) {
+                return current;
+            }
+            long now = System.nanoTime();
+            if (now - current.since >= settings.cooldownNanos) {
+                /*
+                 * The cooldown of an OPEN breaker has passed, or the probes of a HALF_OPEN breaker have not
+                 * reported back within the cooldown, so start a new set of probes.
+                 */
+                state.compareAndSet(current, new State(Mode.HALF_OPEN, now, settings.probes));
+                continue;
+            }
+            if (current.mode == Mode.HALF_OPEN) {
+                int permits = current.permits.get();
+                if (permits > 0) {
+                    if (current.permits.compareAndSet(permits, permits - 1)) {
+                        return current;
+                    }
+                    continue;
+                }
+            }
+            rejected.incrementAndGet();
+            return null;
+        }
+    }
+
+    /**
+     * Returns the permit of a probe request that did not reach the endpoint.
+     *
+     * @param admitted the state returned by tryAcquire
+     */
+    void release(State admitted) {
+        if (admitted.mode == Mode.HALF_OPEN) {
+            admitted.permits.incrementAndGet();
+        }
+    }
+
+    /**
+     * Records the outcome of a call to the endpoint.
+     *
+     * @param admitted the state returned by tryAcquire, or null if the request was not checked by the breaker
+     * @param failed true if the call failed
+     * @param latencyNanos
+     * @param settings
+     *
+     * @return true if the outcome opened the breaker
+     */
+    boolean record(State admitted, boolean failed, long latencyNanos, Settings settings) {
+        boolean slow = latencyNanos >= settings.slowCallNanos;
+        State current = state.get();
+        if (admitted == null && current.mode == Mode.CLOSED) {
+            admitted = current;
+        }
+        if (admitted != current) {
+            return false;
+        }
+
+        long now = System.nanoTime();
+        if (current.mode == Mode.HALF_OPEN) {
+            if (failed || slow) {
+                return open(current, now);
+            } else if (current.successes.incrementAndGet() >= settings.probes) {
+                if (state.compareAndSet(current, new State(Mode.CLOSED, now, 0))) {
+                    for (int i = 0; i < buckets.length(); i++) {
+                        buckets.set(i, null);
+                    }
+                }
+            }
+            return false;
+        }
+        if (current.mode != Mode.CLOSED) {
+            return false;
+        }
+
+        Bucket bucket = bucket(second(now));
+        bucket.calls.incrementAndGet();
+        if (failed) {
+            bucket.failures.incrementAndGet();
+        }
+        if (slow) {
+            bucket.slow.incrementAndGet();
+        }
+        return (failed || slow) && evaluate(current, now, settings);
+    }
+
+    /**
+     * Opens the breaker if the window has enough calls and too many of them failed or were slow.
+     */
+    private boolean evaluate(State current, long now, Settings settings) {
+        long second = second(now);
+        int calls = 0;
+        int failures = 0;
+        int slow = 0;
+        for (int i = 0; i < settings.windowSeconds && i <= second; i++) {
+            Bucket bucket = buckets.get((int) ((second - i) % MAX_WINDOW_SECONDS));
+            if (bucket != null && bucket.second == second - i) {
+                calls += bucket.calls.get();
+                failures += bucket.failures.get();
+                slow += bucket.slow.get();
+            }
+        }
+        if (calls < settings.minimumCalls) {
+            return false;
+        }
+        return (failures * 100L >= (long) settings.failureRate * calls
+                || slow * 100L >= (long) settings.slowCallRate * calls) && open(current, now);
+    }
+
+    private boolean open(State current, long now) {
+        if (state.compareAndSet(current, new State(Mode.OPEN, now, 0))) {
+            opened.incrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the number of whole seconds between the creation of the breaker and a time.
+     */
+    private long second(long now) {
+        return (now - startNanos) / 1_000_000_000L;
+    }
+
+    private Bucket bucket(long second) {
+        int index = (int) (second % MAX_WINDOW_SECONDS);
+        for (;;) {
+            Bucket bucket = buckets.get(index);
+            if (bucket != null && bucket.second == second) {
+                return bucket;
+            }
+            Bucket next = new Bucket(second);
+            if (buckets.compareAndSet(index, bucket, next)) {
+                return next;
+            }
+        }
+    }
+
+    Mode getMode() {
+        return state.get().mode;
+    }
+
+    CircuitSummary summarize() {
+        return new CircuitSummary(name, getMode().name(), opened.get(), rejected.get());
+    }
+}
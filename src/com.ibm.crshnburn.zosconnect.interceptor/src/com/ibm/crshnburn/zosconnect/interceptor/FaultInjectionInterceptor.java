@@ -0,0 +1,527 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.osgi.service.component.ComponentContext;
+
+import com.ibm.zosconnect.spi.Data;
+import com.ibm.zosconnect.spi.DataRequester;
+import com.ibm.zosconnect.spi.EndpointInterceptor;
+import com.ibm.zosconnect.spi.HttpZosConnectRequest;
+import com.ibm.zosconnect.spi.InterceptorException;
+import com.ibm.zosconnect.spi.ServiceProviderInterceptor;
+
+/**
+ * The FaultInjectionInterceptor class is an example of an Interceptor that injects faults into requests, delays
+ * and rejections, so that the behaviour of clients and Systems of Record under stress can be tested.
+ *
+ * Each fault rule selects requests by the start of their URI, their user, their SoR identifier or their API
+ * requester name, and injects a fault at one point: a delay at P1, at P2 before the SoR is called, at P3 after the
+ * SoR returns so that the SoR appears slow, in preInvokeRequester or before the endpoint is called, or an
+ * InterceptorException at P1 or in preInvokeRequester.  A rule applies to a configured percentage of the requests
+ * it selects.  Whether the nth request selected by a rule is faulted is decided by hashing n with the configured
+ * seed and the rule's position, so the same seed injects the same sequence of faults in every test run.  The
+ * sequence starts again each time the configuration changes.
+ *
+ * Fault injection is disabled unless the enabled attribute is set to true, and can be switched on and off by
+ * changing the configuration element in server.xml.  While it is disabled each point only checks that there are
+ * no settings.  The requests selected and faulted by each rule are published through the InterceptorMetricsMXBean.
+ *
+ * @author IBM
+ */
+public class FaultInjectionInterceptor implements ServiceProviderInterceptor, EndpointInterceptor {
+
+    private static final String CFG_AD_ENABLED = "enabled";
+
+    private static final String CFG_AD_SEED = "seed";
+
+    /**
+     * Configuration attribute holding the fault rules, as selector=point:action[:millis][@percent].
+     */
+    private static final String CFG_AD_FAULT = "fault";
+
+    private static final String SELECT_ALL = "*";
+
+    private static final String SELECT_URI = "uri";
+
+    private static final String SELECT_USER = "user";
+
+    private static final String SELECT_SOR = "sor";
+
+    private static final String SELECT_REQUESTER = "requester";
+
+    private static final String ACTION_DELAY = "delay";
+
+    private static final String ACTION_REJECT = "reject";
+
+    /**
+     * The points at which a fault can be injected, in the order of the rule arrays in Settings.
+     */
+    private static final String[] POINTS = { "P1", "P2", "SOR", "REQUESTER", "ENDPOINT" };
+
+    private static final int P1 = 0;
+
+    private static final int P2 = 1;
+
+    private static final int SOR = 2;
+
+    private static final int REQUESTER = 3;
+
+    private static final int ENDPOINT = 4;
+
+    private static final int MAX_DELAY_MILLIS = 600_000;
+
+    /**
+     * A fault rule.
+     */
+    private static final class Rule {
+        final String text;
+        final String selector;
+        final String match;
+        final int point;
+        final boolean reject;
+        final long delayMillis;
+        final long threshold;
+        final long salt;
+        final AtomicLong selected = new AtomicLong();
+        final LongAdder injected = new LongAdder();
+
+        /**
+         * @param text the rule as configured
+         * @param selector SELECT_ALL, SELECT_URI, SELECT_USER, SELECT_SOR or SELECT_REQUESTER
+         * @param match the URI prefix, the user or user prefix ending with *, the SoR identifier or the API
+         *        requester name
+         * @param point the index of the point in POINTS
+         * @param reject true to throw an InterceptorException, false to delay
+         * @param delayMillis
+         * @param percent the percentage of the selected requests faulted
+         * @param salt the seed mixed with the rule's position
+         */
+        Rule(String text, String selector, String match, int point, boolean reject, long delayMillis, double percent,
+                long salt) {
+            this.text = text;
+            this.selector = selector;
+            this.match = match;
+            this.point = point;
+            this.reject = reject;
+            this.delayMillis = delayMillis;
+            this.threshold = (long) (percent / 100.0 * (1L << 53));
+            this.salt = salt;
+        }
+
+        /**
+         * Returns whether the rule selects a request, the values not known at the rule's point are null.
+         */
+        boolean selects(String uri, String user, String sorIdentifier, String apiRequester) {
+            switch (selector) {
+            case SELECT_URI:
+                return uri != null && uri.startsWith(match);
+            case SELECT_USER:
+                return user != null && (match.endsWith("*") ? user.regionMatches(true, 0, match, 0, match.length() - 1)
+                        : user.equalsIgnoreCase(match));
+            case SELECT_SOR:
+                return match.equals(sorIdentifier);
+            case SELECT_REQUESTER:
+                return match.equals(apiRequester);
+            default:
+                return true;
+            }
+        }
+
+        /**
+         * Counts a selected request and returns whether it is faulted.
+         */
+        boolean inject() {
+            long n = selected.getAndIncrement();
+            if ((mix(salt + n * 0x9e3779b97f4a7c15L) >>> 11) >= threshold) {
+                return false;
+            }
+            injected.increment();
+            return true;
+        }
+
+        FaultInjectionSummary summarize(String interceptorName) {
+            return new FaultInjectionSummary(interceptorName, text, selected.get(), injected.sum());
+        }
+    }
+
+    /**
+     * The rules for each point, replaced as a whole when the configuration changes, or null when disabled.
+     */
+    private static final class Settings {
+        final Rule[][] rules;
+        final List<Rule> all;
+
+        Settings(List<Rule> all) {
+            this.all = all;
+            this.rules = new Rule[POINTS.length][];
+            for (int point = 0; point < POINTS.length; point++) {
+                final int p = point;
+                rules[point] = all.stream().filter(rule -> rule.point == p).toArray(Rule[]::new);
+            }
+        }
+    }
+
+    /**
+     * The registered sequence number of this Interceptor which determines the order
+     * in which the Interceptor is called in relation to other Interceptors.
+     */
+    private volatile int sequence;
+
+    private volatile Settings settings;
+
+    /**
+     * Activates the Interceptor.
+     *
+     * Trace the activation, retrieve the Interceptor's configuration from the Interceptor's
+     * configuration element in server.xml and publish the rules' counts.
+     *
+     * @param context
+     * @param properties
+     */
+    protected void activate(ComponentContext context, Map<String, Object> properties) {
+        InterceptorLog.log(getName(), "activated");
+        configure(properties);
+        InterceptorMetrics.getInstance().addFaultInjector(this);
+    }
+
+    /**
+     * Deactivates the Interceptor.
+     *
+     * The Interceptor will no longer receive events.
+     *
+     * @param context
+     */
+    protected void deactivate(ComponentContext context) {
+        InterceptorLog.log(getName(), "deactivated");
+        settings = null;
+        InterceptorMetrics.getInstance().removeFaultInjector(this);
+    }
+
+    /**
+     * Called to signal that the Interceptor's configuration element may have changed in server.xml.
+     * Fault injection is switched on or off and the new rules apply to requests arriving after the change, each
+     * rule's sequence of faults starting again.
+     *
+     * @param properties
+     */
+    protected void modified(Map<String, Object> properties) {
+        InterceptorLog.log(getName(), "modified");
+        configure(properties);
+    }
+
+    private synchronized void configure(Map<String, Object> properties) {
+        ConfigProperties config = new ConfigProperties(getName(), properties);
+        sequence = config.getSequence(sequence);
+        boolean enabled = config.getBoolean(CFG_AD_ENABLED, false);
+        int seed = config.getInt(CFG_AD_SEED, 0, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+        List<Rule> rules = new ArrayList<>();
+        for (String entry : config.getStrings(CFG_AD_FAULT)) {
+            Rule rule = parseRule(entry, mix(seed + rules.size() * 0x9e3779b97f4a7c15L));
+            if (rule == null) {
+                InterceptorLog.log(getName(), "fault {} ignored, it must be selector=point:delay:millis[@percent] or selector=point:reject[@percent] for a point the selector and action apply to",
+                        entry);
+            } else {
+                rules.add(rule);
+            }
+        }
+
+        settings = enabled && !rules.isEmpty() ? new Settings(rules) : null;
+        InterceptorLog.log(getName(), "fault injection {} with {} rules and seed {}", enabled ? "enabled" : "disabled",
+                rules.size(), seed);
+    }
+
+    /**
+     * Parses a fault rule.
+     *
+     * @param entry the rule, as selector=point:action[:millis][@percent] where the selector is *, uri:prefix,
+     *        user:name, sor:identifier or requester:name
+     * @param salt
+     *
+     * @return the rule, or null if the rule is not valid
+     */
+    private static Rule parseRule(String entry, long salt) {
+        int eq = entry.lastIndexOf('=');
+        if (eq < 0) {
+            return null;
+        }
+        String selection = entry.substring(0, eq).trim();
+        String fault = entry.substring(eq + 1).trim();
+        String selector = SELECT_ALL;
+        String match = null;
+        if (!SELECT_ALL.equals(selection)) {
+            int colon = selection.indexOf(':');
+            if (colon < 0) {
+                return null;
+            }
+            selector = selection.substring(0, colon).trim().toLowerCase();
+            match = selection.substring(colon + 1).trim();
+            if (match.isEmpty() || !(SELECT_URI.equals(selector) || SELECT_USER.equals(selector)
+                    || SELECT_SOR.equals(selector) || SELECT_REQUESTER.equals(selector))) {
+                return null;
+            }
+        }
+
+        double percent = 100.0;
+        int at = fault.indexOf('@');
+        try {
+            if (at >= 0) {
+                percent = Double.parseDouble(fault.substring(at + 1).trim());
+                fault = fault.substring(0, at);
+            }
+            String[] parts = fault.split(":");
+            int point = -1;
+            for (int i = 0; i < POINTS.length; i++) {
+                if (POINTS[i].equalsIgnoreCase(parts[0].trim())) {
+                    point = i;
+                }
+            }
+            String action = parts.length > 1 ? parts[1].trim().toLowerCase() : "";
+            boolean reject = ACTION_REJECT.equals(action) && parts.length == 2;
+            long delayMillis = ACTION_DELAY.equals(action) && parts.length == 3 ? Long.parseLong(parts[2].trim()) : -1L;
+            boolean requesterPoint = point == REQUESTER || point == ENDPOINT;
+            if (point < 0 || !(percent >= 0.0 && percent <= 100.0)
+                    || (!reject && (delayMillis < 0 || delayMillis > MAX_DELAY_MILLIS))
+                    || (reject && point != P1 && point != REQUESTER)
+                    || (SELECT_REQUESTER.equals(selector) && !requesterPoint)
+                    || ((SELECT_URI.equals(selector) || SELECT_USER.equals(selector)) && requesterPoint)
+                    || (SELECT_SOR.equals(selector) && point != P2 && point != SOR)) {
+                return null;
+            }
+            return new Rule(entry.trim(), selector, match, point, reject, delayMillis, percent, salt);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    /**
+     * The SplitMix64 finalizer, spreading every bit of the input over the result.
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Returns the requests selected and faulted by each rule.
+     */
+    FaultInjectionSummary[] summarize() {
+        Settings current = settings;
+        return current == null ? new FaultInjectionSummary[0]
+                : current.all.stream().map(rule -> rule.summarize(getName())).toArray(FaultInjectionSummary[]::new);
+    }
+
+    /**
+     * Applies the rules of a point that select the request.
+     *
+     * @return the first rule that rejects the request, or null if the request is not rejected
+     */
+    private static Rule apply(Rule[] rules, String uri, String user, String sorIdentifier, String apiRequester) {
+        for (Rule rule : rules) {
+            if (rule.selects(uri, user, sorIdentifier, apiRequester) && rule.inject()) {
+                if (rule.reject) {
+                    return rule;
+                }
+                delay(rule.delayMillis);
+            }
+        }
+        return null;
+    }
+
+    private static void delay(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String user(HttpZosConnectRequest httpZosConnectRequest) {
+        Principal principal = httpZosConnectRequest.getUserPrincipal();
+        return principal != null ? principal.getName().trim() : null;
+    }
+
+    /**
+     * Returns this Interceptor's configured sequence number.
+     */
+    @Override
+    public int getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns this Interceptor's name.
+     */
+    @Override
+    public String getName() {
+        return "zOSConnectFaultInjectionInterceptor";
+    }
+
+    /**
+     * z/OS Connect EE calls preInvoke method at point P1.
+     *
+     * The P1 rules that select the request are applied, delaying it or throwing an InterceptorException so that
+     * the request is not processed.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void preInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
+            throws InterceptorException {
+        Settings current = settings;
+        if (current == null) {
+            return;
+        }
+        Rule rejected = apply(current.rules[P1], httpZosConnectRequest.getRequestURI(), user(httpZosConnectRequest),
+                null, null);
+        if (rejected != null) {
+            InterceptorLog.log(getName(), "preInvoke InterceptorException - P1 - Fault injected by rule {}",
+                    rejected.text);
+            throw new InterceptorException("Request not processed, fault injected");
+        }
+    }
+
+    /**
+     * z/OS Connect EE calls preSorInvoke method at point P2, the P2 rules that select the request delay it before
+     * the SoR is called.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     */
+    @Override
+    public void preSorInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest,
+            Data data) {
+        Settings current = settings;
+        if (current == null) {
+            return;
+        }
+        apply(current.rules[P2], httpZosConnectRequest.getRequestURI(), user(httpZosConnectRequest),
+                data.getData(Data.SOR_IDENTIFIER), null);
+    }
+
+    /**
+     * z/OS Connect EE calls postSorInvoke method at point P3, the SOR rules that select the request delay it
+     * before the response is processed, so that the time between P2 and P3 is that of a slow SoR.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     */
+    @Override
+    public void postSorInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest,
+            Data data) {
+        Settings current = settings;
+        if (current == null) {
+            return;
+        }
+        apply(current.rules[SOR], httpZosConnectRequest.getRequestURI(), user(httpZosConnectRequest),
+                data.getData(Data.SOR_IDENTIFIER), null);
+    }
+
+    /**
+     * z/OS Connect EE calls postInvoke method at point P4, there is nothing to do.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void postInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
+            throws InterceptorException {
+    }
+
+    /**
+     * z/OS Connect EE calls the preInvokeRequester method after initial request checks.
+     *
+     * The REQUESTER rules that select the request are applied, delaying it or throwing an InterceptorException
+     * so that the request is not processed.
+     *
+     * @param requestStateMap
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void preInvokeRequester(Map<Object, Object> requestStateMap, DataRequester data) throws InterceptorException {
+        Settings current = settings;
+        if (current == null) {
+            return;
+        }
+        Rule rejected = apply(current.rules[REQUESTER], null, null, null,
+                data.getData(DataRequester.API_REQUESTER_NAME));
+        if (rejected != null) {
+            InterceptorLog.log(getName(), "preInvokeRequester InterceptorException - Fault injected by rule {}",
+                    rejected.text);
+            throw new InterceptorException("Request not processed, fault injected");
+        }
+    }
+
+    /**
+     * z/OS Connect EE calls the preEndpointInvoke method just before calling the endpoint, the ENDPOINT rules that
+     * select the request delay the call.
+     *
+     * @param requestStateMap
+     * @param data
+     */
+    @Override
+    public void preEndpointInvoke(Map<Object, Object> requestStateMap, DataRequester data) {
+        Settings current = settings;
+        if (current == null) {
+            return;
+        }
+        apply(current.rules[ENDPOINT], null, null, null, data.getData(DataRequester.API_REQUESTER_NAME));
+    }
+
+    /**
+     * z/OS Connect EE calls the postEndpointInvoke method once the call to the endpoint returns, there is nothing
+     * to do.
+     *
+     * @param requestStateMap
+     * @param data
+     */
+    @Override
+    public void postEndpointInvoke(Map<Object, Object> requestStateMap, DataRequester data) {
+    }
+
+    /**
+     * z/OS Connect EE calls the postInvokeRequester method, there is nothing to do.
+     *
+     * @param requestStateMap
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void postInvokeRequester(Map<Object, Object> requestStateMap, DataRequester data) throws InterceptorException {
+    }
+}
@@ -0,0 +1,69 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * The FaultInjectionSummary class is the number of requests selected and faulted by one fault rule, as reported
+ * through the InterceptorMetricsMXBean.
+ *
+ * @author IBM
+ */
+public class FaultInjectionSummary {
+
+    private final String name;
+    private final String rule;
+    private final long selected;
+    private final long injected;
+
+    @ConstructorProperties({ "name", "rule", "selected", "injected" })
+    public FaultInjectionSummary(String name, String rule, long selected, long injected) {
+        this.name = name;
+        this.rule = rule;
+        this.selected = selected;
+        this.injected = injected;
+    }
+
+    /**
+     * Returns the name of the Interceptor injecting the faults.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the rule, as configured.
+     */
+    public String getRule() {
+        return rule;
+    }
+
+    /**
+     * Returns the number of requests the rule selected since the configuration last changed.
+     */
+    public long getSelected() {
+        return selected;
+    }
+
+    /**
+     * Returns the number of the selected requests that were faulted.
+     */
+    public long getInjected() {
+        return injected;
+    }
+}
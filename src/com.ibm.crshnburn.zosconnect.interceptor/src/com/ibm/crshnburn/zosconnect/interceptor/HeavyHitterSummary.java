@@ -0,0 +1,86 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * The HeavyHitterSummary class is one of the keys seen most often in the early failures counted by an
+ * Interceptor, as reported through the InterceptorMetricsMXBean.
+ *
+ * @author IBM
+ */
+public class HeavyHitterSummary {
+
+    private final String name;
+    private final String dimension;
+    private final String key;
+    private final long count;
+    private final long tracked;
+    private final long total;
+
+    @ConstructorProperties({ "name", "dimension", "key", "count", "tracked", "total" })
+    public HeavyHitterSummary(String name, String dimension, String key, long count, long tracked, long total) {
+        this.name = name;
+        this.dimension = dimension;
+        this.key = key;
+        this.count = count;
+        this.tracked = tracked;
+        this.total = total;
+    }
+
+    /**
+     * Returns the name of the Interceptor that counted the events.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns what the key is, for example user or uri.
+     */
+    public String getDimension() {
+        return dimension;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    /**
+     * Returns the estimated number of events with the key, which may be more but is never less than the true
+     * number.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the number of events with the key since it became a heavy hitter, which is never more than the true
+     * number.
+     */
+    public long getTracked() {
+        return tracked;
+    }
+
+    /**
+     * Returns the number of events counted for the dimension.
+     */
+    public long getTotal() {
+        return total;
+    }
+}
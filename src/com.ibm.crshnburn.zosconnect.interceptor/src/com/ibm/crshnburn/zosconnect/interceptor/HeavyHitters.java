@@ -0,0 +1,238 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The HeavyHitters class finds the keys seen most often in a stream of events, for example the users whose
+ * requests fail early, in a fixed amount of memory however many distinct keys there are.
+ *
+ * Every key is counted in a CountMinSketch.  The top keys are kept in a Space-Saving summary of a fixed number of
+ * entries: a key not in the summary replaces the entry with the smallest estimated count once its own estimate is
+ * larger.  The estimate of a key is compared with the smallest count seen at the last replacement before any lock
+ * is taken, so the many keys seen only a few times, as in a storm of requests to random URLs, are counted without
+ * locking or allocating an entry.
+ *
+ * Each entry reports the key's estimated count, which is never less than its true count, and the number of times
+ * it has been seen since it entered the summary, which is never more.  The counts are halved by decay, so that the
+ * summary follows the current heavy hitters rather than those of an attack long past.
+ *
+ * @author IBM
+ */
+final class HeavyHitters {
+
+    /**
+     * The number of counters in each row of the sketch, which bounds the overestimate to about 0.07% of the
+     * events counted.
+     */
+    static final int SKETCH_WIDTH = 4096;
+
+    /**
+     * A key in the summary.
+     */
+    private static final class Entry {
+        final String key;
+        final long hash;
+        final AtomicLong seen = new AtomicLong();
+
+        Entry(String key, long hash) {
+            this.key = key;
+            this.hash = hash;
+        }
+    }
+
+    private final String name;
+
+    private final String dimension;
+
+    private final int capacity;
+
+    private final CountMinSketch sketch = new CountMinSketch(SKETCH_WIDTH);
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    private final LongAdder total = new LongAdder();
+
+    /**
+     * The smallest estimated count in the summary when it was last changed, 0 until it is full.  Guarded by this
+     * for writing.
+     */
+    private volatile long admission;
+
+    /**
+     * @param name the name of the Interceptor counting the events
+     * @param dimension what the keys are, for example user
+     * @param capacity the number of keys in the summary
+     */
+    HeavyHitters(String name, String dimension, int capacity) {
+        this.name = name;
+        this.dimension = dimension;
+        this.capacity = Math.max(1, capacity);
+    }
+
+    String getDimension() {
+        return dimension;
+    }
+
+    int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Counts an event.
+     *
+     * @param key the event's key, for example the user name
+     *
+     * @return true if the key entered the summary with this event
+     */
+    boolean add(String key) {
+        long hash = CountMinSketch.hash(key);
+        return count(hash) && offer(key, hash);
+    }
+
+    /**
+     * Counts an event by the hash of its key, for a caller that builds the key only if it may be a heavy hitter.
+     * The estimate of a key in the summary is never below the admission count, so a key whose estimate is below
+     * it is neither in the summary nor entering it and its event is fully counted.
+     *
+     * @param hash the key's hash
+     *
+     * @return true if the key may be in the summary or enter it, offer must then be called with the key
+     */
+    boolean count(long hash) {
+        total.increment();
+        return sketch.add(hash) >= admission;
+    }
+
+    /**
+     * Completes counting an event for which count returned true.
+     *
+     * @param key the event's key
+     * @param hash the key's hash, as passed to count
+     *
+     * @return true if the key entered the summary with this event
+     */
+    boolean offer(String key, long hash) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.seen.incrementAndGet();
+            return false;
+        }
+        long estimate = sketch.estimate(hash);
+        return estimate > admission && admit(key, hash, estimate);
+    }
+
+    /**
+     * Returns the hash of the key of a failed request, its status code, method and two names such as its URI and
+     * user, without building the key.
+     */
+    static long requestHash(Integer status, String method, String first, String second) {
+        long hash = CountMinSketch.append(CountMinSketch.HASH_BASIS, status != null ? status : -1);
+        hash = CountMinSketch.append(hash, method);
+        hash = CountMinSketch.append(hash, first);
+        return CountMinSketch.mix(CountMinSketch.append(hash, second));
+    }
+
+    /**
+     * Returns the key of a failed request whose hash is given by requestHash.
+     */
+    static String requestKey(Integer status, String method, String first, String second) {
+        return status + " " + method + " " + first + " " + second;
+    }
+
+    /**
+     * Adds a key to the summary, replacing the entry with the smallest estimate if the summary is full and the
+     * key's estimate is larger.
+     *
+     * @return true if the key was added
+     */
+    private synchronized boolean admit(String key, long hash, long estimate) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.seen.incrementAndGet();
+            return false;
+        }
+        if (entries.size() >= capacity) {
+            Entry smallest = null;
+            long smallestEstimate = Long.MAX_VALUE;
+            for (Entry candidate : entries.values()) {
+                long candidateEstimate = sketch.estimate(candidate.hash);
+                if (candidateEstimate < smallestEstimate) {
+                    smallest = candidate;
+                    smallestEstimate = candidateEstimate;
+                }
+            }
+            if (smallest == null || estimate <= smallestEstimate) {
+                admission = smallestEstimate;
+                return false;
+            }
+            entries.remove(smallest.key);
+        }
+        entry = new Entry(key, hash);
+        entry.seen.set(1L);
+        entries.put(key, entry);
+        updateAdmission();
+        return true;
+    }
+
+    private void updateAdmission() {
+        long smallest = 0L;
+        if (entries.size() >= capacity) {
+            smallest = Long.MAX_VALUE;
+            for (Entry entry : entries.values()) {
+                smallest = Math.min(smallest, sketch.estimate(entry.hash));
+            }
+        }
+        admission = smallest;
+    }
+
+    /**
+     * Halves every count, dropping the keys whose count reaches zero.  Called when the metrics window rotates.
+     */
+    synchronized void decay() {
+        sketch.decay();
+        long halved = total.sumThenReset() >>> 1;
+        total.add(halved);
+        for (Entry entry : entries.values()) {
+            entry.seen.getAndUpdate(seen -> seen >>> 1);
+            if (sketch.estimate(entry.hash) == 0L) {
+                entries.remove(entry.key);
+            }
+        }
+        updateAdmission();
+    }
+
+    /**
+     * Returns the keys in the summary, most often seen first.
+     */
+    List<HeavyHitterSummary> summarize() {
+        long events = total.sum();
+        List<HeavyHitterSummary> summaries = new ArrayList<>(entries.size());
+        for (Entry entry : entries.values()) {
+            summaries.add(new HeavyHitterSummary(name, dimension, entry.key, sketch.estimate(entry.hash),
+                    entry.seen.get(), events));
+        }
+        summaries.sort((a, b) -> Long.compare(b.getCount(), a.getCount()));
+        return summaries;
+    }
+}
@@ -0,0 +1,300 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.osgi.service.component.ComponentContext;
+
+import com.ibm.zosconnect.spi.Data;
+import com.ibm.zosconnect.spi.HttpZosConnectRequest;
+import com.ibm.zosconnect.spi.InterceptorException;
+import com.ibm.zosconnect.spi.ServiceProviderInterceptor;
+
+/**
+ * The IdempotencyInterceptor class is an example of a ServiceProviderInterceptor that stops a client that retries
+ * a request, for example after a network timeout, from having the same transaction run more than once by the
+ * System of Record.
+ *
+ * The client names each transaction with a key in a request header, Idempotency-Key by default.  At P1 the key,
+ * qualified by the user so that users cannot collide, is claimed in IdempotencyKeys.  If a request with the same
+ * key is still in flight, or completed within the window, an InterceptorException is thrown and the request is
+ * not processed.  A request that fails before the SoR is called, at P2, releases its key so that the client can
+ * retry it.  Requests without the header are not checked.
+ *
+ * The number of keys remembered and of duplicates rejected are published through the InterceptorMetricsMXBean.
+ *
+ * @author IBM
+ */
+public class IdempotencyInterceptor implements ServiceProviderInterceptor {
+
+    /**
+     * Request State Map data element holding the key claimed by the request.
+     */
+    private static final String CLAIMED_KEY = "IDEMPOTENCY_CLAIMED_KEY";
+
+    private static final String CFG_AD_HEADER = "header";
+
+    private static final String CFG_AD_WINDOW_SECONDS = "windowSeconds";
+
+    private static final String CFG_AD_MAX_KEYS = "maxKeys";
+
+    private static final String DEFAULT_HEADER = "Idempotency-Key";
+
+    private static final int DEFAULT_WINDOW_SECONDS = 60;
+
+    private static final int DEFAULT_MAX_KEYS = 100_000;
+
+    /**
+     * The registered sequence number of this Interceptor which determines the order
+     * in which the Interceptor is called in relation to other Interceptors.
+     */
+    private volatile int sequence;
+
+    /**
+     * The header and the keys remembered, replaced as a whole when the configuration changes, or null when the
+     * Interceptor is not active.
+     */
+    private static final class Settings {
+        final String header;
+        final int windowSeconds;
+        final int maxKeys;
+        final IdempotencyKeys keys;
+
+        Settings(String header, int windowSeconds, int maxKeys, IdempotencyKeys keys) {
+            this.header = header;
+            this.windowSeconds = windowSeconds;
+            this.maxKeys = maxKeys;
+            this.keys = keys;
+        }
+    }
+
+    private volatile Settings settings;
+
+    private ScheduledFuture<?> rotation;
+
+    private final LongAdder claimed = new LongAdder();
+
+    private final LongAdder inFlightDuplicates = new LongAdder();
+
+    private final LongAdder completedDuplicates = new LongAdder();
+
+    private final LongAdder released = new LongAdder();
+
+    private final LongAdder withoutKey = new LongAdder();
+
+    /**
+     * Activates the Interceptor.
+     *
+     * Trace the activation, retrieve the Interceptor's configuration from the Interceptor's
+     * configuration element in server.xml, start rotating the keys and publish the counts.
+     *
+     * @param context
+     * @param properties
+     */
+    protected void activate(ComponentContext context, Map<String, Object> properties) {
+        InterceptorLog.log(getName(), "activated");
+        configure(properties);
+        InterceptorMetrics.getInstance().addIdempotency(this);
+    }
+
+    /**
+     * Deactivates the Interceptor.
+     *
+     * The Interceptor will no longer receive events and the keys are forgotten.
+     *
+     * @param context
+     */
+    protected void deactivate(ComponentContext context) {
+        InterceptorLog.log(getName(), "deactivated");
+        InterceptorMetrics.getInstance().removeIdempotency(this);
+        synchronized (this) {
+            InterceptorScheduler.cancel(rotation);
+            rotation = null;
+            settings = null;
+        }
+    }
+
+    /**
+     * Called to signal that the Interceptor's configuration element may have changed in server.xml.
+     * If the window or the most keys change the keys already remembered are forgotten.
+     *
+     * @param properties
+     */
+    protected void modified(Map<String, Object> properties) {
+        InterceptorLog.log(getName(), "modified");
+        configure(properties);
+    }
+
+    private synchronized void configure(Map<String, Object> properties) {
+        ConfigProperties config = new ConfigProperties(getName(), properties);
+        sequence = config.getSequence(sequence);
+        String header = config.getString(CFG_AD_HEADER, DEFAULT_HEADER);
+        int windowSeconds = config.getInt(CFG_AD_WINDOW_SECONDS, DEFAULT_WINDOW_SECONDS, 1, 86_400);
+        int maxKeys = config.getInt(CFG_AD_MAX_KEYS, DEFAULT_MAX_KEYS, IdempotencyKeys.GENERATIONS, 10_000_000);
+        Settings current = settings;
+        if (current != null && current.windowSeconds == windowSeconds && current.maxKeys == maxKeys) {
+            settings = new Settings(header, windowSeconds, maxKeys, current.keys);
+            return;
+        }
+        InterceptorScheduler.cancel(rotation);
+        IdempotencyKeys keys = new IdempotencyKeys(maxKeys);
+        rotation = InterceptorScheduler.schedule(getName(), keys::rotate,
+                TimeUnit.SECONDS.toMillis(windowSeconds) / IdempotencyKeys.GENERATIONS);
+        settings = new Settings(header, windowSeconds, maxKeys, keys);
+    }
+
+    /**
+     * Returns the number of keys remembered and duplicates rejected.
+     */
+    IdempotencySummary summarize() {
+        Settings current = settings;
+        return new IdempotencySummary(getName(), current != null ? current.header : null,
+                current != null ? current.keys.size() : 0L, claimed.sum(), inFlightDuplicates.sum(),
+                completedDuplicates.sum(), released.sum(), current != null ? current.keys.getUntracked() : 0L,
+                withoutKey.sum());
+    }
+
+    /**
+     * Returns this Interceptor's configured sequence number.
+     */
+    @Override
+    public int getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns this Interceptor's name.
+     */
+    @Override
+    public String getName() {
+        return "zOSConnectIdempotencyInterceptor";
+    }
+
+    /**
+     * z/OS Connect EE calls preInvoke method at point P1.
+     *
+     * The request's key is claimed, if another request has already claimed it an InterceptorException is thrown
+     * and the request is not processed.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void preInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
+            throws InterceptorException {
+        Settings current = settings;
+        if (current == null) {
+            return;
+        }
+        String value = httpZosConnectRequest.getHeader(current.header);
+        if (value == null || (value = value.trim()).isEmpty()) {
+            withoutKey.increment();
+            return;
+        }
+
+        Principal principal = httpZosConnectRequest.getUserPrincipal();
+        String user = "<unknown>";
+        if (principal != null) {
+            user = principal.getName().trim();
+        }
+
+        IdempotencyKeys.Key candidate = new IdempotencyKeys.Key(user + '\n' + value);
+        IdempotencyKeys.Key claim = current.keys.claim(candidate);
+        if (claim == candidate) {
+            claimed.increment();
+            requestStateMap.put(CLAIMED_KEY, claim);
+        } else if (claim != null) {
+            String state;
+            if (claim.completed) {
+                completedDuplicates.increment();
+                state = "first seen " + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - claim.claimedNanos)
+                        + " ms ago";
+            } else {
+                inFlightDuplicates.increment();
+                state = "still in flight";
+            }
+            InterceptorLog.log(getName(), "preInvoke InterceptorException - P1 - Duplicate request for user {} with {}, {}",
+                    user, current.header + " " + value, state);
+            throw new InterceptorException("Request not processed for user " + user + ", duplicate " + current.header
+                    + " " + value);
+        }
+    }
+
+    /**
+     * z/OS Connect EE calls preSorInvoke method at point P2, from now on the request's key is kept even if the
+     * request fails.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     */
+    @Override
+    public void preSorInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest,
+            Data data) {
+        IdempotencyKeys.Key claim = (IdempotencyKeys.Key) requestStateMap.get(CLAIMED_KEY);
+        if (claim != null) {
+            claim.calledSor = true;
+        }
+    }
+
+    /**
+     * z/OS Connect EE calls postSorInvoke method at point P3, there is nothing to do.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     */
+    @Override
+    public void postSorInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest,
+            Data data) {
+    }
+
+    /**
+     * z/OS Connect EE calls postInvoke method at point P4.
+     *
+     * The request's key is remembered as completed for the rest of the window, or released if the SoR was never
+     * called.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void postInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
+            throws InterceptorException {
+        IdempotencyKeys.Key claim = (IdempotencyKeys.Key) requestStateMap.remove(CLAIMED_KEY);
+        if (claim == null) {
+            return;
+        }
+        Settings current = settings;
+        if (!claim.calledSor && current != null) {
+            current.keys.release(claim);
+            released.increment();
+        }
+        claim.completed = true;
+    }
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The IdempotencyKeys class remembers the idempotency keys of recent requests for at least a window, so that a
+ * request repeating a key can be recognised as a duplicate, in a bounded amount of memory.
+ *
+ * The window is divided into GENERATIONS generations and one more is kept, so a key is remembered for between one
+ * window and one window and a generation.  Each generation is an exact set of keys, a ConcurrentHashMap, in front
+ * of which is a BloomFilter.  A new key is claimed with putIfAbsent in the current generation, and the other
+ * generations are searched again if they rotated meanwhile, so of two copies of a request arriving together
+ * exactly one claims the key.  The older generations are only searched when their
+ * filter says the key might be there, so the common case of a key never seen before costs a few bit tests rather
+ * than a lookup in every generation.  Rotating drops the oldest generation as a whole, except for the keys of
+ * requests still in flight which are carried into the new one, so there is no per-key expiry.
+ *
+ * Each generation holds no more than a fixed number of keys.  Once the current generation is full, new keys are
+ * not remembered until the next rotation and are counted as untracked, so duplicates of them are not detected.
+ *
+ * @author IBM
+ */
+final class IdempotencyKeys {
+
+    static final int GENERATIONS = 4;
+
+    /**
+     * A claimed key.  The request that claimed it is in flight until the key is completed or released.
+     */
+    static final class Key {
+        final String key;
+        final long hash;
+        final long claimedNanos = System.nanoTime();
+        volatile boolean calledSor;
+        volatile boolean completed;
+        volatile boolean released;
+
+        Key(String key) {
+            this.key = key;
+            this.hash = CountMinSketch.hash(key);
+        }
+    }
+
+    private static final class Generation {
+        final BloomFilter filter;
+        final ConcurrentHashMap<String, Key> keys = new ConcurrentHashMap<>();
+
+        Generation(int maxKeys) {
+            this.filter = new BloomFilter(maxKeys);
+        }
+    }
+
+    private final int maxKeysPerGeneration;
+
+    /**
+     * The current generation first.  Replaced as a whole on rotation.
+     */
+    private volatile Generation[] generations;
+
+    private final LongAdder untracked = new LongAdder();
+
+    /**
+     * @param maxKeys the most keys remembered over a window
+     */
+    IdempotencyKeys(int maxKeys) {
+        this.maxKeysPerGeneration = Math.max(1, maxKeys / GENERATIONS);
+        Generation[] initial = new Generation[GENERATIONS + 1];
+        for (int i = 0; i < initial.length; i++) {
+            initial[i] = new Generation(maxKeysPerGeneration);
+        }
+        this.generations = initial;
+    }
+
+    /**
+     * Claims a key for a request.
+     *
+     * @param candidate the key, which is claimed if no other request has claimed it within the window
+     *
+     * @return the candidate if it was claimed, the Key already claimed by another request, or null if the
+     * current generation is full and the candidate could not be remembered
+     */
+    Key claim(Key candidate) {
+        for (;;) {
+            Generation[] current = generations;
+            for (int i = 1; i < current.length; i++) {
+                if (current[i].filter.mightContain(candidate.hash)) {
+                    Key existing = current[i].keys.get(candidate.key);
+                    if (existing != null) {
+                        return existing;
+                    }
+                }
+            }
+            Generation generation = current[0];
+            if (generation.keys.size() >= maxKeysPerGeneration) {
+                Key existing = generation.keys.get(candidate.key);
+                if (existing == null) {
+                    untracked.increment();
+                }
+                return existing;
+            }
+            generation.filter.add(candidate.hash);
+            Key existing = generation.keys.putIfAbsent(candidate.key, candidate);
+            if (existing != null) {
+                return existing;
+            }
+            Generation[] latest = generations;
+            if (latest == current) {
+                return candidate;
+            }
+            /*
+             * A rotation made the generation the key was claimed in an older one, so a request that read the
+             * rotated generations before the key was claimed may have missed it and claimed the key in the new
+             * current generation.  Only one of the two claims is kept.
+             */
+            boolean remembered = false;
+            for (Generation other : latest) {
+                if (other == generation) {
+                    remembered = true;
+                } else {
+                    existing = other.keys.get(candidate.key);
+                    if (existing != null && existing != candidate) {
+                        generation.keys.remove(candidate.key, candidate);
+                        return existing;
+                    }
+                }
+            }
+            if (remembered) {
+                return candidate;
+            }
+            // The generation was dropped, perhaps before the key could be carried over, so claim it again.
+            generation.keys.remove(candidate.key, candidate);
+        }
+    }
+
+    /**
+     * Forgets a claimed key, so that a request repeating it is no longer a duplicate.
+     *
+     * @param key
+     */
+    void release(Key key) {
+        key.released = true;
+        for (Generation generation : generations) {
+            generation.keys.remove(key.key, key);
+        }
+    }
+
+    /**
+     * Starts a new generation and drops the oldest, carrying its keys still in flight into the new one.  Called
+     * on the scheduler thread every window / GENERATIONS.
+     */
+    void rotate() {
+        Generation[] current = generations;
+        Generation[] rotated = new Generation[current.length];
+        rotated[0] = new Generation(maxKeysPerGeneration);
+        System.arraycopy(current, 0, rotated, 1, current.length - 1);
+        for (Key key : current[current.length - 1].keys.values()) {
+            if (!key.completed) {
+                rotated[0].filter.add(key.hash);
+                rotated[0].keys.putIfAbsent(key.key, key);
+            }
+        }
+        generations = rotated;
+        // A key released while it was being carried over was removed from the old generations only
+        for (Key key : rotated[0].keys.values()) {
+            if (key.released) {
+                rotated[0].keys.remove(key.key, key);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of keys remembered.
+     */
+    long size() {
+        long size = 0L;
+        for (Generation generation : generations) {
+            size += generation.keys.size();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the number of keys that could not be remembered because the current generation was full.
+     */
+    long getUntracked() {
+        return untracked.sum();
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * The IdempotencySummary class is the number of idempotency keys remembered and duplicate requests rejected by an
+ * Interceptor, as reported through the InterceptorMetricsMXBean.
+ *
+ * @author IBM
+ */
+public class IdempotencySummary {
+
+    private final String name;
+    private final String header;
+    private final long keys;
+    private final long claimed;
+    private final long inFlightDuplicates;
+    private final long completedDuplicates;
+    private final long released;
+    private final long untracked;
+    private final long withoutKey;
+
+    @ConstructorProperties({ "name", "header", "keys", "claimed", "inFlightDuplicates", "completedDuplicates",
+            "released", "untracked", "withoutKey" })
+    public IdempotencySummary(String name, String header, long keys, long claimed, long inFlightDuplicates,
+            long completedDuplicates, long released, long untracked, long withoutKey) {
+        this.name = name;
+        this.header = header;
+        this.keys = keys;
+        this.claimed = claimed;
+        this.inFlightDuplicates = inFlightDuplicates;
+        this.completedDuplicates = completedDuplicates;
+        this.released = released;
+        this.untracked = untracked;
+        this.withoutKey = withoutKey;
+    }
+
+    /**
+     * Returns the name of the Interceptor checking the keys.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the request header the keys are read from.
+     */
+    public String getHeader() {
+        return header;
+    }
+
+    /**
+     * Returns the number of keys currently remembered.
+     */
+    public long getKeys() {
+        return keys;
+    }
+
+    /**
+     * Returns the number of requests whose key was new and remembered.
+     */
+    public long getClaimed() {
+        return claimed;
+    }
+
+    /**
+     * Returns the number of requests rejected because a request with the same key was still in flight.
+     */
+    public long getInFlightDuplicates() {
+        return inFlightDuplicates;
+    }
+
+    /**
+     * Returns the number of requests rejected because a request with the same key completed within the window.
+     */
+    public long getCompletedDuplicates() {
+        return completedDuplicates;
+    }
+
+    /**
+     * Returns the number of keys forgotten because their request failed before the SoR was called.
+     */
+    public long getReleased() {
+        return released;
+    }
+
+    /**
+     * Returns the number of requests whose key was not remembered because the most keys were already remembered.
+     */
+    public long getUntracked() {
+        return untracked;
+    }
+
+    /**
+     * Returns the number of requests without a key, which are not checked.
+     */
+    public long getWithoutKey() {
+        return withoutKey;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * The IdentityCacheSummary class is the size and effectiveness of the cache of user identities shared by the
+ * Interceptors, as reported through the InterceptorMetricsMXBean.
+ *
+ * @author IBM
+ */
+public class IdentityCacheSummary {
+
+    private final long capacity;
+    private final long size;
+    private final long hits;
+    private final long misses;
+    private final long admitted;
+    private final long evicted;
+
+    @ConstructorProperties({ "capacity", "size", "hits", "misses", "admitted", "evicted" })
+    public IdentityCacheSummary(long capacity, long size, long hits, long misses, long admitted, long evicted) {
+        this.capacity = capacity;
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.admitted = admitted;
+        this.evicted = evicted;
+    }
+
+    /**
+     * Returns the number of identities the cache can hold.
+     */
+    public long getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns the number of identities in the cache.
+     */
+    public long getSize() {
+        return size;
+    }
+
+    /**
+     * Returns the number of requests whose user was found in the cache.
+     */
+    public long getHits() {
+        return hits;
+    }
+
+    /**
+     * Returns the number of requests whose user was not in the cache and was given a new identity.
+     */
+    public long getMisses() {
+        return misses;
+    }
+
+    /**
+     * Returns the number of identities kept after leaving the window because they were used often enough.
+     */
+    public long getAdmitted() {
+        return admitted;
+    }
+
+    /**
+     * Returns the number of identities dropped from the cache.
+     */
+    public long getEvicted() {
+        return evicted;
+    }
+}
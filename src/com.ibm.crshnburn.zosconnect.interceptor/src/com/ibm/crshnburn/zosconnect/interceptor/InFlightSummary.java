@@ -0,0 +1,75 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * The InFlightSummary class is the number of requests in one stage of processing, as reported through the
+ * InterceptorMetricsMXBean.
+ *
+ * @author IBM
+ */
+public class InFlightSummary {
+
+    private final String name;
+    private final String stage;
+    private final long inFlight;
+    private final long overThreshold;
+    private final long reported;
+
+    @ConstructorProperties({ "name", "stage", "inFlight", "overThreshold", "reported" })
+    public InFlightSummary(String name, String stage, long inFlight, long overThreshold, long reported) {
+        this.name = name;
+        this.stage = stage;
+        this.inFlight = inFlight;
+        this.overThreshold = overThreshold;
+        this.reported = reported;
+    }
+
+    /**
+     * Returns the name of the Interceptor watching the requests.
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the stage, P1-P2 before the SoR is called, P2-P3 while it is called or P3-P4 after it returns.
+     */
+    public String getStage() {
+        return stage;
+    }
+
+    public long getInFlight() {
+        return inFlight;
+    }
+
+    /**
+     * Returns the number of requests in flight that passed the threshold in this stage.
+     */
+    public long getOverThreshold() {
+        return overThreshold;
+    }
+
+    /**
+     * Returns the number of requests reported for passing the threshold in this stage.
+     */
+    public long getReported() {
+        return reported;
+    }
+}
@@ -0,0 +1,722 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.osgi.service.component.ComponentContext;
+
+import com.ibm.zosconnect.spi.Data;
+import com.ibm.zosconnect.spi.DataRequester;
+import com.ibm.zosconnect.spi.EarlyFailureInterceptor;
+import com.ibm.zosconnect.spi.EarlyFailureInterceptorRequester;
+import com.ibm.zosconnect.spi.EndpointInterceptor;
+import com.ibm.zosconnect.spi.HttpZosConnectRequest;
+import com.ibm.zosconnect.spi.Interceptor;
+import com.ibm.zosconnect.spi.InterceptorException;
+import com.ibm.zosconnect.spi.InterceptorRequester;
+import com.ibm.zosconnect.spi.ServiceProviderInterceptor;
+
+/**
+ * The InterceptorHost class is an example of a single Interceptor that runs other Interceptors as plugins, so
+ * that z/OS Connect EE calls one Interceptor for each request however many capabilities are configured, and each
+ * plugin is only called for the requests it applies to.
+ *
+ * Each plugin is one of the sample Interceptor classes, or any class in the bundle implementing Interceptor with
+ * the same activate, modified and deactivate methods as the samples.  It is created and its lifecycle methods
+ * are called by the host, with the properties given for it on the host's configuration element.  A plugin can be
+ * limited to requests of some request types, and to some API or API requester names.
+ *
+ * When the configuration changes the host builds dispatch tables: for each request type, and for API requester
+ * requests, the plugins that apply in sequence order, with a separate table for each API named by a plugin.  At
+ * P1 a request looks up its table by request type and API name and keeps it in the request state map, and each
+ * point then calls the plugins in it in a plain loop, without checking any plugin's scope.  If a plugin rejects a
+ * request in preInvoke, the postInvoke of the plugins already called is called straight away, as z/OS Connect EE
+ * does not call postInvoke on the Interceptor that rejected the request.
+ *
+ * Configure a plugin on the host only, not as an Interceptor of its own as well, or it will be called twice.
+ *
+ * @author IBM
+ */
+public class InterceptorHost implements ServiceProviderInterceptor, EndpointInterceptor, EarlyFailureInterceptor,
+        EarlyFailureInterceptorRequester {
+
+    /**
+     * Request State Map data element holding the route the request takes through the plugins.
+     */
+    private static final String ROUTE = "INTERCEPTOR_HOST_ROUTE";
+
+    /**
+     * Configuration attribute holding the plugins, as name=class.
+     */
+    private static final String CFG_AD_PLUGIN = "plugin";
+
+    /**
+     * Configuration attribute holding the request types a plugin applies to, as name=type,type.
+     */
+    private static final String CFG_AD_PLUGIN_SCOPE = "pluginScope";
+
+    /**
+     * Configuration attribute holding the API names a plugin applies to, as name=api,api.
+     */
+    private static final String CFG_AD_PLUGIN_APIS = "pluginApis";
+
+    /**
+     * Configuration attribute holding the plugins' properties, as name.attribute=value.
+     */
+    private static final String CFG_AD_PLUGIN_PROPERTIES = "pluginProperties";
+
+    /**
+     * The scope of API requester requests, which have no request type.
+     */
+    private static final String SCOPE_REQUESTER = "REQUESTER";
+
+    private static final String DEFAULT_SCOPE = "API,SERVICE," + SCOPE_REQUESTER;
+
+    /**
+     * The default scope for early failures, which adds UNKNOWN as a request that fails before it is routed, for
+     * example to a URL that matches no API, has no request type.
+     */
+    private static final String DEFAULT_EARLY_FAILURE_SCOPE = DEFAULT_SCOPE + "," + Data.RequestType.UNKNOWN.name();
+
+    private static final Data.RequestType[] REQUEST_TYPES = Data.RequestType.values();
+
+    /**
+     * A configured plugin.
+     */
+    private static final class Plugin {
+        final String name;
+        final Interceptor interceptor;
+        final Map<String, Object> properties;
+        final Set<String> scope;
+        final Set<String> earlyFailureScope;
+        final Set<String> apis;
+
+        /**
+         * @param scope the request types the plugin is called for
+         * @param earlyFailureScope the request types the plugin is called for when a request fails early
+         */
+        Plugin(String name, Interceptor interceptor, Map<String, Object> properties, Set<String> scope,
+                Set<String> earlyFailureScope, Set<String> apis) {
+            this.name = name;
+            this.interceptor = interceptor;
+            this.properties = properties;
+            this.scope = scope;
+            this.earlyFailureScope = earlyFailureScope;
+            this.apis = apis;
+        }
+
+        boolean inScope(String scopeName, boolean earlyFailures) {
+            return (earlyFailures ? earlyFailureScope : scope).contains(scopeName);
+        }
+
+        boolean appliesTo(String scopeName, boolean earlyFailures, String api) {
+            return inScope(scopeName, earlyFailures) && (apis == null || (api != null && apis.contains(api)));
+        }
+    }
+
+    /**
+     * The plugins a request is passed to.  The inner plugins are those called around the SoR or endpoint call.
+     */
+    private static final class Route {
+        final Interceptor[] plugins;
+        final Interceptor[] inner;
+
+        Route(List<Interceptor> plugins, Class<?> innerType) {
+            this.plugins = plugins.toArray(new Interceptor[0]);
+            this.inner = plugins.stream().filter(innerType::isInstance).toArray(Interceptor[]::new);
+        }
+    }
+
+    /**
+     * The routes of one request type.
+     */
+    private static final class Table {
+        final Route any;
+        final Map<String, Route> byApi;
+
+        Table(Route any, Map<String, Route> byApi) {
+            this.any = any;
+            this.byApi = byApi;
+        }
+
+        Route select(String api) {
+            Route route = api != null ? byApi.get(api) : null;
+            return route != null ? route : any;
+        }
+    }
+
+    /**
+     * The plugins and dispatch tables, replaced as a whole when the configuration changes.
+     */
+    private static final class Settings {
+        final Table[] provider;
+        final Table[] earlyFailure;
+        final Table requester;
+        final Table earlyFailureRequester;
+
+        Settings(List<Plugin> plugins) {
+            provider = new Table[REQUEST_TYPES.length];
+            earlyFailure = new Table[REQUEST_TYPES.length];
+            for (Data.RequestType type : REQUEST_TYPES) {
+                provider[type.ordinal()] = table(plugins, type.name(), false, Interceptor.class,
+                        ServiceProviderInterceptor.class);
+                earlyFailure[type.ordinal()] = table(plugins, type.name(), true, EarlyFailureInterceptor.class,
+                        EarlyFailureInterceptor.class);
+            }
+            requester = table(plugins, SCOPE_REQUESTER, false, InterceptorRequester.class,
+                    EndpointInterceptor.class);
+            earlyFailureRequester = table(plugins, SCOPE_REQUESTER, true, EarlyFailureInterceptorRequester.class,
+                    EarlyFailureInterceptorRequester.class);
+        }
+
+        private static Table table(List<Plugin> plugins, String scopeName, boolean earlyFailures, Class<?> type,
+                Class<?> innerType) {
+            Set<String> apis = new LinkedHashSet<>();
+            for (Plugin plugin : plugins) {
+                if (plugin.apis != null && plugin.inScope(scopeName, earlyFailures)) {
+                    apis.addAll(plugin.apis);
+                }
+            }
+            Map<String, Route> byApi = new HashMap<>();
+            for (String api : apis) {
+                byApi.put(api, new Route(select(plugins, scopeName, earlyFailures, api, type), innerType));
+            }
+            return new Table(new Route(select(plugins, scopeName, earlyFailures, null, type), innerType), byApi);
+        }
+
+        private static List<Interceptor> select(List<Plugin> plugins, String scopeName, boolean earlyFailures,
+                String api, Class<?> type) {
+            List<Interceptor> selected = new ArrayList<>();
+            for (Plugin plugin : plugins) {
+                if (type.isInstance(plugin.interceptor) && plugin.appliesTo(scopeName, earlyFailures, api)) {
+                    selected.add(plugin.interceptor);
+                }
+            }
+            return selected;
+        }
+    }
+
+    /**
+     * The registered sequence number of this Interceptor which determines the order
+     * in which the Interceptor is called in relation to other Interceptors.
+     */
+    private volatile int sequence;
+
+    private ComponentContext context;
+
+    /**
+     * The active plugins by name, in sequence order.  Guarded by this.
+     */
+    private List<Plugin> plugins = Collections.emptyList();
+
+    private volatile Settings settings = new Settings(Collections.emptyList());
+
+    /**
+     * Activates the Interceptor.
+     *
+     * Trace the activation, retrieve the Interceptor's configuration from the Interceptor's
+     * configuration element in server.xml, activate the plugins and build the dispatch tables.
+     *
+     * @param context
+     * @param properties
+     */
+    protected synchronized void activate(ComponentContext context, Map<String, Object> properties) {
+        InterceptorLog.log(getName(), "activated");
+        this.context = context;
+        configure(properties);
+    }
+
+    /**
+     * Deactivates the Interceptor.
+     *
+     * The Interceptor will no longer receive events and the plugins are deactivated.
+     *
+     * @param context
+     */
+    protected synchronized void deactivate(ComponentContext context) {
+        InterceptorLog.log(getName(), "deactivated");
+        settings = new Settings(Collections.emptyList());
+        for (Plugin plugin : plugins) {
+            invoke(plugin.name, plugin.interceptor, "deactivate", ComponentContext.class, context);
+        }
+        plugins = Collections.emptyList();
+    }
+
+    /**
+     * Called to signal that the Interceptor's configuration element may have changed in server.xml.
+     * Plugins no longer configured are deactivated, new plugins are activated and the others are passed their
+     * properties through modified.  The new tables apply to requests arriving after the change, requests already
+     * in flight complete with the plugins they started with.
+     *
+     * @param properties
+     */
+    protected synchronized void modified(Map<String, Object> properties) {
+        InterceptorLog.log(getName(), "modified");
+        configure(properties);
+    }
+
+    private void configure(Map<String, Object> properties) {
+        ConfigProperties config = new ConfigProperties(getName(), properties);
+        sequence = config.getSequence(sequence);
+
+        Map<String, String> classes = entries(config.getStrings(CFG_AD_PLUGIN), CFG_AD_PLUGIN);
+        Map<String, String> scopes = entries(config.getStrings(CFG_AD_PLUGIN_SCOPE), CFG_AD_PLUGIN_SCOPE);
+        Map<String, String> apis = entries(config.getStrings(CFG_AD_PLUGIN_APIS), CFG_AD_PLUGIN_APIS);
+        Map<String, Map<String, Object>> pluginProperties = pluginProperties(
+                config.getStrings(CFG_AD_PLUGIN_PROPERTIES), classes);
+
+        Map<String, Plugin> previous = new HashMap<>();
+        for (Plugin plugin : plugins) {
+            previous.put(plugin.name, plugin);
+        }
+        List<Plugin> configured = new ArrayList<>();
+        for (Map.Entry<String, String> entry : classes.entrySet()) {
+            String name = entry.getKey();
+            String className = entry.getValue().indexOf('.') < 0
+                    ? getClass().getPackage().getName() + "." + entry.getValue() : entry.getValue();
+            Map<String, Object> pluginConfig = pluginProperties.getOrDefault(name, new HashMap<>());
+            Plugin existing = previous.remove(name);
+            Interceptor interceptor;
+            if (existing != null && existing.interceptor.getClass().getName().equals(className)) {
+                interceptor = existing.interceptor;
+                if (!existing.properties.equals(pluginConfig)) {
+                    invoke(name, interceptor, "modified", Map.class, pluginConfig);
+                }
+            } else {
+                if (existing != null) {
+                    previous.put(name, existing);
+                }
+                interceptor = create(name, className, pluginConfig);
+                if (interceptor == null) {
+                    continue;
+                }
+            }
+            Set<String> pluginApis = apis.containsKey(name)
+                    ? new LinkedHashSet<>(Arrays.asList(apis.get(name).split("\\s*,\\s*"))) : null;
+            Set<String> scope = scope(name, scopes.getOrDefault(name, DEFAULT_SCOPE));
+            Set<String> earlyFailureScope = scopes.containsKey(name) ? scope
+                    : scope(name, DEFAULT_EARLY_FAILURE_SCOPE);
+            configured.add(new Plugin(name, interceptor, pluginConfig, scope, earlyFailureScope, pluginApis));
+        }
+        configured.sort((a, b) -> Integer.compare(a.interceptor.getSequence(), b.interceptor.getSequence()));
+
+        settings = new Settings(configured);
+        for (Plugin plugin : previous.values()) {
+            invoke(plugin.name, plugin.interceptor, "deactivate", ComponentContext.class, context);
+        }
+        plugins = configured;
+        for (Plugin plugin : configured) {
+            InterceptorLog.log(getName(), "plugin {} {}", plugin.name + " (" + plugin.interceptor.getName() + ")",
+                    "for " + plugin.scope + (plugin.apis != null ? " APIs " + plugin.apis : ""));
+        }
+    }
+
+    /**
+     * Parses entries of the form name=value, logging those that are not.
+     */
+    private Map<String, String> entries(String[] values, String attribute) {
+        Map<String, String> entries = new LinkedHashMap<>();
+        for (String value : values) {
+            int eq = value.indexOf('=');
+            if (eq <= 0 || eq == value.length() - 1) {
+                InterceptorLog.log(getName(), "{} {} ignored, it must be name=value", attribute, value);
+            } else {
+                entries.put(value.substring(0, eq).trim(), value.substring(eq + 1).trim());
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Parses the plugins' properties, name.attribute=value.  An attribute given more than once is passed as a
+     * String array, as OSGi passes an attribute with a cardinality.
+     */
+    private Map<String, Map<String, Object>> pluginProperties(String[] values, Map<String, String> classes) {
+        Map<String, Map<String, Object>> properties = new HashMap<>();
+        for (String value : values) {
+            int eq = value.indexOf('=');
+            int dot = eq > 0 ? value.lastIndexOf('.', eq) : -1;
+            String name = dot > 0 ? value.substring(0, dot).trim() : null;
+            if (name == null || !classes.containsKey(name)) {
+                InterceptorLog.log(getName(), "{} {} ignored, it must be name.attribute=value for a configured plugin",
+                        CFG_AD_PLUGIN_PROPERTIES, value);
+                continue;
+            }
+            String attribute = value.substring(dot + 1, eq).trim();
+            String attributeValue = value.substring(eq + 1).trim();
+            properties.computeIfAbsent(name, key -> new HashMap<>()).merge(attribute, attributeValue, (old, added) -> {
+                String[] existing = old instanceof String[] ? (String[]) old : new String[] { (String) old };
+                String[] merged = Arrays.copyOf(existing, existing.length + 1);
+                merged[existing.length] = (String) added;
+                return merged;
+            });
+        }
+        return properties;
+    }
+
+    private Set<String> scope(String name, String value) {
+        Set<String> scope = new LinkedHashSet<>();
+        for (String type : value.split("\\s*,\\s*")) {
+            String upper = type.trim().toUpperCase();
+            if (SCOPE_REQUESTER.equals(upper) || Arrays.stream(REQUEST_TYPES).anyMatch(t -> t.name().equals(upper))) {
+                scope.add(upper);
+            } else {
+                InterceptorLog.log(getName(), "{} scope {} ignored, it must be a request type or " + SCOPE_REQUESTER,
+                        name, type);
+            }
+        }
+        return scope;
+    }
+
+    /**
+     * Creates and activates a plugin.
+     *
+     * @return the plugin or null if it cannot be created
+     */
+    private Interceptor create(String name, String className, Map<String, Object> properties) {
+        Object instance;
+        try {
+            instance = Class.forName(className, true, getClass().getClassLoader()).getDeclaredConstructor()
+                    .newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            InterceptorLog.log(getName(), "plugin {} class {} cannot be created: {}", name, className, e);
+            return null;
+        }
+        if (!(instance instanceof Interceptor) || instance instanceof InterceptorHost) {
+            InterceptorLog.log(getName(), "plugin {} class {} ignored, it is not an Interceptor that can be hosted",
+                    name, className);
+            return null;
+        }
+        Interceptor interceptor = (Interceptor) instance;
+        if (!invoke(name, interceptor, "activate", ComponentContext.class, context, Map.class, properties)) {
+            return null;
+        }
+        return interceptor;
+    }
+
+    /**
+     * Calls a lifecycle method of a plugin, which is protected in the sample Interceptors.
+     *
+     * @return true if the method was called and returned normally
+     */
+    private boolean invoke(String name, Interceptor interceptor, String methodName, Object... typesAndArguments) {
+        Class<?>[] types = new Class<?>[typesAndArguments.length / 2];
+        Object[] arguments = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = (Class<?>) typesAndArguments[2 * i];
+            arguments[i] = typesAndArguments[2 * i + 1];
+        }
+        for (Class<?> type = interceptor.getClass(); type != null; type = type.getSuperclass()) {
+            Method method;
+            try {
+                method = type.getDeclaredMethod(methodName, types);
+            } catch (NoSuchMethodException e) {
+                continue;
+            }
+            try {
+                method.setAccessible(true);
+                method.invoke(interceptor, arguments);
+                return true;
+            } catch (InvocationTargetException e) {
+                InterceptorLog.log(getName(), "plugin {} {} failed: {}", name, methodName, e.getCause());
+                return false;
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                InterceptorLog.log(getName(), "plugin {} {} cannot be called: {}", name, methodName, e);
+                return false;
+            }
+        }
+        InterceptorLog.log(getName(), "plugin {} has no {} method", name, methodName);
+        return false;
+    }
+
+    /**
+     * Returns this Interceptor's configured sequence number.
+     */
+    @Override
+    public int getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns this Interceptor's name.
+     */
+    @Override
+    public String getName() {
+        return "zOSConnectInterceptorHost";
+    }
+
+    /**
+     * z/OS Connect EE calls preInvoke method at point P1.
+     *
+     * The request's route is looked up by its request type and API name, and the preInvoke method of each plugin
+     * on it is called.  If a plugin throws an InterceptorException, the postInvoke method of the plugins already
+     * called is called and the exception is thrown on.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void preInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
+            throws InterceptorException {
+        Data.RequestType type = data.getRequestType();
+        Route route = settings.provider[(type != null ? type : Data.RequestType.UNKNOWN).ordinal()]
+                .select(data.getData(Data.API_NAME));
+        if (route.plugins.length == 0) {
+            return;
+        }
+        Interceptor[] plugins = route.plugins;
+        for (int i = 0; i < plugins.length; i++) {
+            try {
+                plugins[i].preInvoke(requestStateMap, httpZosConnectRequest, data);
+            } catch (InterceptorException e) {
+                for (int j = 0; j < i; j++) {
+                    try {
+                        plugins[j].postInvoke(requestStateMap, httpZosConnectRequest, data);
+                    } catch (InterceptorException suppressed) {
+                        e.addSuppressed(suppressed);
+                    }
+                }
+                throw e;
+            }
+        }
+        requestStateMap.put(ROUTE, route);
+    }
+
+    /**
+     * z/OS Connect EE calls preSorInvoke method at point P2, the preSorInvoke method of each
+     * ServiceProviderInterceptor plugin on the request's route is called.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     */
+    @Override
+    public void preSorInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest,
+            Data data) {
+        Route route = (Route) requestStateMap.get(ROUTE);
+        if (route != null) {
+            for (Interceptor plugin : route.inner) {
+                ((ServiceProviderInterceptor) plugin).preSorInvoke(requestStateMap, httpZosConnectRequest, data);
+            }
+        }
+    }
+
+    /**
+     * z/OS Connect EE calls postSorInvoke method at point P3, the postSorInvoke method of each
+     * ServiceProviderInterceptor plugin on the request's route is called.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     */
+    @Override
+    public void postSorInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest,
+            Data data) {
+        Route route = (Route) requestStateMap.get(ROUTE);
+        if (route != null) {
+            for (Interceptor plugin : route.inner) {
+                ((ServiceProviderInterceptor) plugin).postSorInvoke(requestStateMap, httpZosConnectRequest, data);
+            }
+        }
+    }
+
+    /**
+     * z/OS Connect EE calls postInvoke method at point P4.
+     *
+     * The postInvoke method of each plugin on the request's route is called, and the first InterceptorException
+     * thrown is thrown on once all have been called.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void postInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
+            throws InterceptorException {
+        Route route = (Route) requestStateMap.remove(ROUTE);
+        if (route == null) {
+            return;
+        }
+        InterceptorException thrown = null;
+        for (Interceptor plugin : route.plugins) {
+            try {
+                plugin.postInvoke(requestStateMap, httpZosConnectRequest, data);
+            } catch (InterceptorException e) {
+                if (thrown == null) {
+                    thrown = e;
+                } else {
+                    thrown.addSuppressed(e);
+                }
+            }
+        }
+        if (thrown != null) {
+            throw thrown;
+        }
+    }
+
+    /**
+     * z/OS Connect EE calls earlyFailure when an API provider request fails before P1, the earlyFailure method of
+     * each EarlyFailureInterceptor plugin that applies is called.
+     *
+     * @param httpZosConnectRequest
+     * @param data
+     */
+    @Override
+    public void earlyFailure(HttpZosConnectRequest httpZosConnectRequest, Data data) {
+        Data.RequestType type = data.getRequestType();
+        Route route = settings.earlyFailure[(type != null ? type : Data.RequestType.UNKNOWN).ordinal()]
+                .select(data.getData(Data.API_NAME));
+        for (Interceptor plugin : route.plugins) {
+            ((EarlyFailureInterceptor) plugin).earlyFailure(httpZosConnectRequest, data);
+        }
+    }
+
+    /**
+     * z/OS Connect EE calls the preInvokeRequester method after initial request checks.
+     *
+     * The request's route is looked up by its API requester name, and the preInvokeRequester method of each
+     * InterceptorRequester plugin on it is called.  If a plugin throws an InterceptorException, the
+     * postInvokeRequester method of the plugins already called is called and the exception is thrown on.
+     *
+     * @param requestStateMap
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void preInvokeRequester(Map<Object, Object> requestStateMap, DataRequester data) throws InterceptorException {
+        Route route = settings.requester.select(data.getData(DataRequester.API_REQUESTER_NAME));
+        if (route.plugins.length == 0) {
+            return;
+        }
+        Interceptor[] plugins = route.plugins;
+        for (int i = 0; i < plugins.length; i++) {
+            try {
+                ((InterceptorRequester) plugins[i]).preInvokeRequester(requestStateMap, data);
+            } catch (InterceptorException e) {
+                for (int j = 0; j < i; j++) {
+                    try {
+                        ((InterceptorRequester) plugins[j]).postInvokeRequester(requestStateMap, data);
+                    } catch (InterceptorException suppressed) {
+                        e.addSuppressed(suppressed);
+                    }
+                }
+                throw e;
+            }
+        }
+        requestStateMap.put(ROUTE, route);
+    }
+
+    /**
+     * z/OS Connect EE calls the preEndpointInvoke method just before calling the endpoint, the preEndpointInvoke
+     * method of each EndpointInterceptor plugin on the request's route is called.
+     *
+     * @param requestStateMap
+     * @param data
+     */
+    @Override
+    public void preEndpointInvoke(Map<Object, Object> requestStateMap, DataRequester data) {
+        Route route = (Route) requestStateMap.get(ROUTE);
+        if (route != null) {
+            for (Interceptor plugin : route.inner) {
+                ((EndpointInterceptor) plugin).preEndpointInvoke(requestStateMap, data);
+            }
+        }
+    }
+
+    /**
+     * z/OS Connect EE calls the postEndpointInvoke method once the call to the endpoint returns, the
+     * postEndpointInvoke method of each EndpointInterceptor plugin on the request's route is called.
+     *
+     * @param requestStateMap
+     * @param data
+     */
+    @Override
+    public void postEndpointInvoke(Map<Object, Object> requestStateMap, DataRequester data) {
+        Route route = (Route) requestStateMap.get(ROUTE);
+        if (route != null) {
+            for (Interceptor plugin : route.inner) {
+                ((EndpointInterceptor) plugin).postEndpointInvoke(requestStateMap, data);
+            }
+        }
+    }
+
+    /**
+     * z/OS Connect EE calls the postInvokeRequester method.
+     *
+     * The postInvokeRequester method of each InterceptorRequester plugin on the request's route is called, and
+     * the first InterceptorException thrown is thrown on once all have been called.
+     *
+     * @param requestStateMap
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void postInvokeRequester(Map<Object, Object> requestStateMap, DataRequester data) throws InterceptorException {
+        Route route = (Route) requestStateMap.remove(ROUTE);
+        if (route == null) {
+            return;
+        }
+        InterceptorException thrown = null;
+        for (Interceptor plugin : route.plugins) {
+            try {
+                ((InterceptorRequester) plugin).postInvokeRequester(requestStateMap, data);
+            } catch (InterceptorException e) {
+                if (thrown == null) {
+                    thrown = e;
+                } else {
+                    thrown.addSuppressed(e);
+                }
+            }
+        }
+        if (thrown != null) {
+            throw thrown;
+        }
+    }
+
+    /**
+     * z/OS Connect EE calls earlyFailureRequester when an API requester request fails before
+     * preInvokeRequester, the earlyFailureRequester method of each EarlyFailureInterceptorRequester plugin that
+     * applies is called.
+     *
+     * @param data
+     */
+    @Override
+    public void earlyFailureRequester(DataRequester data) {
+        Route route = settings.earlyFailureRequester.select(data.getData(DataRequester.API_REQUESTER_NAME));
+        for (Interceptor plugin : route.plugins) {
+            ((EarlyFailureInterceptorRequester) plugin).earlyFailureRequester(data);
+        }
+    }
+}
@@ -0,0 +1,505 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import org.osgi.framework.BundleContext;
+
+/**
+ * The InterceptorLog class is the shared logging pipeline used by the sample Interceptors in place of
+ * System.out.println.
+ *
+ * A request thread calls one of the log methods with a message template and up to three arguments.  The
+ * arguments are stored, unformatted, into a preallocated slot of a RingBuffer and the request thread returns.
+ * A single background writer thread drains the buffer, substitutes each {} in the template with the next
+ * argument, and writes the lines in batches to a FileChannel.  Request threads therefore never contend on the
+ * System.out lock and no string concatenation is done on the request path.
+ *
+ * The pipeline is started by the bundle Activator and is configured with the following properties, which may
+ * be set in the Liberty server bootstrap.properties file:
+ *
+ *  com.ibm.crshnburn.zosconnect.interceptor.log.file           - the log file, or stdout.  The default is
+ *                                                                sampleInterceptor.log in the server logs directory.
+ *  com.ibm.crshnburn.zosconnect.interceptor.log.capacity       - the number of ring buffer slots, default 8192.
+ *  com.ibm.crshnburn.zosconnect.interceptor.log.overflowPolicy - DROP, BLOCK, or SAMPLE, default DROP.
+ *  com.ibm.crshnburn.zosconnect.interceptor.log.sampleRate     - with SAMPLE, keep 1 in N events under pressure, default 10.
+ *  com.ibm.crshnburn.zosconnect.interceptor.log.batchSize      - the maximum events written per batch, default 256.
+ *
+ * If the pipeline has not been started, for example when an Interceptor is driven outside of an OSGi framework,
+ * events are written directly to System.out.
+ *
+ * @author IBM
+ */
+public final class InterceptorLog {
+
+    /**
+     * Prefix of the bundle context properties that configure the log.
+     */
+    static final String PROPERTY_PREFIX = "com.ibm.crshnburn.zosconnect.interceptor.log.";
+
+    /**
+     * Liberty property naming the server logs directory.
+     */
+    private static final String LOG_DIRECTORY_PROPERTY = "com.ibm.ws.logging.log.directory";
+
+    private static final String DEFAULT_LOG_FILE_NAME = "sampleInterceptor.log";
+
+    private static final String STDOUT = "stdout";
+
+    private static final long IDLE_PARK_NANOS = 10_000_000L;
+
+    /**
+     * The longest time the writer waits when stopping for events claimed but not yet published.
+     */
+    private static final long STOP_DRAIN_NANOS = 1_000_000_000L;
+
+    private static final long STOP_PARK_NANOS = 100_000L;
+
+    private static volatile InterceptorLog instance;
+
+    private static final Object FALLBACK_LOCK = new Object();
+
+    private static final LogTimestampFormatter FALLBACK_FORMATTER = new LogTimestampFormatter();
+
+    private final RingBuffer<Event> buffer;
+
+    private final FileChannel channel;
+
+    private final boolean closeChannel;
+
+    private final int batchSize;
+
+    private final Thread writer;
+
+    private volatile boolean running = true;
+
+    private volatile long writeErrors;
+
+    /*
+     * The following fields are only used by the writer thread.
+     */
+    private final Consumer<Event> appendEvent = this::append;
+
+    private final LogTimestampFormatter formatter = new LogTimestampFormatter();
+
+    private final StringBuilder line = new StringBuilder(256);
+
+    private final ByteBuffer out = ByteBuffer.allocateDirect(64 * 1024);
+
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+
+    private char[] chars = new char[256];
+
+    private CharBuffer charBuffer = CharBuffer.wrap(chars);
+
+    /**
+     * A preallocated ring buffer slot.
+     */
+    private static final class Event {
+        static final int MAX_VALUES = 5;
+        long sequence;
+        InterceptorLog log;
+        long timeMillis;
+        String source;
+        String message;
+        int argCount;
+        Object arg0;
+        Object arg1;
+        Object arg2;
+        int valueCount;
+        final long[] values = new long[MAX_VALUES];
+
+        void clear() {
+            source = null;
+            message = null;
+            arg0 = null;
+            arg1 = null;
+            arg2 = null;
+        }
+    }
+
+    private InterceptorLog(FileChannel channel, boolean closeChannel, int capacity, OverflowPolicy policy,
+            int sampleRate, int batchSize) {
+        this.channel = channel;
+        this.closeChannel = closeChannel;
+        this.batchSize = batchSize;
+        this.buffer = new RingBuffer<>(capacity, Event::new, policy, sampleRate);
+        this.writer = new Thread(this::writeLoop, "SampleInterceptorLogWriter");
+        this.writer.setDaemon(true);
+    }
+
+    /**
+     * Starts the log pipeline, called by the Activator when the bundle starts.
+     *
+     * @param context
+     *
+     * @throws IOException if the log file cannot be opened
+     */
+    static synchronized void start(BundleContext context) throws IOException {
+        if (instance != null) {
+            return;
+        }
+        String file = property(context, "file", null);
+        FileChannel channel;
+        boolean closeChannel = true;
+        if (STDOUT.equalsIgnoreCase(file)) {
+            channel = new FileOutputStream(FileDescriptor.out).getChannel();
+            closeChannel = false;
+        } else {
+            Path path;
+            if (file != null) {
+                path = Paths.get(file);
+            } else {
+                String directory = context.getProperty(LOG_DIRECTORY_PROPERTY);
+                path = directory != null ? Paths.get(directory, DEFAULT_LOG_FILE_NAME) : Paths.get(DEFAULT_LOG_FILE_NAME);
+            }
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.APPEND);
+        }
+
+        /*
+         * The numeric properties are read through ConfigProperties, so a malformed value is logged and replaced
+         * by the default rather than stopping the bundle from starting.
+         */
+        Map<String, Object> properties = new HashMap<>();
+        for (String name : new String[] { "capacity", "sampleRate", "batchSize" }) {
+            String value = property(context, name, null);
+            if (value != null) {
+                properties.put(PROPERTY_PREFIX + name, value);
+            }
+        }
+        ConfigProperties config = new ConfigProperties("InterceptorLog", properties);
+        InterceptorLog log = new InterceptorLog(channel, closeChannel,
+                config.getInt(PROPERTY_PREFIX + "capacity", 8192, 2, 1 << 24),
+                OverflowPolicy.parse(property(context, "overflowPolicy", null), OverflowPolicy.DROP),
+                config.getInt(PROPERTY_PREFIX + "sampleRate", 10, 1, Integer.MAX_VALUE),
+                config.getInt(PROPERTY_PREFIX + "batchSize", 256, 1, Integer.MAX_VALUE));
+        log.writer.start();
+        instance = log;
+    }
+
+    /**
+     * Stops the log pipeline, writing any outstanding events, called by the Activator when the bundle stops.
+     *
+     * @throws InterruptedException
+     */
+    static synchronized void stop() throws InterruptedException {
+        InterceptorLog log = instance;
+        if (log == null) {
+            return;
+        }
+        instance = null;
+        log.running = false;
+        LockSupport.unpark(log.writer);
+        log.writer.join();
+        log.buffer.close();
+    }
+
+    private static String property(BundleContext context, String name, String defaultValue) {
+        String value = context.getProperty(PROPERTY_PREFIX + name);
+        return value != null ? value.trim() : defaultValue;
+    }
+
+    /**
+     * Logs a message.
+     *
+     * @param source the name of the Interceptor logging the message
+     * @param message
+     */
+    public static void log(String source, String message) {
+        publish(source, message, 0, null, null, null);
+    }
+
+    /**
+     * Logs a message, replacing {} in the message with the argument.
+     *
+     * @param source the name of the Interceptor logging the message
+     * @param message
+     * @param arg0
+     */
+    public static void log(String source, String message, Object arg0) {
+        publish(source, message, 1, arg0, null, null);
+    }
+
+    /**
+     * Logs a message, replacing each {} in the message with the next argument.
+     *
+     * @param source the name of the Interceptor logging the message
+     * @param message
+     * @param arg0
+     * @param arg1
+     */
+    public static void log(String source, String message, Object arg0, Object arg1) {
+        publish(source, message, 2, arg0, arg1, null);
+    }
+
+    /**
+     * Logs a message, replacing each {} in the message with the next argument.
+     *
+     * @param source the name of the Interceptor logging the message
+     * @param message
+     * @param arg0
+     * @param arg1
+     * @param arg2
+     */
+    public static void log(String source, String message, Object arg0, Object arg1, Object arg2) {
+        publish(source, message, 3, arg0, arg1, arg2);
+    }
+
+    /**
+     * Returns the number of events dropped because the ring buffer was full.
+     */
+    public static long getDroppedCount() {
+        InterceptorLog log = instance;
+        return log != null ? log.buffer.getDroppedCount() : 0L;
+    }
+
+    /**
+     * Returns the number of events discarded by the SAMPLE overflow policy.
+     */
+    public static long getSampledOutCount() {
+        InterceptorLog log = instance;
+        return log != null ? log.buffer.getSampledOutCount() : 0L;
+    }
+
+    /**
+     * Returns the number of batches that could not be written to the log file.
+     */
+    public static long getWriteErrorCount() {
+        InterceptorLog log = instance;
+        return log != null ? log.writeErrors : 0L;
+    }
+
+    /**
+     * Logs a message, replacing the first {} in the message with the argument and each following {} with the
+     * next of the five values.  This is used for numeric measurements so they are not boxed on the request thread.
+     *
+     * @param source the name of the Interceptor logging the message
+     * @param message
+     * @param arg0
+     * @param value0
+     * @param value1
+     * @param value2
+     * @param value3
+     * @param value4
+     */
+    public static void log(String source, String message, Object arg0, long value0, long value1, long value2,
+            long value3, long value4) {
+        Event event = claim(System.currentTimeMillis(), source, message, 1, arg0, null, null);
+        if (event != null) {
+            long[] values = event.values;
+            values[0] = value0;
+            values[1] = value1;
+            values[2] = value2;
+            values[3] = value3;
+            values[4] = value4;
+            event.valueCount = Event.MAX_VALUES;
+            publish(event);
+        }
+    }
+
+    /**
+     * Logs a message recorded earlier, with the time it was recorded rather than the current time, replacing
+     * each {} in the message with the next argument.  This is used to write out a request trace that was held
+     * back until the request completed.
+     *
+     * @param timeMillis the time the message was recorded
+     * @param source the name of the Interceptor logging the message
+     * @param message
+     * @param arg0
+     * @param arg1
+     * @param arg2
+     */
+    static void logAt(long timeMillis, String source, String message, Object arg0, Object arg1, Object arg2) {
+        Event event = claim(timeMillis, source, message, 3, arg0, arg1, arg2);
+        if (event != null) {
+            publish(event);
+        }
+    }
+
+    private static void publish(String source, String message, int argCount, Object arg0, Object arg1, Object arg2) {
+        Event event = claim(System.currentTimeMillis(), source, message, argCount, arg0, arg1, arg2);
+        if (event != null) {
+            publish(event);
+        }
+    }
+
+    /**
+     * Claims and fills in a ring buffer slot, returns null if the event was not accepted.
+     */
+    private static Event claim(long timeMillis, String source, String message, int argCount, Object arg0, Object arg1,
+            Object arg2) {
+        InterceptorLog log = instance;
+        Event event;
+        if (log == null) {
+            event = new Event();
+            event.sequence = -1L;
+        } else {
+            long sequence = log.buffer.claim();
+            if (sequence < 0) {
+                return null;
+            }
+            event = log.buffer.get(sequence);
+            event.sequence = sequence;
+            event.log = log;
+        }
+        event.timeMillis = timeMillis;
+        event.source = source;
+        event.message = message;
+        event.argCount = argCount;
+        event.arg0 = arg0;
+        event.arg1 = arg1;
+        event.arg2 = arg2;
+        event.valueCount = 0;
+        return event;
+    }
+
+    private static void publish(Event event) {
+        if (event.sequence < 0) {
+            synchronized (FALLBACK_LOCK) {
+                StringBuilder sb = new StringBuilder(128);
+                format(FALLBACK_FORMATTER, sb, event);
+                System.out.println(sb);
+            }
+            return;
+        }
+        InterceptorLog log = event.log;
+        event.log = null;
+        log.buffer.publish(event.sequence);
+    }
+
+    /**
+     * Formats an event as a single line without the line separator.
+     */
+    private static void format(LogTimestampFormatter formatter, StringBuilder sb, Event event) {
+        formatter.format(event.timeMillis, sb);
+        sb.append(' ').append(event.source).append(' ');
+        String message = event.message;
+        int arg = 0;
+        int argCount = event.argCount + event.valueCount;
+        int start = 0;
+        int length = message.length();
+        for (int i = 0; i < length - 1; i++) {
+            if (message.charAt(i) == '{' && message.charAt(i + 1) == '}' && arg < argCount) {
+                sb.append(message, start, i);
+                if (arg < event.argCount) {
+                    sb.append(arg == 0 ? event.arg0 : arg == 1 ? event.arg1 : event.arg2);
+                } else {
+                    sb.append(event.values[arg - event.argCount]);
+                }
+                arg++;
+                i++;
+                start = i + 1;
+            }
+        }
+        sb.append(message, start, length);
+    }
+
+    /**
+     * The writer thread, drains the ring buffer in batches and writes to the log file when the
+     * output buffer fills or there are no more events waiting.
+     */
+    private void writeLoop() {
+        while (running) {
+            if (buffer.drain(appendEvent, batchSize) == 0) {
+                flush();
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        /*
+         * Write the events claimed before the log was stopped, waiting for those still being filled in by
+         * request threads to be published.
+         */
+        long deadline = System.nanoTime() + STOP_DRAIN_NANOS;
+        while (!buffer.isEmpty() && System.nanoTime() - deadline < 0) {
+            if (buffer.drain(appendEvent, batchSize) == 0) {
+                LockSupport.parkNanos(STOP_PARK_NANOS);
+            }
+        }
+        flush();
+        if (closeChannel) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                writeErrors++;
+            }
+        }
+    }
+
+    private void append(Event event) {
+        line.setLength(0);
+        format(formatter, line, event);
+        line.append('\n');
+        event.clear();
+
+        int length = line.length();
+        if (chars.length < length) {
+            chars = new char[Integer.highestOneBit(length) << 1];
+            charBuffer = CharBuffer.wrap(chars);
+        }
+        line.getChars(0, length, chars, 0);
+        charBuffer.clear();
+        charBuffer.limit(length);
+
+        encoder.reset();
+        for (;;) {
+            CoderResult result = encoder.encode(charBuffer, out, true);
+            if (result.isOverflow()) {
+                flush();
+                continue;
+            }
+            break;
+        }
+        while (encoder.flush(out).isOverflow()) {
+            flush();
+        }
+    }
+
+    private void flush() {
+        if (out.position() == 0) {
+            return;
+        }
+        out.flip();
+        try {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+        } catch (IOException e) {
+            writeErrors++;
+        }
+        out.clear();
+    }
+}
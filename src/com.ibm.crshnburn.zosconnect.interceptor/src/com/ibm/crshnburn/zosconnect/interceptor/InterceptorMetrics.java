@@ -0,0 +1,521 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Function;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * The InterceptorMetrics class holds the statistics gathered by the sample Interceptors and publishes them
+ * as the InterceptorMetricsMXBean.
+ *
+ * The MXBean is registered by the bundle Activator when the bundle starts and unregistered when it stops.  While
+ * registered, the metrics windows are rotated on the Interceptor scheduler thread.
+ *
+ * The number of distinct API and service names tracked is limited, names beyond the limit are recorded
+ * under the name &lt;other&gt;.
+ *
+ * @author IBM
+ */
+public final class InterceptorMetrics implements InterceptorMetricsMXBean {
+
+    /**
+     * The JMX object name of the MXBean.
+     */
+    public static final String OBJECT_NAME = "com.ibm.crshnburn.zosconnect.interceptor:type=InterceptorMetrics";
+
+    private static final int MAX_NAMES = 1000;
+
+    private static final String OTHER = "<other>";
+
+    private static final long ROTATION_CHECK_MILLIS = 1000L;
+
+    private static final int BUSIEST_USERS = 10;
+
+    private static final InterceptorMetrics INSTANCE = new InterceptorMetrics();
+
+    private final Map<String, LatencyRecorder> apis = new ConcurrentHashMap<>();
+
+    private final Map<String, LatencyRecorder> services = new ConcurrentHashMap<>();
+
+    private final Map<String, PayloadRecorder> apiPayloads = new ConcurrentHashMap<>();
+
+    private final Map<String, PayloadRecorder> servicePayloads = new ConcurrentHashMap<>();
+
+    private final Set<SorConcurrencyInterceptor> sorLimiters = new CopyOnWriteArraySet<>();
+
+    private final Set<CircuitBreakerInterceptor> circuitBreakers = new CopyOnWriteArraySet<>();
+
+    private final Set<BulkheadInterceptor> bulkheads = new CopyOnWriteArraySet<>();
+
+    private final Set<WatchdogInterceptor> watchdogs = new CopyOnWriteArraySet<>();
+
+    private final Set<IdempotencyInterceptor> idempotencyGuards = new CopyOnWriteArraySet<>();
+
+    private final Set<LoadShedInterceptor> loadShedders = new CopyOnWriteArraySet<>();
+
+    private final Set<PriorityInterceptor> priorityClasses = new CopyOnWriteArraySet<>();
+
+    private final Set<FaultInjectionInterceptor> faultInjectors = new CopyOnWriteArraySet<>();
+
+    private final Set<HeavyHitters> earlyFailures = new CopyOnWriteArraySet<>();
+
+    private final Set<LargestPayloads> largestPayloads = new CopyOnWriteArraySet<>();
+
+    private volatile long windowMillis = 60_000L;
+
+    private long windowStart = System.currentTimeMillis();
+
+    private ScheduledFuture<?> rotation;
+
+    private InterceptorMetrics() {
+    }
+
+    /**
+     * Returns the metrics shared by all the Interceptors.
+     */
+    public static InterceptorMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Registers the MXBean and starts rotating the metrics windows, called by the Activator.
+     *
+     * @throws JMException
+     */
+    static synchronized void register() throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (!server.isRegistered(name)) {
+            server.registerMBean(INSTANCE, name);
+        }
+        INSTANCE.rotation = InterceptorScheduler.schedule("InterceptorMetrics", INSTANCE::rotateIfDue,
+                ROTATION_CHECK_MILLIS);
+    }
+
+    /**
+     * Stops rotating the metrics windows and unregisters the MXBean, called by the Activator.
+     *
+     * @throws JMException
+     */
+    static synchronized void unregister() throws JMException {
+        InterceptorScheduler.cancel(INSTANCE.rotation);
+        INSTANCE.rotation = null;
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName name = new ObjectName(OBJECT_NAME);
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+    }
+
+    /**
+     * Records the P1 to P4 latency of a request to an API.
+     *
+     * @param api
+     * @param micros
+     */
+    public void recordApi(String api, long micros) {
+        recorder(apis, api, LatencyRecorder::new).record(micros);
+    }
+
+    /**
+     * Records the P1 to P4 latency of a request to a service.
+     *
+     * @param service
+     * @param micros
+     */
+    public void recordService(String service, long micros) {
+        recorder(services, service, LatencyRecorder::new).record(micros);
+    }
+
+    /**
+     * Records the size of a request to an API.
+     *
+     * @param api
+     * @param contentLength the length of the request body, or -1 if it is not known
+     * @param headerBytes the length of the request headers
+     */
+    public void recordApiPayload(String api, long contentLength, long headerBytes) {
+        recorder(apiPayloads, api, PayloadRecorder::new).record(contentLength, headerBytes);
+    }
+
+    /**
+     * Records the size of a request to a service.
+     *
+     * @param service
+     * @param contentLength the length of the request body, or -1 if it is not known
+     * @param headerBytes the length of the request headers
+     */
+    public void recordServicePayload(String service, long contentLength, long headerBytes) {
+        recorder(servicePayloads, service, PayloadRecorder::new).record(contentLength, headerBytes);
+    }
+
+    /**
+     * Sets the length of a metrics window.
+     *
+     * @param seconds
+     */
+    public void setWindowSeconds(long seconds) {
+        windowMillis = Math.max(1L, seconds) * 1000L;
+    }
+
+    /**
+     * Publishes the SoR concurrency limits of an Interceptor.
+     *
+     * @param limiter
+     */
+    void addSorLimiter(SorConcurrencyInterceptor limiter) {
+        sorLimiters.add(limiter);
+    }
+
+    /**
+     * Stops publishing the SoR concurrency limits of an Interceptor.
+     *
+     * @param limiter
+     */
+    void removeSorLimiter(SorConcurrencyInterceptor limiter) {
+        sorLimiters.remove(limiter);
+    }
+
+    /**
+     * Publishes the endpoint circuit breakers of an Interceptor.
+     *
+     * @param interceptor
+     */
+    void addCircuitBreaker(CircuitBreakerInterceptor interceptor) {
+        circuitBreakers.add(interceptor);
+    }
+
+    /**
+     * Stops publishing the endpoint circuit breakers of an Interceptor.
+     *
+     * @param interceptor
+     */
+    void removeCircuitBreaker(CircuitBreakerInterceptor interceptor) {
+        circuitBreakers.remove(interceptor);
+    }
+
+    /**
+     * Publishes the endpoint bulkheads of an Interceptor.
+     *
+     * @param interceptor
+     */
+    void addBulkhead(BulkheadInterceptor interceptor) {
+        bulkheads.add(interceptor);
+    }
+
+    /**
+     * Stops publishing the endpoint bulkheads of an Interceptor.
+     *
+     * @param interceptor
+     */
+    void removeBulkhead(BulkheadInterceptor interceptor) {
+        bulkheads.remove(interceptor);
+    }
+
+    /**
+     * Publishes the in-flight gauges of an Interceptor.
+     *
+     * @param interceptor
+     */
+    void addWatchdog(WatchdogInterceptor interceptor) {
+        watchdogs.add(interceptor);
+    }
+
+    /**
+     * Stops publishing the in-flight gauges of an Interceptor.
+     *
+     * @param interceptor
+     */
+    void removeWatchdog(WatchdogInterceptor interceptor) {
+        watchdogs.remove(interceptor);
+    }
+
+    /**
+     * Publishes the idempotency key counts of an Interceptor.
+     *
+     * @param interceptor
+     */
+    void addIdempotency(IdempotencyInterceptor interceptor) {
+        idempotencyGuards.add(interceptor);
+    }
+
+    /**
+     * Stops publishing the idempotency key counts of an Interceptor.
+     *
+     * @param interceptor
+     */
+    void removeIdempotency(IdempotencyInterceptor interceptor) {
+        idempotencyGuards.remove(interceptor);
+    }
+
+    /**
+     * Publishes the overload state of an Interceptor.
+     *
+     * @param interceptor
+     */
+    void addLoadShedder(LoadShedInterceptor interceptor) {
+        loadShedders.add(interceptor);
+    }
+
+    /**
+     * Stops publishing the overload state of an Interceptor.
+     *
+     * @param interceptor
+     */
+    void removeLoadShedder(LoadShedInterceptor interceptor) {
+        loadShedders.remove(interceptor);
+    }
+
+    /**
+     * Publishes the priority classes of an Interceptor.
+     *
+     * @param interceptor
+     */
+    void addPriorityClasses(PriorityInterceptor interceptor) {
+        priorityClasses.add(interceptor);
+    }
+
+    /**
+     * Stops publishing the priority classes of an Interceptor.
+     *
+     * @param interceptor
+     */
+    void removePriorityClasses(PriorityInterceptor interceptor) {
+        priorityClasses.remove(interceptor);
+    }
+
+    /**
+     * Publishes the fault rule counts of an Interceptor.
+     *
+     * @param interceptor
+     */
+    void addFaultInjector(FaultInjectionInterceptor interceptor) {
+        faultInjectors.add(interceptor);
+    }
+
+    /**
+     * Stops publishing the fault rule counts of an Interceptor.
+     *
+     * @param interceptor
+     */
+    void removeFaultInjector(FaultInjectionInterceptor interceptor) {
+        faultInjectors.remove(interceptor);
+    }
+
+    /**
+     * Publishes the early failure heavy hitters of an Interceptor.  Their counts decay each metrics window.
+     *
+     * @param heavyHitters
+     */
+    void addEarlyFailures(HeavyHitters... heavyHitters) {
+        earlyFailures.addAll(Arrays.asList(heavyHitters));
+    }
+
+    /**
+     * Stops publishing the early failure heavy hitters of an Interceptor.
+     *
+     * @param heavyHitters
+     */
+    void removeEarlyFailures(HeavyHitters... heavyHitters) {
+        earlyFailures.removeAll(Arrays.asList(heavyHitters));
+    }
+
+    /**
+     * Publishes the largest requests seen by an Interceptor.
+     *
+     * @param payloads
+     */
+    void addLargestPayloads(LargestPayloads payloads) {
+        largestPayloads.add(payloads);
+    }
+
+    /**
+     * Stops publishing the largest requests seen by an Interceptor.
+     *
+     * @param payloads
+     */
+    void removeLargestPayloads(LargestPayloads payloads) {
+        largestPayloads.remove(payloads);
+    }
+
+    private static <R> R recorder(Map<String, R> recorders, String name, Function<String, R> factory) {
+        R recorder = recorders.get(name);
+        if (recorder == null) {
+            String key = recorders.size() < MAX_NAMES ? name : OTHER;
+            recorder = recorders.computeIfAbsent(key, factory);
+        }
+        return recorder;
+    }
+
+    /**
+     * Rotates every window once the window length has passed, called on the scheduler thread.
+     */
+    private void rotateIfDue() {
+        long now = System.currentTimeMillis();
+        if (now - windowStart < windowMillis) {
+            return;
+        }
+        windowStart = now;
+        for (LatencyRecorder recorder : apis.values()) {
+            recorder.rotate();
+        }
+        for (LatencyRecorder recorder : services.values()) {
+            recorder.rotate();
+        }
+        for (PayloadRecorder recorder : apiPayloads.values()) {
+            recorder.rotate();
+        }
+        for (PayloadRecorder recorder : servicePayloads.values()) {
+            recorder.rotate();
+        }
+        for (HeavyHitters heavyHitters : earlyFailures) {
+            heavyHitters.decay();
+        }
+    }
+
+    private static LatencySummary[] summarize(Map<String, LatencyRecorder> recorders) {
+        return recorders.values().stream().map(LatencyRecorder::summarize).toArray(LatencySummary[]::new);
+    }
+
+    @Override
+    public LatencySummary[] getApiLatencies() {
+        return summarize(apis);
+    }
+
+    @Override
+    public LatencySummary[] getServiceLatencies() {
+        return summarize(services);
+    }
+
+    private PayloadSummary[] summarizePayloads(Map<String, PayloadRecorder> recorders) {
+        long windowSeconds = getWindowSeconds();
+        return recorders.values().stream().map(recorder -> recorder.summarize(windowSeconds))
+                .toArray(PayloadSummary[]::new);
+    }
+
+    @Override
+    public PayloadSummary[] getApiPayloads() {
+        return summarizePayloads(apiPayloads);
+    }
+
+    @Override
+    public PayloadSummary[] getServicePayloads() {
+        return summarizePayloads(servicePayloads);
+    }
+
+    @Override
+    public LargePayloadSummary[] getLargestPayloads() {
+        return largestPayloads.stream().flatMap(payloads -> payloads.summarize().stream())
+                .toArray(LargePayloadSummary[]::new);
+    }
+
+    @Override
+    public ConcurrencySummary[] getSorConcurrency() {
+        return sorLimiters.stream().flatMap(limiter -> Arrays.stream(limiter.summarize()))
+                .toArray(ConcurrencySummary[]::new);
+    }
+
+    @Override
+    public CircuitSummary[] getEndpointCircuits() {
+        return circuitBreakers.stream().flatMap(interceptor -> Arrays.stream(interceptor.summarize()))
+                .toArray(CircuitSummary[]::new);
+    }
+
+    @Override
+    public ConcurrencySummary[] getEndpointConcurrency() {
+        return bulkheads.stream().flatMap(interceptor -> Arrays.stream(interceptor.summarize()))
+                .toArray(ConcurrencySummary[]::new);
+    }
+
+    @Override
+    public InFlightSummary[] getInFlightRequests() {
+        return watchdogs.stream().flatMap(interceptor -> Arrays.stream(interceptor.summarize()))
+                .toArray(InFlightSummary[]::new);
+    }
+
+    @Override
+    public IdempotencySummary[] getIdempotencyKeys() {
+        return idempotencyGuards.stream().map(IdempotencyInterceptor::summarize).toArray(IdempotencySummary[]::new);
+    }
+
+    @Override
+    public LoadShedSummary[] getLoadShedding() {
+        return loadShedders.stream().map(LoadShedInterceptor::summarize).toArray(LoadShedSummary[]::new);
+    }
+
+    @Override
+    public PriorityClassSummary[] getPriorityClasses() {
+        return priorityClasses.stream().flatMap(interceptor -> Arrays.stream(interceptor.summarize()))
+                .toArray(PriorityClassSummary[]::new);
+    }
+
+    @Override
+    public FaultInjectionSummary[] getFaultInjections() {
+        return faultInjectors.stream().flatMap(interceptor -> Arrays.stream(interceptor.summarize()))
+                .toArray(FaultInjectionSummary[]::new);
+    }
+
+    @Override
+    public IdentityCacheSummary getIdentityCache() {
+        return UserIdentities.getInstance().summarize();
+    }
+
+    @Override
+    public UserIdentitySummary[] getBusiestUsers() {
+        return UserIdentities.getInstance().busiest(BUSIEST_USERS);
+    }
+
+    @Override
+    public HeavyHitterSummary[] getEarlyFailureHeavyHitters() {
+        return earlyFailures.stream().flatMap(heavyHitters -> heavyHitters.summarize().stream())
+                .toArray(HeavyHitterSummary[]::new);
+    }
+
+    @Override
+    public long getWindowSeconds() {
+        return windowMillis / 1000L;
+    }
+
+    @Override
+    public long getLogDroppedCount() {
+        return InterceptorLog.getDroppedCount();
+    }
+
+    @Override
+    public long getLogSampledOutCount() {
+        return InterceptorLog.getSampledOutCount();
+    }
+
+    @Override
+    public void reset() {
+        apis.clear();
+        services.clear();
+        apiPayloads.clear();
+        servicePayloads.clear();
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+/**
+ * The InterceptorMetricsMXBean interface is the JMX view of the statistics gathered by the sample Interceptors.
+ * It is registered as com.ibm.crshnburn.zosconnect.interceptor:type=InterceptorMetrics.
+ *
+ * @author IBM
+ */
+public interface InterceptorMetricsMXBean {
+
+    /**
+     * Returns the P1 to P4 latency of each API.
+     */
+    LatencySummary[] getApiLatencies();
+
+    /**
+     * Returns the P1 to P4 latency of each service.
+     */
+    LatencySummary[] getServiceLatencies();
+
+    /**
+     * Returns the request sizes of each API.
+     */
+    PayloadSummary[] getApiPayloads();
+
+    /**
+     * Returns the request sizes of each service.
+     */
+    PayloadSummary[] getServicePayloads();
+
+    /**
+     * Returns the largest requests seen, by Interceptor.
+     */
+    LargePayloadSummary[] getLargestPayloads();
+
+    /**
+     * Returns the concurrency limit, calls in flight and rejected requests of each System of Record.
+     */
+    ConcurrencySummary[] getSorConcurrency();
+
+    /**
+     * Returns the circuit breaker state of each API requester endpoint.
+     */
+    CircuitSummary[] getEndpointCircuits();
+
+    /**
+     * Returns the bulkhead limit, calls in flight and rejected requests of each API requester endpoint.
+     */
+    ConcurrencySummary[] getEndpointConcurrency();
+
+    /**
+     * Returns the number of requests in flight in each stage and the number of those that have passed the
+     * watchdog threshold, by Interceptor.
+     */
+    InFlightSummary[] getInFlightRequests();
+
+    /**
+     * Returns the number of idempotency keys remembered and of duplicate requests rejected, by Interceptor.
+     */
+    IdempotencySummary[] getIdempotencyKeys();
+
+    /**
+     * Returns whether requests are being shed because the server is overloaded, and the shortest time a request
+     * waited before P1 in the last interval, by Interceptor.
+     */
+    LoadShedSummary[] getLoadShedding();
+
+    /**
+     * Returns the concurrent request slots reserved and in use and the requests admitted, made to wait and
+     * rejected in each priority class, by Interceptor.
+     */
+    PriorityClassSummary[] getPriorityClasses();
+
+    /**
+     * Returns the number of requests selected and faulted by each fault rule, by Interceptor.
+     */
+    FaultInjectionSummary[] getFaultInjections();
+
+    /**
+     * Returns the size of the cache of user identities and how often users were found in it.
+     */
+    IdentityCacheSummary getIdentityCache();
+
+    /**
+     * Returns the cached users that have made the most requests.
+     */
+    UserIdentitySummary[] getBusiestUsers();
+
+    /**
+     * Returns the users, URIs and requests that fail early most often, by Interceptor.  The counts are halved
+     * each metrics window.
+     */
+    HeavyHitterSummary[] getEarlyFailureHeavyHitters();
+
+    /**
+     * Returns the length of a metrics window in seconds.
+     */
+    long getWindowSeconds();
+
+    /**
+     * Returns the number of log events dropped because the log buffer was full.
+     */
+    long getLogDroppedCount();
+
+    /**
+     * Returns the number of log events discarded by the SAMPLE log overflow policy.
+     */
+    long getLogSampledOutCount();
+
+    /**
+     * Clears the latency and request size statistics.
+     */
+    void reset();
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The InterceptorScheduler class owns the single background thread the Interceptors use for periodic
+ * housekeeping, such as rotating metrics windows, so that no work of this kind is done on request threads.
+ *
+ * The scheduler is started and stopped by the bundle Activator.  Tasks must be short and must not block.
+ *
+ * @author IBM
+ */
+final class InterceptorScheduler {
+
+    private static ScheduledExecutorService executor;
+
+    private InterceptorScheduler() {
+    }
+
+    /**
+     * Starts the scheduler thread.
+     */
+    static synchronized void start() {
+        if (executor == null) {
+            executor = Executors.newSingleThreadScheduledExecutor(r -> {
+                Thread thread = new Thread(r, "SampleInterceptorScheduler");
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * Stops the scheduler thread, cancelling all tasks.
+     */
+    static synchronized void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    /**
+     * Runs a task repeatedly.  Exceptions thrown by the task are logged and the task continues to be scheduled.
+     *
+     * @param name the name used when logging a task failure
+     * @param task
+     * @param periodMillis
+     *
+     * @return the scheduled task, or null if the scheduler is not running
+     */
+    static synchronized ScheduledFuture<?> schedule(String name, Runnable task, long periodMillis) {
+        if (executor == null) {
+            return null;
+        }
+        return executor.scheduleAtFixedRate(() -> {
+            try {
+                task.run();
+            } catch (RuntimeException e) {
+                InterceptorLog.log(name, "Scheduled task failed {}", e);
+            }
+        }, periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Cancels a task returned by schedule, ignoring null.
+     *
+     * @param task
+     */
+    static void cancel(ScheduledFuture<?> task) {
+        if (task != null) {
+            task.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * The LargePayloadSummary class is one of the largest requests seen by an Interceptor, as reported through the
+ * InterceptorMetricsMXBean.
+ *
+ * @author IBM
+ */
+public class LargePayloadSummary {
+
+    private final String name;
+    private final String method;
+    private final String uri;
+    private final String user;
+    private final long bytes;
+    private final long headerBytes;
+    private final long time;
+    private final boolean rejected;
+
+    @ConstructorProperties({ "name", "method", "uri", "user", "bytes", "headerBytes", "time", "rejected" })
+    public LargePayloadSummary(String name, String method, String uri, String user, long bytes, long headerBytes,
+            long time, boolean rejected) {
+        this.name = name;
+        this.method = method;
+        this.uri = uri;
+        this.user = user;
+        this.bytes = bytes;
+        this.headerBytes = headerBytes;
+        this.time = time;
+        this.rejected = rejected;
+    }
+
+    /**
+     * Returns the name of the Interceptor that saw the request.
+     */
+    public String getName() {
+        return name;
+    }
+
+    public String getMethod() {
+        return method;
+    }
+
+    public String getUri() {
+        return uri;
+    }
+
+    public String getUser() {
+        return user;
+    }
+
+    /**
+     * Returns the content length of the request.
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    public long getHeaderBytes() {
+        return headerBytes;
+    }
+
+    /**
+     * Returns the time the request was seen, in milliseconds since the epoch.
+     */
+    public long getTime() {
+        return time;
+    }
+
+    /**
+     * Returns true if the request was rejected because it was larger than the configured limit.
+     */
+    public boolean isRejected() {
+        return rejected;
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The LargestPayloads class keeps the largest requests seen, by content length, for example to find the callers
+ * sending payloads too big for a CICS commarea.
+ *
+ * The requests are kept in an array ordered by size.  The size of the smallest request kept is published in a
+ * volatile field once the array is full, so that the many requests smaller than that are passed over without
+ * taking the lock.
+ *
+ * @author IBM
+ */
+final class LargestPayloads {
+
+    /**
+     * A request kept.
+     */
+    private static final class Entry {
+        final String method;
+        final String uri;
+        final String user;
+        final long bytes;
+        final long headerBytes;
+        final long timeMillis;
+        final boolean rejected;
+
+        Entry(String method, String uri, String user, long bytes, long headerBytes, boolean rejected) {
+            this.method = method;
+            this.uri = uri;
+            this.user = user;
+            this.bytes = bytes;
+            this.headerBytes = headerBytes;
+            this.timeMillis = System.currentTimeMillis();
+            this.rejected = rejected;
+        }
+    }
+
+    private final String name;
+
+    /**
+     * The requests kept, largest first.  Guarded by this.
+     */
+    private final Entry[] entries;
+
+    private int size;
+
+    /**
+     * The smallest content length kept once the array is full, -1 until then.
+     */
+    private volatile long admission = -1L;
+
+    /**
+     * @param name the name of the Interceptor seeing the requests
+     * @param capacity the number of requests kept
+     */
+    LargestPayloads(String name, int capacity) {
+        this.name = name;
+        this.entries = new Entry[Math.max(1, capacity)];
+    }
+
+    int getCapacity() {
+        return entries.length;
+    }
+
+    /**
+     * Offers a request, which is kept if it is among the largest seen.
+     *
+     * @param method
+     * @param uri
+     * @param user
+     * @param bytes the content length of the request
+     * @param headerBytes the length of the request headers
+     * @param rejected true if the request was rejected for its size
+     */
+    void offer(String method, String uri, String user, long bytes, long headerBytes, boolean rejected) {
+        if (bytes > admission) {
+            add(new Entry(method, uri, user, bytes, headerBytes, rejected));
+        }
+    }
+
+    private synchronized void add(Entry entry) {
+        if (size == entries.length) {
+            if (entry.bytes <= entries[size - 1].bytes) {
+                return;
+            }
+            size--;
+        }
+        int index = size;
+        while (index > 0 && entries[index - 1].bytes < entry.bytes) {
+            entries[index] = entries[index - 1];
+            index--;
+        }
+        entries[index] = entry;
+        size++;
+        if (size == entries.length) {
+            admission = entries[size - 1].bytes;
+        }
+    }
+
+    /**
+     * Returns the requests kept, largest first.
+     */
+    synchronized List<LargePayloadSummary> summarize() {
+        List<LargePayloadSummary> summaries = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Entry entry = entries[i];
+            summaries.add(new LargePayloadSummary(name, entry.method, entry.uri, entry.user, entry.bytes,
+                    entry.headerBytes, entry.timeMillis, entry.rejected));
+        }
+        return summaries;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+/**
+ * The LatencyRecorder class records latencies, in microseconds, for one API or service.
+ *
+ * Each value is recorded into an all-time histogram and into the histogram for the current window.  When the
+ * window is rotated the current histogram becomes the recent window that is reported, and a cleared histogram
+ * takes its place.  The three window histograms are reused so rotation does not allocate.
+ *
+ * @author IBM
+ */
+final class LatencyRecorder {
+
+    /**
+     * Latencies up to 2^36 microseconds, about 19 hours, are recorded accurately.
+     */
+    private static final int MAX_VALUE_BITS = 36;
+
+    private final String name;
+
+    private final ConcurrentHistogram allTime = new ConcurrentHistogram(MAX_VALUE_BITS);
+
+    private volatile ConcurrentHistogram current = new ConcurrentHistogram(MAX_VALUE_BITS);
+
+    private volatile ConcurrentHistogram recent = new ConcurrentHistogram(MAX_VALUE_BITS);
+
+    private ConcurrentHistogram spare = new ConcurrentHistogram(MAX_VALUE_BITS);
+
+    LatencyRecorder(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records a latency.
+     *
+     * @param micros
+     */
+    void record(long micros) {
+        allTime.record(micros);
+        current.record(micros);
+    }
+
+    /**
+     * Ends the current window, called only by the scheduler thread.
+     */
+    void rotate() {
+        ConcurrentHistogram next = spare;
+        next.reset();
+        spare = recent;
+        recent = current;
+        current = next;
+    }
+
+    /**
+     * Returns a summary of the all-time and most recent window latencies.
+     */
+    LatencySummary summarize() {
+        ConcurrentHistogram window = recent;
+        return new LatencySummary(name,
+                allTime.getCount(),
+                allTime.getValueAtPercentile(50.0),
+                allTime.getValueAtPercentile(99.0),
+                allTime.getValueAtPercentile(99.9),
+                allTime.getMax(),
+                window.getCount(),
+                window.getValueAtPercentile(50.0),
+                window.getValueAtPercentile(99.0),
+                window.getValueAtPercentile(99.9),
+                window.getMax());
+    }
+}
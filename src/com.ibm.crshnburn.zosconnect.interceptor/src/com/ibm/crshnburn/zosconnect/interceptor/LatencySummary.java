@@ -0,0 +1,102 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * The LatencySummary class is the latency percentiles of one API or service as reported through the
+ * InterceptorMetricsMXBean.  All times are in microseconds.  The recent values cover the last completed
+ * metrics window.
+ *
+ * @author IBM
+ */
+public class LatencySummary {
+
+    private final String name;
+    private final long count;
+    private final long p50;
+    private final long p99;
+    private final long p999;
+    private final long max;
+    private final long recentCount;
+    private final long recentP50;
+    private final long recentP99;
+    private final long recentP999;
+    private final long recentMax;
+
+    @ConstructorProperties({ "name", "count", "p50", "p99", "p999", "max",
+            "recentCount", "recentP50", "recentP99", "recentP999", "recentMax" })
+    public LatencySummary(String name, long count, long p50, long p99, long p999, long max,
+            long recentCount, long recentP50, long recentP99, long recentP999, long recentMax) {
+        this.name = name;
+        this.count = count;
+        this.p50 = p50;
+        this.p99 = p99;
+        this.p999 = p999;
+        this.max = max;
+        this.recentCount = recentCount;
+        this.recentP50 = recentP50;
+        this.recentP99 = recentP99;
+        this.recentP999 = recentP999;
+        this.recentMax = recentMax;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getP999() {
+        return p999;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public long getRecentCount() {
+        return recentCount;
+    }
+
+    public long getRecentP50() {
+        return recentP50;
+    }
+
+    public long getRecentP99() {
+        return recentP99;
+    }
+
+    public long getRecentP999() {
+        return recentP999;
+    }
+
+    public long getRecentMax() {
+        return recentMax;
+    }
+}
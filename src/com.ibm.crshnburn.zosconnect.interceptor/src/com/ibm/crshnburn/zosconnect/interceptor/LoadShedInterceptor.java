@@ -0,0 +1,262 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.osgi.service.component.ComponentContext;
+
+import com.ibm.zosconnect.spi.Data;
+import com.ibm.zosconnect.spi.HttpZosConnectRequest;
+import com.ibm.zosconnect.spi.Interceptor;
+import com.ibm.zosconnect.spi.InterceptorException;
+
+/**
+ * The LoadShedInterceptor class is an example of an Interceptor that sheds API provider requests at P1 when the
+ * server is overloaded, judged by how long requests wait in the server before any Interceptor runs, in the
+ * manner of the CoDel (controlled delay) queue management algorithm.
+ *
+ * The time a request waited is the gap between Data.TIME_ZOS_CONNECT_ENTRY and P1.  A short wait now and then is
+ * normal, a burst fills the queue and it then drains, so the longest wait says little.  The shortest wait over
+ * an interval does: if even the request that waited least waited longer than the target, the queue never drained
+ * during the interval and is standing rather than absorbing a burst.  The shortest wait of the current interval
+ * is kept in an atomic that is only written when a request waited less than any before it, and at the end of
+ * each interval it is compared with the target on the Interceptor scheduler thread.
+ *
+ * While the server is overloaded, requests that waited longer than the target are rejected with an
+ * InterceptorException, which costs far less than processing them, so the queue drains before the requests in it
+ * pass their timeout.  Requests that waited less than the target are still processed, and the first interval in
+ * which a request waited less than the target ends the overload.
+ *
+ * @author IBM
+ */
+public class LoadShedInterceptor implements Interceptor {
+
+    private static final String CFG_AD_TARGET_MILLIS = "targetMillis";
+
+    private static final String CFG_AD_INTERVAL_MILLIS = "intervalMillis";
+
+    private static final int DEFAULT_TARGET_MILLIS = 5;
+
+    private static final int DEFAULT_INTERVAL_MILLIS = 100;
+
+    /**
+     * The shortest wait of an interval in which there were no requests.
+     */
+    private static final long NO_REQUESTS = Long.MAX_VALUE;
+
+    /**
+     * The registered sequence number of this Interceptor which determines the order
+     * in which the Interceptor is called in relation to other Interceptors.
+     */
+    private volatile int sequence;
+
+    /**
+     * The target and interval, replaced as a whole when the configuration changes, or null when the Interceptor
+     * is not active.
+     */
+    private static final class Settings {
+        final long targetNanos;
+        final int intervalMillis;
+
+        Settings(int targetMillis, int intervalMillis) {
+            this.targetNanos = TimeUnit.MILLISECONDS.toNanos(targetMillis);
+            this.intervalMillis = intervalMillis;
+        }
+    }
+
+    private volatile Settings settings;
+
+    private ScheduledFuture<?> evaluation;
+
+    private final AtomicLong minQueueNanos = new AtomicLong(NO_REQUESTS);
+
+    /**
+     * The shortest wait of the last interval, written on the scheduler thread.
+     */
+    private volatile long lastMinQueueNanos = NO_REQUESTS;
+
+    private volatile boolean overloaded;
+
+    private final AtomicLong overloads = new AtomicLong();
+
+    private final LongAdder shed = new LongAdder();
+
+    /**
+     * The number shed when the current overload began, used only on the scheduler thread.
+     */
+    private long shedAtOverload;
+
+    /**
+     * Activates the Interceptor.
+     *
+     * Trace the activation, retrieve the Interceptor's configuration from the Interceptor's
+     * configuration element in server.xml, start evaluating each interval and publish the overload state.
+     *
+     * @param context
+     * @param properties
+     */
+    protected void activate(ComponentContext context, Map<String, Object> properties) {
+        InterceptorLog.log(getName(), "activated");
+        configure(properties);
+        InterceptorMetrics.getInstance().addLoadShedder(this);
+    }
+
+    /**
+     * Deactivates the Interceptor.
+     *
+     * The Interceptor will no longer receive events.
+     *
+     * @param context
+     */
+    protected void deactivate(ComponentContext context) {
+        InterceptorLog.log(getName(), "deactivated");
+        InterceptorMetrics.getInstance().removeLoadShedder(this);
+        synchronized (this) {
+            InterceptorScheduler.cancel(evaluation);
+            evaluation = null;
+            settings = null;
+            overloaded = false;
+        }
+    }
+
+    /**
+     * Called to signal that the Interceptor's configuration element may have changed in server.xml.
+     * A new target applies from the end of the current interval.
+     *
+     * @param properties
+     */
+    protected void modified(Map<String, Object> properties) {
+        InterceptorLog.log(getName(), "modified");
+        configure(properties);
+    }
+
+    private synchronized void configure(Map<String, Object> properties) {
+        ConfigProperties config = new ConfigProperties(getName(), properties);
+        sequence = config.getSequence(sequence);
+        int targetMillis = config.getInt(CFG_AD_TARGET_MILLIS, DEFAULT_TARGET_MILLIS, 1, 60_000);
+        int intervalMillis = config.getInt(CFG_AD_INTERVAL_MILLIS, DEFAULT_INTERVAL_MILLIS, 10, 60_000);
+        Settings current = settings;
+        settings = new Settings(targetMillis, intervalMillis);
+        if (current == null || current.intervalMillis != intervalMillis) {
+            InterceptorScheduler.cancel(evaluation);
+            evaluation = InterceptorScheduler.schedule(getName(), this::evaluate, intervalMillis);
+        }
+    }
+
+    /**
+     * Ends an interval, starting or ending an overload.  Called on the scheduler thread.
+     */
+    private void evaluate() {
+        long min = minQueueNanos.getAndSet(NO_REQUESTS);
+        lastMinQueueNanos = min;
+        Settings current = settings;
+        if (current == null) {
+            return;
+        }
+        boolean standing = min != NO_REQUESTS && min > current.targetNanos;
+        if (standing && !overloaded) {
+            overloads.incrementAndGet();
+            shedAtOverload = shed.sum();
+            overloaded = true;
+            InterceptorLog.log(getName(), "overloaded, shortest wait before P1 was {} ms over the last {} ms",
+                    TimeUnit.NANOSECONDS.toMillis(min), current.intervalMillis);
+        } else if (!standing && overloaded) {
+            overloaded = false;
+            InterceptorLog.log(getName(), "no longer overloaded, {} requests shed", shed.sum() - shedAtOverload);
+        }
+    }
+
+    /**
+     * Returns the overload state.
+     */
+    LoadShedSummary summarize() {
+        long min = lastMinQueueNanos;
+        return new LoadShedSummary(getName(), overloaded,
+                min == NO_REQUESTS ? -1L : TimeUnit.NANOSECONDS.toMicros(min), overloads.get(), shed.sum());
+    }
+
+    /**
+     * Returns this Interceptor's configured sequence number.
+     */
+    @Override
+    public int getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns this Interceptor's name.
+     */
+    @Override
+    public String getName() {
+        return "zOSConnectLoadShedInterceptor";
+    }
+
+    /**
+     * z/OS Connect EE calls preInvoke method at point P1.
+     *
+     * The time the request waited is recorded, and if the server is overloaded and the request waited longer than
+     * the target an InterceptorException is thrown and the request is not processed.  Requests whose entry time
+     * is not available are always processed.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void preInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
+            throws InterceptorException {
+        Settings current = settings;
+        long entry = StoreClock.toEpochNanos(data.getData(Data.TIME_ZOS_CONNECT_ENTRY));
+        if (current == null || entry == StoreClock.UNAVAILABLE) {
+            return;
+        }
+        long queueNanos = Math.max(0L, StoreClock.nowEpochNanos() - entry);
+        long min = minQueueNanos.get();
+        while (queueNanos < min && !minQueueNanos.compareAndSet(min, queueNanos)) {
+            min = minQueueNanos.get();
+        }
+
+        if (overloaded && queueNanos > current.targetNanos) {
+            // Shed requests are not logged one by one, the overload is logged when it starts and when it ends.
+            shed.increment();
+            long queueMillis = TimeUnit.NANOSECONDS.toMillis(queueNanos);
+            throw new InterceptorException("Request not processed, server overloaded, request waited " + queueMillis
+                    + " ms");
+        }
+    }
+
+    /**
+     * z/OS Connect EE calls postInvoke method at point P4, there is nothing to do.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void postInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
+            throws InterceptorException {
+    }
+}
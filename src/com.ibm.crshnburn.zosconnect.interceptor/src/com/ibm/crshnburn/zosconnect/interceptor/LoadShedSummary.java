@@ -0,0 +1,75 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * The LoadShedSummary class is the overload state of a load shedding Interceptor, as reported through the
+ * InterceptorMetricsMXBean.
+ *
+ * @author IBM
+ */
+public class LoadShedSummary {
+
+    private final String name;
+    private final boolean overloaded;
+    private final long minQueueMicros;
+    private final long overloads;
+    private final long shed;
+
+    @ConstructorProperties({ "name", "overloaded", "minQueueMicros", "overloads", "shed" })
+    public LoadShedSummary(String name, boolean overloaded, long minQueueMicros, long overloads, long shed) {
+        this.name = name;
+        this.overloaded = overloaded;
+        this.minQueueMicros = minQueueMicros;
+        this.overloads = overloads;
+        this.shed = shed;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns true if requests are being shed.
+     */
+    public boolean isOverloaded() {
+        return overloaded;
+    }
+
+    /**
+     * Returns the shortest time a request waited before P1 in the last interval, or -1 if there were no requests.
+     */
+    public long getMinQueueMicros() {
+        return minQueueMicros;
+    }
+
+    /**
+     * Returns the number of times the server has become overloaded.
+     */
+    public long getOverloads() {
+        return overloads;
+    }
+
+    /**
+     * Returns the number of requests rejected.
+     */
+    public long getShed() {
+        return shed;
+    }
+}
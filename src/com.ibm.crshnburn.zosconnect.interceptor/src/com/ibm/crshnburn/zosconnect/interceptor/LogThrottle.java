@@ -0,0 +1,59 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The LogThrottle class limits a message logged for frequent events, such as early failures, to one line per
+ * interval, reporting how many events the line stands for, so that a storm of events does not become a storm of
+ * log lines.
+ *
+ * @author IBM
+ */
+final class LogThrottle {
+
+    private final long intervalNanos;
+
+    private final AtomicLong nextNanos = new AtomicLong(System.nanoTime());
+
+    private final LongAdder events = new LongAdder();
+
+    /**
+     * @param intervalMillis the shortest time between lines
+     */
+    LogThrottle(long intervalMillis) {
+        this.intervalNanos = intervalMillis * 1_000_000L;
+    }
+
+    /**
+     * Counts an event and decides whether to log it.
+     *
+     * @return the number of events since the last line logged, including this one, if this event is to be logged,
+     *         otherwise 0
+     */
+    long tryLog() {
+        events.increment();
+        long now = System.nanoTime();
+        long next = nextNanos.get();
+        if (now - next < 0 || !nextNanos.compareAndSet(next, now + intervalNanos)) {
+            return 0L;
+        }
+        return Math.max(1L, events.sumThenReset());
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.util.TimeZone;
+
+/**
+ * The LogTimestampFormatter class formats epoch millisecond times as yyyy-MM-dd HH:mm:ss.SSS in the
+ * default time zone.
+ *
+ * This replaces the SimpleDateFormat previously held by each Interceptor.  SimpleDateFormat is not thread safe
+ * and allocates on every call.  This formatter caches the characters for the current second and only the
+ * milliseconds are written on each call, so formatting does not allocate.  An instance is not thread safe and
+ * is intended to be confined to the log writer thread.
+ *
+ * @author IBM
+ */
+final class LogTimestampFormatter {
+
+    private final TimeZone timeZone = TimeZone.getDefault();
+
+    /**
+     * The characters yyyy-MM-dd HH:mm:ss for cachedSecond.
+     */
+    private final char[] cached = new char[19];
+
+    private long cachedSecond = Long.MIN_VALUE;
+
+    /**
+     * Appends the formatted time to the builder.
+     *
+     * @param epochMillis
+     * @param sb
+     */
+    void format(long epochMillis, StringBuilder sb) {
+        long localMillis = epochMillis + timeZone.getOffset(epochMillis);
+        long second = Math.floorDiv(localMillis, 1000L);
+        if (second != cachedSecond) {
+            fillSecond(second);
+            cachedSecond = second;
+        }
+        sb.append(cached);
+        int millis = (int) Math.floorMod(localMillis, 1000L);
+        sb.append('.');
+        sb.append((char) ('0' + millis / 100));
+        sb.append((char) ('0' + millis / 10 % 10));
+        sb.append((char) ('0' + millis % 10));
+    }
+
+    /**
+     * Converts local epoch seconds to the civil date and time, using the days-from-civil
+     * algorithm so no Calendar is required.
+     */
+    private void fillSecond(long second) {
+        long days = Math.floorDiv(second, 86400L);
+        int secondOfDay = (int) Math.floorMod(second, 86400L);
+
+        long z = days + 719468L;
+        long era = Math.floorDiv(z, 146097L);
+        long dayOfEra = z - era * 146097L;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long mp = (5 * dayOfYear + 2) / 153;
+        int day = (int) (dayOfYear - (153 * mp + 2) / 5 + 1);
+        int month = (int) (mp < 10 ? mp + 3 : mp - 9);
+        int year = (int) (yearOfEra + era * 400 + (month <= 2 ? 1 : 0));
+
+        put(0, year, 4);
+        cached[4] = '-';
+        put(5, month, 2);
+        cached[7] = '-';
+        put(8, day, 2);
+        cached[10] = ' ';
+        put(11, secondOfDay / 3600, 2);
+        cached[13] = ':';
+        put(14, secondOfDay / 60 % 60, 2);
+        cached[16] = ':';
+        put(17, secondOfDay % 60, 2);
+    }
+
+    private void put(int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            cached[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+}
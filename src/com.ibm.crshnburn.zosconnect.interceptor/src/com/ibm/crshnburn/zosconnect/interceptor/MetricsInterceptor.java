@@ -0,0 +1,166 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.util.Map;
+
+import org.osgi.service.component.ComponentContext;
+
+import com.ibm.zosconnect.spi.Data;
+import com.ibm.zosconnect.spi.HttpZosConnectRequest;
+import com.ibm.zosconnect.spi.Interceptor;
+import com.ibm.zosconnect.spi.InterceptorException;
+
+/**
+ * The MetricsInterceptor class is an example of an Interceptor that measures the time between P1 and P4 of
+ * each API provider request and records it in latency histograms for the API and the service.  The
+ * percentiles are published through the InterceptorMetricsMXBean.
+ *
+ * Recording a latency takes an atomic increment of a preallocated histogram bucket, nothing is logged on the
+ * request path.  See the AllPointsInterceptorSample for a description of P1 and P4.
+ *
+ * @author IBM
+ */
+public class MetricsInterceptor implements Interceptor {
+
+    /**
+     * Request State Map data element used to pass the P1 time to P4, held in a RequestState taken from a pool.
+     */
+    private static final String REQUEST_STATE = "METRICS_REQUEST_STATE";
+
+    /**
+     * Configuration attribute for the length of a metrics window.
+     */
+    private static final String CFG_AD_WINDOW_SECONDS = "windowSeconds";
+
+    /**
+     * The registered sequence number of this Interceptor which determines the order
+     * in which the Interceptor is called in relation to other Interceptors.
+     */
+    private volatile int sequence;
+
+    /**
+     * Activates the Interceptor.
+     *
+     * Trace the activation and retrieve the Interceptor's configuration from
+     * the Interceptor's configuration element in server.xml.
+     *
+     * @param context
+     * @param properties
+     */
+    protected void activate(ComponentContext context, Map<String, Object> properties) {
+        InterceptorLog.log(getName(), "activated");
+        configure(properties);
+    }
+
+    /**
+     * Deactivates the Interceptor.
+     *
+     * The Interceptor will no longer receive events.
+     *
+     * @param context
+     */
+    protected void deactivate(ComponentContext context) {
+        InterceptorLog.log(getName(), "deactivated");
+    }
+
+    /**
+     * Called to signal that the Interceptor's configuration element may have changed in server.xml.
+     *
+     * @param properties
+     */
+    protected void modified(Map<String, Object> properties) {
+        InterceptorLog.log(getName(), "modified");
+        configure(properties);
+    }
+
+    private void configure(Map<String, Object> properties) {
+        ConfigProperties config = new ConfigProperties(getName(), properties);
+        sequence = config.getSequence(sequence);
+        if (config.contains(CFG_AD_WINDOW_SECONDS)) {
+            InterceptorMetrics.getInstance().setWindowSeconds(config.getInt(CFG_AD_WINDOW_SECONDS, 60, 1, 86_400));
+        }
+    }
+
+    /**
+     * Returns this Interceptor's configured sequence number.
+     */
+    @Override
+    public int getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns this Interceptor's name.
+     */
+    @Override
+    public String getName() {
+        return "zOSConnectMetricsInterceptor";
+    }
+
+    /**
+     * z/OS Connect EE calls preInvoke method at point P1.
+     *
+     * The start time is stored in a pooled RequestState in the request state map for P4, so that it is not boxed.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void preInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
+            throws InterceptorException {
+        RequestState state = RequestState.acquire();
+        state.setStartNanos(System.nanoTime());
+        requestStateMap.put(REQUEST_STATE, state);
+    }
+
+    /**
+     * z/OS Connect EE calls postInvoke method at point P4.
+     *
+     * The time since P1 is recorded against the API and the service of the request.  Administration
+     * requests have neither and are not recorded.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void postInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
+            throws InterceptorException {
+        RequestState state = (RequestState) requestStateMap.remove(REQUEST_STATE);
+        if (state == null) {
+            return;
+        }
+        long micros = (System.nanoTime() - state.getStartNanos()) / 1000L;
+        RequestState.release(state);
+
+        InterceptorMetrics metrics = InterceptorMetrics.getInstance();
+        String api = data.getData(Data.API_NAME);
+        if (api != null) {
+            metrics.recordApi(api, micros);
+        }
+        String service = data.getData(Data.SERVICE_NAME);
+        if (service != null) {
+            metrics.recordService(service, micros);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+/**
+ * The OverflowPolicy determines what a RingBuffer does when a request thread publishes an event
+ * and the consumer has not kept up.
+ *
+ * @author IBM
+ */
+public enum OverflowPolicy {
+
+    /**
+     * The event is discarded and counted as dropped.  The request thread never waits.
+     */
+    DROP,
+
+    /**
+     * The request thread waits until the consumer frees a slot.  No events are lost, but a slow
+     * consumer will slow down the requests that publish to it.
+     */
+    BLOCK,
+
+    /**
+     * Once the buffer is half full only one in every N events is accepted, the remainder are counted
+     * as sampled out.  If the buffer fills completely events are dropped.
+     */
+    SAMPLE;
+
+    /**
+     * Returns the policy named by the value, ignoring case, or the default policy if the value is null
+     * or not recognised.
+     *
+     * @param value
+     * @param defaultPolicy
+     */
+    public static OverflowPolicy parse(String value, OverflowPolicy defaultPolicy) {
+        if (value != null) {
+            for (OverflowPolicy policy : values()) {
+                if (policy.name().equalsIgnoreCase(value.trim())) {
+                    return policy;
+                }
+            }
+        }
+        return defaultPolicy;
+    }
+}
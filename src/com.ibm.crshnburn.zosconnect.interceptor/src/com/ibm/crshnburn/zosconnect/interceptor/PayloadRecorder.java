@@ -0,0 +1,102 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The PayloadRecorder class records the sizes, in bytes, of the requests to one API or service.
+ *
+ * The content length of each request is recorded into an all-time histogram and into the histogram for the current
+ * window, rotated in the same way as a LatencyRecorder, and the sizes of the headers are added up.  A request
+ * without a Content-Length header, for example one sent in chunks, is counted but its size is not known.
+ *
+ * @author IBM
+ */
+final class PayloadRecorder {
+
+    /**
+     * Sizes up to 2^36 bytes are recorded accurately.
+     */
+    private static final int MAX_VALUE_BITS = 36;
+
+    private final String name;
+
+    private final ConcurrentHistogram allTime = new ConcurrentHistogram(MAX_VALUE_BITS);
+
+    private volatile ConcurrentHistogram current = new ConcurrentHistogram(MAX_VALUE_BITS);
+
+    private volatile ConcurrentHistogram recent = new ConcurrentHistogram(MAX_VALUE_BITS);
+
+    private ConcurrentHistogram spare = new ConcurrentHistogram(MAX_VALUE_BITS);
+
+    private final LongAdder unknownLength = new LongAdder();
+
+    private final LongAdder headerBytes = new LongAdder();
+
+    PayloadRecorder(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Records the size of a request.
+     *
+     * @param contentLength the length of the request body, or -1 if it is not known
+     * @param headerBytes the length of the request headers
+     */
+    void record(long contentLength, long headerBytes) {
+        if (contentLength >= 0) {
+            allTime.record(contentLength);
+            current.record(contentLength);
+        } else {
+            unknownLength.increment();
+        }
+        this.headerBytes.add(headerBytes);
+    }
+
+    /**
+     * Ends the current window, called only by the scheduler thread.
+     */
+    void rotate() {
+        ConcurrentHistogram next = spare;
+        next.reset();
+        spare = recent;
+        recent = current;
+        current = next;
+    }
+
+    /**
+     * Returns a summary of the all-time and most recent window sizes.
+     *
+     * @param windowSeconds the length of the window, to give the rate of the recent window
+     */
+    PayloadSummary summarize(long windowSeconds) {
+        ConcurrentHistogram window = recent;
+        return new PayloadSummary(name,
+                allTime.getCount(),
+                unknownLength.sum(),
+                allTime.getSum(),
+                headerBytes.sum(),
+                allTime.getValueAtPercentile(50.0),
+                allTime.getValueAtPercentile(99.0),
+                allTime.getMax(),
+                window.getCount(),
+                window.getSum() / Math.max(1L, windowSeconds),
+                window.getValueAtPercentile(99.0),
+                window.getMax());
+    }
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * The PayloadSummary class is the request sizes of one API or service as reported through the
+ * InterceptorMetricsMXBean.  All sizes are in bytes and, except for the header bytes, are the content lengths of
+ * the requests.  The recent values cover the last completed metrics window.
+ *
+ * @author IBM
+ */
+public class PayloadSummary {
+
+    private final String name;
+    private final long count;
+    private final long unknownLength;
+    private final long bytes;
+    private final long headerBytes;
+    private final long p50;
+    private final long p99;
+    private final long max;
+    private final long recentCount;
+    private final long recentBytesPerSecond;
+    private final long recentP99;
+    private final long recentMax;
+
+    @ConstructorProperties({ "name", "count", "unknownLength", "bytes", "headerBytes", "p50", "p99", "max",
+            "recentCount", "recentBytesPerSecond", "recentP99", "recentMax" })
+    public PayloadSummary(String name, long count, long unknownLength, long bytes, long headerBytes, long p50,
+            long p99, long max, long recentCount, long recentBytesPerSecond, long recentP99, long recentMax) {
+        this.name = name;
+        this.count = count;
+        this.unknownLength = unknownLength;
+        this.bytes = bytes;
+        this.headerBytes = headerBytes;
+        this.p50 = p50;
+        this.p99 = p99;
+        this.max = max;
+        this.recentCount = recentCount;
+        this.recentBytesPerSecond = recentBytesPerSecond;
+        this.recentP99 = recentP99;
+        this.recentMax = recentMax;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns the number of requests with a known content length.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Returns the number of requests without a Content-Length header, which are not in the other values.
+     */
+    public long getUnknownLength() {
+        return unknownLength;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Returns the size of the headers of all the requests, including those of unknown content length.
+     */
+    public long getHeaderBytes() {
+        return headerBytes;
+    }
+
+    public long getP50() {
+        return p50;
+    }
+
+    public long getP99() {
+        return p99;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public long getRecentCount() {
+        return recentCount;
+    }
+
+    public long getRecentBytesPerSecond() {
+        return recentBytesPerSecond;
+    }
+
+    public long getRecentP99() {
+        return recentP99;
+    }
+
+    public long getRecentMax() {
+        return recentMax;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * The PriorityClassSummary class is the use of the concurrent request slots by one priority class, as reported
+ * through the InterceptorMetricsMXBean.
+ *
+ * @author IBM
+ */
+public class PriorityClassSummary {
+
+    private final String name;
+    private final String priorityClass;
+    private final int reserved;
+    private final int inUse;
+    private final int borrowed;
+    private final long admitted;
+    private final long waited;
+    private final long rejected;
+
+    @ConstructorProperties({ "name", "priorityClass", "reserved", "inUse", "borrowed", "admitted", "waited",
+            "rejected" })
+    public PriorityClassSummary(String name, String priorityClass, int reserved, int inUse, int borrowed,
+            long admitted, long waited, long rejected) {
+        this.name = name;
+        this.priorityClass = priorityClass;
+        this.reserved = reserved;
+        this.inUse = inUse;
+        this.borrowed = borrowed;
+        this.admitted = admitted;
+        this.waited = waited;
+        this.rejected = rejected;
+    }
+
+    /**
+     * Returns the name of the Interceptor admitting the requests.
+     */
+    public String getName() {
+        return name;
+    }
+
+    public String getPriorityClass() {
+        return priorityClass;
+    }
+
+    /**
+     * Returns the number of slots only this class may use.
+     */
+    public int getReserved() {
+        return reserved;
+    }
+
+    /**
+     * Returns the number of slots in use by requests of this class, including those borrowed.
+     */
+    public int getInUse() {
+        return inUse;
+    }
+
+    /**
+     * Returns the number of slots this class has borrowed from the shared pool.
+     */
+    public int getBorrowed() {
+        return borrowed;
+    }
+
+    public long getAdmitted() {
+        return admitted;
+    }
+
+    /**
+     * Returns the number of requests that had to wait for a slot, whether or not one became free.
+     */
+    public long getWaited() {
+        return waited;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+}
@@ -0,0 +1,383 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import org.osgi.service.component.ComponentContext;
+
+import com.ibm.zosconnect.spi.Data;
+import com.ibm.zosconnect.spi.HttpZosConnectRequest;
+import com.ibm.zosconnect.spi.Interceptor;
+import com.ibm.zosconnect.spi.InterceptorException;
+
+/**
+ * The PriorityInterceptor class is an example of an Interceptor that shares the API provider requests the server
+ * processes at once between priority classes, for example online and batch callers, so that a batch run cannot
+ * take the capacity the online callers need.
+ *
+ * At P1 each request is put in a class by the first rule it matches, on its user, the start of its URI or one of
+ * its headers, and takes a slot from PrioritySlots.  Each class is guaranteed its reserved slots and may borrow
+ * the slots not reserved by any class.  A request that finds no slot free waits up to the configured time for
+ * one, then is rejected with an InterceptorException.  The slot is held in the request state map and released at
+ * P4.
+ *
+ * The classes, their reserved slots and the rules are set on the Interceptor's configuration element in
+ * server.xml and can be changed without restarting the server.  The slots in use and the requests admitted,
+ * made to wait and rejected in each class are published through the InterceptorMetricsMXBean.
+ *
+ * @author IBM
+ */
+public class PriorityInterceptor implements Interceptor {
+
+    /**
+     * Request State Map data element used to pass the slot from P1 to P4.
+     */
+    private static final String SLOT = "PRIORITY_SLOT";
+
+    private static final String CFG_AD_MAX_CONCURRENT = "maxConcurrent";
+
+    private static final String CFG_AD_MAX_WAIT_MILLIS = "maxWaitMillis";
+
+    /**
+     * Configuration attribute holding the reserved slots of each class, as class=slots.
+     */
+    private static final String CFG_AD_CLASS_SLOTS = "classSlots";
+
+    /**
+     * Configuration attribute holding the rules that put requests in classes, as user:name=class,
+     * uri:prefix=class or header:name[:value]=class.
+     */
+    private static final String CFG_AD_CLASS_RULE = "classRule";
+
+    private static final String CFG_AD_DEFAULT_CLASS = "defaultClass";
+
+    private static final int DEFAULT_MAX_CONCURRENT = 100;
+
+    private static final int DEFAULT_MAX_WAIT_MILLIS = 0;
+
+    private static final String DEFAULT_CLASS = "default";
+
+    private static final String RULE_USER = "user";
+
+    private static final String RULE_URI = "uri";
+
+    private static final String RULE_HEADER = "header";
+
+    /**
+     * A rule putting the requests that match it in a class.
+     */
+    private static final class Rule {
+        final String type;
+        final String match;
+        final String value;
+        final PrioritySlots.PriorityClass priorityClass;
+
+        /**
+         * @param type RULE_USER, RULE_URI or RULE_HEADER
+         * @param match the user, a user prefix ending with *, the URI prefix or the header name
+         * @param value the header value, or null to match any value
+         * @param priorityClass
+         */
+        Rule(String type, String match, String value, PrioritySlots.PriorityClass priorityClass) {
+            this.type = type;
+            this.match = match;
+            this.value = value;
+            this.priorityClass = priorityClass;
+        }
+
+        boolean matches(String user, String mappedUser, HttpZosConnectRequest httpZosConnectRequest) {
+            switch (type) {
+            case RULE_USER:
+                return matchesUser(user) || matchesUser(mappedUser);
+            case RULE_URI:
+                String uri = httpZosConnectRequest.getRequestURI();
+                return uri != null && uri.startsWith(match);
+            default:
+                String header = httpZosConnectRequest.getHeader(match);
+                return header != null && (value == null || value.equalsIgnoreCase(header.trim()));
+            }
+        }
+
+        private boolean matchesUser(String user) {
+            if (user == null) {
+                return false;
+            }
+            return match.endsWith("*") ? user.regionMatches(true, 0, match, 0, match.length() - 1)
+                    : user.equalsIgnoreCase(match);
+        }
+    }
+
+    /**
+     * The configured classes and rules, replaced as a whole when the configuration changes.
+     */
+    private static final class Settings {
+        final List<PrioritySlots.PriorityClass> classes;
+        final Rule[] rules;
+        final PrioritySlots.PriorityClass defaultClass;
+        final long maxWaitNanos;
+
+        Settings(List<PrioritySlots.PriorityClass> classes, Rule[] rules, PrioritySlots.PriorityClass defaultClass,
+                int maxWaitMillis) {
+            this.classes = classes;
+            this.rules = rules;
+            this.defaultClass = defaultClass;
+            this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMillis);
+        }
+    }
+
+    /**
+     * The registered sequence number of this Interceptor which determines the order
+     * in which the Interceptor is called in relation to other Interceptors.
+     */
+    private volatile int sequence;
+
+    private final PrioritySlots slots = new PrioritySlots();
+
+    /**
+     * The configured classes by name, kept across configuration changes so that their slots in use are counted
+     * against their new reserved slots.
+     */
+    private final Map<String, PrioritySlots.PriorityClass> classes = new ConcurrentHashMap<>();
+
+    private volatile Settings settings;
+
+    /**
+     * Activates the Interceptor.
+     *
+     * Trace the activation, retrieve the Interceptor's configuration from the Interceptor's
+     * configuration element in server.xml and publish the classes.
+     *
+     * @param context
+     * @param properties
+     */
+    protected void activate(ComponentContext context, Map<String, Object> properties) {
+        InterceptorLog.log(getName(), "activated");
+        configure(properties);
+        InterceptorMetrics.getInstance().addPriorityClasses(this);
+    }
+
+    /**
+     * Deactivates the Interceptor.
+     *
+     * The Interceptor will no longer receive events.
+     *
+     * @param context
+     */
+    protected void deactivate(ComponentContext context) {
+        InterceptorLog.log(getName(), "deactivated");
+        InterceptorMetrics.getInstance().removePriorityClasses(this);
+    }
+
+    /**
+     * Called to signal that the Interceptor's configuration element may have changed in server.xml.
+     * The new classes and rules apply to requests arriving after the change, slots already taken are returned to
+     * the class that took them.
+     *
+     * @param properties
+     */
+    protected void modified(Map<String, Object> properties) {
+        InterceptorLog.log(getName(), "modified");
+        configure(properties);
+    }
+
+    private synchronized void configure(Map<String, Object> properties) {
+        ConfigProperties config = new ConfigProperties(getName(), properties);
+        sequence = config.getSequence(sequence);
+        int maxConcurrent = config.getInt(CFG_AD_MAX_CONCURRENT, DEFAULT_MAX_CONCURRENT, 1, 100_000);
+        int maxWaitMillis = config.getInt(CFG_AD_MAX_WAIT_MILLIS, DEFAULT_MAX_WAIT_MILLIS, 0, 60_000);
+
+        Map<String, Integer> reserved = new LinkedHashMap<>();
+        for (String entry : config.getStrings(CFG_AD_CLASS_SLOTS)) {
+            int eq = entry.lastIndexOf('=');
+            try {
+                int classSlots = Integer.parseInt(entry.substring(eq + 1).trim());
+                String name = entry.substring(0, eq).trim();
+                if (classSlots < 0 || name.isEmpty()) {
+                    throw new IllegalArgumentException();
+                }
+                reserved.put(name, classSlots);
+            } catch (RuntimeException e) {
+                InterceptorLog.log(getName(), "class slots {} ignored, it must be class=slots", entry);
+            }
+        }
+        String defaultClassName = config.getString(CFG_AD_DEFAULT_CLASS, DEFAULT_CLASS);
+        reserved.putIfAbsent(defaultClassName, 0);
+
+        List<String[]> ruleEntries = new ArrayList<>();
+        for (String entry : config.getStrings(CFG_AD_CLASS_RULE)) {
+            String[] rule = parseRule(entry);
+            if (rule == null) {
+                InterceptorLog.log(getName(), "class rule {} ignored, it must be user:name=class, uri:prefix=class or header:name[:value]=class",
+                        entry);
+            } else {
+                ruleEntries.add(rule);
+                reserved.putIfAbsent(rule[3], 0);
+            }
+        }
+
+        int totalReserved = 0;
+        Map<String, PrioritySlots.PriorityClass> configured = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : reserved.entrySet()) {
+            PrioritySlots.PriorityClass priorityClass = classes.computeIfAbsent(entry.getKey(),
+                    name -> new PrioritySlots.PriorityClass(name, 0));
+            priorityClass.reserved = entry.getValue();
+            configured.put(entry.getKey(), priorityClass);
+            totalReserved += entry.getValue();
+        }
+        classes.keySet().retainAll(configured.keySet());
+        if (totalReserved > maxConcurrent) {
+            InterceptorLog.log(getName(), "{} slots reserved by the classes, more than maxConcurrent {}, no slots are shared",
+                    totalReserved, maxConcurrent);
+        }
+        slots.setPoolSize(Math.max(0, maxConcurrent - totalReserved));
+
+        Rule[] rules = new Rule[ruleEntries.size()];
+        for (int i = 0; i < rules.length; i++) {
+            String[] rule = ruleEntries.get(i);
+            rules[i] = new Rule(rule[0], rule[1], rule[2], configured.get(rule[3]));
+        }
+        settings = new Settings(new ArrayList<>(configured.values()), rules, configured.get(defaultClassName),
+                maxWaitMillis);
+    }
+
+    /**
+     * Parses a class rule.
+     *
+     * @param entry the rule, as user:name=class, uri:prefix=class or header:name[:value]=class
+     *
+     * @return the rule's type, match, header value or null and class, or null if the rule is not valid
+     */
+    private static String[] parseRule(String entry) {
+        int eq = entry.lastIndexOf('=');
+        int colon = entry.indexOf(':');
+        if (eq < 0 || colon < 0 || colon > eq) {
+            return null;
+        }
+        String type = entry.substring(0, colon).trim().toLowerCase();
+        String match = entry.substring(colon + 1, eq).trim();
+        String className = entry.substring(eq + 1).trim();
+        String value = null;
+        if (RULE_HEADER.equals(type)) {
+            int valueColon = match.indexOf(':');
+            if (valueColon >= 0) {
+                value = match.substring(valueColon + 1).trim();
+                match = match.substring(0, valueColon).trim();
+            }
+        } else if (!RULE_USER.equals(type) && !RULE_URI.equals(type)) {
+            return null;
+        }
+        if (match.isEmpty() || className.isEmpty()) {
+            return null;
+        }
+        return new String[] { type, match, value, className };
+    }
+
+    /**
+     * Returns the use of the slots by each class.
+     */
+    PriorityClassSummary[] summarize() {
+        Settings current = settings;
+        return current == null ? new PriorityClassSummary[0]
+                : current.classes.stream().map(priorityClass -> priorityClass.summarize(getName()))
+                        .toArray(PriorityClassSummary[]::new);
+    }
+
+    /**
+     * Returns this Interceptor's configured sequence number.
+     */
+    @Override
+    public int getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns this Interceptor's name.
+     */
+    @Override
+    public String getName() {
+        return "zOSConnectPriorityInterceptor";
+    }
+
+    /**
+     * z/OS Connect EE calls preInvoke method at point P1.
+     *
+     * The request is put in a class and takes a slot, waiting for one if none is free.  If none becomes free in
+     * time an InterceptorException is thrown and the request is not processed.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void preInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
+            throws InterceptorException {
+        Settings current = settings;
+        if (current == null) {
+            return;
+        }
+
+        Principal principal = httpZosConnectRequest.getUserPrincipal();
+        String user = principal != null ? principal.getName().trim() : null;
+        String mappedUser = data.getData(Data.USER_NAME_MAPPED);
+
+        PrioritySlots.PriorityClass priorityClass = current.defaultClass;
+        for (Rule rule : current.rules) {
+            if (rule.matches(user, mappedUser, httpZosConnectRequest)) {
+                priorityClass = rule.priorityClass;
+                break;
+            }
+        }
+
+        PrioritySlots.Slot slot = slots.acquire(priorityClass, current.maxWaitNanos);
+        if (slot == null) {
+            InterceptorLog.log(getName(), "preInvoke InterceptorException - P1 - No slot free in priority class {} for user {}",
+                    priorityClass.name, user);
+            throw new InterceptorException("Request not processed for user " + user + ", no slot free in priority class "
+                    + priorityClass.name);
+        }
+        requestStateMap.put(SLOT, slot);
+    }
+
+    /**
+     * z/OS Connect EE calls postInvoke method at point P4.
+     *
+     * The request's slot is released.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void postInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
+            throws InterceptorException {
+        PrioritySlots.Slot slot = (PrioritySlots.Slot) requestStateMap.remove(SLOT);
+        if (slot != null) {
+            slots.release(slot);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The PrioritySlots class shares a number of concurrent request slots between priority classes, so that each
+ * class is guaranteed a number of slots however busy the others are.
+ *
+ * Each class has its reserved slots, which only its requests use.  The slots not reserved by any class form a
+ * shared pool, and a request whose class is using all of its own slots borrows one from the pool.  A class can
+ * therefore use up to its reserved slots plus the whole pool, but never the slots reserved by another class,
+ * which are kept free for that class's next requests.  Slots are counted in atomics and taken with
+ * compare-and-set.  A request that finds no slot may wait a limited time for one, waiting requests are woken when
+ * any slot is released.
+ *
+ * The reserved slots and the size of the pool can be changed at any time.  Slots already taken are not affected,
+ * a class over its new limit takes no more until enough of its requests have completed.
+ *
+ * @author IBM
+ */
+final class PrioritySlots {
+
+    /**
+     * A slot taken by a request, returned to its class or to the pool when the request completes.  Each class has
+     * one Slot for its own slots and one for the slots it borrows, so taking a slot does not allocate.
+     */
+    static final class Slot {
+        final PriorityClass priorityClass;
+        final boolean borrowed;
+
+        Slot(PriorityClass priorityClass, boolean borrowed) {
+            this.priorityClass = priorityClass;
+            this.borrowed = borrowed;
+        }
+    }
+
+    /**
+     * A priority class and its counts.
+     */
+    static final class PriorityClass {
+        final String name;
+        volatile int reserved;
+        final AtomicInteger own = new AtomicInteger();
+        final AtomicInteger borrowed = new AtomicInteger();
+        final LongAdder admitted = new LongAdder();
+        final LongAdder waited = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final Slot ownSlot = new Slot(this, false);
+        final Slot borrowedSlot = new Slot(this, true);
+
+        PriorityClass(String name, int reserved) {
+            this.name = name;
+            this.reserved = reserved;
+        }
+
+        PriorityClassSummary summarize(String interceptorName) {
+            return new PriorityClassSummary(interceptorName, name, reserved, own.get() + borrowed.get(),
+                    borrowed.get(), admitted.sum(), waited.sum(), rejected.sum());
+        }
+    }
+
+    private volatile int poolSize;
+
+    private final AtomicInteger poolUsed = new AtomicInteger();
+
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    private final Object released = new Object();
+
+    /**
+     * Sets the number of slots shared by all classes.
+     *
+     * @param poolSize
+     */
+    void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+        wake();
+    }
+
+    /**
+     * Takes one of a class's own slots, or borrows one from the pool, without waiting.
+     *
+     * @return the slot or null if there is none
+     */
+    private Slot tryTake(PriorityClass priorityClass) {
+        for (;;) {
+            int own = priorityClass.own.get();
+            if (own >= priorityClass.reserved) {
+                break;
+            }
+            if (priorityClass.own.compareAndSet(own, own + 1)) {
+                return priorityClass.ownSlot;
+            }
+        }
+        for (;;) {
+            int used = poolUsed.get();
+            if (used >= poolSize) {
+                return null;
+            }
+            if (poolUsed.compareAndSet(used, used + 1)) {
+                priorityClass.borrowed.incrementAndGet();
+                return priorityClass.borrowedSlot;
+            }
+        }
+    }
+
+    /**
+     * Takes a slot for a request, waiting for one if there is none.
+     *
+     * @param priorityClass the request's class
+     * @param maxWaitNanos the longest time to wait, 0 not to wait
+     *
+     * @return the slot or null if none became free in time
+     */
+    Slot acquire(PriorityClass priorityClass, long maxWaitNanos) {
+        Slot slot = tryTake(priorityClass);
+        if (slot == null && maxWaitNanos > 0L) {
+            priorityClass.waited.increment();
+            slot = await(priorityClass, maxWaitNanos);
+        }
+        if (slot == null) {
+            priorityClass.rejected.increment();
+        } else {
+            priorityClass.admitted.increment();
+        }
+        return slot;
+    }
+
+    /**
+     * Waits for a slot.  The waiter is counted before it looks for a slot, so a slot released after it looked
+     * always wakes it.
+     */
+    private Slot await(PriorityClass priorityClass, long maxWaitNanos) {
+        long deadline = System.nanoTime() + maxWaitNanos;
+        synchronized (released) {
+            waiters.incrementAndGet();
+            try {
+                for (;;) {
+                    Slot slot = tryTake(priorityClass);
+                    long remaining = deadline - System.nanoTime();
+                    if (slot != null || remaining <= 0L) {
+                        return slot;
+                    }
+                    TimeUnit.NANOSECONDS.timedWait(released, remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            } finally {
+                waiters.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Returns a slot.
+     *
+     * @param slot
+     */
+    void release(Slot slot) {
+        if (slot.borrowed) {
+            slot.priorityClass.borrowed.decrementAndGet();
+            poolUsed.decrementAndGet();
+        } else {
+            slot.priorityClass.own.decrementAndGet();
+        }
+        wake();
+    }
+
+    private void wake() {
+        if (waiters.get() > 0) {
+            synchronized (released) {
+                released.notifyAll();
+            }
+        }
+    }
+
+    int getPoolSize() {
+        return poolSize;
+    }
+
+    int getPoolUsed() {
+        return poolUsed.get();
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+
+import org.osgi.service.component.ComponentContext;
+
+import com.ibm.zosconnect.spi.Data;
+import com.ibm.zosconnect.spi.HttpZosConnectRequest;
+import com.ibm.zosconnect.spi.Interceptor;
+import com.ibm.zosconnect.spi.InterceptorException;
+
+/**
+ * The RateLimitInterceptor class is an example of an Interceptor that limits the rate at which each user may
+ * make API provider requests, so that a single runaway client cannot use all of the System of Record capacity
+ * behind the server.
+ *
+ * The user is resolved at P1 in the same way as the SimpleInterceptorImpl, and a token is taken from that user's
+ * token bucket.  If the bucket is empty an InterceptorException is thrown and the request is not processed.
+ * The rate, the burst size and how long an idle user's bucket is kept are set on the Interceptor's configuration
+ * element in server.xml.
+ *
+ * @author IBM
+ */
+public class RateLimitInterceptor implements Interceptor {
+
+    private static final String CFG_AD_RATE = "rate";
+
+    private static final String CFG_AD_BURST = "burst";
+
+    private static final String CFG_AD_IDLE_SECONDS = "idleSeconds";
+
+    private static final int DEFAULT_RATE = 100;
+
+    private static final int DEFAULT_BURST = 200;
+
+    private static final int DEFAULT_IDLE_SECONDS = 300;
+
+    /**
+     * How often idle buckets are evicted.
+     */
+    private static final long EVICTION_PERIOD_MILLIS = 30_000L;
+
+    /**
+     * The registered sequence number of this Interceptor which determines the order
+     * in which the Interceptor is called in relation to other Interceptors.
+     */
+    private volatile int sequence;
+
+    private final UserRateLimiter limiter = new UserRateLimiter(DEFAULT_RATE, DEFAULT_BURST, DEFAULT_IDLE_SECONDS);
+
+    private ScheduledFuture<?> eviction;
+
+    /**
+     * Activates the Interceptor.
+     *
+     * Trace the activation, retrieve the Interceptor's configuration from the Interceptor's
+     * configuration element in server.xml and start evicting idle buckets.
+     *
+     * @param context
+     * @param properties
+     */
+    protected void activate(ComponentContext context, Map<String, Object> properties) {
+        InterceptorLog.log(getName(), "activated");
+        configure(properties);
+        eviction = InterceptorScheduler.schedule(getName(), limiter::evictIdle, EVICTION_PERIOD_MILLIS);
+    }
+
+    /**
+     * Deactivates the Interceptor.
+     *
+     * The Interceptor will no longer receive events.
+     *
+     * @param context
+     */
+    protected void deactivate(ComponentContext context) {
+        InterceptorLog.log(getName(), "deactivated");
+        InterceptorScheduler.cancel(eviction);
+        eviction = null;
+    }
+
+    /**
+     * Called to signal that the Interceptor's configuration element may have changed in server.xml.
+     * The new limits apply to the existing buckets.
+     *
+     * @param properties
+     */
+    protected void modified(Map<String, Object> properties) {
+        InterceptorLog.log(getName(), "modified");
+        configure(properties);
+    }
+
+    private void configure(Map<String, Object> properties) {
+        ConfigProperties config = new ConfigProperties(getName(), properties);
+        sequence = config.getSequence(sequence);
+        limiter.setLimits(config.getInt(CFG_AD_RATE, DEFAULT_RATE, 1, 1_000_000),
+                config.getInt(CFG_AD_BURST, DEFAULT_BURST, 1, 1_000_000),
+                config.getInt(CFG_AD_IDLE_SECONDS, DEFAULT_IDLE_SECONDS, 1, 86_400));
+    }
+
+    /**
+     * Returns this Interceptor's configured sequence number.
+     */
+    @Override
+    public int getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns this Interceptor's name.
+     */
+    @Override
+    public String getName() {
+        return "zOSConnectRateLimitInterceptor";
+    }
+
+    /**
+     * z/OS Connect EE calls preInvoke method at point P1.
+     *
+     * A token is taken from the user's bucket, if there is none an InterceptorException is thrown and
+     * the request is not processed.  Requests without an authenticated user share a single bucket.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void preInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
+            throws InterceptorException {
+
+        /*
+         * The identity's display name is the same String for every request by the user, so the bucket
+         * lookup uses its cached hash code.
+         */
+        Principal principal = httpZosConnectRequest.getUserPrincipal();
+        String user = UserIdentities.getInstance().resolve(principal != null ? principal.getName() : null,
+                data.getData(Data.USER_NAME_MAPPED)).getDisplayName();
+
+        if (!limiter.tryAcquire(user)) {
+            InterceptorLog.log(getName(), "preInvoke InterceptorException - P1 - Rate limit exceeded for user {}", user);
+            throw new InterceptorException("Request not processed for user " + user + ", rate limit exceeded");
+        }
+    }
+
+    /**
+     * z/OS Connect EE calls postInvoke method at point P4, there is nothing to do.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void postInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
+            throws InterceptorException {
+    }
+}
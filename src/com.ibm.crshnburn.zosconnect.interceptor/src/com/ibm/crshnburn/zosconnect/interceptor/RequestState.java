@@ -0,0 +1,350 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * The RequestState class is the state a sample Interceptor keeps for one request, stored in the request state map
+ * under a single key in place of a map entry for each value.  The Interceptor points called are recorded as bits
+ * of a mask rather than by concatenating strings, times are held as primitives, and the objects used to measure
+ * and trace the request are reused.
+ *
+ * A RequestState is taken from a pool at the first point of a request and returned at the last, so that a request
+ * allocates nothing for its state once the pool is warm.  The pool is divided into stripes chosen by thread, each
+ * holding a few states in an AtomicReferenceArray, so threads seldom touch the same slots and no lock is taken.
+ * A state is returned to the stripe of the thread that completes the request, which need not be the thread that
+ * started it.  When a stripe is empty a new state is created, and when it is full a returned state is left to the
+ * garbage collector, so a request that never reaches its last point does no harm.
+ *
+ * A state must not be used after it has been released, and nothing that refers to it may be passed to the
+ * InterceptorLog, which formats its arguments later on another thread.
+ *
+ * @author IBM
+ */
+final class RequestState {
+
+    /**
+     * The API provider points, preInvoke, preSorInvoke, postSorInvoke and postInvoke.
+     */
+    static final int P1 = 1;
+
+    static final int P2 = 1 << 1;
+
+    static final int P3 = 1 << 2;
+
+    static final int P4 = 1 << 3;
+
+    /**
+     * The API requester points, preInvokeRequester, preEndpointInvoke, postEndpointInvoke and postInvokeRequester.
+     */
+    static final int R1 = 1 << 4;
+
+    static final int R2 = 1 << 5;
+
+    static final int R3 = 1 << 6;
+
+    static final int R4 = 1 << 7;
+
+    private static final String[] POINT_NAMES = { "P1", "P2", "P3", "P4", "R1", "R2", "R3", "R4" };
+
+    /**
+     * The names of every combination of points, so that the points called can be logged without building a string.
+     */
+    private static final String[] CALL_POINTS = new String[1 << POINT_NAMES.length];
+
+    static {
+        for (int mask = 0; mask < CALL_POINTS.length; mask++) {
+            StringBuilder sb = new StringBuilder();
+            for (int point = 0; point < POINT_NAMES.length; point++) {
+                if ((mask & (1 << point)) != 0) {
+                    sb.append(POINT_NAMES[point]);
+                }
+            }
+            CALL_POINTS[mask] = sb.toString();
+        }
+    }
+
+    private static final int STRIPES = stripes();
+
+    private static final int SLOTS_PER_STRIPE = 8;
+
+    private static final AtomicReferenceArray<RequestState> POOL = new AtomicReferenceArray<>(STRIPES * SLOTS_PER_STRIPE);
+
+    private int callPoints;
+
+    private long p1EpochNanos = StoreClock.UNAVAILABLE;
+
+    private long startNanos;
+
+    private UserIdentity identity;
+
+    private String sorIdentifier;
+
+    private long contentLength = -1L;
+
+    private long headerBytes;
+
+    private final StageLatency stages = new StageLatency();
+
+    private RequestTrace trace;
+
+    private long traceIdHigh;
+
+    private long traceIdLow;
+
+    private long spanId;
+
+    private long parentSpanId;
+
+    private boolean spanSampled;
+
+    private long childSpanId;
+
+    private long childStartEpochNanos = StoreClock.UNAVAILABLE;
+
+    private RequestState() {
+    }
+
+    /**
+     * Returns the number of stripes, the power of two at or above twice the number of processors.
+     */
+    private static int stripes() {
+        int processors = Runtime.getRuntime().availableProcessors();
+        return Integer.highestOneBit(Math.max(1, processors * 2 - 1)) << 1;
+    }
+
+    private static int stripeStart() {
+        return (int) (Thread.currentThread().getId() & (STRIPES - 1)) * SLOTS_PER_STRIPE;
+    }
+
+    /**
+     * Takes a cleared state from the pool, or creates one if the thread's stripe is empty.
+     */
+    static RequestState acquire() {
+        int start = stripeStart();
+        for (int slot = start; slot < start + SLOTS_PER_STRIPE; slot++) {
+            if (POOL.get(slot) != null) {
+                RequestState state = POOL.getAndSet(slot, null);
+                if (state != null) {
+                    return state;
+                }
+            }
+        }
+        return new RequestState();
+    }
+
+    /**
+     * Clears a state and returns it to the pool.
+     *
+     * @param state the state, which may be null if the request did not create one
+     */
+    static void release(RequestState state) {
+        if (state == null) {
+            return;
+        }
+        state.clear();
+        int start = stripeStart();
+        for (int slot = start; slot < start + SLOTS_PER_STRIPE; slot++) {
+            if (POOL.get(slot) == null && POOL.compareAndSet(slot, null, state)) {
+                return;
+            }
+        }
+    }
+
+    private void clear() {
+        callPoints = 0;
+        p1EpochNanos = StoreClock.UNAVAILABLE;
+        startNanos = 0L;
+        identity = null;
+        sorIdentifier = null;
+        contentLength = -1L;
+        headerBytes = 0L;
+        traceIdHigh = 0L;
+        traceIdLow = 0L;
+        spanId = 0L;
+        parentSpanId = 0L;
+        spanSampled = false;
+        childSpanId = 0L;
+        childStartEpochNanos = StoreClock.UNAVAILABLE;
+        if (trace != null) {
+            trace.clear();
+        }
+    }
+
+    /**
+     * Records that a point has been called.
+     *
+     * @param point one of P1 to P4 or R1 to R4
+     */
+    void called(int point) {
+        callPoints |= point;
+    }
+
+    /**
+     * Returns the points called so far, for example P1P2P3.
+     */
+    String getCallPoints() {
+        return CALL_POINTS[callPoints];
+    }
+
+    long getP1EpochNanos() {
+        return p1EpochNanos;
+    }
+
+    void setP1EpochNanos(long p1EpochNanos) {
+        this.p1EpochNanos = p1EpochNanos;
+    }
+
+    /**
+     * Returns the System.nanoTime at which the request started, for measuring its latency.
+     */
+    long getStartNanos() {
+        return startNanos;
+    }
+
+    void setStartNanos(long startNanos) {
+        this.startNanos = startNanos;
+    }
+
+    /**
+     * Returns the identity of the user and mapped user.
+     */
+    UserIdentity getIdentity() {
+        return identity;
+    }
+
+    void setIdentity(UserIdentity identity) {
+        this.identity = identity;
+    }
+
+    String getSorIdentifier() {
+        return sorIdentifier;
+    }
+
+    void setSorIdentifier(String sorIdentifier) {
+        this.sorIdentifier = sorIdentifier;
+    }
+
+    /**
+     * Returns the length of the request body, or -1 if it is not known.
+     */
+    long getContentLength() {
+        return contentLength;
+    }
+
+    long getHeaderBytes() {
+        return headerBytes;
+    }
+
+    void setRequestSize(long contentLength, long headerBytes) {
+        this.contentLength = contentLength;
+        this.headerBytes = headerBytes;
+    }
+
+    /**
+     * Returns the state's StageLatency, to be computed at P4.
+     */
+    StageLatency getStages() {
+        return stages;
+    }
+
+    /**
+     * Starts holding back the request's trace messages, reusing the state's trace if it has the same capacity.
+     *
+     * @param capacity
+     * @param sampled
+     *
+     * @return the trace
+     */
+    RequestTrace startTrace(int capacity, boolean sampled) {
+        if (trace == null || trace.getCapacity() != capacity) {
+            trace = new RequestTrace(capacity);
+        }
+        trace.start(sampled);
+        return trace;
+    }
+
+    /**
+     * Returns the request's trace, or null if its trace messages are not being held back.
+     */
+    RequestTrace getTrace() {
+        return trace != null && trace.isStarted() ? trace : null;
+    }
+
+    /**
+     * Sets the W3C trace context of the request's span.
+     *
+     * @param traceIdHigh the high 64 bits of the trace id
+     * @param traceIdLow the low 64 bits of the trace id
+     * @param spanId the id of the request's span
+     * @param parentSpanId the id of the caller's span, or 0 if the span is a root
+     * @param sampled true if the span is to be exported
+     */
+    void setSpan(long traceIdHigh, long traceIdLow, long spanId, long parentSpanId, boolean sampled) {
+        this.traceIdHigh = traceIdHigh;
+        this.traceIdLow = traceIdLow;
+        this.spanId = spanId;
+        this.parentSpanId = parentSpanId;
+        this.spanSampled = sampled;
+    }
+
+    long getTraceIdHigh() {
+        return traceIdHigh;
+    }
+
+    long getTraceIdLow() {
+        return traceIdLow;
+    }
+
+    /**
+     * Returns the id of the request's span, or 0 if no span has been started.
+     */
+    long getSpanId() {
+        return spanId;
+    }
+
+    long getParentSpanId() {
+        return parentSpanId;
+    }
+
+    boolean isSpanSampled() {
+        return spanSampled;
+    }
+
+    /**
+     * Starts the span of a call made by the request, for example to the SoR.
+     *
+     * @param childSpanId
+     * @param startEpochNanos
+     */
+    void startChildSpan(long childSpanId, long startEpochNanos) {
+        this.childSpanId = childSpanId;
+        this.childStartEpochNanos = startEpochNanos;
+    }
+
+    /**
+     * Returns the id of the span of the call, or 0 if no call has started.
+     */
+    long getChildSpanId() {
+        return childSpanId;
+    }
+
+    long getChildStartEpochNanos() {
+        return childStartEpochNanos;
+    }
+}
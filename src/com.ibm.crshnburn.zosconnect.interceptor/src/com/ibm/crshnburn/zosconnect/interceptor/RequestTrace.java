@@ -0,0 +1,129 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.util.Arrays;
+
+/**
+ * The RequestTrace class holds back the trace messages of one request so that the decision to write them can be
+ * made when the request completes.  Each message is kept unformatted, with its arguments and the time it was
+ * recorded, in arrays sized when the trace is created.  Messages beyond the capacity are counted but not kept.
+ *
+ * A trace belongs to a RequestState and is reused with it.  A request's Interceptor points are called one after
+ * another, so a trace is not shared between threads and takes no locks.
+ *
+ * @author IBM
+ */
+final class RequestTrace {
+
+    /**
+     * The number of array elements used by each message: the message and its three arguments.
+     */
+    private static final int STRIDE = 4;
+
+    private final long[] times;
+
+    private final Object[] entries;
+
+    private boolean started;
+
+    private boolean sampled;
+
+    private int size;
+
+    private int dropped;
+
+    /**
+     * @param capacity the number of messages kept
+     */
+    RequestTrace(int capacity) {
+        this.times = new long[capacity];
+        this.entries = new Object[capacity * STRIDE];
+    }
+
+    int getCapacity() {
+        return times.length;
+    }
+
+    /**
+     * Starts holding back the messages of a request.
+     *
+     * @param sampled true if the request was chosen by the head sample, so the trace is kept however the request
+     *            completes
+     */
+    void start(boolean sampled) {
+        this.started = true;
+        this.sampled = sampled;
+    }
+
+    boolean isStarted() {
+        return started;
+    }
+
+    boolean isSampled() {
+        return sampled;
+    }
+
+    /**
+     * Records a message, replacing each {} in the message with the next argument when it is written.
+     *
+     * @param message
+     * @param arg0
+     * @param arg1
+     * @param arg2
+     */
+    void add(String message, Object arg0, Object arg1, Object arg2) {
+        if (size == times.length) {
+            dropped++;
+            return;
+        }
+        times[size] = System.currentTimeMillis();
+        int entry = size * STRIDE;
+        entries[entry] = message;
+        entries[entry + 1] = arg0;
+        entries[entry + 2] = arg1;
+        entries[entry + 3] = arg2;
+        size++;
+    }
+
+    /**
+     * Writes the messages to the InterceptorLog with the times they were recorded.
+     *
+     * @param source the name of the Interceptor
+     */
+    void write(String source) {
+        for (int i = 0; i < size; i++) {
+            int entry = i * STRIDE;
+            InterceptorLog.logAt(times[i], source, (String) entries[entry], entries[entry + 1], entries[entry + 2],
+                    entries[entry + 3]);
+        }
+        if (dropped > 0) {
+            InterceptorLog.log(source, "{} trace messages were not kept", dropped);
+        }
+    }
+
+    /**
+     * Discards the messages so that the trace can be reused.
+     */
+    void clear() {
+        Arrays.fill(entries, 0, size * STRIDE, null);
+        size = 0;
+        dropped = 0;
+        started = false;
+        sampled = false;
+    }
+}
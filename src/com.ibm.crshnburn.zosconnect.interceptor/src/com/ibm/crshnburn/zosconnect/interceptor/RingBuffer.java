@@ -0,0 +1,210 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * The RingBuffer class is a bounded, lock-free, multi-producer single-consumer queue of preallocated slots.
+ *
+ * Request threads claim a sequence number, fill in the slot for that sequence and then publish it.  A single
+ * background thread drains the published slots in sequence order.  The slots are created once when the buffer
+ * is built and reused, so publishing an event does not allocate.
+ *
+ * When the buffer is full the configured OverflowPolicy decides whether the event is dropped, the request thread
+ * waits, or only a sample of the events are accepted.  The number of events lost is available from the
+ * getDroppedCount and getSampledOutCount methods.
+ *
+ * @param <E> the slot type
+ *
+ * @author IBM
+ */
+public final class RingBuffer<E> {
+
+    /**
+     * Time a request thread parks for while waiting for space with the BLOCK policy.
+     */
+    private static final long BLOCK_PARK_NANOS = 50_000L;
+
+    private final Object[] slots;
+
+    /**
+     * For each slot the sequence number most recently published into it.
+     */
+    private final AtomicLongArray published;
+
+    private final int mask;
+
+    private final OverflowPolicy policy;
+
+    private final int sampleRate;
+
+    private final long sampleThreshold;
+
+    /**
+     * The next sequence number to be claimed by a producer.
+     */
+    private final AtomicLong tail = new AtomicLong();
+
+    /**
+     * The next sequence number to be consumed, only written by the consumer thread.
+     */
+    private volatile long head;
+
+    private volatile boolean closed;
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private final AtomicLong sampledOut = new AtomicLong();
+
+    private final AtomicLong sampleCounter = new AtomicLong();
+
+    /**
+     * Creates a ring buffer.
+     *
+     * @param capacity the number of slots, rounded up to a power of two
+     * @param slotFactory creates each of the preallocated slots
+     * @param policy what to do when the buffer is full
+     * @param sampleRate with the SAMPLE policy, one in this many events is accepted under pressure
+     */
+    public RingBuffer(int capacity, Supplier<E> slotFactory, OverflowPolicy policy, int sampleRate) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new Object[size];
+        this.published = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            slots[i] = slotFactory.get();
+            published.set(i, -1L);
+        }
+        this.mask = size - 1;
+        this.policy = policy;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.sampleThreshold = size / 2;
+    }
+
+    /**
+     * Claims the next slot for a producer.
+     *
+     * @return the claimed sequence number, or -1 if the event is not accepted
+     */
+    public long claim() {
+        for (;;) {
+            long t = tail.get();
+            long used = t - head;
+            if (used >= slots.length) {
+                if (policy == OverflowPolicy.BLOCK && !closed) {
+                    LockSupport.parkNanos(BLOCK_PARK_NANOS);
+                    continue;
+                }
+                dropped.incrementAndGet();
+                return -1L;
+            }
+            if (policy == OverflowPolicy.SAMPLE && used >= sampleThreshold
+                    && sampleCounter.incrementAndGet() % sampleRate != 0) {
+                sampledOut.incrementAndGet();
+                return -1L;
+            }
+            if (tail.compareAndSet(t, t + 1)) {
+                return t;
+            }
+        }
+    }
+
+    /**
+     * Returns the slot for a claimed sequence number.
+     *
+     * @param sequence
+     */
+    @SuppressWarnings("unchecked")
+    public E get(long sequence) {
+        return (E) slots[(int) sequence & mask];
+    }
+
+    /**
+     * Makes a claimed and filled slot visible to the consumer.
+     *
+     * @param sequence
+     */
+    public void publish(long sequence) {
+        published.lazySet((int) sequence & mask, sequence);
+    }
+
+    /**
+     * Passes up to max published slots, in sequence order, to the handler.  Must only be called
+     * by the single consumer thread.  The handler must not keep a reference to the slot.
+     *
+     * @param handler
+     * @param max
+     *
+     * @return the number of slots drained
+     */
+    public int drain(Consumer<E> handler, int max) {
+        long h = head;
+        int count = 0;
+        while (count < max) {
+            int index = (int) h & mask;
+            if (published.get(index) != h) {
+                break;
+            }
+            @SuppressWarnings("unchecked")
+            E slot = (E) slots[index];
+            handler.accept(slot);
+            h++;
+            count++;
+            head = h;
+        }
+        return count;
+    }
+
+    /**
+     * Returns true if every claimed slot has been drained.
+     */
+    public boolean isEmpty() {
+        return tail.get() == head;
+    }
+
+    /**
+     * Stops producers from waiting for space, used when the consumer is shutting down.
+     */
+    public void close() {
+        closed = true;
+    }
+
+    /**
+     * Returns the number of slots in the buffer.
+     */
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    /**
+     * Returns the number of events dropped because the buffer was full.
+     */
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Returns the number of events discarded by the SAMPLE policy.
+     */
+    public long getSampledOutCount() {
+        return sampledOut.get();
+    }
+}
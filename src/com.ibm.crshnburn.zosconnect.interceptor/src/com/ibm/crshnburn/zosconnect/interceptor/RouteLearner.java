@@ -0,0 +1,137 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+import com.ibm.zosconnect.spi.Data;
+import com.ibm.zosconnect.spi.DataRequester;
+
+/**
+ * The RouteLearner class learns which target each route of requests calls, for an Interceptor that guards a
+ * target but can only reject a request before it knows the request's target.  A target is a System of Record or
+ * an API requester endpoint, and a route is the service or API of an API provider request or the API requester
+ * of an API requester request.
+ *
+ * Each target has a guard, for example its AdaptiveLimit, created the first time the target is called.  The target
+ * of a route is learned every time a request along the route reaches the point at which its target is known, and
+ * is looked up at the first point of the next request, so the first requests along a new route are not checked.
+ * The routes and the guards are each bounded at MAX_ENTRIES, beyond which new ones are not tracked.
+ *
+ * @param <T> the type of the guards
+ *
+ * @author IBM
+ */
+final class RouteLearner<T> {
+
+    /**
+     * The maximum number of routes and of targets tracked.
+     */
+    static final int MAX_ENTRIES = 1000;
+
+    private final Function<String, T> factory;
+
+    /**
+     * The guard of each target, by target name.
+     */
+    private final Map<String, T> guards = new ConcurrentHashMap<>();
+
+    /**
+     * The target last called along each route.
+     */
+    private final Map<String, String> routes = new ConcurrentHashMap<>();
+
+    /**
+     * @param factory creates the guard of a target from its name
+     */
+    RouteLearner(Function<String, T> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * Returns the route of an API provider request, its service name or, if there is none, its API name.
+     */
+    static String route(Data data) {
+        String service = data.getData(Data.SERVICE_NAME);
+        return service != null ? service : data.getData(Data.API_NAME);
+    }
+
+    /**
+     * Returns the route of an API requester request, its API requester name.
+     */
+    static String route(DataRequester data) {
+        return data.getData(DataRequester.API_REQUESTER_NAME);
+    }
+
+    /**
+     * Returns the target of an API requester request, its endpoint as host:port, or null if it is not known yet.
+     */
+    static String endpoint(DataRequester data) {
+        String host = data.getData(DataRequester.ENDPOINT_HOST);
+        return host != null ? host + ":" + data.getData(DataRequester.ENDPOINT_PORT) : null;
+    }
+
+    /**
+     * Returns the guard of the target last called along a route.
+     *
+     * @param route the route, may be null
+     *
+     * @return the guard, or null if the route's target has not been learned
+     */
+    T lookup(String route) {
+        String target = route != null ? routes.get(route) : null;
+        return target != null ? guards.get(target) : null;
+    }
+
+    /**
+     * Returns the guard of a target, creating it the first time the target is called.
+     *
+     * @param target
+     *
+     * @return the guard, or null if the target is not tracked because MAX_ENTRIES targets already are
+     */
+    T guard(String target) {
+        T guard = guards.get(target);
+        if (guard == null && guards.size() < MAX_ENTRIES) {
+            guard = guards.computeIfAbsent(target, factory);
+        }
+        return guard;
+    }
+
+    /**
+     * Records the target a request along a route called.
+     *
+     * @param route the route, may be null
+     * @param target
+     */
+    void learn(String route, String target) {
+        if (route != null && !target.equals(routes.get(route))
+                && (routes.size() < MAX_ENTRIES || routes.containsKey(route))) {
+            routes.put(route, target);
+        }
+    }
+
+    /**
+     * Returns the guards of the targets called so far.
+     */
+    Collection<T> guards() {
+        return guards.values();
+    }
+}
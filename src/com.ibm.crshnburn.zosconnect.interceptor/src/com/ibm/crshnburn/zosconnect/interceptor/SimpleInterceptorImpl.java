@@ -16,11 +16,12 @@
 */
 package com.ibm.crshnburn.zosconnect.interceptor;
 
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.security.Principal;
-import java.text.DateFormat;
-import java.text.SimpleDateFormat;
-import java.util.Date;
 import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
 
 import org.osgi.service.component.ComponentContext;
 
@@ -66,7 +67,9 @@ import com.ibm.zosconnect.spi.InterceptorException;
  * preInvoke method at P1 and at postInvoke at P4.
  *
  * This Interceptor also shows an example of how the request can be validated at preInvoke and the request terminated
- * if the validation fails.
+ * if the validation fails.  The validation is done by an AccessPolicy compiled from the policy rules on the
+ * Interceptor's configuration element in server.xml.  The default policy rejects users whose name starts with "EX".
+ * If a denylist file is configured, requests from users or mapped users in the denylist are also rejected.
  *
  * @author IBM
  */
@@ -75,23 +78,77 @@ public class SimpleInterceptorImpl implements Interceptor {
     /**
      * Request State Map data element used to accrue data across P1, and P4.
      */
-    private static final String CALL_POINTS = "CALL_POINTSP1P4";
+    private static final String REQUEST_STATE = "SIMPLE_REQUEST_STATE";
+
+    /**
+     * Configuration attribute holding the ordered access policy rules.
+     */
+    private static final String CFG_AD_POLICY = "policy";
+
+    /**
+     * Configuration attribute holding the decision, allow or deny, when no policy rule matches.
+     */
+    private static final String CFG_AD_POLICY_DEFAULT = "policyDefault";
+
+    /**
+     * Configuration attribute holding the number of policy decisions to cache.
+     */
+    private static final String CFG_AD_POLICY_CACHE_SIZE = "policyCacheSize";
+
+    /**
+     * Configuration attribute holding the path of the compiled denylist file.
+     */
+    private static final String CFG_AD_DENYLIST_FILE = "denylistFile";
+
+    /**
+     * Configuration attribute holding how often the denylist file is checked for changes.
+     */
+    private static final String CFG_AD_DENYLIST_CHECK_SECONDS = "denylistCheckSeconds";
+
+    private static final String DEFAULT_POLICY_RULE = "deny user=EX*";
+
+    private static final String POLICY_ALLOW = "allow";
+
+    private static final String POLICY_DENY = "deny";
+
+    private static final int DEFAULT_DENYLIST_CHECK_SECONDS = 30;
+
+    private static final int DEFAULT_POLICY_CACHE_SIZE = 4096;
 
     /**
      * The registered sequence number of this Interceptor which determines the order
      * in which the Interceptor is called in relation to other Interceptors.
      */
-    private int sequence;
+    private volatile int sequence;
+
+    /**
+     * The access policy and denylist checked at P1, replaced as a whole when either changes.
+     */
+    private static final class Settings {
+        final AccessPolicy policy;
+        final Denylist denylist;
+
+        Settings(AccessPolicy policy, Denylist denylist) {
+            this.policy = policy;
+            this.denylist = denylist;
+        }
+    }
 
     /**
-     * Date time formatter for logging.
+     * The compiled access policy, replaced when the configuration changes, and the mapped denylist, or null if
+     * none is configured, replaced when the file changes.
      */
-    private DateFormat df = SimpleDateFormat.getDateTimeInstance();
+    private volatile Settings settings = new Settings(
+            AccessPolicy.compile(new String[] { DEFAULT_POLICY_RULE }, true, DEFAULT_POLICY_CACHE_SIZE), null);
+
+    private Path denylistPath;
+
+    private ScheduledFuture<?> denylistCheck;
 
     /**
      * Activates the Interceptor.
      *
-     * Trace the activation and retrieve the Interceptor's sequence number from
+     * Trace the activation and retrieve the Interceptor's sequence number and access policy from
      * the Interceptor's configuration element in server.xml.
      *
      * @param context
@@ -99,10 +156,11 @@ public class SimpleInterceptorImpl implements Interceptor {
      */
     protected void activate(ComponentContext context, Map<String, Object> properties) {
 
-        System.out.println(getName() + " activated");
-        if (properties.containsKey(CFG_AD_SEQUENCE_ALIAS)) {
-            sequence = (Integer) properties.get(CFG_AD_SEQUENCE_ALIAS);
-        }
+        InterceptorLog.log(getName(), "activated");
+        ConfigProperties config = new ConfigProperties(getName(), properties);
+        sequence = config.getSequence(sequence);
+        compilePolicy(config);
+        configureDenylist(config);
     }
 
     /**
@@ -113,13 +171,17 @@ public class SimpleInterceptorImpl implements Interceptor {
      * @param context
      */
     protected void deactivate(ComponentContext context) {
-        System.out.println(getName() + " deactivated");
+        InterceptorLog.log(getName(), "deactivated");
+        synchronized (this) {
+            InterceptorScheduler.cancel(denylistCheck);
+            denylistCheck = null;
+        }
     }
 
     /**
      * Called to signal that the Interceptor's configuration element may have changed in server.xml.
      *
-     * Trace the activation and retrieve the Interceptor's sequence number from
+     * Trace the activation and retrieve the Interceptor's sequence number and access policy from
      * the Interceptor's configuration element in server.xml.
      *
      * @param context
@@ -127,9 +189,77 @@ public class SimpleInterceptorImpl implements Interceptor {
      */
     protected void modified(Map<String, Object> properties) {
 
-        System.out.println(getName() + " modified");
-        if (properties.containsKey(CFG_AD_SEQUENCE_ALIAS)) {
-            sequence = (Integer) properties.get(CFG_AD_SEQUENCE_ALIAS);
+        InterceptorLog.log(getName(), "modified");
+        ConfigProperties config = new ConfigProperties(getName(), properties);
+        sequence = config.getSequence(sequence);
+        compilePolicy(config);
+        configureDenylist(config);
+    }
+
+    /**
+     * Compiles the policy rules and replaces the current policy.  If a rule is not valid the error
+     * is logged and the current policy is kept.
+     *
+     * @param config
+     */
+    private synchronized void compilePolicy(ConfigProperties config) {
+        String[] ruleArray = config.getStrings(CFG_AD_POLICY, DEFAULT_POLICY_RULE);
+        boolean defaultAllowed = !POLICY_DENY.equals(config.getChoice(CFG_AD_POLICY_DEFAULT, POLICY_ALLOW,
+                POLICY_ALLOW, POLICY_DENY));
+        int cacheSize = config.getInt(CFG_AD_POLICY_CACHE_SIZE, DEFAULT_POLICY_CACHE_SIZE, 16, 1_048_576);
+
+        try {
+            settings = new Settings(AccessPolicy.compile(ruleArray, defaultAllowed, cacheSize), settings.denylist);
+            InterceptorLog.log(getName(), "compiled {} policy rules", ruleArray.length);
+        } catch (IllegalArgumentException e) {
+            InterceptorLog.log(getName(), "policy not changed, {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Maps the configured denylist file and schedules a periodic check for a new version of the file.
+     *
+     * @param config
+     */
+    private synchronized void configureDenylist(ConfigProperties config) {
+        InterceptorScheduler.cancel(denylistCheck);
+        denylistCheck = null;
+
+        String file = config.getString(CFG_AD_DENYLIST_FILE, null);
+        if (file == null) {
+            denylistPath = null;
+            settings = new Settings(settings.policy, null);
+            return;
+        }
+        Path path = Paths.get(file);
+        if (!path.equals(denylistPath)) {
+            denylistPath = path;
+            settings = new Settings(settings.policy, null);
+        }
+        reloadDenylist();
+
+        long periodMillis = config.getInt(CFG_AD_DENYLIST_CHECK_SECONDS, DEFAULT_DENYLIST_CHECK_SECONDS, 1, 86_400)
+                * 1000L;
+        denylistCheck = InterceptorScheduler.schedule(getName(), this::reloadDenylist, periodMillis);
+    }
+
+    /**
+     * Maps the denylist file if it has changed and swaps it in.  Request threads continue to use the
+     * previous version until the new one is published.  If the file cannot be mapped the previous
+     * version is kept.
+     */
+    private synchronized void reloadDenylist() {
+        Path path = denylistPath;
+        Denylist current = settings.denylist;
+        if (path == null || (current != null && !current.isStale(path))) {
+            return;
+        }
+        try {
+            Denylist next = Denylist.open(path);
+            settings = new Settings(settings.policy, next);
+            InterceptorLog.log(getName(), "denylist {} loaded with {} names", path, next.size());
+        } catch (IOException e) {
+            InterceptorLog.log(getName(), "denylist {} not loaded, {}", path, e.getMessage());
         }
     }
 
@@ -178,44 +308,63 @@ public class SimpleInterceptorImpl implements Interceptor {
     public void preInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
             throws InterceptorException {
 
-        System.out.println(getName() + " preInvoke - P1");
+        InterceptorLog.log(getName(), "preInvoke - P1");
         String path = httpZosConnectRequest.getRequestURI().trim();
 
         /*
-         * Get the user name for message display
+         * Get the user's identity, which holds the user name for message display.  A user seen before
+         * is found in the shared identity cache without building any strings.
          */
         Principal principal = httpZosConnectRequest.getUserPrincipal();
-        String user = "<unknown>";
-        if(principal != null){
-            user = principal.getName().trim();
-        }
+        UserIdentity identity = UserIdentities.getInstance().resolve(principal != null ? principal.getName() : null,
+                data.getData(Data.USER_NAME_MAPPED));
+        identity.requested();
 
-        if (data.getData(Data.USER_NAME_MAPPED) != null) {
-            user += " (" + data.getData(Data.USER_NAME_MAPPED) + ")";
+        /*
+         * Reject users and mapped users that are in the denylist, the identity remembers the decision.
+         */
+        Settings current = settings;
+        Denylist deny = current.denylist;
+        if (deny != null && identity.isDenied(deny)) {
+            identity.rejected();
+            if (identity.getMappedUser() != null) {
+                InterceptorLog.log(getName(), "preInvoke InterceptorException - P1 - Denied user {} ({})",
+                        identity.getUser(), identity.getMappedUser());
+            } else {
+                InterceptorLog.log(getName(), "preInvoke InterceptorException - P1 - Denied user {}", identity.getUser());
+            }
+            throw new InterceptorException("Request not processed for user " + identity.getUser());
         }
 
+        String user = identity.getDisplayName();
+
         /*
-         * Validate the user, if the userid starts with "EX" then this is an Example id
-         * and is not allowed to run API provider requests.
+         * Validate the request against the access policy.  The default policy denies userids starting
+         * with "EX" as these are Example ids and are not allowed to run API provider requests.
          */
-        if (user.startsWith("EX")) {
+        AccessPolicy.Decision decision = current.policy.evaluate(user, path, httpZosConnectRequest.getMethod(),
+                data.getRequestType());
+        if (!decision.isAllowed()) {
             /*
-             * Unable to process this request on behalf of an Operations userid.
+             * Unable to process this request on behalf of this userid.
              */
-            System.out.println(getName() + " preInvoke InterceptorException - P1 - Bad user");
+            identity.rejected();
+            InterceptorLog.log(getName(), "preInvoke InterceptorException - P1 - Bad user, policy rule {}", decision.getRule());
             throw new InterceptorException("Request not processed for user " + user);
         }
 
         /*
-         * Store that this point has been called.
+         * Store that this point has been called, in a RequestState taken from the pool.
          */
-        requestStateMap.put(CALL_POINTS, "P1");
+        RequestState state = RequestState.acquire();
+        state.called(RequestState.P1);
+        requestStateMap.put(REQUEST_STATE, state);
 
         /*
          * Tell the user
          */
-        System.out.println(String.format("User %s called URI %s at %s", user, path, df.format(new Date())));
-        System.out.println(getName() + " preInvoke exit - P1");
+        InterceptorLog.log(getName(), "User {} called URI {}", user, path);
+        InterceptorLog.log(getName(), "preInvoke exit - P1");
     }
 
     /**
@@ -240,17 +389,22 @@ public class SimpleInterceptorImpl implements Interceptor {
     @Override
     public void postInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
             throws InterceptorException {
-        System.out.println(getName() + " postInvoke - P4");
+        InterceptorLog.log(getName(), "postInvoke - P4");
 
         /*
          * Add the call point P4, the final value will be P1P4.
-         * This shows how a data element can be passed between the methods.
+         * This shows how a data element can be passed between the methods.  The request state is
+         * removed from the map and returned to the pool as it is no longer needed.
          */
-        String callPoints = requestStateMap.get(CALL_POINTS) + "P4";
-        System.out.println(getName() + " Interceptor points called were: " + callPoints);
+        RequestState state = (RequestState) requestStateMap.remove(REQUEST_STATE);
+        if (state != null) {
+            state.called(RequestState.P4);
+            InterceptorLog.log(getName(), "Interceptor points called were: {}", state.getCallPoints());
+            RequestState.release(state);
+        }
 
-        System.out.println("The request completed with HTTP Response Code " + data.getData(Data.HTTP_RESPONSE_CODE));
+        InterceptorLog.log(getName(), "The request completed with HTTP Response Code {}", data.getData(Data.HTTP_RESPONSE_CODE));
 
-        System.out.println(getName() + " postInvoke exit - P4");
+        InterceptorLog.log(getName(), "postInvoke exit - P4");
     }
 }
@@ -54,11 +54,17 @@ import com.ibm.zosconnect.spi.InterceptorRequester;
  */
 public class SimpleInterceptorRequesterImpl implements InterceptorRequester {
 
+	/**
+	 * Request State Map data element used to accrue the points called, preInvokeRequester R1 and
+	 * postInvokeRequester R4, held in a RequestState taken from a pool.
+	 */
+	private static final String REQUEST_STATE = "SIMPLE_REQUESTER_REQUEST_STATE";
+
 	/**
      * The registered sequence number of this Interceptor which determines the order
      * in which the Interceptor is called in relation to other Interceptors.
      */
-    private int sequence;
+    private volatile int sequence;
     
     /**
      * Activates the Interceptor.
@@ -71,10 +77,8 @@ public class SimpleInterceptorRequesterImpl implements InterceptorRequester {
      */
     protected void activate(ComponentContext context, Map<String, Object> properties) {
 
-        System.out.println(getName() + " activated");
-        if (properties.containsKey(CFG_AD_SEQUENCE_ALIAS)) {
-            sequence = (Integer) properties.get(CFG_AD_SEQUENCE_ALIAS);
-        }
+        InterceptorLog.log(getName(), "activated");
+        sequence = new ConfigProperties(getName(), properties).getSequence(sequence);
     }
 
     /**
@@ -85,7 +89,7 @@ public class SimpleInterceptorRequesterImpl implements InterceptorRequester {
      * @param context
      */
     protected void deactivate(ComponentContext context) {
-        System.out.println(getName() + " deactivated");
+        InterceptorLog.log(getName(), "deactivated");
     }
 
     /**
@@ -99,10 +103,8 @@ public class SimpleInterceptorRequesterImpl implements InterceptorRequester {
      */
     protected void modified(Map<String, Object> properties) {
 
-        System.out.println(getName() + " modified");
-        if (properties.containsKey(CFG_AD_SEQUENCE_ALIAS)) {
-            sequence = (Integer) properties.get(CFG_AD_SEQUENCE_ALIAS);
-        }
+        InterceptorLog.log(getName(), "modified");
+        sequence = new ConfigProperties(getName(), properties).getSequence(sequence);
     }
     
     /**
@@ -139,12 +141,19 @@ public class SimpleInterceptorRequesterImpl implements InterceptorRequester {
      */
 	@Override
 	public void preInvokeRequester(Map<Object, Object> requestStateMap, DataRequester data) throws InterceptorException {
-		System.out.println(getName() + " preInvokeRequester entry ");
+		InterceptorLog.log(getName(), "preInvokeRequester entry");
+
+		/*
+		 * Store that this point has been called.
+		 */
+		RequestState state = RequestState.acquire();
+		state.called(RequestState.R1);
+		requestStateMap.put(REQUEST_STATE, state);
 		
-		System.out.println("Invoking the API requester " + data.getData(DataRequester.API_REQUESTER_NAME) + 
-		                   " verion " + data.getData(DataRequester.API_REQUESTER_VERSION));
+		InterceptorLog.log(getName(), "Invoking the API requester {} verion {}",
+		                   data.getData(DataRequester.API_REQUESTER_NAME), data.getData(DataRequester.API_REQUESTER_VERSION));
 		
-		System.out.println(getName() + " preInvokeRequester exit");
+		InterceptorLog.log(getName(), "preInvokeRequester exit");
 	}
 	
 	/**
@@ -160,11 +169,22 @@ public class SimpleInterceptorRequesterImpl implements InterceptorRequester {
      */
 	@Override
 	public void postInvokeRequester(Map<Object, Object> requestStateMap, DataRequester data) throws InterceptorException {
-		System.out.println(getName() + " postInvokeRequester entry");
+		InterceptorLog.log(getName(), "postInvokeRequester entry");
+
+		/*
+		 * Add the call point R4, the final value will be R1R4.  The request state is removed from
+		 * the map and returned to the pool as it is no longer needed.
+		 */
+		RequestState state = (RequestState) requestStateMap.remove(REQUEST_STATE);
+		if (state != null) {
+			state.called(RequestState.R4);
+			InterceptorLog.log(getName(), "Interceptor points called were: {}", state.getCallPoints());
+			RequestState.release(state);
+		}
 		
-		System.out.println("API requester returning to calling application with " + data.getData(DataRequester.REQUEST_STATUS_CODE));
+		InterceptorLog.log(getName(), "API requester returning to calling application with {}", data.getData(DataRequester.REQUEST_STATUS_CODE));
 		
-		System.out.println(getName() + " postInvokeRequester exit");
+		InterceptorLog.log(getName(), "postInvokeRequester exit");
 	}
 	
 	/**
@@ -172,8 +192,8 @@ public class SimpleInterceptorRequesterImpl implements InterceptorRequester {
      */
 	@Override
 	public void preInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest request, Data data) throws InterceptorException {
-		System.out.println(getName() + " preInvoke");
-		System.out.println(getName() + " preInvoke exit");
+		InterceptorLog.log(getName(), "preInvoke");
+		InterceptorLog.log(getName(), "preInvoke exit");
 	}
 	
 	/**
@@ -182,8 +202,8 @@ public class SimpleInterceptorRequesterImpl implements InterceptorRequester {
 	@Override
 	public void postInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest request, Data data)
 			throws InterceptorException {
-		System.out.println(getName() + " postInvoke");
-		System.out.println(getName() + " postInvoke exit");
+		InterceptorLog.log(getName(), "postInvoke");
+		InterceptorLog.log(getName(), "postInvoke exit");
 	}
 	
 }
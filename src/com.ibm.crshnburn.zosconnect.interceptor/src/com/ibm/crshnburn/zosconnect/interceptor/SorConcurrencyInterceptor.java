@@ -0,0 +1,286 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.util.Map;
+
+import org.osgi.service.component.ComponentContext;
+
+import com.ibm.zosconnect.spi.Data;
+import com.ibm.zosconnect.spi.HttpZosConnectRequest;
+import com.ibm.zosconnect.spi.InterceptorException;
+import com.ibm.zosconnect.spi.ServiceProviderInterceptor;
+
+/**
+ * The SorConcurrencyInterceptor class is an example of a ServiceProviderInterceptor that limits the number of
+ * calls in flight to each System of Record, so that requests are rejected at P1 rather than queuing inside a
+ * saturated CICS region or IMS system.
+ *
+ * Each SoR, identified by Data.SOR_IDENTIFIER, has an AdaptiveLimit that is raised while the SoR responds
+ * at its normal latency and lowered when its latency rises or calls fail.  The SoR latency is measured from P2 to P3.
+ *
+ * The SoR is not known at P1, so the Interceptor learns which SoR each service calls the first time the
+ * service reaches P2.  From then on a permit is taken at P1, and if none is available an InterceptorException
+ * is thrown.  A request whose service has not been seen yet is admitted and counted from P2.  The permit is
+ * held in the request state map and returned at P4 whatever the outcome of the request, and is removed from
+ * the map when it is returned so that it can never be returned twice.
+ *
+ * The limits and in-flight counts are published through the InterceptorMetricsMXBean.
+ *
+ * @author IBM
+ */
+public class SorConcurrencyInterceptor implements ServiceProviderInterceptor {
+
+    /**
+     * Request State Map data element used to pass the permit from P1 to P4.
+     */
+    private static final String PERMIT = "SOR_CONCURRENCY_PERMIT";
+
+    private static final String CFG_AD_INITIAL_LIMIT = "initialLimit";
+
+    private static final String CFG_AD_MIN_LIMIT = "minLimit";
+
+    private static final String CFG_AD_MAX_LIMIT = "maxLimit";
+
+    private static final String CFG_AD_LATENCY_TOLERANCE = "latencyTolerance";
+
+    private static final String CFG_AD_BACKOFF = "backoff";
+
+    private static final int DEFAULT_INITIAL_LIMIT = 20;
+
+    private static final int DEFAULT_MIN_LIMIT = 1;
+
+    private static final int DEFAULT_MAX_LIMIT = 200;
+
+    private static final int DEFAULT_LATENCY_TOLERANCE = 200;
+
+    private static final int DEFAULT_BACKOFF = 90;
+
+    /**
+     * A permit held by one request.
+     */
+    private static final class Permit {
+        final AdaptiveLimit limit;
+        long sorStart;
+        long sorLatency = -1L;
+
+        Permit(AdaptiveLimit limit) {
+            this.limit = limit;
+        }
+    }
+
+    /**
+     * The registered sequence number of this Interceptor which determines the order
+     * in which the Interceptor is called in relation to other Interceptors.
+     */
+    private volatile int sequence;
+
+    private volatile AdaptiveLimit.Settings settings = new AdaptiveLimit.Settings(DEFAULT_INITIAL_LIMIT,
+            DEFAULT_MIN_LIMIT, DEFAULT_MAX_LIMIT, DEFAULT_LATENCY_TOLERANCE, DEFAULT_BACKOFF);
+
+    /**
+     * The limit of each SoR, by SoR identifier, and the SoR last called by each service or API.
+     */
+    private final RouteLearner<AdaptiveLimit> limits = new RouteLearner<>(name -> new AdaptiveLimit(name, settings));
+
+    /**
+     * Activates the Interceptor.
+     *
+     * Trace the activation, retrieve the Interceptor's configuration from the Interceptor's
+     * configuration element in server.xml and publish the limits.
+     *
+     * @param context
+     * @param properties
+     */
+    protected void activate(ComponentContext context, Map<String, Object> properties) {
+        InterceptorLog.log(getName(), "activated");
+        configure(properties);
+        InterceptorMetrics.getInstance().addSorLimiter(this);
+    }
+
+    /**
+     * Deactivates the Interceptor.
+     *
+     * The Interceptor will no longer receive events.
+     *
+     * @param context
+     */
+    protected void deactivate(ComponentContext context) {
+        InterceptorLog.log(getName(), "deactivated");
+        InterceptorMetrics.getInstance().removeSorLimiter(this);
+    }
+
+    /**
+     * Called to signal that the Interceptor's configuration element may have changed in server.xml.
+     * The limits already learned are kept, the new bounds apply as they next change.
+     *
+     * @param properties
+     */
+    protected void modified(Map<String, Object> properties) {
+        InterceptorLog.log(getName(), "modified");
+        configure(properties);
+    }
+
+    private void configure(Map<String, Object> properties) {
+        ConfigProperties config = new ConfigProperties(getName(), properties);
+        sequence = config.getSequence(sequence);
+        settings = new AdaptiveLimit.Settings(config.getInt(CFG_AD_INITIAL_LIMIT, DEFAULT_INITIAL_LIMIT, 1, 100_000),
+                config.getInt(CFG_AD_MIN_LIMIT, DEFAULT_MIN_LIMIT, 1, 100_000),
+                config.getInt(CFG_AD_MAX_LIMIT, DEFAULT_MAX_LIMIT, 1, 100_000),
+                config.getInt(CFG_AD_LATENCY_TOLERANCE, DEFAULT_LATENCY_TOLERANCE, 100, 10_000),
+                config.getInt(CFG_AD_BACKOFF, DEFAULT_BACKOFF, 10, 99));
+    }
+
+    /**
+     * Returns the state of the limit of each SoR.
+     */
+    ConcurrencySummary[] summarize() {
+        return limits.guards().stream().map(AdaptiveLimit::summarize).toArray(ConcurrencySummary[]::new);
+    }
+
+    /**
+     * Returns this Interceptor's configured sequence number.
+     */
+    @Override
+    public int getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns this Interceptor's name.
+     */
+    @Override
+    public String getName() {
+        return "zOSConnectSorConcurrencyInterceptor";
+    }
+
+    /**
+     * z/OS Connect EE calls preInvoke method at point P1.
+     *
+     * If the SoR the request's service calls is known, a permit is taken from its limit.  If none is available
+     * an InterceptorException is thrown and the request is not processed.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void preInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
+            throws InterceptorException {
+        AdaptiveLimit limit = limits.lookup(RouteLearner.route(data));
+        if (limit == null) {
+            return;
+        }
+        if (!limit.tryAcquire()) {
+            InterceptorLog.log(getName(), "preInvoke InterceptorException - P1 - Concurrency limit reached for SoR {}",
+                    limit.getName());
+            throw new InterceptorException("Request not processed, concurrency limit reached for SoR "
+                    + limit.getName());
+        }
+        requestStateMap.put(PERMIT, new Permit(limit));
+    }
+
+    /**
+     * z/OS Connect EE calls preSorInvoke method at point P2 in the Service Provider.
+     *
+     * The SoR called by the service is learned.  If the request was not admitted against this SoR's limit at
+     * P1 it is counted now, and the SoR start time is taken.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     */
+    @Override
+    public void preSorInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data) {
+        String sor = data.getData(Data.SOR_IDENTIFIER);
+        if (sor == null) {
+            return;
+        }
+
+        Permit permit = (Permit) requestStateMap.get(PERMIT);
+        if (permit == null || !permit.limit.getName().equals(sor)) {
+            AdaptiveLimit limit = limits.guard(sor);
+            if (permit != null) {
+                permit.limit.release();
+                requestStateMap.remove(PERMIT);
+                permit = null;
+            }
+            if (limit != null) {
+                limit.acquire();
+                permit = new Permit(limit);
+                requestStateMap.put(PERMIT, permit);
+            }
+        }
+
+        limits.learn(RouteLearner.route(data), sor);
+
+        if (permit != null) {
+            permit.sorStart = System.nanoTime();
+        }
+    }
+
+    /**
+     * z/OS Connect EE calls postSorInvoke method at point P3 in the Service Provider.
+     *
+     * The SoR latency is taken.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     */
+    @Override
+    public void postSorInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data) {
+        Permit permit = (Permit) requestStateMap.get(PERMIT);
+        if (permit != null && permit.sorStart != 0L) {
+            permit.sorLatency = System.nanoTime() - permit.sorStart;
+        }
+    }
+
+    /**
+     * z/OS Connect EE calls postInvoke method at point P4.
+     *
+     * The permit is returned.  If the SoR was called, its latency and whether the request failed or timed out
+     * adjust the SoR's limit.  A request that was called at P2 but not at P3 is treated as failed.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void postInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
+            throws InterceptorException {
+        Permit permit = (Permit) requestStateMap.remove(PERMIT);
+        if (permit == null) {
+            return;
+        }
+
+        if (permit.sorStart == 0L) {
+            permit.limit.release();
+        } else if (permit.sorLatency < 0L) {
+            permit.limit.release(System.nanoTime() - permit.sorStart, true, settings);
+        } else {
+            Integer responseCode = data.getData(Data.HTTP_RESPONSE_CODE);
+            boolean failed = Boolean.TRUE.equals(data.getData(Data.REQUEST_TIMED_OUT))
+                    || (responseCode != null && responseCode >= 500);
+            permit.limit.release(permit.sorLatency, failed, settings);
+        }
+    }
+}
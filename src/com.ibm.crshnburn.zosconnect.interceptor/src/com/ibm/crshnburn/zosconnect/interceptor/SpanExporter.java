@@ -0,0 +1,400 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * The SpanExporter class exports the spans recorded by the TracingInterceptor in batches, on a background thread,
+ * as OpenTelemetry OTLP/JSON.
+ *
+ * A request thread claims a preallocated Span from a RingBuffer, fills it in and publishes it, so recording a span
+ * neither allocates nor blocks.  If the buffer is full the span is dropped and counted.  The exporter thread
+ * drains the buffer, builds an ExportTraceServiceRequest of up to the batch size spans, and sends it when the batch
+ * is full or the export interval has passed since its first span.
+ *
+ * A batch is either appended as one line to a file, in the format read by the OpenTelemetry Collector's
+ * otlpjsonfile receiver, or posted to the OTLP/HTTP endpoint of a collector on the same system.  Endpoints on
+ * other systems are refused, so trace data does not leave the LPAR unless a local collector sends it.
+ *
+ * @author IBM
+ */
+final class SpanExporter {
+
+    static final int KIND_INTERNAL = 1;
+
+    static final int KIND_SERVER = 2;
+
+    static final int KIND_CLIENT = 3;
+
+    static final int STATUS_UNSET = 0;
+
+    static final int STATUS_ERROR = 2;
+
+    private static final String SCOPE_NAME = "com.ibm.crshnburn.zosconnect.interceptor";
+
+    private static final long IDLE_PARK_NANOS = 10_000_000L;
+
+    private static final int CONNECT_TIMEOUT_MILLIS = 2000;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    /**
+     * A preallocated ring buffer slot holding one span.
+     */
+    static final class Span {
+        static final int MAX_ATTRIBUTES = 8;
+        long sequence;
+        long traceIdHigh;
+        long traceIdLow;
+        long spanId;
+        long parentSpanId;
+        String name;
+        int kind;
+        long startEpochNanos;
+        long endEpochNanos;
+        int status;
+        int attributeCount;
+        final String[] attributeKeys = new String[MAX_ATTRIBUTES];
+        final Object[] attributeValues = new Object[MAX_ATTRIBUTES];
+
+        /**
+         * Adds a String or Integer attribute, ignoring a null value.
+         *
+         * @param key
+         * @param value
+         *
+         * @return this span
+         */
+        Span attribute(String key, Object value) {
+            if (value != null && attributeCount < MAX_ATTRIBUTES) {
+                attributeKeys[attributeCount] = key;
+                attributeValues[attributeCount] = value;
+                attributeCount++;
+            }
+            return this;
+        }
+
+        void clear() {
+            name = null;
+            for (int i = 0; i < attributeCount; i++) {
+                attributeKeys[i] = null;
+                attributeValues[i] = null;
+            }
+            attributeCount = 0;
+        }
+    }
+
+    private final RingBuffer<Span> buffer;
+
+    private final FileChannel channel;
+
+    private final URL endpoint;
+
+    private final String serviceName;
+
+    private final int batchSize;
+
+    private final long exportIntervalNanos;
+
+    private final Thread exporter;
+
+    private volatile boolean running = true;
+
+    private final AtomicLong exported = new AtomicLong();
+
+    private final AtomicLong failed = new AtomicLong();
+
+    /*
+     * The following fields are only used by the exporter thread.
+     */
+    private final Consumer<Span> appendSpan = this::append;
+
+    private final StringBuilder batch = new StringBuilder(64 * 1024);
+
+    private int batched;
+
+    private long batchStart;
+
+    private final byte[] drainBuffer = new byte[1024];
+
+    private SpanExporter(FileChannel channel, URL endpoint, String serviceName, int capacity, int batchSize,
+            long exportIntervalMillis) {
+        this.channel = channel;
+        this.endpoint = endpoint;
+        this.serviceName = serviceName;
+        this.batchSize = Math.max(1, batchSize);
+        this.exportIntervalNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1L, exportIntervalMillis));
+        this.buffer = new RingBuffer<>(capacity, Span::new, OverflowPolicy.DROP, 1);
+        this.exporter = new Thread(this::exportLoop, "SampleInterceptorSpanExporter");
+        this.exporter.setDaemon(true);
+    }
+
+    /**
+     * Starts an exporter that appends each batch to a file as a line of JSON.
+     *
+     * @param file
+     * @param serviceName the service.name resource attribute
+     * @param capacity the number of spans buffered
+     * @param batchSize the most spans in a batch
+     * @param exportIntervalMillis the longest a span waits for its batch to fill
+     *
+     * @throws IOException if the file cannot be opened
+     */
+    static SpanExporter toFile(Path file, String serviceName, int capacity, int batchSize, long exportIntervalMillis)
+            throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND);
+        return start(new SpanExporter(channel, null, serviceName, capacity, batchSize, exportIntervalMillis));
+    }
+
+    /**
+     * Starts an exporter that posts each batch to an OTLP/HTTP collector on this system.
+     *
+     * @param endpoint the collector's traces URL, for example http://localhost:4318/v1/traces
+     * @param serviceName the service.name resource attribute
+     * @param capacity the number of spans buffered
+     * @param batchSize the most spans in a batch
+     * @param exportIntervalMillis the longest a span waits for its batch to fill
+     *
+     * @throws IOException if the URL is not valid or its host is not a loopback address
+     */
+    static SpanExporter toCollector(String endpoint, String serviceName, int capacity, int batchSize,
+            long exportIntervalMillis) throws IOException {
+        URL url = new URL(endpoint);
+        if (!"http".equals(url.getProtocol()) && !"https".equals(url.getProtocol())) {
+            throw new IOException("the collector endpoint " + endpoint + " is not an http URL");
+        }
+        if (!InetAddress.getByName(url.getHost()).isLoopbackAddress()) {
+            throw new IOException("the collector endpoint " + endpoint + " is not on this system");
+        }
+        return start(new SpanExporter(null, url, serviceName, capacity, batchSize, exportIntervalMillis));
+    }
+
+    private static SpanExporter start(SpanExporter exporter) {
+        exporter.exporter.start();
+        return exporter;
+    }
+
+    /**
+     * Claims a span for a request thread to fill in and publish.
+     *
+     * @return the span, or null if the buffer is full and the span is dropped
+     */
+    Span claim() {
+        long sequence = buffer.claim();
+        if (sequence < 0L) {
+            return null;
+        }
+        Span span = buffer.get(sequence);
+        span.sequence = sequence;
+        return span;
+    }
+
+    /**
+     * Makes a claimed and filled span visible to the exporter thread.
+     *
+     * @param span
+     */
+    void publish(Span span) {
+        buffer.publish(span.sequence);
+    }
+
+    /**
+     * Stops the exporter thread once the spans already published have been exported.
+     *
+     * @throws InterruptedException
+     */
+    void close() throws InterruptedException {
+        running = false;
+        buffer.close();
+        exporter.join();
+    }
+
+    long getExportedCount() {
+        return exported.get();
+    }
+
+    long getFailedCount() {
+        return failed.get();
+    }
+
+    long getDroppedCount() {
+        return buffer.getDroppedCount();
+    }
+
+    /**
+     * The exporter thread, drains the ring buffer into batches and exports each when it is full or old enough.
+     */
+    private void exportLoop() {
+        while (running) {
+            int drained = buffer.drain(appendSpan, batchSize - batched);
+            if (batched >= batchSize || (batched > 0 && System.nanoTime() - batchStart >= exportIntervalNanos)) {
+                export();
+            } else if (drained == 0) {
+                LockSupport.parkNanos(IDLE_PARK_NANOS);
+            }
+        }
+        while (buffer.drain(appendSpan, batchSize - batched) > 0) {
+            export();
+        }
+        export();
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                failed.incrementAndGet();
+            }
+        }
+    }
+
+    private void append(Span span) {
+        if (batched == 0) {
+            batchStart = System.nanoTime();
+            batch.setLength(0);
+            batch.append("{\"resourceSpans\":[{\"resource\":{\"attributes\":[");
+            appendAttribute("service.name", serviceName);
+            batch.append("]},\"scopeSpans\":[{\"scope\":{\"name\":\"").append(SCOPE_NAME).append("\"},\"spans\":[");
+        } else {
+            batch.append(',');
+        }
+        batch.append("{\"traceId\":\"");
+        appendHex(span.traceIdHigh);
+        appendHex(span.traceIdLow);
+        batch.append("\",\"spanId\":\"");
+        appendHex(span.spanId);
+        if (span.parentSpanId != 0L) {
+            batch.append("\",\"parentSpanId\":\"");
+            appendHex(span.parentSpanId);
+        }
+        batch.append("\",\"name\":");
+        appendString(span.name);
+        batch.append(",\"kind\":").append(span.kind);
+        batch.append(",\"startTimeUnixNano\":\"").append(span.startEpochNanos);
+        batch.append("\",\"endTimeUnixNano\":\"").append(span.endEpochNanos);
+        batch.append("\",\"attributes\":[");
+        for (int i = 0; i < span.attributeCount; i++) {
+            if (i > 0) {
+                batch.append(',');
+            }
+            appendAttribute(span.attributeKeys[i], span.attributeValues[i]);
+        }
+        batch.append("],\"status\":{\"code\":").append(span.status).append("}}");
+        span.clear();
+        batched++;
+    }
+
+    private void appendAttribute(String key, Object value) {
+        batch.append("{\"key\":");
+        appendString(key);
+        if (value instanceof Integer) {
+            batch.append(",\"value\":{\"intValue\":\"").append(value).append("\"}}");
+        } else {
+            batch.append(",\"value\":{\"stringValue\":");
+            appendString(String.valueOf(value));
+            batch.append("}}");
+        }
+    }
+
+    private void appendHex(long value) {
+        for (int shift = 60; shift >= 0; shift -= 4) {
+            batch.append(HEX[(int) (value >>> shift) & 0xF]);
+        }
+    }
+
+    private void appendString(String value) {
+        batch.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                batch.append('\\').append(c);
+            } else if (c < 0x20) {
+                batch.append("\\u00").append(HEX[c >>> 4]).append(HEX[c & 0xF]);
+            } else {
+                batch.append(c);
+            }
+        }
+        batch.append('"');
+    }
+
+    /**
+     * Completes the batch and writes it to the file or posts it to the collector.  A batch that cannot be
+     * exported is dropped and counted.
+     */
+    private void export() {
+        if (batched == 0) {
+            return;
+        }
+        batch.append("]}]}]}");
+        int count = batched;
+        batched = 0;
+        try {
+            if (channel != null) {
+                batch.append('\n');
+                ByteBuffer out = StandardCharsets.UTF_8.encode(batch.toString());
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+            } else {
+                post(batch.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            exported.addAndGet(count);
+        } catch (IOException e) {
+            if (failed.getAndAdd(count) == 0L) {
+                InterceptorLog.log("SpanExporter", "unable to export spans, {}", e.toString());
+            }
+        }
+    }
+
+    private void post(byte[] body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) endpoint.openConnection();
+        connection.setRequestMethod("POST");
+        connection.setConnectTimeout(CONNECT_TIMEOUT_MILLIS);
+        connection.setReadTimeout(CONNECT_TIMEOUT_MILLIS);
+        connection.setDoOutput(true);
+        connection.setFixedLengthStreamingMode(body.length);
+        connection.setRequestProperty("Content-Type", "application/json");
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body);
+        }
+        int code = connection.getResponseCode();
+        try (InputStream in = code < 400 ? connection.getInputStream() : connection.getErrorStream()) {
+            if (in != null) {
+                while (in.read(drainBuffer) >= 0) {
+                    // Read the whole response so that the connection is kept alive for the next batch.
+                }
+            }
+        }
+        if (code >= 300) {
+            throw new IOException("the collector returned HTTP " + code);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import com.ibm.zosconnect.spi.Data;
+
+/**
+ * The StageLatency class breaks the time an API provider request spent in z/OS Connect EE into stages, using the
+ * STCKE times z/OS Connect EE records in the Data object and the time the Interceptor observed at P1.
+ *
+ *  queue    - Data.TIME_ZOS_CONNECT_ENTRY to P1, time waiting in the server before any Interceptor ran.
+ *  preSor   - P1 to Data.TIME_SOR_SENT, request processing and mapping before the SoR is called.
+ *  sor      - Data.TIME_SOR_SENT to Data.TIME_SOR_RECEIVED, time in the System of Record.
+ *  response - Data.TIME_SOR_RECEIVED to Data.TIME_ZOS_CONNECT_EXIT, response processing.
+ *  total    - Data.TIME_ZOS_CONNECT_ENTRY to Data.TIME_ZOS_CONNECT_EXIT.
+ *
+ * A stage is -1 when one of its times is not available, for example when the request did not call the SoR.
+ * All values are in nanoseconds.
+ *
+ * @author IBM
+ */
+public final class StageLatency {
+
+    private long queueNanos;
+
+    private long preSorNanos;
+
+    private long sorNanos;
+
+    private long responseNanos;
+
+    private long totalNanos;
+
+    /**
+     * Computes the stages for a request at P4.
+     *
+     * @param data
+     * @param p1EpochNanos the time observed at P1, or StoreClock.UNAVAILABLE
+     */
+    public void compute(Data data, long p1EpochNanos) {
+        long entry = StoreClock.toEpochNanos(data.getData(Data.TIME_ZOS_CONNECT_ENTRY));
+        long sent = StoreClock.toEpochNanos(data.getData(Data.TIME_SOR_SENT));
+        long received = StoreClock.toEpochNanos(data.getData(Data.TIME_SOR_RECEIVED));
+        long exit = StoreClock.toEpochNanos(data.getData(Data.TIME_ZOS_CONNECT_EXIT));
+
+        queueNanos = between(entry, p1EpochNanos);
+        preSorNanos = between(p1EpochNanos, sent);
+        sorNanos = between(sent, received);
+        responseNanos = between(received, exit);
+        totalNanos = between(entry, exit);
+    }
+
+    private static long between(long start, long end) {
+        if (start == StoreClock.UNAVAILABLE || end == StoreClock.UNAVAILABLE) {
+            return -1L;
+        }
+        return Math.max(0L, end - start);
+    }
+
+    public long getQueueNanos() {
+        return queueNanos;
+    }
+
+    public long getPreSorNanos() {
+        return preSorNanos;
+    }
+
+    public long getSorNanos() {
+        return sorNanos;
+    }
+
+    public long getResponseNanos() {
+        return responseNanos;
+    }
+
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+}
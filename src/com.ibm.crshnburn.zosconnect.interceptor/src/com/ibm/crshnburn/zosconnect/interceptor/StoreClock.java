@@ -0,0 +1,144 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+/**
+ * The StoreClock class converts the z/OS Store Clock Extended (STCKE) times held in the Data object, for example
+ * Data.TIME_ZOS_CONNECT_ENTRY, into nanoseconds since the Java epoch of 1970-01-01 00:00:00 UTC.
+ *
+ * An STCKE value is 16 bytes.  Byte 0 is the epoch index, bytes 1 to 8 are the 64 bit TOD clock, where bit 51
+ * represents one microsecond and the clock starts at 1900-01-01 00:00:00, and the remaining bytes hold extra
+ * precision and the programmable field which are not used here.
+ *
+ * If the TOD clock on the LPAR includes leap seconds, set the bootstrap property
+ * com.ibm.crshnburn.zosconnect.interceptor.tod.leapSeconds to the leap second offset so that STCKE times can be
+ * compared with times taken from the Java clock.
+ *
+ * @author IBM
+ */
+public final class StoreClock {
+
+    /**
+     * Returned when an STCKE value is not available.
+     */
+    public static final long UNAVAILABLE = Long.MIN_VALUE;
+
+    /**
+     * The length of an STCKE value.
+     */
+    public static final int STCKE_LENGTH = 16;
+
+    /**
+     * Microseconds between the TOD epoch of 1900 and the Java epoch of 1970.
+     */
+    private static final long TOD_EPOCH_OFFSET_MICROS = 2_208_988_800L * 1_000_000L;
+
+    /**
+     * How often the nanoTime based clock is realigned with the wall clock.
+     */
+    private static final long RECALIBRATE_NANOS = 60_000_000_000L;
+
+    private static volatile long leapSecondNanos;
+
+    private static volatile Calibration calibration = new Calibration();
+
+    /**
+     * A pairing of the wall clock and System.nanoTime.
+     */
+    private static final class Calibration {
+        final long epochNanos = System.currentTimeMillis() * 1_000_000L;
+        final long nanoTime = System.nanoTime();
+    }
+
+    private StoreClock() {
+    }
+
+    /**
+     * Sets the number of leap seconds included in the TOD clock.
+     *
+     * @param leapSeconds
+     */
+    static void setLeapSeconds(int leapSeconds) {
+        leapSecondNanos = leapSeconds * 1_000_000_000L;
+    }
+
+    /**
+     * Converts an STCKE value to nanoseconds since the Java epoch.  No objects are allocated.
+     *
+     * @param stcke the 16 byte STCKE value, may be null
+     *
+     * @return the time in nanoseconds or UNAVAILABLE if the value is null or too short
+     */
+    public static long toEpochNanos(byte[] stcke) {
+        if (stcke == null || stcke.length < 9) {
+            return UNAVAILABLE;
+        }
+        return todToEpochNanos(stcke[0] & 0xFFL, toStck(stcke));
+    }
+
+    /**
+     * Returns the 64 bit TOD clock, the value STCK would store, from bytes 1 to 8 of an STCKE value.
+     *
+     * @param stcke the 16 byte STCKE value, may be null
+     *
+     * @return the TOD clock or 0 if the value is null or too short
+     */
+    public static long toStck(byte[] stcke) {
+        if (stcke == null || stcke.length < 9) {
+            return 0L;
+        }
+        long tod = 0L;
+        for (int i = 1; i <= 8; i++) {
+            tod = (tod << 8) | (stcke[i] & 0xFFL);
+        }
+        return tod;
+    }
+
+    /**
+     * Converts a 64 bit TOD clock in the first epoch, as stored by STCK, to nanoseconds since the Java epoch.
+     *
+     * @param stck the TOD clock
+     *
+     * @return the time in nanoseconds or UNAVAILABLE if the value is 0
+     */
+    public static long stckToEpochNanos(long stck) {
+        return stck == 0L ? UNAVAILABLE : todToEpochNanos(0L, stck);
+    }
+
+    private static long todToEpochNanos(long epochIndex, long tod) {
+        long micros = (tod >>> 12) + (epochIndex << 52) - TOD_EPOCH_OFFSET_MICROS;
+        long subMicroNanos = ((tod & 0xFFFL) * 1000L) >>> 12;
+        return micros * 1000L + subMicroNanos - leapSecondNanos;
+    }
+
+    /**
+     * Returns the current time in nanoseconds since the Java epoch.
+     *
+     * The value is derived from System.nanoTime so it has better than millisecond resolution and is cheap to read.
+     * It is realigned with the wall clock every minute.
+     */
+    public static long nowEpochNanos() {
+        Calibration c = calibration;
+        long elapsed = System.nanoTime() - c.nanoTime;
+        if (elapsed > RECALIBRATE_NANOS) {
+            c = new Calibration();
+            calibration = c;
+            elapsed = System.nanoTime() - c.nanoTime;
+        }
+        return c.epochNanos + elapsed;
+    }
+}
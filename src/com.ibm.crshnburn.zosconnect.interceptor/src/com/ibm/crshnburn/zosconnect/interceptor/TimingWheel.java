@@ -0,0 +1,203 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Consumer;
+
+/**
+ * The TimingWheel class is a hashed timing wheel, which expires many timeouts with one thread and no timer per
+ * timeout.
+ *
+ * Time is divided into ticks and the wheel has a power of two number of buckets, the timeout due at tick t is kept
+ * in bucket t modulo the number of buckets together with those due a whole number of turns of the wheel later.
+ * Each tick the ticking thread expires the due timeouts of one bucket and keeps the rest.
+ *
+ * Scheduling and cancelling a timeout are O(1) and lock-free.  A new timeout is pushed with a compare-and-set onto
+ * one of a few pending stacks, chosen by thread as for the RequestState pool, and the ticking thread moves it to its
+ * bucket at the next tick, so that only the ticking thread touches the buckets.  Cancelling a timeout only changes
+ * its state with a compare-and-set, the ticking thread discards it when it next reaches its bucket.  A timeout is
+ * therefore either cancelled or expired, never both, and is expired no earlier than its deadline and no more than
+ * about a tick after it.
+ *
+ * @author IBM
+ */
+final class TimingWheel {
+
+    /**
+     * A timeout, extended by the caller to hold what it is for.
+     */
+    static class Timeout {
+
+        private static final int PENDING = 0;
+
+        private static final int CANCELLED = 1;
+
+        private static final int EXPIRED = 2;
+
+        private static final AtomicIntegerFieldUpdater<Timeout> STATE = AtomicIntegerFieldUpdater
+                .newUpdater(Timeout.class, "state");
+
+        private volatile int state;
+
+        private long deadlineTick;
+
+        private Timeout next;
+
+        /**
+         * Cancels the timeout.
+         *
+         * @return true if it was cancelled, false if it had already expired or been cancelled
+         */
+        final boolean cancel() {
+            return STATE.compareAndSet(this, PENDING, CANCELLED);
+        }
+
+        final boolean isExpired() {
+            return state == EXPIRED;
+        }
+    }
+
+    private final long tickNanos;
+
+    private final int mask;
+
+    /**
+     * The timeouts of each bucket, only used by the ticking thread.
+     */
+    private final Timeout[] buckets;
+
+    private final AtomicReferenceArray<Timeout> pending;
+
+    private final long startNanos = System.nanoTime();
+
+    private final Consumer<Timeout> expiry;
+
+    /**
+     * The last tick processed, only used by the ticking thread.
+     */
+    private long tick;
+
+    /**
+     * @param tickNanos the length of a tick
+     * @param buckets the number of buckets, rounded up to a power of two
+     * @param expiry called on the ticking thread with each timeout that expires
+     */
+    TimingWheel(long tickNanos, int buckets, Consumer<Timeout> expiry) {
+        int size = Integer.highestOneBit(Math.max(2, buckets) - 1) << 1;
+        int processors = Runtime.getRuntime().availableProcessors();
+        this.tickNanos = Math.max(1L, tickNanos);
+        this.mask = size - 1;
+        this.buckets = new Timeout[size];
+        this.pending = new AtomicReferenceArray<>(Integer.highestOneBit(Math.max(1, processors * 2 - 1)) << 1);
+        this.expiry = expiry;
+    }
+
+    /**
+     * Schedules a timeout.  A timeout can only be scheduled once.
+     *
+     * @param timeout
+     * @param delayNanos the time from now at which the timeout expires
+     */
+    void schedule(Timeout timeout, long delayNanos) {
+        long deadline = System.nanoTime() - startNanos + Math.max(0L, delayNanos);
+        timeout.deadlineTick = (deadline + tickNanos - 1) / tickNanos;
+        int stack = (int) (Thread.currentThread().getId() & (pending.length() - 1));
+        Timeout head;
+        do {
+            head = pending.get(stack);
+            timeout.next = head;
+        } while (!pending.compareAndSet(stack, head, timeout));
+    }
+
+    /**
+     * Processes the ticks that have passed since the last call, expiring the timeouts that are due.  Must only be
+     * called by one thread at a time, for example by an InterceptorScheduler task.
+     */
+    void advance() {
+        long now = (System.nanoTime() - startNanos) / tickNanos;
+        for (int i = 0; i < pending.length(); i++) {
+            Timeout timeout = pending.getAndSet(i, null);
+            while (timeout != null) {
+                Timeout next = timeout.next;
+                add(timeout);
+                timeout = next;
+            }
+        }
+        // Buckets are only visited once per turn however long the ticking thread was delayed.
+        long last = Math.min(now, tick + mask + 1);
+        while (tick < last) {
+            tick++;
+            expire((int) (tick & mask), now);
+        }
+        tick = now;
+    }
+
+    /**
+     * Returns whether the wheel holds no timeouts, cancelled timeouts are only dropped when their bucket is
+     * reached.  Must only be called by the ticking thread.
+     */
+    boolean isEmpty() {
+        for (int i = 0; i < pending.length(); i++) {
+            if (pending.get(i) != null) {
+                return false;
+            }
+        }
+        for (Timeout bucket : buckets) {
+            if (bucket != null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(Timeout timeout) {
+        if (timeout.state != Timeout.PENDING) {
+            timeout.next = null;
+            return;
+        }
+        // A timeout whose bucket has already been passed this turn goes in the next bucket to be processed.
+        int bucket = (int) (Math.max(timeout.deadlineTick, tick + 1) & mask);
+        timeout.next = buckets[bucket];
+        buckets[bucket] = timeout;
+    }
+
+    private void expire(int bucket, long now) {
+        Timeout timeout = buckets[bucket];
+        Timeout kept = null;
+        buckets[bucket] = null;
+        while (timeout != null) {
+            Timeout next = timeout.next;
+            if (timeout.deadlineTick > now) {
+                if (timeout.state == Timeout.PENDING) {
+                    timeout.next = kept;
+                    kept = timeout;
+                } else {
+                    timeout.next = null;
+                }
+            } else {
+                timeout.next = null;
+                if (Timeout.STATE.compareAndSet(timeout, Timeout.PENDING, Timeout.EXPIRED)) {
+                    expiry.accept(timeout);
+                }
+            }
+            timeout = next;
+        }
+        buckets[bucket] = kept;
+    }
+}
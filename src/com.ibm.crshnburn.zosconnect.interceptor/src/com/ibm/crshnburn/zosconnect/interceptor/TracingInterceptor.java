@@ -0,0 +1,549 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.Principal;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.osgi.service.component.ComponentContext;
+
+import com.ibm.zosconnect.spi.Data;
+import com.ibm.zosconnect.spi.DataRequester;
+import com.ibm.zosconnect.spi.EndpointInterceptor;
+import com.ibm.zosconnect.spi.HttpZosConnectRequest;
+import com.ibm.zosconnect.spi.InterceptorException;
+import com.ibm.zosconnect.spi.ServiceProviderInterceptor;
+
+/**
+ * The TracingInterceptor class is an example of an Interceptor that records OpenTelemetry spans for API provider
+ * and API requester requests, continuing the W3C trace context of the caller.
+ *
+ * For an API provider request a server span covers P1 to P4, with a client span for the SoR call from P2 to P3.
+ * The trace id and parent span come from the traceparent header of the request if it has a valid one, otherwise
+ * the request starts a new trace, and the spans carry Data.CORRELATOR so that they can be matched with the SMF
+ * records and logs of the request.  For an API requester request a server span covers preInvokeRequester to
+ * postInvokeRequester, with a client span for the endpoint call from preEndpointInvoke to postEndpointInvoke.
+ * The API requester SPI gives no access to the request headers, so these spans always start a new trace.
+ *
+ * The request thread only generates the span ids and publishes each span to a ring buffer, the spans are turned
+ * into OTLP/JSON and written to a file or sent to a collector on this system, in batches, by a SpanExporter
+ * thread.  The state of the request is held in a pooled RequestState.  Give the Interceptor a low sequence
+ * number so that its spans include the other Interceptors.
+ *
+ * @author IBM
+ */
+public class TracingInterceptor implements ServiceProviderInterceptor, EndpointInterceptor {
+
+    /**
+     * Request State Map data element holding the span ids from one point to the next.
+     */
+    private static final String REQUEST_STATE = "TRACING_REQUEST_STATE";
+
+    private static final String TRACEPARENT = "traceparent";
+
+    private static final String CFG_AD_EXPORTER = "exporter";
+
+    private static final String CFG_AD_FILE = "file";
+
+    private static final String CFG_AD_ENDPOINT = "endpoint";
+
+    private static final String CFG_AD_SERVICE_NAME = "serviceName";
+
+    private static final String CFG_AD_BUFFER_SIZE = "bufferSize";
+
+    private static final String CFG_AD_BATCH_SIZE = "batchSize";
+
+    private static final String CFG_AD_EXPORT_INTERVAL_MILLIS = "exportIntervalMillis";
+
+    private static final String EXPORTER_FILE = "file";
+
+    private static final String EXPORTER_OTLP = "otlp";
+
+    private static final String LOG_DIRECTORY_PROPERTY = "com.ibm.ws.logging.log.directory";
+
+    private static final String DEFAULT_FILE_NAME = "spans.json";
+
+    private static final String DEFAULT_ENDPOINT = "http://localhost:4318/v1/traces";
+
+    private static final String DEFAULT_SERVICE_NAME = "zosconnect";
+
+    private static final int DEFAULT_BUFFER_SIZE = 8192;
+
+    private static final int DEFAULT_BATCH_SIZE = 512;
+
+    private static final int DEFAULT_EXPORT_INTERVAL_MILLIS = 1000;
+
+    /**
+     * The registered sequence number of this Interceptor which determines the order
+     * in which the Interceptor is called in relation to other Interceptors.
+     */
+    private volatile int sequence;
+
+    /**
+     * The server's log directory, the parent of the default span file.
+     */
+    private String logDirectory;
+
+    /**
+     * The configuration the exporter was started with, so that it is only restarted when that changes.
+     */
+    private String exporterConfiguration;
+
+    /**
+     * The running exporter, or null if it could not be started.
+     */
+    private volatile SpanExporter exporter;
+
+    /**
+     * Activates the Interceptor.
+     *
+     * Trace the activation, retrieve the Interceptor's configuration from the Interceptor's
+     * configuration element in server.xml and start the exporter.
+     *
+     * @param context
+     * @param properties
+     */
+    protected void activate(ComponentContext context, Map<String, Object> properties) {
+        InterceptorLog.log(getName(), "activated");
+        if (context != null) {
+            logDirectory = context.getBundleContext().getProperty(LOG_DIRECTORY_PROPERTY);
+        }
+        configure(properties);
+    }
+
+    /**
+     * Deactivates the Interceptor.
+     *
+     * The Interceptor will no longer receive events.  The spans already recorded are exported.
+     *
+     * @param context
+     */
+    protected void deactivate(ComponentContext context) {
+        InterceptorLog.log(getName(), "deactivated");
+        synchronized (this) {
+            close(exporter);
+            exporter = null;
+            exporterConfiguration = null;
+        }
+    }
+
+    /**
+     * Called to signal that the Interceptor's configuration element may have changed in server.xml.
+     * If the exporter settings have changed the exporter is restarted.
+     *
+     * @param properties
+     */
+    protected void modified(Map<String, Object> properties) {
+        InterceptorLog.log(getName(), "modified");
+        configure(properties);
+    }
+
+    private synchronized void configure(Map<String, Object> properties) {
+        ConfigProperties config = new ConfigProperties(getName(), properties);
+        sequence = config.getSequence(sequence);
+        boolean otlp = EXPORTER_OTLP.equals(config.getChoice(CFG_AD_EXPORTER, EXPORTER_FILE, EXPORTER_FILE, EXPORTER_OTLP));
+        String file = config.getString(CFG_AD_FILE, null);
+        Path path = file != null ? Paths.get(file)
+                : logDirectory != null ? Paths.get(logDirectory, DEFAULT_FILE_NAME) : Paths.get(DEFAULT_FILE_NAME);
+        String endpoint = config.getString(CFG_AD_ENDPOINT, DEFAULT_ENDPOINT);
+        String serviceName = config.getString(CFG_AD_SERVICE_NAME, DEFAULT_SERVICE_NAME);
+        int bufferSize = config.getInt(CFG_AD_BUFFER_SIZE, DEFAULT_BUFFER_SIZE, 16, 1_048_576);
+        int batchSize = config.getInt(CFG_AD_BATCH_SIZE, DEFAULT_BATCH_SIZE, 1, 65_536);
+        int exportIntervalMillis = config.getInt(CFG_AD_EXPORT_INTERVAL_MILLIS, DEFAULT_EXPORT_INTERVAL_MILLIS, 1, 3_600_000);
+
+        String configuration = (otlp ? endpoint : path) + " " + serviceName + " " + bufferSize + " " + batchSize
+                + " " + exportIntervalMillis;
+        if (configuration.equals(exporterConfiguration)) {
+            return;
+        }
+        SpanExporter previous = exporter;
+        exporter = null;
+        close(previous);
+        exporterConfiguration = configuration;
+        try {
+            exporter = otlp
+                    ? SpanExporter.toCollector(endpoint, serviceName, bufferSize, batchSize, exportIntervalMillis)
+                    : SpanExporter.toFile(path, serviceName, bufferSize, batchSize, exportIntervalMillis);
+            InterceptorLog.log(getName(), "exporting spans to {}", otlp ? endpoint : path);
+        } catch (IOException e) {
+            InterceptorLog.log(getName(), "spans not exported, {}", e.getMessage());
+        }
+    }
+
+    private void close(SpanExporter previous) {
+        if (previous == null) {
+            return;
+        }
+        try {
+            previous.close();
+            InterceptorLog.log(getName(), "exported {} spans, {} dropped, {} failed", previous.getExportedCount(),
+                    previous.getDroppedCount(), previous.getFailedCount());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Returns this Interceptor's configured sequence number.
+     */
+    @Override
+    public int getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns this Interceptor's name.
+     */
+    @Override
+    public String getName() {
+        return "zOSConnectTracingInterceptor";
+    }
+
+    /**
+     * Returns a random span or trace id, which is never 0.
+     */
+    private static long newId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long id;
+        do {
+            id = random.nextLong();
+        } while (id == 0L);
+        return id;
+    }
+
+    /**
+     * Sets the trace context of a request's span from a W3C traceparent header, of the form
+     * version-traceid-parentid-flags, for example 00-4bf92f3577b34da6a3ce929d0e0e4736-00f067aa0ba902b7-01.
+     *
+     * @param header the header value, may be null
+     * @param state
+     * @param spanId the id of the request's span
+     *
+     * @return true if the header was valid and the trace context set
+     */
+    static boolean parseTraceparent(String header, RequestState state, long spanId) {
+        if (header == null || header.length() < 55 || header.charAt(2) != '-' || header.charAt(35) != '-'
+                || header.charAt(52) != '-' || invalid(header, 0, 2) || invalid(header, 3, 35)
+                || invalid(header, 36, 52) || invalid(header, 53, 55)) {
+            return false;
+        }
+        long version = parseHex(header, 0, 2);
+        if (version == 0xFFL || (version == 0L && header.length() != 55)
+                || (header.length() > 55 && header.charAt(55) != '-')) {
+            return false;
+        }
+        long traceIdHigh = parseHex(header, 3, 19);
+        long traceIdLow = parseHex(header, 19, 35);
+        long parentSpanId = parseHex(header, 36, 52);
+        if ((traceIdHigh == 0L && traceIdLow == 0L) || parentSpanId == 0L) {
+            return false;
+        }
+        state.setSpan(traceIdHigh, traceIdLow, spanId, parentSpanId, (parseHex(header, 53, 55) & 1L) != 0L);
+        return true;
+    }
+
+    /**
+     * Returns true if any character in the range is not a lower case hex digit.
+     */
+    private static boolean invalid(String value, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (hexDigit(value.charAt(i)) < 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses a range of up to 16 hex digits that are known to be valid.
+     */
+    private static long parseHex(String value, int start, int end) {
+        long result = 0L;
+        for (int i = start; i < end; i++) {
+            result = (result << 4) | hexDigit(value.charAt(i));
+        }
+        return result;
+    }
+
+    private static int hexDigit(char c) {
+        if (c >= '0' && c <= '9') {
+            return c - '0';
+        }
+        if (c >= 'a' && c <= 'f') {
+            return c - 'a' + 10;
+        }
+        return -1;
+    }
+
+    /**
+     * Claims a span of the request's trace, or returns null if the trace is not sampled or the span is dropped.
+     */
+    private static SpanExporter.Span span(SpanExporter current, RequestState state, long spanId, long parentSpanId,
+            String name, int kind, long startEpochNanos) {
+        if (current == null || !state.isSpanSampled()) {
+            return null;
+        }
+        SpanExporter.Span span = current.claim();
+        if (span != null) {
+            span.traceIdHigh = state.getTraceIdHigh();
+            span.traceIdLow = state.getTraceIdLow();
+            span.spanId = spanId;
+            span.parentSpanId = parentSpanId;
+            span.name = name;
+            span.kind = kind;
+            span.startEpochNanos = startEpochNanos;
+            span.endEpochNanos = StoreClock.nowEpochNanos();
+            span.status = SpanExporter.STATUS_UNSET;
+        }
+        return span;
+    }
+
+    /**
+     * Starts the request's server span, as a child of the caller's span if the traceparent is valid.
+     */
+    private static RequestState start(Map<Object, Object> requestStateMap, String traceparent) {
+        RequestState state = RequestState.acquire();
+        long spanId = newId();
+        if (!parseTraceparent(traceparent, state, spanId)) {
+            state.setSpan(newId(), newId(), spanId, 0L, true);
+        }
+        state.setP1EpochNanos(StoreClock.nowEpochNanos());
+        requestStateMap.put(REQUEST_STATE, state);
+        return state;
+    }
+
+    private static void startChild(Map<Object, Object> requestStateMap) {
+        RequestState state = (RequestState) requestStateMap.get(REQUEST_STATE);
+        if (state != null) {
+            state.startChildSpan(newId(), StoreClock.nowEpochNanos());
+        }
+    }
+
+    /**
+     * z/OS Connect EE calls preInvoke method at point P1.
+     *
+     * The request's server span is started, continuing the trace in the traceparent header.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void preInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
+            throws InterceptorException {
+        if (exporter != null) {
+            start(requestStateMap, httpZosConnectRequest.getHeader(TRACEPARENT));
+        }
+    }
+
+    /**
+     * z/OS Connect EE calls preSorInvoke method at point P2, the SoR span is started.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     */
+    @Override
+    public void preSorInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest,
+            Data data) {
+        startChild(requestStateMap);
+    }
+
+    /**
+     * z/OS Connect EE calls postSorInvoke method at point P3, the SoR span is published.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     */
+    @Override
+    public void postSorInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest,
+            Data data) {
+        RequestState state = (RequestState) requestStateMap.get(REQUEST_STATE);
+        if (state != null && state.getChildSpanId() != 0L) {
+            publishSorSpan(state, data, SpanExporter.STATUS_UNSET);
+        }
+    }
+
+    private void publishSorSpan(RequestState state, Data data, int status) {
+        SpanExporter current = exporter;
+        String sorIdentifier = data.getData(Data.SOR_IDENTIFIER);
+        SpanExporter.Span span = span(current, state, state.getChildSpanId(), state.getSpanId(),
+                sorIdentifier != null ? sorIdentifier : "SoR", SpanExporter.KIND_CLIENT,
+                state.getChildStartEpochNanos());
+        state.startChildSpan(0L, StoreClock.UNAVAILABLE);
+        if (span != null) {
+            span.status = status;
+            span.attribute("zosconnect.sor.identifier", sorIdentifier)
+                    .attribute("zosconnect.sor.resource", data.getData(Data.SOR_RESOURCE))
+                    .attribute("zosconnect.sor.reference", data.getData(Data.SOR_REFERENCE))
+                    .attribute("zosconnect.correlator", data.getData(Data.CORRELATOR));
+            current.publish(span);
+        }
+    }
+
+    /**
+     * z/OS Connect EE calls postInvoke method at point P4.
+     *
+     * The request's server span is published, after the SoR span if the SoR did not return.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void postInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
+            throws InterceptorException {
+        RequestState state = (RequestState) requestStateMap.remove(REQUEST_STATE);
+        if (state == null) {
+            return;
+        }
+        if (state.getChildSpanId() != 0L) {
+            publishSorSpan(state, data, SpanExporter.STATUS_ERROR);
+        }
+
+        SpanExporter current = exporter;
+        String apiName = data.getData(Data.API_NAME);
+        String serviceName = data.getData(Data.SERVICE_NAME);
+        SpanExporter.Span span = span(current, state, state.getSpanId(), state.getParentSpanId(),
+                apiName != null ? apiName : serviceName != null ? serviceName : httpZosConnectRequest.getMethod(),
+                SpanExporter.KIND_SERVER, state.getP1EpochNanos());
+        if (span != null) {
+            Integer responseCode = data.getData(Data.HTTP_RESPONSE_CODE);
+            if ((responseCode != null && responseCode >= 500) || Boolean.TRUE.equals(data.getData(Data.REQUEST_TIMED_OUT))) {
+                span.status = SpanExporter.STATUS_ERROR;
+            }
+            Principal principal = httpZosConnectRequest.getUserPrincipal();
+            span.attribute("http.request.method", httpZosConnectRequest.getMethod())
+                    .attribute("url.path", httpZosConnectRequest.getRequestURI())
+                    .attribute("http.response.status_code", responseCode)
+                    .attribute("enduser.id", principal != null ? principal.getName() : null)
+                    .attribute("zosconnect.api.name", apiName)
+                    .attribute("zosconnect.service.name", serviceName)
+                    .attribute("zosconnect.correlator", data.getData(Data.CORRELATOR));
+            current.publish(span);
+        }
+        RequestState.release(state);
+    }
+
+    /**
+     * z/OS Connect EE calls the preInvokeRequester method after initial request checks.
+     *
+     * The API requester request's server span is started in a new trace.
+     *
+     * @param requestStateMap
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void preInvokeRequester(Map<Object, Object> requestStateMap, DataRequester data) throws InterceptorException {
+        if (exporter != null) {
+            start(requestStateMap, null);
+        }
+    }
+
+    /**
+     * z/OS Connect EE calls the preEndpointInvoke method before the request is sent to the endpoint, the
+     * endpoint span is started.
+     *
+     * @param requestStateMap
+     * @param data
+     */
+    @Override
+    public void preEndpointInvoke(Map<Object, Object> requestStateMap, DataRequester data) {
+        startChild(requestStateMap);
+    }
+
+    /**
+     * z/OS Connect EE calls the postEndpointInvoke method when the endpoint response is received, the endpoint
+     * span is published.
+     *
+     * @param requestStateMap
+     * @param data
+     */
+    @Override
+    public void postEndpointInvoke(Map<Object, Object> requestStateMap, DataRequester data) {
+        RequestState state = (RequestState) requestStateMap.get(REQUEST_STATE);
+        if (state != null && state.getChildSpanId() != 0L) {
+            publishEndpointSpan(state, data);
+        }
+    }
+
+    private void publishEndpointSpan(RequestState state, DataRequester data) {
+        SpanExporter current = exporter;
+        String method = data.getData(DataRequester.ENDPOINT_METHOD);
+        SpanExporter.Span span = span(current, state, state.getChildSpanId(), state.getSpanId(),
+                method != null ? method : "HTTP", SpanExporter.KIND_CLIENT, state.getChildStartEpochNanos());
+        state.startChildSpan(0L, StoreClock.UNAVAILABLE);
+        if (span != null) {
+            Integer responseCode = data.getData(DataRequester.HTTP_RESPONSE_CODE);
+            if (responseCode == null || responseCode >= 400) {
+                span.status = SpanExporter.STATUS_ERROR;
+            }
+            span.attribute("http.request.method", method)
+                    .attribute("server.address", data.getData(DataRequester.ENDPOINT_HOST))
+                    .attribute("server.port", data.getData(DataRequester.ENDPOINT_PORT))
+                    .attribute("url.path", data.getData(DataRequester.ENDPOINT_FULL_PATH))
+                    .attribute("http.response.status_code", responseCode);
+            current.publish(span);
+        }
+    }
+
+    /**
+     * z/OS Connect EE calls the postInvokeRequester method before returning to the application.
+     *
+     * The API requester request's server span is published, after the endpoint span if the endpoint did not
+     * respond.
+     *
+     * @param requestStateMap
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void postInvokeRequester(Map<Object, Object> requestStateMap, DataRequester data) throws InterceptorException {
+        RequestState state = (RequestState) requestStateMap.remove(REQUEST_STATE);
+        if (state == null) {
+            return;
+        }
+        if (state.getChildSpanId() != 0L) {
+            publishEndpointSpan(state, data);
+        }
+
+        SpanExporter current = exporter;
+        String apiRequester = data.getData(DataRequester.API_REQUESTER_NAME);
+        SpanExporter.Span span = span(current, state, state.getSpanId(), 0L,
+                apiRequester != null ? apiRequester : "apiRequester", SpanExporter.KIND_SERVER,
+                state.getP1EpochNanos());
+        if (span != null) {
+            span.attribute("zosconnect.api_requester.name", apiRequester)
+                    .attribute("zosconnect.api_requester.version", data.getData(DataRequester.API_REQUESTER_VERSION))
+                    .attribute("zosconnect.request_status_code", data.getData(DataRequester.REQUEST_STATUS_CODE));
+            current.publish(span);
+        }
+        RequestState.release(state);
+    }
+}
@@ -0,0 +1,221 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The UserIdentities class resolves the authenticated user and mapped user of a request to their canonical
+ * UserIdentity, keeping the identities of recent and frequent callers in a cache shared by every Interceptor.
+ *
+ * The cache is a table of sets of WAYS entries, and the names hash to one set, so a lookup compares at most WAYS
+ * identities and builds no key.  A user not in the cache is given a new identity, which goes into the first entry
+ * of its set, the window.  The identity it displaces from the window is only kept if it has been used more often
+ * than the least used identity in the rest of the set, which it then replaces, the W-TinyLFU admission policy.
+ * How often each identity has been used is estimated by a CountMinSketch whose counters stop at MAX_FREQUENCY and
+ * are halved after every ten uses per entry, so that a scan of many users seen once passes through the windows
+ * and does not evict the regular callers.
+ *
+ * @author IBM
+ */
+final class UserIdentities {
+
+    /**
+     * The number of entries in a set, the first of which is the window.
+     */
+    static final int WAYS = 8;
+
+    /**
+     * The highest use count recorded, once an identity has been used this often it is no longer counted, so the
+     * counters of busy users are only read.
+     */
+    private static final int MAX_FREQUENCY = 15;
+
+    private static final int DEFAULT_CAPACITY = 4096;
+
+    private static final UserIdentities INSTANCE = new UserIdentities(DEFAULT_CAPACITY);
+
+    private final AtomicReferenceArray<UserIdentity> table;
+
+    private final int setMask;
+
+    private final CountMinSketch frequencies;
+
+    private final int sampleSize;
+
+    private final AtomicInteger samples = new AtomicInteger();
+
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder admitted = new LongAdder();
+
+    private final LongAdder evicted = new LongAdder();
+
+    /**
+     * @param capacity the number of identities kept, rounded up to a power of two
+     */
+    UserIdentities(int capacity) {
+        int sets = Integer.highestOneBit(Math.max(2, capacity / WAYS) - 1) << 1;
+        this.table = new AtomicReferenceArray<>(sets * WAYS);
+        this.setMask = sets - 1;
+        this.frequencies = new CountMinSketch(sets * WAYS);
+        this.sampleSize = sets * WAYS * 10;
+    }
+
+    /**
+     * Returns the cache shared by the Interceptors in the bundle.
+     */
+    static UserIdentities getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Returns the identity of a caller.
+     *
+     * @param principalName the name of the authenticated user, or null if there is none
+     * @param mappedUser the mapped user, or null if there is none
+     */
+    UserIdentity resolve(String principalName, String mappedUser) {
+        String user = principalName != null ? principalName.trim() : UserIdentity.UNKNOWN_USER;
+        int key = UserIdentity.key(user, mappedUser);
+        int set = (key & setMask) * WAYS;
+        UserIdentity created = null;
+        for (;;) {
+            /*
+             * The window is read before the set is searched and only replaced if it has not changed since, as a
+             * new identity of this caller put in the window by another thread after the search would otherwise be
+             * displaced by a second one.
+             */
+            UserIdentity candidate = table.get(set);
+            for (int i = set; i < set + WAYS; i++) {
+                UserIdentity identity = table.get(i);
+                if (identity != null && identity.matches(key, user, mappedUser)) {
+                    hits.increment();
+                    record(identity.getHash());
+                    return identity;
+                }
+            }
+            if (created == null) {
+                created = new UserIdentity(nextId.incrementAndGet(), user, mappedUser);
+            }
+            if (table.compareAndSet(set, candidate, created)) {
+                misses.increment();
+                record(created.getHash());
+                if (candidate != null) {
+                    admit(set, candidate);
+                }
+                return created;
+            }
+        }
+    }
+
+    /**
+     * Moves an identity leaving the window into the rest of its set, if there is a free entry or it has been used
+     * more often than the least used identity there.
+     */
+    private void admit(int set, UserIdentity candidate) {
+        int victimIndex = -1;
+        UserIdentity victim = null;
+        long victimFrequency = Long.MAX_VALUE;
+        for (int i = set + 1; i < set + WAYS; i++) {
+            UserIdentity resident = table.get(i);
+            if (resident == null) {
+                if (table.compareAndSet(i, null, candidate)) {
+                    admitted.increment();
+                    return;
+                }
+                continue;
+            }
+            long frequency = frequencies.estimate(resident.getHash());
+            if (frequency < victimFrequency) {
+                victimIndex = i;
+                victim = resident;
+                victimFrequency = frequency;
+            }
+        }
+        if (victim != null && frequencies.estimate(candidate.getHash()) > victimFrequency
+                && table.compareAndSet(victimIndex, victim, candidate)) {
+            admitted.increment();
+        }
+        evicted.increment();
+    }
+
+    /**
+     * Counts a use of an identity, halving all the counts after every sampleSize uses.
+     */
+    private void record(long hash) {
+        if (frequencies.estimate(hash) < MAX_FREQUENCY) {
+            frequencies.add(hash);
+            if (samples.incrementAndGet() >= sampleSize && samples.getAndSet(0) >= sampleSize) {
+                frequencies.decay();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of identities the cache can hold.
+     */
+    int getCapacity() {
+        return table.length();
+    }
+
+    /**
+     * Returns the identities in the cache.
+     */
+    private List<UserIdentity> identities() {
+        List<UserIdentity> identities = new ArrayList<>();
+        for (int i = 0; i < table.length(); i++) {
+            UserIdentity identity = table.get(i);
+            if (identity != null) {
+                identities.add(identity);
+            }
+        }
+        return identities;
+    }
+
+    /**
+     * Returns the cache's counts, as reported through the InterceptorMetricsMXBean.
+     */
+    IdentityCacheSummary summarize() {
+        return new IdentityCacheSummary(getCapacity(), identities().size(), hits.sum(), misses.sum(), admitted.sum(),
+                evicted.sum());
+    }
+
+    /**
+     * Returns the cached identities with the most requests, as reported through the InterceptorMetricsMXBean.
+     *
+     * @param count the most identities to return
+     */
+    UserIdentitySummary[] busiest(int count) {
+        return identities().stream()
+                .filter(identity -> identity.getRequests() > 0)
+                .sorted(Comparator.comparingLong(UserIdentity::getRequests).reversed())
+                .limit(count)
+                .map(identity -> new UserIdentitySummary(identity.getId(), identity.getUser(),
+                        identity.getMappedUser(), identity.getRequests(), identity.getRejected()))
+                .toArray(UserIdentitySummary[]::new);
+    }
+}
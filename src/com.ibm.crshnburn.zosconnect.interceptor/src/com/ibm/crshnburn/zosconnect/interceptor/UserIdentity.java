@@ -0,0 +1,180 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The UserIdentity class is the canonical record of a caller, the authenticated user together with the mapped
+ * user, shared by every Interceptor in the bundle through UserIdentities.
+ *
+ * The names, the name used in messages and the name's hash are worked out once when the identity is created, so
+ * that a request by a known user builds no strings.  The identity also keeps the decisions that depend only on
+ * the user, such as whether the user is in a denylist, and the number of the user's requests checked and
+ * rejected by the Simple Interceptor.
+ *
+ * @author IBM
+ */
+final class UserIdentity {
+
+    /**
+     * The user name used when the request has no authenticated user.
+     */
+    static final String UNKNOWN_USER = "<unknown>";
+
+    /**
+     * A denylist decision, the denylist it was made against and the result, replaced as a whole.
+     */
+    private static final class DenyDecision {
+        final Denylist denylist;
+        final boolean denied;
+
+        DenyDecision(Denylist denylist, boolean denied) {
+            this.denylist = denylist;
+            this.denied = denied;
+        }
+    }
+
+    private final int id;
+
+    private final int key;
+
+    private final String user;
+
+    private final String mappedUser;
+
+    private final String displayName;
+
+    private final long hash;
+
+    private final LongAdder requests = new LongAdder();
+
+    private final LongAdder rejected = new LongAdder();
+
+    private volatile DenyDecision denyDecision;
+
+    /**
+     * @param id
+     * @param user the authenticated user, trimmed
+     * @param mappedUser the mapped user, or null if there is none
+     */
+    UserIdentity(int id, String user, String mappedUser) {
+        this.id = id;
+        this.key = key(user, mappedUser);
+        this.user = user;
+        this.mappedUser = mappedUser;
+        this.displayName = mappedUser != null ? user + " (" + mappedUser + ")" : user;
+        this.hash = CountMinSketch.hash(displayName);
+    }
+
+    /**
+     * Returns the hash of a pair of names used to look up their identity.
+     *
+     * @param user the authenticated user, trimmed
+     * @param mappedUser the mapped user, or null if there is none
+     */
+    static int key(String user, String mappedUser) {
+        int key = user.hashCode() * 31 + (mappedUser != null ? mappedUser.hashCode() : 0);
+        return key ^ (key >>> 16);
+    }
+
+    /**
+     * Returns whether this identity is for the given names.
+     *
+     * @param key the key of the names
+     * @param user the authenticated user, trimmed
+     * @param mappedUser the mapped user, or null if there is none
+     */
+    boolean matches(int key, String user, String mappedUser) {
+        return this.key == key && this.user.equals(user)
+                && (this.mappedUser == null ? mappedUser == null : this.mappedUser.equals(mappedUser));
+    }
+
+    /**
+     * Returns the number given to this identity when it was created, unique to the identity.
+     */
+    int getId() {
+        return id;
+    }
+
+    /**
+     * Returns the authenticated user, or UNKNOWN_USER.
+     */
+    String getUser() {
+        return user;
+    }
+
+    /**
+     * Returns the mapped user, or null if there is none.
+     */
+    String getMappedUser() {
+        return mappedUser;
+    }
+
+    /**
+     * Returns the name used in messages, the user followed by the mapped user in brackets.  The same String is
+     * returned every time, so its hash code is only calculated once when it is used as a key.
+     */
+    String getDisplayName() {
+        return displayName;
+    }
+
+    /**
+     * Returns the 64 bit hash of the display name.
+     */
+    long getHash() {
+        return hash;
+    }
+
+    /**
+     * Returns whether the user or the mapped user is in a denylist.  The decision is kept until it is asked for
+     * against a different denylist, a denylist cannot change once loaded.
+     *
+     * @param denylist
+     */
+    boolean isDenied(Denylist denylist) {
+        DenyDecision decision = denyDecision;
+        if (decision == null || decision.denylist != denylist) {
+            decision = new DenyDecision(denylist,
+                    denylist.contains(user) || (mappedUser != null && denylist.contains(mappedUser)));
+            denyDecision = decision;
+        }
+        return decision.denied;
+    }
+
+    /**
+     * Counts a request by this user.
+     */
+    void requested() {
+        requests.increment();
+    }
+
+    /**
+     * Counts a request by this user that was rejected.
+     */
+    void rejected() {
+        rejected.increment();
+    }
+
+    long getRequests() {
+        return requests.sum();
+    }
+
+    long getRejected() {
+        return rejected.sum();
+    }
+}
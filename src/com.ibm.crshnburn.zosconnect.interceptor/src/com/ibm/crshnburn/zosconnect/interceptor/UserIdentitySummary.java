@@ -0,0 +1,78 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.beans.ConstructorProperties;
+
+/**
+ * The UserIdentitySummary class is the number of requests made by one cached user, as reported through the
+ * InterceptorMetricsMXBean.
+ *
+ * @author IBM
+ */
+public class UserIdentitySummary {
+
+    private final int id;
+    private final String user;
+    private final String mappedUser;
+    private final long requests;
+    private final long rejected;
+
+    @ConstructorProperties({ "id", "user", "mappedUser", "requests", "rejected" })
+    public UserIdentitySummary(int id, String user, String mappedUser, long requests, long rejected) {
+        this.id = id;
+        this.user = user;
+        this.mappedUser = mappedUser;
+        this.requests = requests;
+        this.rejected = rejected;
+    }
+
+    /**
+     * Returns the number given to the user's identity.
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * Returns the authenticated user.
+     */
+    public String getUser() {
+        return user;
+    }
+
+    /**
+     * Returns the mapped user, or null if there is none.
+     */
+    public String getMappedUser() {
+        return mappedUser;
+    }
+
+    /**
+     * Returns the number of requests the user has made since the identity was cached.
+     */
+    public long getRequests() {
+        return requests;
+    }
+
+    /**
+     * Returns the number of the user's requests that were rejected.
+     */
+    public long getRejected() {
+        return rejected;
+    }
+}
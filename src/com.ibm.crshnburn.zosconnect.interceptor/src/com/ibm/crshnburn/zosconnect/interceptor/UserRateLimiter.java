@@ -0,0 +1,119 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The UserRateLimiter class keeps a token bucket for each user.
+ *
+ * Each bucket is a single AtomicLong holding the time at which the bucket will next be full, the generic cell
+ * rate algorithm form of a token bucket.  Taking a token is one compare-and-set on the user's own bucket, so
+ * users do not contend with each other and no lock is taken.  Buckets that have been full for longer than the
+ * idle time are removed by evictIdle, which is run periodically on the Interceptor scheduler thread.
+ *
+ * @author IBM
+ */
+final class UserRateLimiter {
+
+    /**
+     * The configured limits, replaced as a whole when the configuration changes.
+     */
+    private static final class Limits {
+        final long emissionIntervalNanos;
+        final long burstToleranceNanos;
+        final long idleNanos;
+
+        Limits(int ratePerSecond, int burst, int idleSeconds) {
+            emissionIntervalNanos = 1_000_000_000L / Math.max(1, ratePerSecond);
+            burstToleranceNanos = (Math.max(1, burst) - 1) * emissionIntervalNanos;
+            idleNanos = Math.max(1, idleSeconds) * 1_000_000_000L;
+        }
+    }
+
+    private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    private volatile Limits limits;
+
+    /**
+     * Creates a rate limiter.
+     *
+     * @param ratePerSecond the sustained requests per second allowed for each user
+     * @param burst the number of requests a user may make at once after being idle
+     * @param idleSeconds how long a bucket is kept after it has refilled
+     */
+    UserRateLimiter(int ratePerSecond, int burst, int idleSeconds) {
+        setLimits(ratePerSecond, burst, idleSeconds);
+    }
+
+    /**
+     * Changes the limits, existing buckets are kept.
+     */
+    void setLimits(int ratePerSecond, int burst, int idleSeconds) {
+        limits = new Limits(ratePerSecond, burst, idleSeconds);
+    }
+
+    /**
+     * Takes a token from the user's bucket.
+     *
+     * @param user
+     *
+     * @return true if the request may proceed, false if the user has exceeded the rate
+     */
+    boolean tryAcquire(String user) {
+        Limits l = limits;
+        AtomicLong bucket = buckets.get(user);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(user, u -> new AtomicLong(Long.MIN_VALUE));
+        }
+        long now = System.nanoTime();
+        for (;;) {
+            long fullAt = bucket.get();
+            long start = fullAt == Long.MIN_VALUE || fullAt - now < 0 ? now : fullAt;
+            if (start - now > l.burstToleranceNanos) {
+                return false;
+            }
+            if (bucket.compareAndSet(fullAt, start + l.emissionIntervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Removes the buckets of users that have not made a request for the idle time.
+     */
+    void evictIdle() {
+        long now = System.nanoTime();
+        long idleNanos = limits.idleNanos;
+        for (Iterator<Map.Entry<String, AtomicLong>> it = buckets.entrySet().iterator(); it.hasNext();) {
+            long fullAt = it.next().getValue().get();
+            if (fullAt == Long.MIN_VALUE || now - fullAt > idleNanos) {
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Returns the number of users with a bucket.
+     */
+    int size() {
+        return buckets.size();
+    }
+}
@@ -0,0 +1,396 @@
+/*
+ * Copyright IBM Corporation 2026
+ *
+ * LICENSE: Apache License
+ *          Version 2.0, January 2004
+ *          http://www.apache.org/licenses/
+ *
+ * The following code is sample code created by IBM Corporation.
+ * This sample code is not part of any standard IBM product and
+ * is provided to you solely for the purpose of assisting you in
+ * the development of your applications.  The code is provided
+ * 'as is', without warranty or condition of any kind.  IBM shall
+ * not be liable for any damages arising out of your use of the
+ * sample code, even if IBM has been advised of the possibility
+ * of such damages.
+ */
+package com.ibm.crshnburn.zosconnect.interceptor;
+
+import java.security.Principal;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.osgi.service.component.ComponentContext;
+
+import com.ibm.zosconnect.spi.Data;
+import com.ibm.zosconnect.spi.HttpZosConnectRequest;
+import com.ibm.zosconnect.spi.InterceptorException;
+import com.ibm.zosconnect.spi.ServiceProviderInterceptor;
+
+/**
+ * The WatchdogInterceptor class is an example of a ServiceProviderInterceptor that reports requests that have
+ * been in flight for longer than a threshold while they are still in flight, rather than when they complete.
+ *
+ * Each request is scheduled in a TimingWheel at P1 and cancelled at P4, which are both O(1) and lock-free, so
+ * that there is no timer per request.  The wheel is advanced on the Interceptor scheduler thread every tick, and
+ * a request that passes the threshold is logged straight away with its method, URI, user, SoR identifier and the
+ * stage it has reached, most usefully a SoR call that has not returned.  When a reported request completes, the
+ * time it took and whether it timed out are logged too.
+ *
+ * The number of requests in flight in each stage, before the SoR is called, while it is called and after it has
+ * returned, and the number of those over the threshold are published through the InterceptorMetricsMXBean.
+ *
+ * @author IBM
+ */
+public class WatchdogInterceptor implements ServiceProviderInterceptor {
+
+    /**
+     * Request State Map data element holding the request's timeout from P1 to P4.
+     */
+    private static final String WATCHED_REQUEST = "WATCHDOG_WATCHED_REQUEST";
+
+    private static final String CFG_AD_THRESHOLD_MILLIS = "thresholdMillis";
+
+    private static final String CFG_AD_TICK_MILLIS = "tickMillis";
+
+    private static final int DEFAULT_THRESHOLD_MILLIS = 5000;
+
+    private static final int DEFAULT_TICK_MILLIS = 100;
+
+    /**
+     * The number of buckets in the wheel, one turn is this many ticks.  Longer thresholds take more than one turn.
+     */
+    private static final int WHEEL_BUCKETS = 512;
+
+    private static final int BEFORE_SOR = 0;
+
+    private static final int IN_SOR = 1;
+
+    private static final int AFTER_SOR = 2;
+
+    private static final String[] STAGES = { "P1-P2", "P2-P3", "P3-P4" };
+
+    private static final String[] STAGE_DESCRIPTIONS = { "before calling the SoR", "waiting for the SoR",
+            "after the SoR returned" };
+
+    /**
+     * A request in flight.  The stage is only changed by the request thread, reportedStage is set once, either to
+     * the stage the request was in when it was reported or to COMPLETED if it completed first.
+     */
+    private static final class WatchedRequest extends TimingWheel.Timeout {
+
+        private static final int NOT_REPORTED = -1;
+
+        private static final int COMPLETED = -2;
+
+        private static final AtomicIntegerFieldUpdater<WatchedRequest> REPORTED_STAGE = AtomicIntegerFieldUpdater
+                .newUpdater(WatchedRequest.class, "reportedStage");
+
+        final long startNanos = System.nanoTime();
+        final String method;
+        final String uri;
+        final String user;
+        volatile String sorIdentifier;
+        volatile int stage = BEFORE_SOR;
+        volatile int reportedStage = NOT_REPORTED;
+
+        WatchedRequest(String method, String uri, String user) {
+            this.method = method;
+            this.uri = uri;
+            this.user = user;
+        }
+    }
+
+    /**
+     * The registered sequence number of this Interceptor which determines the order
+     * in which the Interceptor is called in relation to other Interceptors.
+     */
+    private volatile int sequence;
+
+    /**
+     * The wheel requests are scheduled in and the threshold, replaced as a whole when the configuration changes,
+     * or null when the Interceptor is not active.
+     */
+    private static final class Settings {
+        final TimingWheel wheel;
+        final int tickMillis;
+        final long thresholdNanos;
+
+        Settings(TimingWheel wheel, int tickMillis, int thresholdMillis) {
+            this.wheel = wheel;
+            this.tickMillis = tickMillis;
+            this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        }
+    }
+
+    /**
+     * A wheel replaced because the tick changed, still advanced so that the requests scheduled in it are
+     * reported.
+     */
+    private static final class RetiredWheel {
+        final TimingWheel wheel;
+        final long retiredNanos;
+
+        RetiredWheel(TimingWheel wheel) {
+            this.wheel = wheel;
+            this.retiredNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * How long a retired wheel is kept after it is replaced even if it is empty, so that a request that read the
+     * old settings just before they were replaced is still scheduled in a wheel that is advanced.
+     */
+    private static final long RETIRED_GRACE_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private volatile Settings settings;
+
+    private ScheduledFuture<?> ticker;
+
+    private final List<RetiredWheel> retiredWheels = new CopyOnWriteArrayList<>();
+
+    private final LongAdder[] inFlight = adders();
+
+    private final LongAdder[] overThreshold = adders();
+
+    private final LongAdder[] reported = adders();
+
+    private static LongAdder[] adders() {
+        LongAdder[] adders = new LongAdder[STAGES.length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    /**
+     * Activates the Interceptor.
+     *
+     * Trace the activation, retrieve the Interceptor's configuration from the Interceptor's
+     * configuration element in server.xml, start the wheel and publish the gauges.
+     *
+     * @param context
+     * @param properties
+     */
+    protected void activate(ComponentContext context, Map<String, Object> properties) {
+        InterceptorLog.log(getName(), "activated");
+        configure(properties);
+        InterceptorMetrics.getInstance().addWatchdog(this);
+    }
+
+    /**
+     * Deactivates the Interceptor.
+     *
+     * The Interceptor will no longer receive events and the requests in flight are no longer watched.
+     *
+     * @param context
+     */
+    protected void deactivate(ComponentContext context) {
+        InterceptorLog.log(getName(), "deactivated");
+        InterceptorMetrics.getInstance().removeWatchdog(this);
+        synchronized (this) {
+            InterceptorScheduler.cancel(ticker);
+            ticker = null;
+            settings = null;
+            retiredWheels.clear();
+        }
+    }
+
+    /**
+     * Called to signal that the Interceptor's configuration element may have changed in server.xml.
+     * A new threshold applies to requests arriving after the change.  If the tick changes a new wheel is started,
+     * and the old wheel is advanced with it until the requests already in flight in it have completed or been
+     * reported.
+     *
+     * @param properties
+     */
+    protected void modified(Map<String, Object> properties) {
+        InterceptorLog.log(getName(), "modified");
+        configure(properties);
+    }
+
+    private synchronized void configure(Map<String, Object> properties) {
+        ConfigProperties config = new ConfigProperties(getName(), properties);
+        sequence = config.getSequence(sequence);
+        int thresholdMillis = config.getInt(CFG_AD_THRESHOLD_MILLIS, DEFAULT_THRESHOLD_MILLIS, 1, Integer.MAX_VALUE);
+        int tickMillis = config.getInt(CFG_AD_TICK_MILLIS, DEFAULT_TICK_MILLIS, 1, 60_000);
+        Settings current = settings;
+        if (current != null && current.tickMillis == tickMillis) {
+            settings = new Settings(current.wheel, tickMillis, thresholdMillis);
+            return;
+        }
+        InterceptorScheduler.cancel(ticker);
+        TimingWheel wheel = new TimingWheel(TimeUnit.MILLISECONDS.toNanos(tickMillis), WHEEL_BUCKETS, this::report);
+        settings = new Settings(wheel, tickMillis, thresholdMillis);
+        if (current != null) {
+            retiredWheels.add(new RetiredWheel(current.wheel));
+        }
+        ticker = InterceptorScheduler.schedule(getName(), this::tick, tickMillis);
+    }
+
+    /**
+     * Advances the wheel, and any retired wheels until they are empty, called on the scheduler thread.
+     */
+    private void tick() {
+        Settings current = settings;
+        if (current != null) {
+            current.wheel.advance();
+        }
+        for (RetiredWheel retired : retiredWheels) {
+            retired.wheel.advance();
+            if (retired.wheel.isEmpty() && System.nanoTime() - retired.retiredNanos > RETIRED_GRACE_NANOS) {
+                retiredWheels.remove(retired);
+            }
+        }
+    }
+
+    /**
+     * Logs a request that has passed the threshold, called on the scheduler thread.
+     */
+    private void report(TimingWheel.Timeout timeout) {
+        WatchedRequest request = (WatchedRequest) timeout;
+        int stage = request.stage;
+        if (!WatchedRequest.REPORTED_STAGE.compareAndSet(request, WatchedRequest.NOT_REPORTED, stage)) {
+            return;
+        }
+        overThreshold[stage].increment();
+        reported[stage].increment();
+        String sorIdentifier = request.sorIdentifier;
+        InterceptorLog.log(getName(), "request {} in flight for {} ms, {}",
+                request.method + " " + request.uri + " user " + request.user
+                        + (sorIdentifier != null ? " SoR " + sorIdentifier : ""),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - request.startNanos), STAGE_DESCRIPTIONS[stage]);
+    }
+
+    /**
+     * Returns the number of requests in flight in each stage.
+     */
+    InFlightSummary[] summarize() {
+        InFlightSummary[] summaries = new InFlightSummary[STAGES.length];
+        for (int stage = 0; stage < STAGES.length; stage++) {
+            summaries[stage] = new InFlightSummary(getName(), STAGES[stage], inFlight[stage].sum(),
+                    overThreshold[stage].sum(), reported[stage].sum());
+        }
+        return summaries;
+    }
+
+    /**
+     * Returns this Interceptor's configured sequence number.
+     */
+    @Override
+    public int getSequence() {
+        return sequence;
+    }
+
+    /**
+     * Returns this Interceptor's name.
+     */
+    @Override
+    public String getName() {
+        return "zOSConnectWatchdogInterceptor";
+    }
+
+    /**
+     * Moves a request to the next stage.
+     */
+    private void advance(Map<Object, Object> requestStateMap, int from, int to, Data data) {
+        WatchedRequest request = (WatchedRequest) requestStateMap.get(WATCHED_REQUEST);
+        if (request == null || request.stage != from) {
+            return;
+        }
+        if (data != null) {
+            request.sorIdentifier = data.getData(Data.SOR_IDENTIFIER);
+        }
+        inFlight[to].increment();
+        request.stage = to;
+        inFlight[from].decrement();
+    }
+
+    /**
+     * z/OS Connect EE calls preInvoke method at point P1.
+     *
+     * The request is scheduled in the wheel to be reported if it is still in flight at the threshold.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void preInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
+            throws InterceptorException {
+        Settings current = settings;
+        if (current == null) {
+            return;
+        }
+        Principal principal = httpZosConnectRequest.getUserPrincipal();
+        WatchedRequest request = new WatchedRequest(httpZosConnectRequest.getMethod(),
+                httpZosConnectRequest.getRequestURI(), principal != null ? principal.getName() : null);
+        inFlight[BEFORE_SOR].increment();
+        requestStateMap.put(WATCHED_REQUEST, request);
+        current.wheel.schedule(request, current.thresholdNanos);
+    }
+
+    /**
+     * z/OS Connect EE calls preSorInvoke method at point P2, the request is now waiting for the SoR.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     */
+    @Override
+    public void preSorInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest,
+            Data data) {
+        advance(requestStateMap, BEFORE_SOR, IN_SOR, data);
+    }
+
+    /**
+     * z/OS Connect EE calls postSorInvoke method at point P3, the SoR has returned.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     */
+    @Override
+    public void postSorInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest,
+            Data data) {
+        advance(requestStateMap, IN_SOR, AFTER_SOR, null);
+    }
+
+    /**
+     * z/OS Connect EE calls postInvoke method at point P4.
+     *
+     * The request's timeout is cancelled, or if the request has been reported its completion is logged.
+     *
+     * @param requestStateMap
+     * @param httpZosConnectRequest
+     * @param data
+     *
+     * @exception InterceptorException
+     */
+    @Override
+    public void postInvoke(Map<Object, Object> requestStateMap, HttpZosConnectRequest httpZosConnectRequest, Data data)
+            throws InterceptorException {
+        WatchedRequest request = (WatchedRequest) requestStateMap.remove(WATCHED_REQUEST);
+        if (request == null) {
+            return;
+        }
+        inFlight[request.stage].decrement();
+        if (request.cancel()
+                || WatchedRequest.REPORTED_STAGE.compareAndSet(request, WatchedRequest.NOT_REPORTED,
+                        WatchedRequest.COMPLETED)) {
+            return;
+        }
+        overThreshold[request.reportedStage].decrement();
+        InterceptorLog.log(getName(), "reported request {} completed after {} ms, timed out {}",
+                request.method + " " + request.uri + " user " + request.user,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - request.startNanos),
+                Boolean.TRUE.equals(data.getData(Data.REQUEST_TIMED_OUT)));
+    }
+}